@@ -0,0 +1,279 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load driver for comparing the platform and virtual thread modes.
+ *
+ * Each worker sends one request at a time for the configured duration, picking from a read-heavy
+ * mix (notification pages, unread counts, user search, trip cards) as a set of registered users.
+ * Latencies recorded after the warmup are reported as throughput and percentiles, and written as
+ * JSON so two runs can be compared with {@code --compare}.
+ *
+ * Runs with the JDK alone: {@code java loadtest/LoadDriver.java --help}
+ */
+public class LoadDriver {
+
+    private static final String[] SEARCHES = {"an", "som", "nat", "ja", "pim", "ch", "kit", "mar"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help")) {
+            System.out.println("""
+                    Usage: java LoadDriver.java [options]
+                      --base-url URL      API root (default http://localhost:8080/api)
+                      --concurrency N     concurrent workers (default 400)
+                      --duration D        measured duration, e.g. 60s (default 60s)
+                      --warmup D          unmeasured warmup (default 15s)
+                      --users N           users to register and spread load over (default 50)
+                      --label NAME        run label (default run)
+                      --out FILE          write results as JSON
+                      --compare A B       print a comparison of two result files""");
+            return;
+        }
+        if (options.containsKey("compare")) {
+            compare(Path.of(options.get("compare")), Path.of(options.get("compare.2")));
+            return;
+        }
+
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        Duration duration = duration(options.getOrDefault("duration", "60s"));
+        Duration warmup = duration(options.getOrDefault("warmup", "15s"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "50"));
+        String label = options.getOrDefault("label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        List<String> tokens = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            tokens.add(token(client, baseUrl, "loadtest" + i));
+        }
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            int worker = w;
+            Thread thread = new Thread(() -> {
+                long[] samples = new long[1 << 12];
+                int size = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= end) {
+                            break;
+                        }
+                        String token = tokens.get(random.nextInt(tokens.size()));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(random)))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException ex) {
+                            status = -1;
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        if (start < warmupEnd) {
+                            continue;
+                        }
+                        if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else if (status != 200) {
+                            errors.incrementAndGet();
+                        }
+                        if (size == samples.length) {
+                            samples = Arrays.copyOf(samples, size * 2);
+                        }
+                        samples[size++] = elapsed;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[worker] = samples;
+                    counts[worker] = size;
+                    done.countDown();
+                }
+            }, "load-" + w);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, offset, counts[w]);
+            offset += counts[w];
+        }
+        Arrays.sort(all);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("concurrency", concurrency);
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("requests", total);
+        result.put("throughput", Math.round(total / (double) duration.toSeconds() * 10) / 10.0);
+        result.put("errors", errors.get());
+        result.put("rejected", rejected.get());
+        result.put("p50Ms", percentile(all, 0.50));
+        result.put("p90Ms", percentile(all, 0.90));
+        result.put("p99Ms", percentile(all, 0.99));
+        result.put("p999Ms", percentile(all, 0.999));
+        result.put("maxMs", total == 0 ? 0.0 : all[total - 1] / 1e6);
+
+        result.forEach((key, value) -> System.out.printf("%-16s %s%n", key, value));
+        if (options.containsKey("out")) {
+            Path out = Path.of(options.get("out"));
+            if (out.getParent() != null) {
+                Files.createDirectories(out.getParent());
+            }
+            Files.writeString(out, toJson(result));
+        }
+    }
+
+    private static String path(ThreadLocalRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < 50) {
+            return "/notifications?limit=20";
+        } else if (pick < 70) {
+            return "/notifications/unread-count";
+        } else if (pick < 90) {
+            return "/users/search?q=" + SEARCHES[random.nextInt(SEARCHES.length)];
+        }
+        return "/trips";
+    }
+
+    // Registers the user, or logs in when a previous run already did
+    private static String token(HttpClient client, String baseUrl, String username) throws Exception {
+        String email = username + "@loadtest.local";
+        String register = "{\"username\":\"%s\",\"email\":\"%s\",\"password\":\"loadtest123\",\"confirmPassword\":\"loadtest123\"}"
+                .formatted(username, email);
+        HttpResponse<String> response = post(client, baseUrl + "/auth/register", register);
+        if (response.statusCode() != 201) {
+            response = post(client, baseUrl + "/auth/login",
+                    "{\"email\":\"%s\",\"password\":\"loadtest123\"}".formatted(email));
+        }
+        Matcher matcher = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (response.statusCode() != 200 && response.statusCode() != 201 || !matcher.find()) {
+            throw new IllegalStateException("Could not authenticate " + username + ": " + response.statusCode()
+                    + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return Math.round(sorted[Math.max(0, index)] / 1e3) / 1e3;
+    }
+
+    private static void compare(Path first, Path second) throws IOException {
+        Map<String, String> a = fromJson(Files.readString(first));
+        Map<String, String> b = fromJson(Files.readString(second));
+        System.out.printf("%-16s %14s %14s %10s%n", "", a.get("label"), b.get("label"), "change");
+        for (String key : a.keySet()) {
+            if (key.equals("label")) {
+                continue;
+            }
+            String left = a.get(key);
+            String right = b.getOrDefault(key, "");
+            String change = "";
+            try {
+                double x = Double.parseDouble(left);
+                double y = Double.parseDouble(right);
+                change = x == 0 ? "" : String.format("%+.1f%%", (y - x) / x * 100);
+            } catch (NumberFormatException ignored) {
+                // Non-numeric values are only printed
+            }
+            System.out.printf("%-16s %14s %14s %10s%n", key, left, right, change);
+        }
+    }
+
+    private static String toJson(Map<String, Object> values) {
+        StringBuilder json = new StringBuilder("{");
+        values.forEach((key, value) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(key).append("\":");
+            json.append(value instanceof String ? "\"" + value + "\"" : String.valueOf(value));
+        });
+        return json.append("}\n").toString();
+    }
+
+    // Reads the flat objects written by toJson
+    private static Map<String, String> fromJson(String json) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Matcher matcher = Pattern.compile("\"([^\"]+)\":(\"[^\"]*\"|[^,}]+)").matcher(json);
+        while (matcher.find()) {
+            values.put(matcher.group(1), matcher.group(2).replace("\"", ""));
+        }
+        return values;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (name.equals("help")) {
+                options.put(name, "");
+            } else if (name.equals("compare")) {
+                options.put(name, args[++i]);
+                options.put("compare.2", args[++i]);
+            } else {
+                options.put(name, args[++i]);
+            }
+        }
+        return options;
+    }
+
+    private static Duration duration(String value) {
+        String text = value.strip().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text.endsWith("s") ? text.substring(0, text.length() - 1) : text));
+    }
+}
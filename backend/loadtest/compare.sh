@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Runs LoadDriver against the backend in platform-thread and virtual-thread mode and compares them.
+# Needs a Java 21 JDK and the PostgreSQL database from application.yml.
+#
+# Usage: loadtest/compare.sh [concurrency] [duration]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY="${1:-400}"
+DURATION="${2:-60s}"
+PORT="${PORT:-18080}"
+OUT=target/loadtest
+
+mvn -B -q -Pjava21 -DskipTests package
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -n 1)
+mkdir -p "$OUT"
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  # LoadDriver sends everything from one address, which the per-address login and API limits would
+  # refuse; the run measures the request path, not the limiters
+  VIRTUAL_THREADS=$virtual java -jar "$JAR" --server.port="$PORT" \
+      --app.auth.admission.ip-max-attempts=1000000 \
+      --app.rate-limit.enabled=false \
+      --spring.jpa.show-sql=false \
+      --logging.level.com.tripplanner=INFO \
+      --logging.level.org.springframework.security=INFO \
+      --logging.level.org.hibernate.SQL=INFO \
+      > "$OUT/$mode.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  until curl -sf "http://127.0.0.1:$PORT/api/readyz" > /dev/null; do
+    kill -0 "$pid" 2>/dev/null || { echo "Backend failed to start, see $OUT/$mode.log"; exit 1; }
+    sleep 1
+  done
+
+  java loadtest/LoadDriver.java --base-url "http://127.0.0.1:$PORT/api" \
+      --concurrency "$CONCURRENCY" --duration "$DURATION" --label "$mode" --out "$OUT/$mode.json"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+done
+
+java loadtest/LoadDriver.java --compare "$OUT/platform.json" "$OUT/virtual.json"
@@ -0,0 +1,122 @@
+package com.tripplanner.benchmark;
+
+import com.tripplanner.entity.Availability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Availability#overlaps} and {@link Availability#contains} over a whole trip's worth of
+ * ranges, next to the same checks on epoch-day primitives for reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int PROBES = 64;
+
+    @Param({"1000", "100000"})
+    private int ranges;
+
+    private List<Availability> availabilities;
+    private int[] startDays;
+    private int[] endDays;
+    private LocalDate[] probeStarts;
+    private LocalDate[] probeEnds;
+    private int[] probeStartDays;
+    private int[] probeEndDays;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        availabilities = BenchmarkData.availabilities(random, ranges);
+        startDays = new int[ranges];
+        endDays = new int[ranges];
+        for (int i = 0; i < ranges; i++) {
+            startDays[i] = (int) availabilities.get(i).getStartDate().toEpochDay();
+            endDays[i] = (int) availabilities.get(i).getEndDate().toEpochDay();
+        }
+        probeStarts = new LocalDate[PROBES];
+        probeEnds = new LocalDate[PROBES];
+        probeStartDays = new int[PROBES];
+        probeEndDays = new int[PROBES];
+        for (int p = 0; p < PROBES; p++) {
+            probeStarts[p] = BenchmarkData.HORIZON_START.plusDays(random.nextInt(BenchmarkData.HORIZON_DAYS));
+            probeEnds[p] = probeStarts[p].plusDays(random.nextInt(7));
+            probeStartDays[p] = (int) probeStarts[p].toEpochDay();
+            probeEndDays[p] = (int) probeEnds[p].toEpochDay();
+        }
+    }
+
+    @Benchmark
+    public int overlaps() {
+        int matches = 0;
+        for (int p = 0; p < PROBES; p++) {
+            for (Availability availability : availabilities) {
+                if (availability.overlaps(probeStarts[p], probeEnds[p])) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int contains() {
+        int matches = 0;
+        for (int p = 0; p < PROBES; p++) {
+            for (Availability availability : availabilities) {
+                if (availability.contains(probeStarts[p])) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int overlapsEpochDays() {
+        int matches = 0;
+        for (int p = 0; p < PROBES; p++) {
+            int start = probeStartDays[p];
+            int end = probeEndDays[p];
+            for (int i = 0; i < startDays.length; i++) {
+                if (startDays[i] <= end && endDays[i] >= start) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int containsEpochDays() {
+        int matches = 0;
+        for (int p = 0; p < PROBES; p++) {
+            int day = probeStartDays[p];
+            for (int i = 0; i < startDays.length; i++) {
+                if (startDays[i] <= day && endDays[i] >= day) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+}
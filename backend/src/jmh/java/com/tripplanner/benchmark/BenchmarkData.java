@@ -0,0 +1,109 @@
+package com.tripplanner.benchmark;
+
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.NotificationResponse;
+import com.tripplanner.entity.Availability;
+import com.tripplanner.entity.Message;
+import com.tripplanner.entity.Notification;
+import com.tripplanner.entity.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generators for benchmark inputs. Shapes follow what the app stores: a mix of users with
+ * and without names, Thai and Latin text, short chat lines with the occasional long message, and
+ * availability ranges of a few days to two weeks inside a half-year planning horizon.
+ */
+final class BenchmarkData {
+
+    static final LocalDate HORIZON_START = LocalDate.of(2025, 1, 1);
+    static final int HORIZON_DAYS = 180;
+
+    private static final String[] FIRST_NAMES = {"Somchai", "Suda", "Anan", "Ploy", "Nattapong", "Kanya",
+            "James", "Emily", "Hiroshi", "Mai", "Lucas", "Sofia", "สมชาย", "สุดา", "อนันต์", "พลอย"};
+    private static final String[] LAST_NAMES = {"Srisuk", "Wongsawat", "Chaiyaporn", "Thongdee", "Smith",
+            "Garcia", "Tanaka", "Nguyen", "Müller", "ศรีสุข", "วงศ์สวัสดิ์", "ทองดี"};
+    private static final String[] CHAT_LINES = {"ok!", "See you at the airport 🛫", "Who booked the hotel?",
+            "ไปกี่โมงดี", "I can do the 14th to the 18th", "ขอบคุณครับ", "Uploading the photos now",
+            "Can we push dinner to 8pm? The ferry gets in late and nobody will have eaten since lunch.",
+            "Reminder: passports, chargers, sunscreen", "👍"};
+    private static final String[] TITLES = {"New friend request", "Trip updated", "You were invited to a trip",
+            "New message", "Availability changed"};
+
+    private BenchmarkData() {}
+
+    static List<User> users(Random random, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = "user" + (100_000 + random.nextInt(900_000)) + "_" + i;
+            User user = new User(username, username + "@example.com", "$2a$10$" + "x".repeat(53));
+            user.setId((long) i + 1);
+            // Roughly a fifth of users never fill in one or both names
+            int names = random.nextInt(10);
+            if (names > 1) {
+                user.setFirstName(pick(random, FIRST_NAMES));
+            }
+            if (names > 2 || names == 1) {
+                user.setLastName(pick(random, LAST_NAMES));
+            }
+            if (random.nextBoolean()) {
+                user.setAvatarUrl("https://cdn.example.com/avatars/" + i + ".jpg");
+            }
+            if (random.nextInt(4) == 0) {
+                user.setBio(pick(random, CHAT_LINES));
+            }
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000));
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(createdAt.plusDays(random.nextInt(30)));
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<Availability> availabilities(Random random, int count) {
+        List<Availability> availabilities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate start = HORIZON_START.plusDays(random.nextInt(HORIZON_DAYS));
+            LocalDate end = start.plusDays(2 + random.nextInt(14));
+            availabilities.add(new Availability(null, null, start, end));
+        }
+        return availabilities;
+    }
+
+    static List<MessageResponse> messages(Random random, int count) {
+        List<MessageResponse> messages = new ArrayList<>(count);
+        LocalDateTime sentAt = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            sentAt = sentAt.plusSeconds(5 + random.nextInt(600));
+            boolean edited = random.nextInt(20) == 0;
+            long senderId = 1 + random.nextInt(12);
+            messages.add(new MessageResponse((long) i + 1, pick(random, CHAT_LINES), Message.MessageType.TEXT,
+                    edited, edited ? sentAt.plusMinutes(2) : null, sentAt,
+                    senderId, "user" + senderId, random.nextBoolean() ? "https://cdn.example.com/avatars/" + senderId + ".jpg" : null));
+        }
+        return messages;
+    }
+
+    static List<NotificationResponse> notifications(Random random, int count) {
+        Notification.NotificationType[] types = Notification.NotificationType.values();
+        List<NotificationResponse> notifications = new ArrayList<>(count);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            createdAt = createdAt.plusMinutes(1 + random.nextInt(180));
+            boolean read = random.nextInt(3) > 0;
+            long tripId = 1 + random.nextInt(500);
+            notifications.add(new NotificationResponse((long) i + 1, types[random.nextInt(types.length)],
+                    pick(random, TITLES), pick(random, CHAT_LINES), read, "/trips/" + tripId,
+                    "{\"tripId\":" + tripId + "}", createdAt, read ? createdAt.plusHours(3) : null));
+        }
+        return notifications;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,102 @@
+package com.tripplanner.benchmark;
+
+import com.tripplanner.entity.Availability;
+import com.tripplanner.service.availability.DateWindowEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sweep-line engine with the pairwise scan it replaces: for every candidate start day,
+ * ask each {@link Availability} row whether it contains the whole window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateWindowBenchmark {
+
+    private static final LocalDate HORIZON_START = LocalDate.of(2025, 1, 1);
+    private static final int HORIZON_DAYS = 180;
+    private static final int WINDOW_DAYS = 4;
+
+    @Param({"50", "200", "1000"})
+    private int members;
+
+    @Param({"3"})
+    private int rangesPerMember;
+
+    private List<Availability> availabilities;
+    private long[] userIds;
+    private int[] startDays;
+    private int[] endDays;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int count = members * rangesPerMember;
+        availabilities = new ArrayList<>(count);
+        userIds = new long[count];
+        startDays = new int[count];
+        endDays = new int[count];
+        int i = 0;
+        for (long user = 1; user <= members; user++) {
+            for (int r = 0; r < rangesPerMember; r++) {
+                LocalDate start = HORIZON_START.plusDays(random.nextInt(HORIZON_DAYS));
+                LocalDate end = start.plusDays(2 + random.nextInt(14));
+                Availability availability = new Availability(null, null, start, end);
+                availabilities.add(availability);
+                userIds[i] = user;
+                startDays[i] = (int) start.toEpochDay();
+                endDays[i] = (int) end.toEpochDay();
+                i++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Object sweepLine() {
+        return DateWindowEngine.of(userIds, startDays, endDays, userIds.length)
+                .findBestWindows(WINDOW_DAYS, new long[0], 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5);
+    }
+
+    @Benchmark
+    public Object naivePairwise() {
+        int bestCount = -1;
+        LocalDate bestStart = null;
+        for (int day = 0; day < HORIZON_DAYS; day++) {
+            LocalDate start = HORIZON_START.plusDays(day);
+            LocalDate end = start.plusDays(WINDOW_DAYS - 1);
+            Set<Long> attendees = new HashSet<>();
+            for (int i = 0; i < availabilities.size(); i++) {
+                Availability availability = availabilities.get(i);
+                if (availability.contains(start) && availability.contains(end)) {
+                    attendees.add(userIds[i]);
+                }
+            }
+            if (attendees.size() > bestCount) {
+                bestCount = attendees.size();
+                bestStart = start;
+            }
+        }
+        return bestStart;
+    }
+}
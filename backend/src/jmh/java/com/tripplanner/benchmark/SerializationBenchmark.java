@@ -0,0 +1,89 @@
+package com.tripplanner.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tripplanner.dto.MessagePageResponse;
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.NotificationResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the chat and notification payloads, with an {@link ObjectMapper} set up
+ * the way Spring Boot configures the one used by the REST and WebSocket layers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private MessageResponse message;
+    private MessagePageResponse messagePage;
+    private NotificationResponse notification;
+    private List<NotificationResponse> notificationPage;
+    // Pre-resolved writer for the list type, the cheapest way to serialize a known payload shape
+    private ObjectWriter notificationListWriter;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Random random = new Random(42);
+        List<MessageResponse> messages = BenchmarkData.messages(random, pageSize);
+        message = messages.get(0);
+        messagePage = new MessagePageResponse(messages, "b2xkZXI", null, true, false);
+        notificationPage = BenchmarkData.notifications(random, pageSize);
+        notification = notificationPage.get(0);
+        notificationListWriter = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, NotificationResponse.class));
+    }
+
+    @Benchmark
+    public byte[] messageFrame() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] messagePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(messagePage);
+    }
+
+    @Benchmark
+    public byte[] notification() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notification);
+    }
+
+    @Benchmark
+    public byte[] notificationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notificationPage);
+    }
+
+    @Benchmark
+    public byte[] notificationPageWithWriter() throws JsonProcessingException {
+        return notificationListWriter.writeValueAsBytes(notificationPage);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tripplanner.benchmark;
+
+import com.tripplanner.dto.UserResponse;
+import com.tripplanner.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link User} to {@link UserResponse} mapping as done for friend lists and search results, and the
+ * full-name string building on both sides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    @Param({"50", "1000"})
+    private int users;
+
+    private List<User> entities;
+    private List<UserResponse> responses;
+
+    @Setup
+    public void setUp() {
+        entities = BenchmarkData.users(new Random(42), users);
+        responses = new ArrayList<>(users);
+        for (User user : entities) {
+            responses.add(UserResponse.from(user));
+        }
+    }
+
+    @Benchmark
+    public List<UserResponse> mapToResponse() {
+        List<UserResponse> mapped = new ArrayList<>(entities.size());
+        for (User user : entities) {
+            mapped.add(UserResponse.from(user));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public void userFullName(Blackhole blackhole) {
+        for (User user : entities) {
+            blackhole.consume(user.getFullName());
+        }
+    }
+
+    @Benchmark
+    public void responseFullName(Blackhole blackhole) {
+        for (UserResponse response : responses) {
+            blackhole.consume(response.getFullName());
+        }
+    }
+}
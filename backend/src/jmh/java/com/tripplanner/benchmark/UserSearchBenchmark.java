@@ -0,0 +1,84 @@
+package com.tripplanner.benchmark;
+
+import com.tripplanner.service.search.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead latency over a synthetic user base. Run in sample mode so the percentiles, not just the
+ * mean, are reported; queries cycle through one, two and three character prefixes, which are the
+ * widest posting lists, plus longer substring queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class UserSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "bo", "ca", "di", "el", "fa", "go", "hu", "ja", "ke",
+            "li", "mo", "na", "ot", "pa", "ri", "sa", "to", "va", "yo"};
+
+    @Param({"1000000"})
+    private int users;
+
+    private UserSearchIndex index;
+    private String[] queries;
+    private long[] friends;
+    private long[] friendsOfFriends;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<UserSearchIndex.IndexedUser> documents = new ArrayList<>(users);
+        for (long id = 1; id <= users; id++) {
+            documents.add(new UserSearchIndex.IndexedUser(id, word(random, 3) + id, word(random, 2),
+                    word(random, 3), null));
+        }
+        index = new UserSearchIndex();
+        index.load(documents);
+
+        friends = random.longs(200, 1, users).sorted().distinct().toArray();
+        friendsOfFriends = random.longs(5000, 1, users).sorted().distinct().toArray();
+        queries = new String[256];
+        for (int i = 0; i < queries.length; i++) {
+            String word = word(random, 3);
+            queries[i] = switch (i % 4) {
+                case 0 -> word.substring(0, 1);
+                case 1 -> word.substring(0, 2);
+                case 2 -> word.substring(0, 3);
+                default -> word.substring(1, 5);
+            };
+        }
+    }
+
+    @Benchmark
+    public int typeahead() {
+        String query = queries[next++ & (queries.length - 1)];
+        return index.search(7, query, 10, friends, friendsOfFriends).size();
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.tripplanner.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * {@code @Async} methods run on Spring Boot's {@code applicationTaskExecutor}: a bounded thread
+ * pool by default, or one virtual thread per task when {@code spring.threads.virtual.enabled} is
+ * set (capped by {@code spring.task.execution.simple.concurrency-limit}).
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,107 @@
+package com.tripplanner.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code maxConcurrent} connection checkouts at a time through a fair semaphore in
+ * front of the pool.
+ *
+ * With virtual threads every request gets a thread, so thousands of them can queue on a pool of ten
+ * connections. The pool's own wait is unordered and only gives up after its connection timeout;
+ * this queue is FIFO and fails fast with {@link SQLTransientConnectionException}, which the API
+ * reports as 503, so latency stays bounded under bursts instead of every request timing out.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long timeoutNanos;
+
+    public BoundedDataSource(DataSource target, int maxConcurrent, Duration timeout) {
+        super(target);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection", ex);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        if (closed.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("isClosed") && method.getParameterCount() == 0 && closed.get()) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
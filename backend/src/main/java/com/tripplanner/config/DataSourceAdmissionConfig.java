@@ -0,0 +1,56 @@
+package com.tripplanner.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link BoundedDataSource}. Enabled by default
+ * whenever virtual threads are, since that is when request concurrency stops being capped by the
+ * servlet thread pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    int maxConcurrent = environment.getProperty("app.datasource.admission.max-concurrent",
+                            Integer.class, 10);
+                    Duration timeout = environment.getProperty("app.datasource.admission.timeout",
+                            Duration.class, Duration.ofSeconds(5));
+                    return new BoundedDataSource(dataSource, maxConcurrent, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            BoundedDataSource bounded;
+            try {
+                bounded = dataSource.unwrap(BoundedDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            Gauge.builder("jdbc.admission.active", bounded, BoundedDataSource::getActive)
+                    .description("Connections checked out through the admission queue").register(registry);
+            Gauge.builder("jdbc.admission.waiting", bounded, BoundedDataSource::getWaiting)
+                    .description("Threads waiting for a connection slot").register(registry);
+        };
+    }
+}
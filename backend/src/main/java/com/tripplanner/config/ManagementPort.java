@@ -0,0 +1,30 @@
+package com.tripplanner.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The port the separate management server ({@code management.server.port}) listens on, once it
+ * has started. Actuator endpoints are only served there, bound to {@code management.server.address},
+ * so {@link SecurityConfig} lets requests on this port through without a token and nothing on the
+ * public port can reach metrics. Matches nothing when management shares the public port.
+ */
+@Component
+public class ManagementPort implements ApplicationListener<WebServerInitializedEvent> {
+
+    private volatile int port = -1;
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        int current = port;
+        return current > 0 && request.getLocalPort() == current;
+    }
+}
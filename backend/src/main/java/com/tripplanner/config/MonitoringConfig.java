@@ -0,0 +1,56 @@
+package com.tripplanner.config;
+
+import com.tripplanner.monitoring.HibernateStatisticsEndpoint;
+import com.tripplanner.monitoring.QueryStatsIntegrator;
+import com.tripplanner.monitoring.RequestQueryStatsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Per-request Hibernate counters (see {@link RequestQueryStatsInterceptor}) and the
+ * {@code /actuator/hibernate} endpoint. Latency histograms come from Micrometer's own request and
+ * WebSocket timers, configured under {@code management.metrics.distribution}.
+ */
+@Configuration
+public class MonitoringConfig implements WebMvcConfigurer {
+
+    private final RequestQueryStatsInterceptor requestQueryStatsInterceptor;
+
+    public MonitoringConfig(MeterRegistry meterRegistry) {
+        this.requestQueryStatsInterceptor = new RequestQueryStatsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    public RequestQueryStatsInterceptor requestQueryStatsInterceptor() {
+        return requestQueryStatsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestQueryStatsInterceptor);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer() {
+        QueryStatsIntegrator integrator = new QueryStatsIntegrator();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, integrator);
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+        };
+    }
+
+    @Bean
+    public HibernateStatisticsEndpoint hibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new HibernateStatisticsEndpoint(entityManagerFactory, requestQueryStatsInterceptor);
+    }
+}
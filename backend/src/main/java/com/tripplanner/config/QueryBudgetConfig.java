@@ -0,0 +1,51 @@
+package com.tripplanner.config;
+
+import com.tripplanner.monitoring.QueryBudgetInterceptor;
+import com.tripplanner.monitoring.RequestStatements;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link StatementCountingDataSource} and checks each
+ * request against its endpoint's {@link com.tripplanner.monitoring.QueryBudget}. Off entirely when
+ * {@code app.datasource.query-budget.mode} is {@code off}.
+ */
+@Configuration
+@ConditionalOnExpression("'${app.datasource.query-budget.mode:warn}'.toLowerCase() != 'off'")
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+    public QueryBudgetConfig(MeterRegistry meterRegistry,
+                             @Value("${app.datasource.query-budget.mode:warn}") RequestStatements.Mode mode,
+                             @Value("${app.datasource.query-budget.warn-interval:1m}") Duration warnInterval) {
+        this.queryBudgetInterceptor = new QueryBudgetInterceptor(mode, warnInterval, meterRegistry);
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor);
+    }
+}
@@ -0,0 +1,13 @@
+package com.tripplanner.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring Boot's {@code taskScheduler} ({@code spring.task.scheduling.*}), which periodic
+ * background work such as the mail outbox dispatcher runs on.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,85 @@
+package com.tripplanner.config;
+
+import com.tripplanner.monitoring.RequestStatements;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts every SQL statement sent to the database against the current request's
+ * {@link RequestStatements}, whoever issued it (Hibernate, JdbcTemplate or plain JDBC).
+ *
+ * Only connections checked out on a request thread are wrapped, and only their statements pay for
+ * the proxy; background work gets the pool's connection untouched. A batch counts as one statement,
+ * since it is one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        if (RequestStatements.current() == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                        return counting(statement, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                        return counting(statement, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && name.equals("createStatement")) {
+                        return counting(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    // The SQL is known up front for prepared statements and passed to execute for plain ones
+    private static <T extends Statement> T counting(T statement, Class<T> type, String preparedSql) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        RequestStatements statements = RequestStatements.current();
+                        if (statements != null) {
+                            boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+                            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                            statements.executed(batch && preparedSql == null ? null : sql);
+                        }
+                    }
+                    return invoke(statement, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
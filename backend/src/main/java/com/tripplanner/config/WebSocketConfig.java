@@ -0,0 +1,40 @@
+package com.tripplanner.config;
+
+import com.tripplanner.websocket.TripChatProperties;
+import com.tripplanner.websocket.TripChatWebSocketHandler;
+import com.tripplanner.websocket.TripIdHandshakeInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final TripChatWebSocketHandler tripChatHandler;
+    private final TripChatProperties tripChatProperties;
+
+    @Value("${app.cors.allowed-origins}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(tripChatHandler, "/ws/trips/{tripId}")
+                .addInterceptors(new TripIdHandshakeInterceptor())
+                .setAllowedOrigins(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(tripChatProperties.getMaxTextMessageSize());
+        container.setMaxSessionIdleTimeout(300_000L);
+        return container;
+    }
+}
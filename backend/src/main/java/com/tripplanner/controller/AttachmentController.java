@@ -0,0 +1,91 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.AttachmentResponse;
+import com.tripplanner.entity.Attachment;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.AttachmentService;
+import com.tripplanner.service.attachment.ImageVariant;
+import com.tripplanner.service.attachment.ImageVariants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/trips/{tripId}/attachments")
+@RequiredArgsConstructor
+public class AttachmentController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private final AttachmentService attachmentService;
+
+    // Raw body upload, streamed from the request; the file name comes from the query string
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public AttachmentResponse uploadBody(@PathVariable Long tripId,
+                                         @RequestParam(required = false) String name,
+                                         HttpServletRequest request,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        return attachmentService.upload(tripId, currentUser.getId(), request.getInputStream(),
+                request.getContentType(), name);
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public AttachmentResponse uploadFile(@PathVariable Long tripId,
+                                         @RequestParam("file") MultipartFile file,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return attachmentService.upload(tripId, currentUser.getId(), input, file.getContentType(),
+                    file.getOriginalFilename());
+        }
+    }
+
+    /**
+     * Serves an attachment, or with {@code ?variant=thumbnail|medium} a resized copy of an image.
+     * The content hash is the ETag, so responses are cacheable for good. When a variant is not ready
+     * yet the original is served with {@code no-cache}, and the client picks up the variant on its
+     * next revalidation.
+     */
+    @GetMapping("/{attachmentId}")
+    public void download(@PathVariable Long tripId,
+                         @PathVariable Long attachmentId,
+                         @RequestParam(required = false) String variant,
+                         @AuthenticationPrincipal AuthenticatedUser currentUser,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.getAttachment(tripId, attachmentId, currentUser.getId());
+        String etag = "\"" + attachment.getSha256() + "\"";
+        if (variant != null) {
+            ImageVariant imageVariant = ImageVariant.fromParam(variant);
+            Path path = attachmentService.variantOf(attachment, imageVariant);
+            if (path != null) {
+                StoredFileResponder.serve(request, response, path, Files.size(path),
+                        ImageVariants.contentTypeOf(attachment.getContentType()), null,
+                        "\"" + attachment.getSha256() + "-" + imageVariant.param() + "\"", IMMUTABLE);
+                return;
+            }
+        }
+        StoredFileResponder.serve(request, response, attachmentService.pathOf(attachment), attachment.getSize(),
+                attachment.getContentType(), attachment.getFileName(), etag,
+                variant == null ? IMMUTABLE : CacheControl.noCache().cachePrivate());
+    }
+}
@@ -0,0 +1,36 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.DateWindowCriteria;
+import com.tripplanner.dto.DateWindowResponse;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.AvailabilityService;
+import com.tripplanner.service.trip.TripMembershipCache;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/trips/{tripId}/availability")
+@RequiredArgsConstructor
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+    private final TripMembershipCache membershipCache;
+
+    @GetMapping("/optimal-dates")
+    public List<DateWindowResponse> getOptimalDates(@PathVariable Long tripId,
+                                                    @Valid DateWindowCriteria criteria,
+                                                    @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (!membershipCache.isAcceptedMember(tripId, currentUser.getId())) {
+            throw new AccessDeniedException("Not a member of this trip");
+        }
+        return availabilityService.findOptimalDates(tripId, criteria);
+    }
+}
@@ -0,0 +1,74 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.UserResponse;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.AvatarService;
+import com.tripplanner.service.attachment.ImageVariant;
+import com.tripplanner.service.attachment.ImageVariants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class AvatarController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private final AvatarService avatarService;
+
+    // Raw image body, streamed from the request
+    @PutMapping("/users/me/avatar")
+    public UserResponse uploadBody(HttpServletRequest request,
+                                   @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        return avatarService.upload(currentUser.getId(), request.getInputStream(), request.getContentType());
+    }
+
+    @PutMapping(path = "/users/me/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public UserResponse uploadFile(@RequestParam("file") MultipartFile file,
+                                   @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return avatarService.upload(currentUser.getId(), input, file.getContentType());
+        }
+    }
+
+    /**
+     * Serves an avatar by its content-addressed name; list views link {@code ?variant=thumbnail}.
+     * A variant that is not ready yet falls back to the original with {@code no-cache}.
+     */
+    @GetMapping("/avatars/{fileName}")
+    public void download(@PathVariable String fileName,
+                         @RequestParam(required = false) String variant,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        AvatarService.Avatar avatar = avatarService.getAvatar(fileName);
+        if (variant != null) {
+            ImageVariant imageVariant = ImageVariant.fromParam(variant);
+            Path path = avatarService.variantOf(avatar, imageVariant);
+            if (path != null) {
+                StoredFileResponder.serve(request, response, path, Files.size(path),
+                        ImageVariants.contentTypeOf(avatar.getContentType()), null,
+                        "\"" + avatar.getSha256() + "-" + imageVariant.param() + "\"", IMMUTABLE);
+                return;
+            }
+        }
+        Path path = avatarService.pathOf(avatar);
+        StoredFileResponder.serve(request, response, path, Files.size(path), avatar.getContentType(), null,
+                "\"" + avatar.getSha256() + "\"", variant == null ? IMMUTABLE : CacheControl.noCache().cachePrivate());
+    }
+}
@@ -0,0 +1,93 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.ConversationPageResponse;
+import com.tripplanner.dto.MarkReadRequest;
+import com.tripplanner.dto.MessageArchivePeriodResponse;
+import com.tripplanner.dto.MessagePageResponse;
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.SendMessageRequest;
+import com.tripplanner.dto.UnreadCountResponse;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.ConversationService;
+import com.tripplanner.service.MessageArchiveService;
+import com.tripplanner.service.MessageService;
+import com.tripplanner.service.ratelimit.RateLimitPolicy;
+import com.tripplanner.service.ratelimit.RateLimiter;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/conversations")
+@RequiredArgsConstructor
+public class ConversationController {
+
+    private final ConversationService conversationService;
+    private final MessageService messageService;
+    private final MessageArchiveService messageArchiveService;
+    private final RateLimiter rateLimiter;
+
+    @GetMapping
+    @QueryBudget(3)
+    public ConversationPageResponse getInbox(@RequestParam(required = false) String before,
+                                             @RequestParam(required = false) Integer limit,
+                                             @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return conversationService.getInbox(currentUser.getId(), before, limit);
+    }
+
+    @GetMapping("/unread-count")
+    public UnreadCountResponse getUnreadCount(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return new UnreadCountResponse(conversationService.getUnreadCount(currentUser.getId()));
+    }
+
+    @GetMapping("/{peerId}/messages")
+    @QueryBudget(3)
+    public MessagePageResponse getHistory(@PathVariable Long peerId,
+                                          @RequestParam(required = false) String before,
+                                          @RequestParam(required = false) String after,
+                                          @RequestParam(required = false) Integer limit,
+                                          @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return messageService.getConversationHistory(currentUser.getId(), peerId, before, after, limit);
+    }
+
+    @PostMapping("/{peerId}/messages")
+    @ResponseStatus(HttpStatus.CREATED)
+    public MessageResponse sendMessage(@PathVariable Long peerId,
+                                       @Valid @RequestBody SendMessageRequest request,
+                                       @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        rateLimiter.acquire(RateLimitPolicy.CHAT_SENDER, currentUser.getId());
+        return messageService.sendDirectMessage(currentUser.getId(), peerId, request);
+    }
+
+    @PostMapping("/{peerId}/read")
+    public UnreadCountResponse markRead(@PathVariable Long peerId,
+                                        @Valid @RequestBody MarkReadRequest request,
+                                        @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return new UnreadCountResponse(conversationService.markRead(currentUser.getId(), peerId, request.getMessageId()));
+    }
+
+    @GetMapping("/{peerId}/archive")
+    public List<MessageArchivePeriodResponse> getArchivedPeriods(@PathVariable Long peerId,
+                                                                 @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return messageArchiveService.getConversationArchivedPeriods(currentUser.getId(), peerId);
+    }
+
+    @GetMapping("/{peerId}/archive/{month}")
+    public List<MessageResponse> getArchivedMonth(@PathVariable Long peerId,
+                                                  @PathVariable String month,
+                                                  @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return messageArchiveService.getConversationArchivedMonth(currentUser.getId(), peerId, month);
+    }
+}
@@ -0,0 +1,89 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.BalanceResponse;
+import com.tripplanner.dto.ExpensePageResponse;
+import com.tripplanner.dto.ExpenseRequest;
+import com.tripplanner.dto.ExpenseResponse;
+import com.tripplanner.dto.SettleUpResponse;
+import com.tripplanner.dto.SettlementRequest;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.ExpenseService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/trips/{tripId}/expenses")
+@RequiredArgsConstructor
+public class ExpenseController {
+
+    private final ExpenseService expenseService;
+
+    @GetMapping
+    @QueryBudget(3)
+    public ExpensePageResponse getExpenses(@PathVariable Long tripId,
+                                           @RequestParam(required = false) Long before,
+                                           @RequestParam(required = false) Integer limit,
+                                           @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return expenseService.getPage(tripId, currentUser.getId(), before, limit);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ExpenseResponse addExpense(@PathVariable Long tripId,
+                                      @Valid @RequestBody ExpenseRequest request,
+                                      @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return expenseService.create(tripId, currentUser.getId(), request);
+    }
+
+    @PutMapping("/{expenseId}")
+    public ExpenseResponse updateExpense(@PathVariable Long tripId,
+                                         @PathVariable Long expenseId,
+                                         @Valid @RequestBody ExpenseRequest request,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return expenseService.update(tripId, expenseId, currentUser.getId(), request);
+    }
+
+    @DeleteMapping("/{expenseId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteExpense(@PathVariable Long tripId,
+                              @PathVariable Long expenseId,
+                              @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        expenseService.delete(tripId, expenseId, currentUser.getId());
+    }
+
+    @PostMapping("/settlements")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ExpenseResponse recordSettlement(@PathVariable Long tripId,
+                                            @Valid @RequestBody SettlementRequest request,
+                                            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return expenseService.settle(tripId, currentUser.getId(), request);
+    }
+
+    @GetMapping("/balances")
+    @QueryBudget(2)
+    public List<BalanceResponse> getBalances(@PathVariable Long tripId,
+                                             @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return expenseService.getBalances(tripId, currentUser.getId());
+    }
+
+    @GetMapping("/settle-up")
+    public SettleUpResponse getSettleUp(@PathVariable Long tripId,
+                                        @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return expenseService.getSettleUp(tripId, currentUser.getId());
+    }
+}
@@ -0,0 +1,90 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.FriendRequest;
+import com.tripplanner.dto.FriendSuggestionResponse;
+import com.tripplanner.dto.FriendshipResponse;
+import com.tripplanner.dto.MutualFriendsResponse;
+import com.tripplanner.dto.PublicUserResponse;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.FriendService;
+import com.tripplanner.service.ratelimit.RateLimitPolicy;
+import com.tripplanner.service.ratelimit.RateLimiter;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/friends")
+@RequiredArgsConstructor
+public class FriendController {
+
+    private final FriendService friendService;
+    private final RateLimiter rateLimiter;
+
+    @GetMapping
+    @QueryBudget(3)
+    public List<PublicUserResponse> getFriends(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return friendService.getFriends(currentUser.getId());
+    }
+
+    @PostMapping("/requests")
+    @ResponseStatus(HttpStatus.CREATED)
+    public FriendshipResponse sendRequest(@Valid @RequestBody FriendRequest request,
+                                          @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        rateLimiter.acquire(RateLimitPolicy.INVITATION, currentUser.getId());
+        return friendService.sendRequest(currentUser.getId(), request.getAddresseeId());
+    }
+
+    @PostMapping("/requests/{friendshipId}/accept")
+    public FriendshipResponse accept(@PathVariable Long friendshipId,
+                                     @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return friendService.respond(friendshipId, currentUser.getId(), true);
+    }
+
+    @PostMapping("/requests/{friendshipId}/decline")
+    public FriendshipResponse decline(@PathVariable Long friendshipId,
+                                      @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return friendService.respond(friendshipId, currentUser.getId(), false);
+    }
+
+    @DeleteMapping("/{userId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeFriend(@PathVariable Long userId,
+                             @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        friendService.removeFriend(currentUser.getId(), userId);
+    }
+
+    @PostMapping("/{userId}/block")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void block(@PathVariable Long userId, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        friendService.block(currentUser.getId(), userId);
+    }
+
+    @GetMapping("/{userId}/mutual")
+    public MutualFriendsResponse getMutual(@PathVariable Long userId,
+                                           @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        Long currentUserId = currentUser.getId();
+        return new MutualFriendsResponse(friendService.areFriends(currentUserId, userId),
+                friendService.getMutualFriendCount(currentUserId, userId));
+    }
+
+    @GetMapping("/suggestions")
+    @QueryBudget(3)
+    public List<FriendSuggestionResponse> getSuggestions(@RequestParam(defaultValue = "10") int limit,
+                                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return friendService.getSuggestions(currentUser.getId(), limit);
+    }
+}
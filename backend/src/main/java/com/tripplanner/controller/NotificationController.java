@@ -0,0 +1,56 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.NotificationResponse;
+import com.tripplanner.dto.UnreadCountResponse;
+import com.tripplanner.entity.Notification;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @GetMapping
+    @QueryBudget(2)
+    public List<NotificationResponse> getNotifications(@RequestParam(required = false) Long beforeId,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return notificationService.getNotifications(currentUser.getId(), beforeId, limit);
+    }
+
+    @GetMapping("/unread-count")
+    public UnreadCountResponse getUnreadCount(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return notificationService.getUnreadCount(currentUser.getId());
+    }
+
+    @PatchMapping("/{notificationId}/read")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void markRead(@PathVariable Long notificationId,
+                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        notificationService.markRead(currentUser.getId(), notificationId);
+    }
+
+    @PostMapping("/read")
+    public UnreadCountResponse markAllRead(@RequestParam(required = false) Notification.NotificationType type,
+                                           @RequestParam(required = false) Long upToId,
+                                           @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return notificationService.markAllRead(currentUser.getId(), type, upToId);
+    }
+}
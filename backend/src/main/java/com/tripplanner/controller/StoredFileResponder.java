@@ -0,0 +1,125 @@
+package com.tripplanner.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes a file from the attachment store with a strong ETag and single byte-range support. Large
+ * bodies are handed to Tomcat's sendfile, so the bytes go from the page cache to the socket without
+ * passing through the heap or tying up the request thread.
+ */
+final class StoredFileResponder {
+
+    // Tomcat request attributes for handing a file region to the connector's sendfile support
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this a plain copy is cheaper than setting up sendfile (Tomcat's DefaultServlet uses the same cut-off)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    // Image types that are safe to render inline; everything else is served as a download
+    private static final Set<String> INLINE_TYPES = Set.of(
+            MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp");
+
+    private StoredFileResponder() {}
+
+    /**
+     * @param etag     quoted strong validator, unique to the bytes at {@code path}
+     * @param fileName download name, or null for none
+     */
+    static void serve(HttpServletRequest request, HttpServletResponse response, Path path, long length,
+                      String contentType, String fileName, String etag, CacheControl cacheControl) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        boolean inline = INLINE_TYPES.contains(contentType);
+        response.setContentType(contentType);
+        ContentDisposition.Builder disposition = inline ? ContentDisposition.inline() : ContentDisposition.attachment();
+        if (fileName != null) {
+            disposition = StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)
+                    ? disposition.filename(fileName)
+                    : disposition.filename(fileName, StandardCharsets.UTF_8);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges = parseRanges(range);
+            // Several ranges are answered with the whole body, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        transfer(path, start, count, request, response);
+    }
+
+    private static void transfer(Path path, long start, long count, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = file.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    // A malformed Range header is ignored rather than rejected
+    private static List<HttpRange> parseRanges(String header) {
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException ex) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.TripCardResponse;
+import com.tripplanner.dto.TripDetailResponse;
+import com.tripplanner.dto.TripMemberResponse;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.TripService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/trips")
+@RequiredArgsConstructor
+public class TripController {
+
+    private final TripService tripService;
+
+    @GetMapping
+    @QueryBudget(2)
+    public List<TripCardResponse> getTrips(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return tripService.getTrips(currentUser);
+    }
+
+    @GetMapping("/{tripId}")
+    @QueryBudget(4)
+    public TripDetailResponse getTrip(@PathVariable Long tripId,
+                                      @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return tripService.getTrip(tripId, currentUser);
+    }
+
+    @GetMapping("/{tripId}/members")
+    @QueryBudget(2)
+    public List<TripMemberResponse> getMembers(@PathVariable Long tripId,
+                                               @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return tripService.getMembers(tripId, currentUser);
+    }
+
+    @DeleteMapping("/{tripId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTrip(@PathVariable Long tripId,
+                           @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        tripService.deactivate(tripId, currentUser.getId());
+    }
+}
@@ -0,0 +1,60 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.TripImportResponse;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.TripImportService;
+import com.tripplanner.service.ratelimit.RateLimitPolicy;
+import com.tripplanner.service.ratelimit.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/trips/{tripId}/import")
+@RequiredArgsConstructor
+public class TripImportController {
+
+    private final TripImportService tripImportService;
+    private final RateLimiter rateLimiter;
+
+    // Raw CSV or JSON body, streamed straight from the request
+    @PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public TripImportResponse importBody(@PathVariable Long tripId,
+                                         HttpServletRequest request,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        rateLimiter.acquire(RateLimitPolicy.INVITATION, currentUser.getId());
+        return tripImportService.importUpload(tripId, currentUser.getId(), request.getInputStream(),
+                MediaType.parseMediaType(request.getContentType()));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public TripImportResponse importFile(@PathVariable Long tripId,
+                                         @RequestParam("file") MultipartFile file,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        rateLimiter.acquire(RateLimitPolicy.INVITATION, currentUser.getId());
+        try (InputStream input = file.getInputStream()) {
+            return tripImportService.importUpload(tripId, currentUser.getId(), input, formatOf(file));
+        }
+    }
+
+    private static MediaType formatOf(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name != null && name.toLowerCase().endsWith(".json")) {
+            return MediaType.APPLICATION_JSON;
+        }
+        if (name != null && name.toLowerCase().endsWith(".csv")) {
+            return MediaType.valueOf("text/csv");
+        }
+        return file.getContentType() == null ? null : MediaType.parseMediaType(file.getContentType());
+    }
+}
@@ -0,0 +1,133 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.EditMessageRequest;
+import com.tripplanner.dto.MarkReadRequest;
+import com.tripplanner.dto.MessageArchivePeriodResponse;
+import com.tripplanner.dto.MessagePageResponse;
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.MessageSearchResponse;
+import com.tripplanner.dto.ReadReceiptResponse;
+import com.tripplanner.dto.SendMessageRequest;
+import com.tripplanner.dto.UnreadCountResponse;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.MessageArchiveService;
+import com.tripplanner.service.MessageSearchService;
+import com.tripplanner.service.MessageService;
+import com.tripplanner.service.message.ChatReadWatermarks;
+import com.tripplanner.service.ratelimit.RateLimitPolicy;
+import com.tripplanner.service.ratelimit.RateLimiter;
+import com.tripplanner.service.trip.TripMembershipCache;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/trips/{tripId}/messages")
+@RequiredArgsConstructor
+public class TripMessageController {
+
+    private final MessageService messageService;
+    private final MessageArchiveService messageArchiveService;
+    private final MessageSearchService messageSearchService;
+    private final ChatReadWatermarks readWatermarks;
+    private final TripMembershipCache membershipCache;
+    private final RateLimiter rateLimiter;
+
+    @GetMapping
+    @QueryBudget(3)
+    public MessagePageResponse getHistory(@PathVariable Long tripId,
+                                          @RequestParam(required = false) String before,
+                                          @RequestParam(required = false) String after,
+                                          @RequestParam(required = false) Integer limit,
+                                          @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return messageService.getTripHistory(tripId, before, after, limit);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public MessageResponse sendMessage(@PathVariable Long tripId,
+                                       @Valid @RequestBody SendMessageRequest request,
+                                       @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        rateLimiter.acquire(RateLimitPolicy.CHAT_SENDER, currentUser.getId(), RateLimitPolicy.CHAT_TRIP, tripId);
+        return messageService.sendTripMessage(tripId, currentUser.getId(), request);
+    }
+
+    @PutMapping("/{messageId}")
+    public MessageResponse editMessage(@PathVariable Long tripId,
+                                       @PathVariable Long messageId,
+                                       @Valid @RequestBody EditMessageRequest request,
+                                       @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return messageService.editTripMessage(tripId, messageId, currentUser.getId(), request);
+    }
+
+    @GetMapping("/search")
+    public MessageSearchResponse search(@PathVariable Long tripId,
+                                        @RequestParam String q,
+                                        @RequestParam(required = false) String before,
+                                        @RequestParam(required = false) Integer limit,
+                                        @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return messageSearchService.search(tripId, q, before, limit);
+    }
+
+    @GetMapping("/unread-count")
+    public UnreadCountResponse getUnreadCount(@PathVariable Long tripId,
+                                              @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return new UnreadCountResponse(readWatermarks.getUnreadCount(tripId, currentUser.getId()));
+    }
+
+    @PostMapping("/read")
+    public UnreadCountResponse markRead(@PathVariable Long tripId,
+                                        @Valid @RequestBody MarkReadRequest request,
+                                        @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return new UnreadCountResponse(readWatermarks.markRead(tripId, currentUser.getId(), request.getMessageId()));
+    }
+
+    @GetMapping("/receipts")
+    @QueryBudget(2)
+    public List<ReadReceiptResponse> getReceipts(@PathVariable Long tripId,
+                                                 @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return readWatermarks.getReceipts(tripId);
+    }
+
+    @GetMapping("/archive")
+    public List<MessageArchivePeriodResponse> getArchivedPeriods(@PathVariable Long tripId,
+                                                                 @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return messageArchiveService.getArchivedPeriods(tripId);
+    }
+
+    @GetMapping("/archive/{month}")
+    public List<MessageResponse> getArchivedMonth(@PathVariable Long tripId,
+                                                  @PathVariable String month,
+                                                  @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        requireMember(tripId, currentUser);
+        return messageArchiveService.getArchivedMonth(tripId, month);
+    }
+
+    private void requireMember(Long tripId, AuthenticatedUser currentUser) {
+        if (!membershipCache.isAcceptedMember(tripId, currentUser.getId())) {
+            throw new AccessDeniedException("Not a member of this trip");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.ShareTokenResponse;
+import com.tripplanner.dto.TripShareSummary;
+import com.tripplanner.monitoring.QueryBudget;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.TripShareService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class TripShareController {
+
+    private final TripShareService tripShareService;
+
+    // Guest access through a shared link
+    @GetMapping("/shared/trips/{token}")
+    @QueryBudget(4)
+    public TripShareSummary getSharedTrip(@PathVariable String token) {
+        return tripShareService.resolve(token);
+    }
+
+    @PostMapping("/trips/{tripId}/share-token")
+    public ShareTokenResponse regenerateShareToken(@PathVariable Long tripId,
+                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return tripShareService.regenerateShareToken(tripId, currentUser.getId());
+    }
+}
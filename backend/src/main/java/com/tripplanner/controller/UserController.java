@@ -0,0 +1,28 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.UserSearchResult;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.UserSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserSearchService userSearchService;
+
+    @GetMapping("/search")
+    public List<UserSearchResult> search(@RequestParam("q") String query,
+                                         @RequestParam(required = false) Integer limit,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return userSearchService.search(currentUser.getId(), query, limit);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.Attachment;
+
+import java.time.LocalDateTime;
+
+public class AttachmentResponse {
+
+    private Long id;
+    private String fileName;
+    private String contentType;
+    private Long size;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AttachmentResponse() {}
+
+    public AttachmentResponse(Long id, String fileName, String contentType, Long size, LocalDateTime createdAt) {
+        this.id = id;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // Helper method
+    public static AttachmentResponse from(Attachment attachment) {
+        return new AttachmentResponse(attachment.getId(), attachment.getFileName(), attachment.getContentType(),
+                attachment.getSize(), attachment.getCreatedAt());
+    }
+}
@@ -0,0 +1,44 @@
+package com.tripplanner.dto;
+
+public class BalanceResponse {
+
+    private Long userId;
+    private String username;
+    // Minor units of the trip's currency; positive means the member is owed money
+    private Long balanceMinor;
+
+    // Constructors
+    public BalanceResponse() {}
+
+    // Used by a JPQL constructor expression in TripBalanceRepository
+    public BalanceResponse(Long userId, String username, Long balanceMinor) {
+        this.userId = userId;
+        this.username = username;
+        this.balanceMinor = balanceMinor;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getBalanceMinor() {
+        return balanceMinor;
+    }
+
+    public void setBalanceMinor(Long balanceMinor) {
+        this.balanceMinor = balanceMinor;
+    }
+}
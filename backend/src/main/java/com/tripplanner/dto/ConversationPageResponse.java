@@ -0,0 +1,35 @@
+package com.tripplanner.dto;
+
+import java.util.List;
+
+public class ConversationPageResponse {
+
+    private List<ConversationResponse> conversations;
+    // Pass as 'before' to fetch the next older page; null on the last page
+    private String nextBefore;
+
+    // Constructors
+    public ConversationPageResponse() {}
+
+    public ConversationPageResponse(List<ConversationResponse> conversations, String nextBefore) {
+        this.conversations = conversations;
+        this.nextBefore = nextBefore;
+    }
+
+    // Getters and Setters
+    public List<ConversationResponse> getConversations() {
+        return conversations;
+    }
+
+    public void setConversations(List<ConversationResponse> conversations) {
+        this.conversations = conversations;
+    }
+
+    public String getNextBefore() {
+        return nextBefore;
+    }
+
+    public void setNextBefore(String nextBefore) {
+        this.nextBefore = nextBefore;
+    }
+}
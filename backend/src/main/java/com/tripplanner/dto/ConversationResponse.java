@@ -0,0 +1,120 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.service.attachment.AvatarUrls;
+
+import java.time.LocalDateTime;
+
+public class ConversationResponse {
+
+    private Long id;
+    private Long peerId;
+    private String peerUsername;
+    private String peerAvatarUrl;
+    private Long lastMessageId;
+    private String lastMessagePreview;
+    private Long lastMessageSenderId;
+    private LocalDateTime lastMessageAt;
+    private Integer unreadCount;
+    // Newest message the peer has read, for "seen" markers
+    private Long peerLastReadMessageId;
+
+    // Constructors
+    public ConversationResponse() {}
+
+    // Used by JPQL constructor expressions in ConversationRepository
+    public ConversationResponse(Long id, Long peerId, String peerUsername, String peerAvatarUrl,
+                                Long lastMessageId, String lastMessagePreview, Long lastMessageSenderId,
+                                LocalDateTime lastMessageAt, Integer unreadCount, Long peerLastReadMessageId) {
+        this.id = id;
+        this.peerId = peerId;
+        this.peerUsername = peerUsername;
+        this.peerAvatarUrl = AvatarUrls.thumbnail(peerAvatarUrl);
+        this.lastMessageId = lastMessageId;
+        this.lastMessagePreview = lastMessagePreview;
+        this.lastMessageSenderId = lastMessageSenderId;
+        this.lastMessageAt = lastMessageAt;
+        this.unreadCount = unreadCount;
+        this.peerLastReadMessageId = peerLastReadMessageId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPeerId() {
+        return peerId;
+    }
+
+    public void setPeerId(Long peerId) {
+        this.peerId = peerId;
+    }
+
+    public String getPeerUsername() {
+        return peerUsername;
+    }
+
+    public void setPeerUsername(String peerUsername) {
+        this.peerUsername = peerUsername;
+    }
+
+    public String getPeerAvatarUrl() {
+        return peerAvatarUrl;
+    }
+
+    public void setPeerAvatarUrl(String peerAvatarUrl) {
+        this.peerAvatarUrl = peerAvatarUrl;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public Long getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+
+    public void setLastMessageSenderId(Long lastMessageSenderId) {
+        this.lastMessageSenderId = lastMessageSenderId;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public Integer getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(Integer unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getPeerLastReadMessageId() {
+        return peerLastReadMessageId;
+    }
+
+    public void setPeerLastReadMessageId(Long peerLastReadMessageId) {
+        this.peerLastReadMessageId = peerLastReadMessageId;
+    }
+}
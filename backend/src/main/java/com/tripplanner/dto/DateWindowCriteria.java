@@ -0,0 +1,71 @@
+package com.tripplanner.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DateWindowCriteria {
+
+    @Min(value = 1, message = "Minimum length must be at least 1 day")
+    private int minLength = 1;
+
+    private List<Long> requiredUserIds = new ArrayList<>();
+
+    @DecimalMin(value = "0.0", message = "Quorum must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Quorum must be between 0 and 1")
+    private double quorum = 0.0;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 50, message = "Limit must be at most 50")
+    private int limit = 5;
+
+    private boolean clipToTripDates = true;
+
+    // Constructors
+    public DateWindowCriteria() {}
+
+    // Getters and Setters
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(int minLength) {
+        this.minLength = minLength;
+    }
+
+    public List<Long> getRequiredUserIds() {
+        return requiredUserIds;
+    }
+
+    public void setRequiredUserIds(List<Long> requiredUserIds) {
+        this.requiredUserIds = requiredUserIds;
+    }
+
+    public double getQuorum() {
+        return quorum;
+    }
+
+    public void setQuorum(double quorum) {
+        this.quorum = quorum;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isClipToTripDates() {
+        return clipToTripDates;
+    }
+
+    public void setClipToTripDates(boolean clipToTripDates) {
+        this.clipToTripDates = clipToTripDates;
+    }
+}
@@ -0,0 +1,81 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class DateWindowResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int lengthDays;
+    private int attendeeCount;
+    private int memberCount;
+    private List<Long> attendeeIds;
+
+    // Constructors
+    public DateWindowResponse() {}
+
+    public DateWindowResponse(LocalDate startDate, LocalDate endDate, int attendeeCount, int memberCount,
+                              List<Long> attendeeIds) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.lengthDays = (int) (endDate.toEpochDay() - startDate.toEpochDay()) + 1;
+        this.attendeeCount = attendeeCount;
+        this.memberCount = memberCount;
+        this.attendeeIds = attendeeIds;
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public int getLengthDays() {
+        return lengthDays;
+    }
+
+    public void setLengthDays(int lengthDays) {
+        this.lengthDays = lengthDays;
+    }
+
+    public int getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public void setAttendeeCount(int attendeeCount) {
+        this.attendeeCount = attendeeCount;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(int memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public List<Long> getAttendeeIds() {
+        return attendeeIds;
+    }
+
+    public void setAttendeeIds(List<Long> attendeeIds) {
+        this.attendeeIds = attendeeIds;
+    }
+
+    // Helper method
+    public double getAttendanceRatio() {
+        return memberCount == 0 ? 0.0 : (double) attendeeCount / memberCount;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tripplanner.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class EditMessageRequest {
+
+    @NotBlank(message = "Message content is required")
+    @Size(max = 2000, message = "Message must be at most 2000 characters")
+    private String content;
+
+    // Constructors
+    public EditMessageRequest() {}
+
+    public EditMessageRequest(String content) {
+        this.content = content;
+    }
+
+    // Getters and Setters
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
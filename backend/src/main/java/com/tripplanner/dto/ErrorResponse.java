@@ -0,0 +1,53 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDateTime;
+
+public class ErrorResponse {
+
+    private int status;
+    private String error;
+    private String message;
+    private LocalDateTime timestamp = LocalDateTime.now();
+
+    // Constructors
+    public ErrorResponse() {}
+
+    public ErrorResponse(int status, String error, String message) {
+        this.status = status;
+        this.error = error;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
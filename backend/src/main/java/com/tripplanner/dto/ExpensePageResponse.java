@@ -0,0 +1,35 @@
+package com.tripplanner.dto;
+
+import java.util.List;
+
+public class ExpensePageResponse {
+
+    private List<ExpenseResponse> expenses;
+    // Pass as 'before' to fetch the next older page; null on the last page
+    private Long nextBefore;
+
+    // Constructors
+    public ExpensePageResponse() {}
+
+    public ExpensePageResponse(List<ExpenseResponse> expenses, Long nextBefore) {
+        this.expenses = expenses;
+        this.nextBefore = nextBefore;
+    }
+
+    // Getters and Setters
+    public List<ExpenseResponse> getExpenses() {
+        return expenses;
+    }
+
+    public void setExpenses(List<ExpenseResponse> expenses) {
+        this.expenses = expenses;
+    }
+
+    public Long getNextBefore() {
+        return nextBefore;
+    }
+
+    public void setNextBefore(Long nextBefore) {
+        this.nextBefore = nextBefore;
+    }
+}
@@ -0,0 +1,128 @@
+package com.tripplanner.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ExpenseRequest {
+
+    @NotBlank(message = "Description is required")
+    @Size(max = 200, message = "Description must be at most 200 characters")
+    private String description;
+
+    // Minor units of the currency, e.g. cents
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Long amountMinor;
+
+    // Defaults to the trip's currency
+    private String currency;
+
+    // Defaults to the current user
+    private Long paidByUserId;
+
+    // Split equally between these members; when neither this nor shares is given, all accepted members
+    private List<Long> participantIds;
+
+    // Exact shares in minor units of the expense currency, adding up to the amount
+    @Valid
+    private List<Share> shares;
+
+    // Constructors
+    public ExpenseRequest() {}
+
+    public ExpenseRequest(String description, Long amountMinor, String currency) {
+        this.description = description;
+        this.amountMinor = amountMinor;
+        this.currency = currency;
+    }
+
+    // Getters and Setters
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(Long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Long getPaidByUserId() {
+        return paidByUserId;
+    }
+
+    public void setPaidByUserId(Long paidByUserId) {
+        this.paidByUserId = paidByUserId;
+    }
+
+    public List<Long> getParticipantIds() {
+        return participantIds;
+    }
+
+    public void setParticipantIds(List<Long> participantIds) {
+        this.participantIds = participantIds;
+    }
+
+    public List<Share> getShares() {
+        return shares;
+    }
+
+    public void setShares(List<Share> shares) {
+        this.shares = shares;
+    }
+
+    public static class Share {
+
+        @NotNull(message = "Share user is required")
+        private Long userId;
+
+        @NotNull(message = "Share amount is required")
+        @PositiveOrZero(message = "Share amount cannot be negative")
+        private Long amountMinor;
+
+        // Constructors
+        public Share() {}
+
+        public Share(Long userId, Long amountMinor) {
+            this.userId = userId;
+            this.amountMinor = amountMinor;
+        }
+
+        // Getters and Setters
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public Long getAmountMinor() {
+            return amountMinor;
+        }
+
+        public void setAmountMinor(Long amountMinor) {
+            this.amountMinor = amountMinor;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.Expense;
+import com.tripplanner.entity.ExpenseShare;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExpenseResponse {
+
+    private Long id;
+    private String description;
+    private Expense.Kind kind;
+    private Long amountMinor;
+    private String currency;
+    // The amount in minor units of the trip's currency, which the shares are in
+    private Long baseAmountMinor;
+    private Long paidByUserId;
+    private String paidByUsername;
+    private List<Share> shares;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ExpenseResponse() {}
+
+    // Used by a JPQL constructor expression in ExpenseRepository
+    public ExpenseResponse(Long id, String description, Expense.Kind kind, Long amountMinor, String currency,
+                           Long baseAmountMinor, Long paidByUserId, String paidByUsername,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.description = description;
+        this.kind = kind;
+        this.amountMinor = amountMinor;
+        this.currency = currency;
+        this.baseAmountMinor = baseAmountMinor;
+        this.paidByUserId = paidByUserId;
+        this.paidByUsername = paidByUsername;
+        this.shares = new ArrayList<>();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Expense.Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Expense.Kind kind) {
+        this.kind = kind;
+    }
+
+    public Long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(Long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Long getBaseAmountMinor() {
+        return baseAmountMinor;
+    }
+
+    public void setBaseAmountMinor(Long baseAmountMinor) {
+        this.baseAmountMinor = baseAmountMinor;
+    }
+
+    public Long getPaidByUserId() {
+        return paidByUserId;
+    }
+
+    public void setPaidByUserId(Long paidByUserId) {
+        this.paidByUserId = paidByUserId;
+    }
+
+    public String getPaidByUsername() {
+        return paidByUsername;
+    }
+
+    public void setPaidByUsername(String paidByUsername) {
+        this.paidByUsername = paidByUsername;
+    }
+
+    public List<Share> getShares() {
+        return shares;
+    }
+
+    public void setShares(List<Share> shares) {
+        this.shares = shares;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Helper methods
+    public static ExpenseResponse from(Expense expense) {
+        ExpenseResponse response = new ExpenseResponse(expense.getId(), expense.getDescription(), expense.getKind(),
+                expense.getAmountMinor(), expense.getCurrency(), expense.getBaseAmountMinor(),
+                expense.getPaidBy().getId(), expense.getPaidBy().getUsername(),
+                expense.getCreatedAt(), expense.getUpdatedAt());
+        for (ExpenseShare share : expense.getShares()) {
+            response.getShares().add(new Share(share.getUser().getId(), share.getAmountMinor()));
+        }
+        return response;
+    }
+
+    public static class Share {
+
+        private Long userId;
+        private Long amountMinor;
+
+        // Constructors
+        public Share() {}
+
+        public Share(Long userId, Long amountMinor) {
+            this.userId = userId;
+            this.amountMinor = amountMinor;
+        }
+
+        // Getters and Setters
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public Long getAmountMinor() {
+            return amountMinor;
+        }
+
+        public void setAmountMinor(Long amountMinor) {
+            this.amountMinor = amountMinor;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.tripplanner.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class FriendRequest {
+
+    @NotNull(message = "Addressee is required")
+    private Long addresseeId;
+
+    // Constructors
+    public FriendRequest() {}
+
+    public FriendRequest(Long addresseeId) {
+        this.addresseeId = addresseeId;
+    }
+
+    // Getters and Setters
+    public Long getAddresseeId() {
+        return addresseeId;
+    }
+
+    public void setAddresseeId(Long addresseeId) {
+        this.addresseeId = addresseeId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tripplanner.dto;
+
+public class FriendSuggestionResponse {
+
+    private PublicUserResponse user;
+    private int mutualFriends;
+
+    // Constructors
+    public FriendSuggestionResponse() {}
+
+    public FriendSuggestionResponse(PublicUserResponse user, int mutualFriends) {
+        this.user = user;
+        this.mutualFriends = mutualFriends;
+    }
+
+    // Getters and Setters
+    public PublicUserResponse getUser() {
+        return user;
+    }
+
+    public void setUser(PublicUserResponse user) {
+        this.user = user;
+    }
+
+    public int getMutualFriends() {
+        return mutualFriends;
+    }
+
+    public void setMutualFriends(int mutualFriends) {
+        this.mutualFriends = mutualFriends;
+    }
+}
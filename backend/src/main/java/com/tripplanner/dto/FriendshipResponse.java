@@ -0,0 +1,83 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.Friend;
+
+import java.time.LocalDateTime;
+
+public class FriendshipResponse {
+
+    private Long id;
+    private Long requesterId;
+    private Long addresseeId;
+    private Friend.Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime acceptedAt;
+
+    // Constructors
+    public FriendshipResponse() {}
+
+    public FriendshipResponse(Long id, Long requesterId, Long addresseeId, Friend.Status status,
+                              LocalDateTime createdAt, LocalDateTime acceptedAt) {
+        this.id = id;
+        this.requesterId = requesterId;
+        this.addresseeId = addresseeId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.acceptedAt = acceptedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRequesterId() {
+        return requesterId;
+    }
+
+    public void setRequesterId(Long requesterId) {
+        this.requesterId = requesterId;
+    }
+
+    public Long getAddresseeId() {
+        return addresseeId;
+    }
+
+    public void setAddresseeId(Long addresseeId) {
+        this.addresseeId = addresseeId;
+    }
+
+    public Friend.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Friend.Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(LocalDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    // Helper method
+    public static FriendshipResponse from(Friend friend) {
+        return new FriendshipResponse(friend.getId(), friend.getRequester().getId(), friend.getAddressee().getId(),
+                friend.getStatus(), friend.getCreatedAt(), friend.getAcceptedAt());
+    }
+}
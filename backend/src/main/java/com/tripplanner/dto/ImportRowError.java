@@ -0,0 +1,32 @@
+package com.tripplanner.dto;
+
+public class ImportRowError {
+
+    private long row;
+    private String message;
+
+    // Constructors
+    public ImportRowError() {}
+
+    public ImportRowError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
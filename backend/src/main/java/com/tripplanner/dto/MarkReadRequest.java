@@ -0,0 +1,25 @@
+package com.tripplanner.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class MarkReadRequest {
+
+    @NotNull(message = "Message id is required")
+    private Long messageId;
+
+    // Constructors
+    public MarkReadRequest() {}
+
+    public MarkReadRequest(Long messageId) {
+        this.messageId = messageId;
+    }
+
+    // Getters and Setters
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(Long messageId) {
+        this.messageId = messageId;
+    }
+}
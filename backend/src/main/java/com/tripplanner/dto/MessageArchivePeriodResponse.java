@@ -0,0 +1,37 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+public class MessageArchivePeriodResponse {
+
+    // yyyy-MM, as accepted by GET /trips/{tripId}/messages/archive/{month}
+    private String month;
+    private Integer messageCount;
+
+    // Constructors
+    public MessageArchivePeriodResponse() {}
+
+    // Used by a JPQL constructor expression in MessageArchiveRepository
+    public MessageArchivePeriodResponse(LocalDate periodStart, Integer messageCount) {
+        this.month = YearMonth.from(periodStart).toString();
+        this.messageCount = messageCount;
+    }
+
+    // Getters and Setters
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Integer getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(Integer messageCount) {
+        this.messageCount = messageCount;
+    }
+}
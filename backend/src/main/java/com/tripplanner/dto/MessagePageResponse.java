@@ -0,0 +1,65 @@
+package com.tripplanner.dto;
+
+import java.util.List;
+
+public class MessagePageResponse {
+
+    private List<MessageResponse> messages;
+    private String olderCursor;
+    private String newerCursor;
+    private boolean hasOlder;
+    private boolean hasNewer;
+
+    // Constructors
+    public MessagePageResponse() {}
+
+    public MessagePageResponse(List<MessageResponse> messages, String olderCursor, String newerCursor,
+                               boolean hasOlder, boolean hasNewer) {
+        this.messages = messages;
+        this.olderCursor = olderCursor;
+        this.newerCursor = newerCursor;
+        this.hasOlder = hasOlder;
+        this.hasNewer = hasNewer;
+    }
+
+    // Getters and Setters
+    public List<MessageResponse> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<MessageResponse> messages) {
+        this.messages = messages;
+    }
+
+    public String getOlderCursor() {
+        return olderCursor;
+    }
+
+    public void setOlderCursor(String olderCursor) {
+        this.olderCursor = olderCursor;
+    }
+
+    public String getNewerCursor() {
+        return newerCursor;
+    }
+
+    public void setNewerCursor(String newerCursor) {
+        this.newerCursor = newerCursor;
+    }
+
+    public boolean isHasOlder() {
+        return hasOlder;
+    }
+
+    public void setHasOlder(boolean hasOlder) {
+        this.hasOlder = hasOlder;
+    }
+
+    public boolean isHasNewer() {
+        return hasNewer;
+    }
+
+    public void setHasNewer(boolean hasNewer) {
+        this.hasNewer = hasNewer;
+    }
+}
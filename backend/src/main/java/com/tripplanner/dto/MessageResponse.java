@@ -0,0 +1,144 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.Message;
+import com.tripplanner.service.attachment.AvatarUrls;
+
+import java.time.LocalDateTime;
+
+public class MessageResponse {
+
+    private Long id;
+    private String content;
+    private Message.MessageType messageType;
+    private Boolean edited;
+    private LocalDateTime editedAt;
+    private LocalDateTime createdAt;
+    private Long senderId;
+    private String senderUsername;
+    private String senderAvatarUrl;
+    private AttachmentResponse attachment;
+
+    // Constructors
+    public MessageResponse() {}
+
+    public MessageResponse(Long id, String content, Message.MessageType messageType, Boolean edited,
+                           LocalDateTime editedAt, LocalDateTime createdAt, Long senderId,
+                           String senderUsername, String senderAvatarUrl) {
+        this(id, content, messageType, edited, editedAt, createdAt, senderId, senderUsername, senderAvatarUrl,
+                null, null, null, null, null);
+    }
+
+    // Used by JPQL constructor expressions in MessageRepository, keep the argument order in sync with the queries
+    public MessageResponse(Long id, String content, Message.MessageType messageType, Boolean edited,
+                           LocalDateTime editedAt, LocalDateTime createdAt, Long senderId,
+                           String senderUsername, String senderAvatarUrl, Long attachmentId,
+                           String attachmentFileName, String attachmentContentType, Long attachmentSize,
+                           LocalDateTime attachmentCreatedAt) {
+        this.id = id;
+        this.content = content;
+        this.messageType = messageType;
+        this.edited = edited;
+        this.editedAt = editedAt;
+        this.createdAt = createdAt;
+        this.senderId = senderId;
+        this.senderUsername = senderUsername;
+        // List views link the thumbnail rather than the full picture
+        this.senderAvatarUrl = AvatarUrls.thumbnail(senderAvatarUrl);
+        if (attachmentId != null) {
+            this.attachment = new AttachmentResponse(attachmentId, attachmentFileName, attachmentContentType,
+                    attachmentSize, attachmentCreatedAt);
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Message.MessageType getMessageType() {
+        return messageType;
+    }
+
+    public void setMessageType(Message.MessageType messageType) {
+        this.messageType = messageType;
+    }
+
+    public Boolean getEdited() {
+        return edited;
+    }
+
+    public void setEdited(Boolean edited) {
+        this.edited = edited;
+    }
+
+    public LocalDateTime getEditedAt() {
+        return editedAt;
+    }
+
+    public void setEditedAt(LocalDateTime editedAt) {
+        this.editedAt = editedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(Long senderId) {
+        this.senderId = senderId;
+    }
+
+    public String getSenderUsername() {
+        return senderUsername;
+    }
+
+    public void setSenderUsername(String senderUsername) {
+        this.senderUsername = senderUsername;
+    }
+
+    public String getSenderAvatarUrl() {
+        return senderAvatarUrl;
+    }
+
+    public void setSenderAvatarUrl(String senderAvatarUrl) {
+        this.senderAvatarUrl = senderAvatarUrl;
+    }
+
+    public AttachmentResponse getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(AttachmentResponse attachment) {
+        this.attachment = attachment;
+    }
+
+    // Helper method
+    public static MessageResponse from(Message message) {
+        MessageResponse response = new MessageResponse(message.getId(), message.getContent(), message.getMessageType(),
+                message.getEdited(), message.getEditedAt(), message.getCreatedAt(),
+                message.getSender().getId(), message.getSender().getUsername(), message.getSender().getAvatarUrl());
+        if (message.getAttachment() != null) {
+            response.setAttachment(AttachmentResponse.from(message.getAttachment()));
+        }
+        return response;
+    }
+}
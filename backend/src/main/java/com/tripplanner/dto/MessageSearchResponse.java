@@ -0,0 +1,36 @@
+package com.tripplanner.dto;
+
+import java.util.List;
+
+public class MessageSearchResponse {
+
+    // Newest first
+    private List<MessageResponse> messages;
+    // Pass as 'before' to fetch the next older page; null on the last page
+    private String nextBefore;
+
+    // Constructors
+    public MessageSearchResponse() {}
+
+    public MessageSearchResponse(List<MessageResponse> messages, String nextBefore) {
+        this.messages = messages;
+        this.nextBefore = nextBefore;
+    }
+
+    // Getters and Setters
+    public List<MessageResponse> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<MessageResponse> messages) {
+        this.messages = messages;
+    }
+
+    public String getNextBefore() {
+        return nextBefore;
+    }
+
+    public void setNextBefore(String nextBefore) {
+        this.nextBefore = nextBefore;
+    }
+}
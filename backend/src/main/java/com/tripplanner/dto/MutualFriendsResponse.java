@@ -0,0 +1,32 @@
+package com.tripplanner.dto;
+
+public class MutualFriendsResponse {
+
+    private boolean friends;
+    private int mutualFriends;
+
+    // Constructors
+    public MutualFriendsResponse() {}
+
+    public MutualFriendsResponse(boolean friends, int mutualFriends) {
+        this.friends = friends;
+        this.mutualFriends = mutualFriends;
+    }
+
+    // Getters and Setters
+    public boolean isFriends() {
+        return friends;
+    }
+
+    public void setFriends(boolean friends) {
+        this.friends = friends;
+    }
+
+    public int getMutualFriends() {
+        return mutualFriends;
+    }
+
+    public void setMutualFriends(int mutualFriends) {
+        this.mutualFriends = mutualFriends;
+    }
+}
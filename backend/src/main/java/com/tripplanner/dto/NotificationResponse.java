@@ -0,0 +1,115 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.Notification;
+
+import java.time.LocalDateTime;
+
+public class NotificationResponse {
+
+    private Long id;
+    private Notification.NotificationType type;
+    private String title;
+    private String content;
+    private Boolean isRead;
+    private String actionUrl;
+    private String data;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+
+    // Constructors
+    public NotificationResponse() {}
+
+    public NotificationResponse(Long id, Notification.NotificationType type, String title, String content,
+                                Boolean isRead, String actionUrl, String data, LocalDateTime createdAt,
+                                LocalDateTime readAt) {
+        this.id = id;
+        this.type = type;
+        this.title = title;
+        this.content = content;
+        this.isRead = isRead;
+        this.actionUrl = actionUrl;
+        this.data = data;
+        this.createdAt = createdAt;
+        this.readAt = readAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Notification.NotificationType getType() {
+        return type;
+    }
+
+    public void setType(Notification.NotificationType type) {
+        this.type = type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    public String getActionUrl() {
+        return actionUrl;
+    }
+
+    public void setActionUrl(String actionUrl) {
+        this.actionUrl = actionUrl;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(String data) {
+        this.data = data;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+
+    // Helper method
+    public static NotificationResponse from(Notification notification) {
+        return new NotificationResponse(notification.getId(), notification.getType(), notification.getTitle(),
+                notification.getContent(), notification.getIsRead(), notification.getActionUrl(),
+                notification.getData(), notification.getCreatedAt(), notification.getReadAt());
+    }
+}
@@ -0,0 +1,67 @@
+package com.tripplanner.dto;
+
+/**
+ * What other users may see of a user. Email, bio and account state stay in {@link UserResponse},
+ * which is only returned to the user themselves.
+ */
+public class PublicUserResponse {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String avatarUrl;
+
+    // Constructors
+    public PublicUserResponse() {}
+
+    // Used by JPQL constructor expressions in UserRepository
+    public PublicUserResponse(Long id, String username, String firstName, String lastName, String avatarUrl) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.avatarUrl = avatarUrl;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        this.avatarUrl = avatarUrl;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDateTime;
+
+public class ReadReceiptResponse {
+
+    private Long userId;
+    private String username;
+    // The newest message the member has read; everything before it in history order is read too
+    private Long lastReadMessageId;
+    private LocalDateTime lastReadAt;
+
+    // Constructors
+    public ReadReceiptResponse() {}
+
+    // Used by a JPQL constructor expression in ChatReadMarkerRepository
+    public ReadReceiptResponse(Long userId, String username, Long lastReadMessageId, LocalDateTime lastReadAt) {
+        this.userId = userId;
+        this.username = username;
+        this.lastReadMessageId = lastReadMessageId;
+        this.lastReadAt = lastReadAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public LocalDateTime getLastReadAt() {
+        return lastReadAt;
+    }
+
+    public void setLastReadAt(LocalDateTime lastReadAt) {
+        this.lastReadAt = lastReadAt;
+    }
+}
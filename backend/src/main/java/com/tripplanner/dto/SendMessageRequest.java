@@ -0,0 +1,56 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.Message;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class SendMessageRequest {
+
+    @NotBlank(message = "Message content is required")
+    @Size(max = 2000, message = "Message must be at most 2000 characters")
+    private String content;
+
+    private Message.MessageType messageType = Message.MessageType.TEXT;
+
+    // Required for IMAGE and FILE messages, uploaded beforehand to the trip's attachments
+    private Long attachmentId;
+
+    // Constructors
+    public SendMessageRequest() {}
+
+    public SendMessageRequest(String content, Message.MessageType messageType) {
+        this.content = content;
+        this.messageType = messageType;
+    }
+
+    public SendMessageRequest(String content, Message.MessageType messageType, Long attachmentId) {
+        this.content = content;
+        this.messageType = messageType;
+        this.attachmentId = attachmentId;
+    }
+
+    // Getters and Setters
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Message.MessageType getMessageType() {
+        return messageType;
+    }
+
+    public void setMessageType(Message.MessageType messageType) {
+        this.messageType = messageType;
+    }
+
+    public Long getAttachmentId() {
+        return attachmentId;
+    }
+
+    public void setAttachmentId(Long attachmentId) {
+        this.attachmentId = attachmentId;
+    }
+}
@@ -0,0 +1,95 @@
+package com.tripplanner.dto;
+
+import java.util.List;
+
+public class SettleUpResponse {
+
+    private String currency;
+    private List<Transfer> transfers;
+
+    // Constructors
+    public SettleUpResponse() {}
+
+    public SettleUpResponse(String currency, List<Transfer> transfers) {
+        this.currency = currency;
+        this.transfers = transfers;
+    }
+
+    // Getters and Setters
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public List<Transfer> getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(List<Transfer> transfers) {
+        this.transfers = transfers;
+    }
+
+    public static class Transfer {
+
+        private Long fromUserId;
+        private String fromUsername;
+        private Long toUserId;
+        private String toUsername;
+        private Long amountMinor;
+
+        // Constructors
+        public Transfer() {}
+
+        public Transfer(Long fromUserId, String fromUsername, Long toUserId, String toUsername, Long amountMinor) {
+            this.fromUserId = fromUserId;
+            this.fromUsername = fromUsername;
+            this.toUserId = toUserId;
+            this.toUsername = toUsername;
+            this.amountMinor = amountMinor;
+        }
+
+        // Getters and Setters
+        public Long getFromUserId() {
+            return fromUserId;
+        }
+
+        public void setFromUserId(Long fromUserId) {
+            this.fromUserId = fromUserId;
+        }
+
+        public String getFromUsername() {
+            return fromUsername;
+        }
+
+        public void setFromUsername(String fromUsername) {
+            this.fromUsername = fromUsername;
+        }
+
+        public Long getToUserId() {
+            return toUserId;
+        }
+
+        public void setToUserId(Long toUserId) {
+            this.toUserId = toUserId;
+        }
+
+        public String getToUsername() {
+            return toUsername;
+        }
+
+        public void setToUsername(String toUsername) {
+            this.toUsername = toUsername;
+        }
+
+        public Long getAmountMinor() {
+            return amountMinor;
+        }
+
+        public void setAmountMinor(Long amountMinor) {
+            this.amountMinor = amountMinor;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tripplanner.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class SettlementRequest {
+
+    @NotNull(message = "Recipient is required")
+    private Long toUserId;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Long amountMinor;
+
+    // Defaults to the trip's currency
+    private String currency;
+
+    // Constructors
+    public SettlementRequest() {}
+
+    public SettlementRequest(Long toUserId, Long amountMinor) {
+        this.toUserId = toUserId;
+        this.amountMinor = amountMinor;
+    }
+
+    // Getters and Setters
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public Long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(Long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
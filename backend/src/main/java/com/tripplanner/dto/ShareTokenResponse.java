@@ -0,0 +1,22 @@
+package com.tripplanner.dto;
+
+public class ShareTokenResponse {
+
+    private String shareToken;
+
+    // Constructors
+    public ShareTokenResponse() {}
+
+    public ShareTokenResponse(String shareToken) {
+        this.shareToken = shareToken;
+    }
+
+    // Getters and Setters
+    public String getShareToken() {
+        return shareToken;
+    }
+
+    public void setShareToken(String shareToken) {
+        this.shareToken = shareToken;
+    }
+}
@@ -0,0 +1,106 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDate;
+
+public class TripCardResponse {
+
+    private Long id;
+    private String name;
+    private String location;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Boolean isPublic;
+    private Long creatorId;
+    private String creatorUsername;
+    private Long memberCount;
+
+    // Constructors
+    public TripCardResponse() {}
+
+    // Used by a JPQL constructor expression in TripRepository
+    public TripCardResponse(Long id, String name, String location, LocalDate startDate, LocalDate endDate,
+                            Boolean isPublic, Long creatorId, String creatorUsername, Long memberCount) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.isPublic = isPublic;
+        this.creatorId = creatorId;
+        this.creatorUsername = creatorUsername;
+        this.memberCount = memberCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public Long getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(Long creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public String getCreatorUsername() {
+        return creatorUsername;
+    }
+
+    public void setCreatorUsername(String creatorUsername) {
+        this.creatorUsername = creatorUsername;
+    }
+
+    public Long getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Long memberCount) {
+        this.memberCount = memberCount;
+    }
+}
@@ -0,0 +1,149 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class TripDetailResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private String location;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Boolean isPublic;
+    private Double estimatedBudget;
+    private String currency;
+    private LocalDateTime createdAt;
+    private Long creatorId;
+    private String creatorUsername;
+    private Long memberCount;
+
+    // Constructors
+    public TripDetailResponse() {}
+
+    // Used by a JPQL constructor expression in TripRepository
+    public TripDetailResponse(Long id, String name, String description, String location, LocalDate startDate,
+                              LocalDate endDate, Boolean isPublic, Double estimatedBudget, String currency,
+                              LocalDateTime createdAt, Long creatorId, String creatorUsername,
+                              Long memberCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.location = location;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.isPublic = isPublic;
+        this.estimatedBudget = estimatedBudget;
+        this.currency = currency;
+        this.createdAt = createdAt;
+        this.creatorId = creatorId;
+        this.creatorUsername = creatorUsername;
+        this.memberCount = memberCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public Double getEstimatedBudget() {
+        return estimatedBudget;
+    }
+
+    public void setEstimatedBudget(Double estimatedBudget) {
+        this.estimatedBudget = estimatedBudget;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(Long creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public String getCreatorUsername() {
+        return creatorUsername;
+    }
+
+    public void setCreatorUsername(String creatorUsername) {
+        this.creatorUsername = creatorUsername;
+    }
+
+    public Long getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Long memberCount) {
+        this.memberCount = memberCount;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tripplanner.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TripImportResponse {
+
+    private long rowsRead;
+    private int membersCreated;
+    private int availabilitiesCreated;
+    private List<ImportRowError> errors = new ArrayList<>();
+    private long errorCount;
+
+    // Constructors
+    public TripImportResponse() {}
+
+    // Getters and Setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public int getMembersCreated() {
+        return membersCreated;
+    }
+
+    public void setMembersCreated(int membersCreated) {
+        this.membersCreated = membersCreated;
+    }
+
+    public int getAvailabilitiesCreated() {
+        return availabilitiesCreated;
+    }
+
+    public void setAvailabilitiesCreated(int availabilitiesCreated) {
+        this.availabilitiesCreated = availabilitiesCreated;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+
+    // Total failed rows; errors only lists the first app.trips.import.max-errors of them
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    // Helper methods
+    public void addError(long row, String message, int maxErrors) {
+        errorCount++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportRowError(row, message));
+        }
+    }
+}
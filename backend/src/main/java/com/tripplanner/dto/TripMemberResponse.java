@@ -0,0 +1,113 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.service.attachment.AvatarUrls;
+
+import java.time.LocalDateTime;
+
+public class TripMemberResponse {
+
+    private Long userId;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String avatarUrl;
+    private TripMember.Role role;
+    private TripMember.Status status;
+    private LocalDateTime joinedAt;
+
+    // Constructors
+    public TripMemberResponse() {}
+
+    // Used by a JPQL constructor expression in TripMemberRepository
+    public TripMemberResponse(Long userId, String username, String firstName, String lastName,
+                              String avatarUrl, TripMember.Role role, TripMember.Status status,
+                              LocalDateTime joinedAt) {
+        this.userId = userId;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        // List views link the thumbnail rather than the full picture
+        this.avatarUrl = AvatarUrls.thumbnail(avatarUrl);
+        this.role = role;
+        this.status = status;
+        this.joinedAt = joinedAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        this.avatarUrl = avatarUrl;
+    }
+
+    public TripMember.Role getRole() {
+        return role;
+    }
+
+    public void setRole(TripMember.Role role) {
+        this.role = role;
+    }
+
+    public TripMember.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(TripMember.Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+
+    // Helper methods
+    public String getFullName() {
+        if (firstName != null && lastName != null) {
+            return firstName + " " + lastName;
+        } else if (firstName != null) {
+            return firstName;
+        } else if (lastName != null) {
+            return lastName;
+        }
+        return username;
+    }
+}
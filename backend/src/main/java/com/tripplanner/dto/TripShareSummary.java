@@ -0,0 +1,86 @@
+package com.tripplanner.dto;
+
+import java.time.LocalDate;
+
+public class TripShareSummary {
+
+    private Long id;
+    private String name;
+    private String description;
+    private String location;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String creatorUsername;
+
+    // Constructors
+    public TripShareSummary() {}
+
+    // Used by a JPQL constructor expression in TripRepository
+    public TripShareSummary(Long id, String name, String description, String location,
+                            LocalDate startDate, LocalDate endDate, String creatorUsername) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.location = location;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.creatorUsername = creatorUsername;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getCreatorUsername() {
+        return creatorUsername;
+    }
+
+    public void setCreatorUsername(String creatorUsername) {
+        this.creatorUsername = creatorUsername;
+    }
+}
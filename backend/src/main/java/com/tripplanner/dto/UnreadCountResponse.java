@@ -0,0 +1,36 @@
+package com.tripplanner.dto;
+
+public class UnreadCountResponse {
+
+    private int unreadCount;
+    private int updated;
+
+    // Constructors
+    public UnreadCountResponse() {}
+
+    public UnreadCountResponse(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public UnreadCountResponse(int unreadCount, int updated) {
+        this.unreadCount = unreadCount;
+        this.updated = updated;
+    }
+
+    // Getters and Setters
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+}
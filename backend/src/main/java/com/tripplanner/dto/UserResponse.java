@@ -1,5 +1,7 @@
 package com.tripplanner.dto;
 
+import com.tripplanner.entity.User;
+
 import java.time.LocalDateTime;
 
 public class UserResponse {
@@ -26,6 +28,18 @@ public class UserResponse {
         this.lastName = lastName;
     }
 
+    // Used by JPQL constructor expressions in UserRepository
+    public UserResponse(Long id, String username, String email, String firstName, String lastName,
+                        String avatarUrl, String bio, Boolean active, LocalDateTime createdAt,
+                        LocalDateTime updatedAt) {
+        this(id, username, email, firstName, lastName);
+        this.avatarUrl = avatarUrl;
+        this.bio = bio;
+        this.active = active;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -118,4 +132,15 @@ public class UserResponse {
         }
         return username;
     }
-}
\ No newline at end of file
+
+    public static UserResponse from(User user) {
+        UserResponse response = new UserResponse(user.getId(), user.getUsername(), user.getEmail(),
+                user.getFirstName(), user.getLastName());
+        response.setAvatarUrl(user.getAvatarUrl());
+        response.setBio(user.getBio());
+        response.setActive(user.getActive());
+        response.setCreatedAt(user.getCreatedAt());
+        response.setUpdatedAt(user.getUpdatedAt());
+        return response;
+    }
+}
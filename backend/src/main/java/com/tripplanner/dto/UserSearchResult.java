@@ -0,0 +1,84 @@
+package com.tripplanner.dto;
+
+import com.tripplanner.service.attachment.AvatarUrls;
+import com.tripplanner.service.search.UserSearchIndex;
+
+public class UserSearchResult {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String avatarUrl;
+    private boolean friend;
+
+    // Constructors
+    public UserSearchResult() {}
+
+    public UserSearchResult(Long id, String username, String firstName, String lastName, String avatarUrl,
+                            boolean friend) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        // List views link the thumbnail rather than the full picture
+        this.avatarUrl = AvatarUrls.thumbnail(avatarUrl);
+        this.friend = friend;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        this.avatarUrl = avatarUrl;
+    }
+
+    public boolean isFriend() {
+        return friend;
+    }
+
+    public void setFriend(boolean friend) {
+        this.friend = friend;
+    }
+
+    // Helper methods
+    public static UserSearchResult from(UserSearchIndex.Hit hit) {
+        UserSearchIndex.IndexedUser user = hit.getUser();
+        return new UserSearchResult(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
+                user.getAvatarUrl(), hit.getProximity() == UserSearchIndex.FRIEND);
+    }
+}
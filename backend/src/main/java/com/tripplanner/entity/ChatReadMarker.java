@@ -0,0 +1,53 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a member has read a trip's chat: the newest message read, by {@code (created_at, id)},
+ * the same order history pages in. One row per member instead of one per message read, written in
+ * coalesced batches by {@link com.tripplanner.service.message.ChatReadWatermarks}.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "chat_read_markers", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_chat_read_marker_trip_user", columnNames = {"trip_id", "user_id"})
+})
+public class ChatReadMarker {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastReadAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trip_id", nullable = false)
+    private Trip trip;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+}
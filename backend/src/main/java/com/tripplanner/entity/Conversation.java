@@ -0,0 +1,140 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A private conversation, keyed by the ordered user pair ({@code userLow.id < userHigh.id}).
+ *
+ * The latest message and each side's unread count and read watermark are copied here on every
+ * send, so an inbox is a range scan over one side's index, newest first, and never touches
+ * {@code messages}. Sends lock the row, which also keeps the counters exact.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "conversations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_conversation_users", columnNames = {"user_low_id", "user_high_id"})
+}, indexes = {
+    @Index(name = "idx_conversation_low_last", columnList = "user_low_id, last_message_at, id"),
+    @Index(name = "idx_conversation_high_last", columnList = "user_high_id, last_message_at, id")
+})
+public class Conversation {
+
+    public static final int PREVIEW_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long lastMessageId;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    private Long lastMessageSenderId;
+
+    private LocalDateTime lastMessageAt;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer lowUnreadCount = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer highUnreadCount = 0;
+
+    private Long lowLastReadMessageId;
+
+    private Long highLastReadMessageId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+
+    // Constructor for the first message between two users, given in id order
+    public Conversation(User userLow, User userHigh) {
+        this.userLow = userLow;
+        this.userHigh = userHigh;
+        this.lowUnreadCount = 0;
+        this.highUnreadCount = 0;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Helper methods
+    public boolean isLow(Long userId) {
+        return userLow.getId().equals(userId);
+    }
+
+    public int unreadCountFor(Long userId) {
+        return isLow(userId) ? lowUnreadCount : highUnreadCount;
+    }
+
+    /** Makes the message the latest; the sender has read it and the other side has one more unread. */
+    public void recordMessage(Message message) {
+        Long senderId = message.getSender().getId();
+        lastMessageId = message.getId();
+        lastMessagePreview = preview(message.getContent());
+        lastMessageSenderId = senderId;
+        lastMessageAt = message.getCreatedAt();
+        if (isLow(senderId)) {
+            lowLastReadMessageId = message.getId();
+            lowUnreadCount = 0;
+            highUnreadCount++;
+        } else {
+            highLastReadMessageId = message.getId();
+            highUnreadCount = 0;
+            lowUnreadCount++;
+        }
+    }
+
+    /** Moves the user's watermark forward; returns false if it was already at or past the message. */
+    public boolean markRead(Long userId, Long messageId, int unreadAfter) {
+        Long current = isLow(userId) ? lowLastReadMessageId : highLastReadMessageId;
+        // Sends are serialized on this row, so ids within a conversation follow history order
+        if (current != null && current >= messageId) {
+            return false;
+        }
+        if (isLow(userId)) {
+            lowLastReadMessageId = messageId;
+            lowUnreadCount = unreadAfter;
+        } else {
+            highLastReadMessageId = messageId;
+            highUnreadCount = unreadAfter;
+        }
+        return true;
+    }
+
+    private static String preview(String content) {
+        if (content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        int end = PREVIEW_LENGTH;
+        // Never split a surrogate pair
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+}
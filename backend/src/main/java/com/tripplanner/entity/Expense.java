@@ -0,0 +1,104 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry in a trip's expense ledger. Amounts are integer minor units (cents, satang) of
+ * {@code currency}; {@code baseAmountMinor} is the same amount converted to the trip's currency,
+ * which is what the shares and the running {@link TripBalance}s are kept in.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "expenses", indexes = {
+    @Index(name = "idx_expense_trip_id", columnList = "trip_id, id")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Expense {
+
+    // Pooled sequence so bulk entries are inserted in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String description;
+
+    @Column(nullable = false)
+    private Long amountMinor;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private Long baseAmountMinor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Kind kind = Kind.EXPENSE;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trip_id", nullable = false)
+    private Trip trip;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paid_by_id", nullable = false)
+    private User paidBy;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by_id", nullable = false)
+    private User createdBy;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private List<ExpenseShare> shares = new ArrayList<>();
+
+    // Enums
+    public enum Kind {
+        EXPENSE,
+        // A repayment between two members; the payer is credited and the single share is the recipient
+        SETTLEMENT
+    }
+
+    // Helper methods
+    public void addShare(User user, long amountMinor) {
+        ExpenseShare share = new ExpenseShare();
+        share.setExpense(this);
+        share.setUser(user);
+        share.setAmountMinor(amountMinor);
+        shares.add(share);
+    }
+}
@@ -0,0 +1,45 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A member's part of an {@link Expense}, in minor units of the trip's currency.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "expense_shares", indexes = {
+    @Index(name = "idx_expense_share_expense", columnList = "expense_id")
+})
+public class ExpenseShare {
+
+    // Pooled sequence so the shares of an expense are inserted in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_shares_seq")
+    @SequenceGenerator(name = "expense_shares_seq", sequenceName = "expense_shares_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long amountMinor;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "expense_id", nullable = false)
+    private Expense expense;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+}
@@ -1,12 +1,14 @@
 package com.tripplanner.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import lombok.AccessLevel;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -21,6 +23,9 @@ import java.time.LocalDateTime;
     @Index(name = "idx_friend_requester", columnList = "requester_id"),
     @Index(name = "idx_friend_addressee", columnList = "addressee_id"),
     @Index(name = "idx_friend_status", columnList = "status")
+}, uniqueConstraints = {
+    // One row per pair of users, whichever of them asked first
+    @UniqueConstraint(name = "uk_friend_pair", columnNames = {"user_low_id", "user_high_id"})
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Friend {
@@ -41,11 +46,24 @@ public class Friend {
 
     private LocalDateTime acceptedAt;
 
+    // The pair's ids in ascending order, so A->B and B->A requests collide on uk_friend_pair
+    @Setter(AccessLevel.NONE)
+    @Column(name = "user_low_id", nullable = false, updatable = false)
+    private Long userLowId;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "user_high_id", nullable = false, updatable = false)
+    private Long userHighId;
+
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id", nullable = false)
     private User requester;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "addressee_id", nullable = false)
     private User addressee;
@@ -63,6 +81,8 @@ public class Friend {
         this.requester = requester;
         this.addressee = addressee;
         this.status = Status.PENDING;
+        this.userLowId = Math.min(requester.getId(), addressee.getId());
+        this.userHighId = Math.max(requester.getId(), addressee.getId());
     }
 
     // Custom setter for status with business logic
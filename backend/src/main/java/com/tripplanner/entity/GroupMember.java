@@ -1,10 +1,13 @@
 package com.tripplanner.entity;
 
+import com.tripplanner.security.PrincipalCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -19,7 +22,7 @@ import java.time.LocalDateTime;
     @Index(name = "idx_group_member_group", columnList = "group_id"),
     @Index(name = "idx_group_member_user", columnList = "user_id")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheListener.class})
 public class GroupMember {
 
     @Id
@@ -36,10 +39,14 @@ public class GroupMember {
     private LocalDateTime joinedAt;
 
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", nullable = false)
     private Group group;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -6,7 +6,9 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -18,9 +20,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "messages", indexes = {
-    @Index(name = "idx_message_trip", columnList = "trip_id"),
+    @Index(name = "idx_message_trip_created", columnList = "trip_id, created_at, id"),
+    @Index(name = "idx_message_conversation_created", columnList = "conversation_id, created_at, id"),
     @Index(name = "idx_message_sender", columnList = "sender_id"),
-    @Index(name = "idx_message_created", columnList = "created_at")
+    @Index(name = "idx_message_created", columnList = "created_at"),
+    @Index(name = "idx_message_edited", columnList = "edited_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Message {
@@ -50,18 +54,36 @@ public class Message {
     private LocalDateTime createdAt;
 
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
     private User sender;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trip_id")
     private Trip trip;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recipient_id")
     private User recipient; // For private messages
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id")
+    private Conversation conversation; // For private messages
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "attachment_id")
+    private Attachment attachment; // For IMAGE and FILE messages
+
     // Enums
     public enum MessageType {
         TEXT,
@@ -0,0 +1,66 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One trip's or one conversation's messages from one month that have aged out of the partitioned
+ * {@code messages} table, stored as a gzip-compressed JSON array (see
+ * {@link com.tripplanner.service.message.MessageArchiveCodec}). Direct messages are archived per
+ * conversation with no trip.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "message_archives", indexes = {
+    @Index(name = "idx_message_archive_trip_period", columnList = "trip_id, period_start"),
+    @Index(name = "idx_message_archive_conversation_period", columnList = "conversation_id, period_start")
+})
+public class MessageArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the archived month
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Integer messageCount;
+
+    // bytea on PostgreSQL; H2 in PostgreSQL mode accepts bytea but not the blob Hibernate would pick
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trip_id")
+    private Trip trip;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id")
+    private Conversation conversation;
+}
@@ -3,12 +3,14 @@ package com.tripplanner.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import lombok.AccessLevel;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -21,14 +23,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Table(name = "notifications", indexes = {
     @Index(name = "idx_notification_user", columnList = "user_id"),
-    @Index(name = "idx_notification_read", columnList = "is_read"),
+    @Index(name = "idx_notification_user_read", columnList = "user_id, is_read"),
     @Index(name = "idx_notification_created", columnList = "created_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Notification {
 
+    // Pooled sequence so the notifications of a trip import are inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -58,6 +62,8 @@ public class Notification {
     private LocalDateTime readAt;
 
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
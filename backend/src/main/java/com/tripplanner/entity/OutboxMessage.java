@@ -0,0 +1,90 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email written in the same transaction as the change that triggered it and delivered later by
+ * {@link com.tripplanner.service.mail.MailOutboxDispatcher}.
+ *
+ * {@code nextAttemptAt} doubles as the claim lease: a dispatcher pushes it forward when it claims a
+ * row, so rows held by a dispatcher that died become claimable again once the lease runs out.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_messages", indexes = {
+    @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_outbox_status_created", columnList = "status, created_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxMessage {
+
+    // Pooled sequence so messages enqueued together are inserted in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_messages_seq")
+    @SequenceGenerator(name = "outbox_messages_seq", sequenceName = "outbox_messages_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipient_id", nullable = false)
+    private User recipient;
+
+    // Enums
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    // Constructor for creating a message that is due immediately
+    public OutboxMessage(User recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = Status.PENDING;
+        this.attempts = 0;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
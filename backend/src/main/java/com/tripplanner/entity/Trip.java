@@ -1,12 +1,19 @@
 package com.tripplanner.entity;
 
+import com.tripplanner.security.PrincipalCacheListener;
+import com.tripplanner.service.trip.TripMembershipListener;
+import com.tripplanner.service.trip.TripShareTokenListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,10 +30,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @Table(name = "trips", indexes = {
     @Index(name = "idx_trip_creator", columnList = "creator_id"),
-    @Index(name = "idx_trip_share_token", columnList = "share_token"),
     @Index(name = "idx_trip_dates", columnList = "start_date, end_date")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TripShareTokenListener.class, PrincipalCacheListener.class,
+    TripMembershipListener.class})
 public class Trip {
 
     @Id
@@ -51,9 +58,11 @@ public class Trip {
     @Builder.Default
     private Boolean isPublic = false;
 
+    // Stored as a native 16-byte uuid rather than its 36-character text form
     @Column(unique = true)
+    @JdbcTypeCode(SqlTypes.UUID)
     @Builder.Default
-    private String shareToken = UUID.randomUUID().toString();
+    private UUID shareToken = UUID.randomUUID();
 
     @Column(nullable = false)
     @Builder.Default
@@ -73,25 +82,33 @@ public class Trip {
     private LocalDateTime updatedAt;
 
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "creator_id", nullable = false)
     private User creator;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "trip", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<TripMember> members = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "trip", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Availability> availabilities = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "trip", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Message> messages = new ArrayList<>();
 
     // Constructor with custom share token generation
     public Trip() {
-        this.shareToken = UUID.randomUUID().toString();
+        this.shareToken = UUID.randomUUID();
         this.isPublic = false;
         this.active = true;
         this.currency = "USD";
@@ -110,7 +127,7 @@ public class Trip {
 
     // Helper methods
     public void generateNewShareToken() {
-        this.shareToken = UUID.randomUUID().toString();
+        this.shareToken = UUID.randomUUID();
     }
 
     public boolean isCreator(User user) {
@@ -0,0 +1,54 @@
+package com.tripplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A member's running position in a trip's expense ledger, in minor units of the trip's currency:
+ * what they paid minus their shares. Positive means the member is owed money. Adjusted in the same
+ * transaction as every ledger change, so settling up never has to scan the expenses.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "trip_balances", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_trip_balance_trip_user", columnNames = {"trip_id", "user_id"})
+})
+public class TripBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_balances_seq")
+    @SequenceGenerator(name = "trip_balances_seq", sequenceName = "trip_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long balanceMinor = 0L;
+
+    // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trip_id", nullable = false)
+    private Trip trip;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Constructor for a member's first ledger entry
+    public TripBalance(Trip trip, User user) {
+        this.trip = trip;
+        this.user = user;
+        this.balanceMinor = 0L;
+    }
+}
@@ -1,10 +1,14 @@
 package com.tripplanner.entity;
 
+import com.tripplanner.security.PrincipalCacheListener;
+import com.tripplanner.service.trip.TripMembershipListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -19,11 +23,13 @@ import java.time.LocalDateTime;
     @Index(name = "idx_trip_member_trip", columnList = "trip_id"),
     @Index(name = "idx_trip_member_user", columnList = "user_id")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheListener.class, TripMembershipListener.class})
 public class TripMember {
 
+    // Pooled sequence so bulk imports can use JDBC insert batching, which IDENTITY disables
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_members_seq")
+    @SequenceGenerator(name = "trip_members_seq", sequenceName = "trip_members_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -41,10 +47,14 @@ public class TripMember {
     private LocalDateTime joinedAt;
 
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trip_id", nullable = false)
     private Trip trip;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
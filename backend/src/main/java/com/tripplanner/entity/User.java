@@ -1,5 +1,7 @@
 package com.tripplanner.entity;
 
+import com.tripplanner.security.PrincipalCacheListener;
+import com.tripplanner.service.search.UserSearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,7 +9,9 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,9 +27,10 @@ import java.util.List;
 @AllArgsConstructor
 @Table(name = "users", indexes = {
     @Index(name = "idx_user_email", columnList = "email"),
-    @Index(name = "idx_user_username", columnList = "username")
+    @Index(name = "idx_user_username", columnList = "username"),
+    @Index(name = "idx_user_avatar_url", columnList = "avatar_url")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheListener.class, UserSearchIndexListener.class})
 public class User {
 
     @Id
@@ -45,8 +50,14 @@ public class User {
     @NotBlank
     @Size(min = 8)
     @Column(nullable = false)
+    @ToString.Exclude
     private String passwordHash;
 
+    // Token fingerprint pinned when the hash is upgraded, so a rehash does not revoke live tokens
+    @Column(length = 16)
+    @ToString.Exclude
+    private String passwordFingerprint;
+
     private String firstName;
     private String lastName;
     private String avatarUrl;
@@ -64,26 +75,38 @@ public class User {
     private LocalDateTime updatedAt;
 
     // Relationships
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "creator", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Trip> createdTrips = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "creator", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Group> createdGroups = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<TripMember> tripMemberships = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<GroupMember> groupMemberships = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "sender", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Message> sentMessages = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Notification> notifications = new ArrayList<>();
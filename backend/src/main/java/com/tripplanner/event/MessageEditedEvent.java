@@ -0,0 +1,36 @@
+package com.tripplanner.event;
+
+import com.tripplanner.dto.MessageResponse;
+
+/**
+ * Published inside the editing transaction; listeners that talk to the outside world should use
+ * {@code @TransactionalEventListener} so they only see committed edits.
+ */
+public class MessageEditedEvent {
+
+    private final Long tripId;
+    private final Long recipientId;
+    private final MessageResponse message;
+
+    public MessageEditedEvent(Long tripId, Long recipientId, MessageResponse message) {
+        this.tripId = tripId;
+        this.recipientId = recipientId;
+        this.message = message;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    public Long getRecipientId() {
+        return recipientId;
+    }
+
+    public MessageResponse getMessage() {
+        return message;
+    }
+
+    public boolean isTripMessage() {
+        return tripId != null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tripplanner.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A member's read watermark in a small trip advanced; published for live read receipts.
+ */
+public class MessageReadEvent {
+
+    private final Long tripId;
+    private final Long userId;
+    private final Long messageId;
+    private final LocalDateTime createdAt;
+
+    public MessageReadEvent(Long tripId, Long userId, Long messageId, LocalDateTime createdAt) {
+        this.tripId = tripId;
+        this.userId = userId;
+        this.messageId = messageId;
+        this.createdAt = createdAt;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
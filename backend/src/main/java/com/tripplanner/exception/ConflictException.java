@@ -0,0 +1,11 @@
+package com.tripplanner.exception;
+
+/**
+ * The request clashes with the current state of a resource, e.g. a duplicate registration or friendship.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
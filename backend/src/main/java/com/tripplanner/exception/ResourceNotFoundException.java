@@ -0,0 +1,12 @@
+package com.tripplanner.exception;
+
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+
+    public ResourceNotFoundException(String resource, Object id) {
+        super(resource + " not found: " + id);
+    }
+}
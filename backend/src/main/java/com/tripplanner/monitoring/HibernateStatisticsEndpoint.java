@@ -0,0 +1,95 @@
+package com.tripplanner.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hibernate}: Hibernate's session factory counters, the slowest queries by maximum
+ * execution time, and the endpoints that prepare the most statements per request. Meant for finding
+ * slow and chatty paths in production without turning on SQL logging.
+ */
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private static final int TOP = 20;
+
+    private final Statistics statistics;
+    private final RequestQueryStatsInterceptor requestStats;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory, RequestQueryStatsInterceptor requestStats) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.requestStats = requestStats;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("enabled", statistics.isStatisticsEnabled());
+        totals.put("since", statistics.getStart());
+        totals.put("statements", statistics.getPrepareStatementCount());
+        totals.put("queries", statistics.getQueryExecutionCount());
+        totals.put("entityLoads", statistics.getEntityLoadCount());
+        totals.put("entityFetches", statistics.getEntityFetchCount());
+        totals.put("collectionLoads", statistics.getCollectionLoadCount());
+        totals.put("collectionFetches", statistics.getCollectionFetchCount());
+        totals.put("transactions", statistics.getTransactionCount());
+        totals.put("queryMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        totals.put("queryMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("totals", totals);
+        body.put("slowestQueries", slowestQueries());
+        body.put("chattiestEndpoints", chattiestEndpoints());
+        return body;
+    }
+
+    private List<Map<String, Object>> slowestQueries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .filter(entry -> entry.getValue().getExecutionCount() > 0)
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) ->
+                        entry.getValue().getExecutionMaxTime()).reversed())
+                .limit(TOP)
+                .map(entry -> {
+                    QueryStatistics query = entry.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("query", entry.getKey());
+                    row.put("executions", query.getExecutionCount());
+                    row.put("avgTimeMs", query.getExecutionAvgTime());
+                    row.put("maxTimeMs", query.getExecutionMaxTime());
+                    row.put("rows", query.getExecutionRowCount());
+                    return row;
+                })
+                .toList();
+    }
+
+    private List<Map<String, Object>> chattiestEndpoints() {
+        return requestStats.endpoints().stream()
+                .filter(endpoint -> endpoint.statements.count() > 0)
+                .sorted(Comparator.comparingDouble(
+                        (RequestQueryStatsInterceptor.EndpointQueryStats endpoint) -> endpoint.statements.mean()).reversed())
+                .limit(TOP)
+                .map(endpoint -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("method", endpoint.method);
+                    row.put("uri", endpoint.uri);
+                    row.put("requests", endpoint.statements.count());
+                    row.put("statementsMean", endpoint.statements.mean());
+                    row.put("statementsMax", endpoint.statements.max());
+                    row.put("entityLoadsMean", endpoint.entityLoads.mean());
+                    row.put("collectionFetchesMean", endpoint.collectionFetches.mean());
+                    return row;
+                })
+                .toList();
+    }
+}
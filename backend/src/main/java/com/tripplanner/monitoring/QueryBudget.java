@@ -0,0 +1,24 @@
+package com.tripplanner.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one request to the annotated endpoint may execute, counted at the JDBC
+ * level by {@code StatementCountingDataSource}. On a controller class it applies to every endpoint
+ * without its own budget.
+ *
+ * What happens when a request goes over is set by {@code app.datasource.query-budget.mode}: tests
+ * run with {@code fail}, so an N+1 regression fails the build, and production with {@code warn},
+ * which logs a sampled warning naming the statements that ran.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    int value();
+}
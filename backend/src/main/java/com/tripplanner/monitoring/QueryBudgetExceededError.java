@@ -0,0 +1,13 @@
+package com.tripplanner.monitoring;
+
+/**
+ * Thrown by the statement that takes a request over its {@link QueryBudget} in {@code fail} mode.
+ * An {@link AssertionError}, so application code that catches exceptions cannot swallow it and the
+ * request, and the test making it, fails.
+ */
+public class QueryBudgetExceededError extends AssertionError {
+
+    public QueryBudgetExceededError(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package com.tripplanner.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binds {@link RequestStatements} to each request and enforces the handler's {@link QueryBudget}.
+ * In {@code warn} mode an endpoint over budget is logged at most once per {@code warn-interval},
+ * with the statement shapes of the offending request; every overrun is counted.
+ */
+@Slf4j
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private final RequestStatements.Mode mode;
+    private final long warnIntervalNanos;
+    private final Counter overruns;
+    private final Map<String, AtomicLong> lastWarned = new ConcurrentHashMap<>();
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+
+    public QueryBudgetInterceptor(RequestStatements.Mode mode, Duration warnInterval, MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.warnIntervalNanos = warnInterval.toNanos();
+        this.overruns = Counter.builder("jdbc.query.budget.exceeded")
+                .description("Requests that executed more SQL statements than their endpoint's budget")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern instanceof String value ? value : request.getRequestURI());
+        RequestStatements.begin(endpoint, budgetOf(handler), mode);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatements statements = RequestStatements.end();
+        if (statements == null || !statements.isOverBudget()) {
+            return;
+        }
+        overruns.increment();
+        if (mode == RequestStatements.Mode.WARN && shouldWarn(statements.getEndpoint())) {
+            log.warn("Query budget exceeded: {}", statements.describe());
+        }
+    }
+
+    private boolean shouldWarn(String endpoint) {
+        AtomicLong last = lastWarned.computeIfAbsent(endpoint, key -> new AtomicLong(System.nanoTime() - warnIntervalNanos));
+        long now = System.nanoTime();
+        long previous = last.get();
+        return now - previous >= warnIntervalNanos && last.compareAndSet(previous, now);
+    }
+
+    // -1 when the handler declares no budget
+    private int budgetOf(Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return -1;
+        }
+        return budgets.computeIfAbsent(method.getMethod(), key -> findBudget(method));
+    }
+
+    private static int findBudget(HandlerMethod method) {
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), QueryBudget.class);
+        }
+        return budget == null ? -1 : budget.value();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tripplanner.monitoring;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Feeds {@link RequestQueryStats}: the statement inspector sees every SQL string Hibernate
+ * prepares, and the listeners every entity hydrated from a row and every lazy collection
+ * initialized. Each only bumps a counter on the current request, if there is one.
+ */
+public class QueryStatsIntegrator implements Integrator, StatementInspector {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) QueryStatsIntegrator::onPostLoad);
+        listeners.appendListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) QueryStatsIntegrator::onInitializeCollection);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+        return sql;
+    }
+
+    private static void onPostLoad(PostLoadEvent event) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.entityLoaded();
+        }
+    }
+
+    private static void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.collectionFetched();
+        }
+    }
+}
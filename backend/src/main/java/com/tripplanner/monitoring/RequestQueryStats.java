@@ -0,0 +1,55 @@
+package com.tripplanner.monitoring;
+
+/**
+ * Hibernate work done by the current request: SQL statements prepared, entities loaded and lazy
+ * collections fetched. Bound to the request thread by {@link RequestQueryStatsInterceptor} and
+ * counted by {@link QueryStatsIntegrator}; work outside a request is not counted.
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entityLoads;
+    private int collectionFetches;
+
+    private RequestQueryStats() {}
+
+    static void begin() {
+        CURRENT.set(new RequestQueryStats());
+    }
+
+    static RequestQueryStats end() {
+        RequestQueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    void collectionFetched() {
+        collectionFetches++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+}
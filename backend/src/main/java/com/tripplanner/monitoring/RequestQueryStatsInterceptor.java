@@ -0,0 +1,85 @@
+package com.tripplanner.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the {@link RequestQueryStats} of each handled request as distribution summaries tagged
+ * with the method and URI template, the same tags as {@code http.server.requests}.
+ */
+public class RequestQueryStatsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    // Keyed by "METHOD uri", so the steady state looks meters up without building tags
+    private final Map<String, EndpointQueryStats> endpoints = new ConcurrentHashMap<>();
+
+    public RequestQueryStatsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestQueryStats.begin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestQueryStats stats = RequestQueryStats.end();
+        if (stats == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern instanceof String value ? value : "UNKNOWN";
+        String method = request.getMethod();
+        endpoints.computeIfAbsent(method + " " + uri, key -> new EndpointQueryStats(method, uri, meterRegistry))
+                .record(stats);
+    }
+
+    Collection<EndpointQueryStats> endpoints() {
+        return endpoints.values();
+    }
+
+    static final class EndpointQueryStats {
+
+        final String method;
+        final String uri;
+        final DistributionSummary statements;
+        final DistributionSummary entityLoads;
+        final DistributionSummary collectionFetches;
+
+        private EndpointQueryStats(String method, String uri, MeterRegistry meterRegistry) {
+            this.method = method;
+            this.uri = uri;
+            this.statements = summary("hibernate.request.statements", "SQL statements prepared per request",
+                    method, uri, meterRegistry);
+            this.entityLoads = summary("hibernate.request.entity.loads", "Entities loaded per request",
+                    method, uri, meterRegistry);
+            this.collectionFetches = summary("hibernate.request.collection.fetches",
+                    "Lazy collections initialized per request", method, uri, meterRegistry);
+        }
+
+        private void record(RequestQueryStats stats) {
+            statements.record(stats.getStatements());
+            entityLoads.record(stats.getEntityLoads());
+            collectionFetches.record(stats.getCollectionFetches());
+        }
+
+        private static DistributionSummary summary(String name, String description, String method, String uri,
+                                                   MeterRegistry meterRegistry) {
+            return DistributionSummary.builder(name)
+                    .description(description)
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry);
+        }
+    }
+}
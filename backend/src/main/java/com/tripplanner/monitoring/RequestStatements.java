@@ -0,0 +1,110 @@
+package com.tripplanner.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed by the current request, as counted by {@code StatementCountingDataSource}.
+ * Bound to the request thread by {@link QueryBudgetInterceptor}; statements on other threads are
+ * not counted.
+ */
+public final class RequestStatements {
+
+    public enum Mode {
+        OFF,
+        // Log a sampled warning after the request
+        WARN,
+        // Throw QueryBudgetExceededError from the first statement over budget
+        FAIL
+    }
+
+    // Distinct statements remembered per request; a request past this is already far over any budget
+    private static final int MAX_DISTINCT = 100;
+    private static final int MAX_SHAPE_LENGTH = 300;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final int budget;
+    private final Mode mode;
+    private final Map<String, Integer> executed = new HashMap<>();
+    private int count;
+
+    private RequestStatements(String endpoint, int budget, Mode mode) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.mode = mode;
+    }
+
+    static void begin(String endpoint, int budget, Mode mode) {
+        CURRENT.set(new RequestStatements(endpoint, budget, mode));
+    }
+
+    static RequestStatements end() {
+        RequestStatements statements = CURRENT.get();
+        CURRENT.remove();
+        return statements;
+    }
+
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    /** Counts one statement round trip. */
+    public void executed(String sql) {
+        count++;
+        String key = sql == null ? "(batch)" : sql;
+        if (executed.size() < MAX_DISTINCT || executed.containsKey(key)) {
+            executed.merge(key, 1, Integer::sum);
+        }
+        if (mode == Mode.FAIL && isOverBudget()) {
+            throw new QueryBudgetExceededError(describe());
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return budget >= 0 && count > budget;
+    }
+
+    /** The endpoint, the count against its budget and the most frequent statement shapes. */
+    public String describe() {
+        Map<String, Integer> shapes = new HashMap<>();
+        executed.forEach((sql, times) -> shapes.merge(shape(sql), times, Integer::sum));
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(shapes.entrySet());
+        top.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        StringBuilder text = new StringBuilder()
+                .append(endpoint).append(" ran ").append(count).append(" SQL statements, budget ").append(budget);
+        for (Map.Entry<String, Integer> entry : top.subList(0, Math.min(5, top.size()))) {
+            text.append("\n  ").append(entry.getValue()).append(" x ").append(entry.getKey());
+        }
+        return text.toString();
+    }
+
+    // Literals and parameter lists collapsed, so the same statement with different values is one shape
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("?, ...");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").strip();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+}
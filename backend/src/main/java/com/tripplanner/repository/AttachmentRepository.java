@@ -0,0 +1,13 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.entity.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+
+    Optional<Attachment> findByIdAndTripId(Long id, Long tripId);
+}
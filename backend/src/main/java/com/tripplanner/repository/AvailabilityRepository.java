@@ -0,0 +1,25 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.entity.Availability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+
+    @Query("select a.user.id as userId, a.startDate as startDate, a.endDate as endDate " +
+           "from Availability a where a.trip.id = :tripId")
+    List<AvailabilityRange> findRangesByTripId(@Param("tripId") Long tripId);
+
+    // Lightweight projection used by the optimal date search
+    interface AvailabilityRange {
+        Long getUserId();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+}
@@ -0,0 +1,29 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.ReadReceiptResponse;
+import com.tripplanner.entity.ChatReadMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChatReadMarkerRepository extends JpaRepository<ChatReadMarker, Long> {
+
+    @Query("select r.lastReadMessageId as messageId, r.lastReadAt as createdAt from ChatReadMarker r " +
+           "where r.trip.id = :tripId and r.user.id = :userId")
+    Optional<WatermarkRow> findWatermark(@Param("tripId") Long tripId, @Param("userId") Long userId);
+
+    @Query("select new com.tripplanner.dto.ReadReceiptResponse(u.id, u.username, r.lastReadMessageId, r.lastReadAt) " +
+           "from ChatReadMarker r join r.user u where r.trip.id = :tripId order by r.lastReadAt desc, u.id")
+    List<ReadReceiptResponse> findReceiptsByTripId(@Param("tripId") Long tripId);
+
+    interface WatermarkRow {
+        Long getMessageId();
+        LocalDateTime getCreatedAt();
+    }
+}
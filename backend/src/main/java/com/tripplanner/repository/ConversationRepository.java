@@ -0,0 +1,69 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.ConversationResponse;
+import com.tripplanner.entity.Conversation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    // Pairs are always passed in id order (low, high)
+
+    @Query("select c.id from Conversation c where c.userLow.id = :low and c.userHigh.id = :high")
+    Optional<Long> findIdByUsers(@Param("low") Long low, @Param("high") Long high);
+
+    // Creates the row for a new pair inside the caller's transaction; a racing creator makes this a no-op
+    @Modifying
+    @Query(value = "insert into conversations (user_low_id, user_high_id, low_unread_count, high_unread_count, created_at) " +
+                   "values (:low, :high, 0, 0, :createdAt) on conflict do nothing",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("low") Long low, @Param("high") Long high, @Param("createdAt") LocalDateTime createdAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Conversation c where c.userLow.id = :low and c.userHigh.id = :high")
+    Optional<Conversation> findByUsersForUpdate(@Param("low") Long low, @Param("high") Long high);
+
+    // One inbox query per side of the pair, each a range scan over idx_conversation_{low,high}_last;
+    // the service merges the two newest-first lists
+
+    @Query("select new com.tripplanner.dto.ConversationResponse(c.id, u.id, u.username, u.avatarUrl, " +
+           "c.lastMessageId, c.lastMessagePreview, c.lastMessageSenderId, c.lastMessageAt, " +
+           "c.lowUnreadCount, c.highLastReadMessageId) " +
+           "from Conversation c join c.userHigh u " +
+           "where c.userLow.id = :userId and c.lastMessageId is not null " +
+           "and (c.lastMessageAt < :at or (c.lastMessageAt = :at and c.id < :id)) " +
+           "order by c.lastMessageAt desc, c.id desc")
+    List<ConversationResponse> findInboxAsLow(@Param("userId") Long userId,
+                                              @Param("at") LocalDateTime at,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    @Query("select new com.tripplanner.dto.ConversationResponse(c.id, u.id, u.username, u.avatarUrl, " +
+           "c.lastMessageId, c.lastMessagePreview, c.lastMessageSenderId, c.lastMessageAt, " +
+           "c.highUnreadCount, c.lowLastReadMessageId) " +
+           "from Conversation c join c.userLow u " +
+           "where c.userHigh.id = :userId and c.lastMessageId is not null " +
+           "and (c.lastMessageAt < :at or (c.lastMessageAt = :at and c.id < :id)) " +
+           "order by c.lastMessageAt desc, c.id desc")
+    List<ConversationResponse> findInboxAsHigh(@Param("userId") Long userId,
+                                               @Param("at") LocalDateTime at,
+                                               @Param("id") Long id,
+                                               Limit limit);
+
+    @Query("select coalesce(sum(c.lowUnreadCount), 0) from Conversation c where c.userLow.id = :userId")
+    long sumUnreadAsLow(@Param("userId") Long userId);
+
+    @Query("select coalesce(sum(c.highUnreadCount), 0) from Conversation c where c.userHigh.id = :userId")
+    long sumUnreadAsHigh(@Param("userId") Long userId);
+}
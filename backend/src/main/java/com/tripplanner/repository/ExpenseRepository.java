@@ -0,0 +1,27 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.ExpenseResponse;
+import com.tripplanner.entity.Expense;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+
+    @Query("select e from Expense e join fetch e.paidBy where e.id = :id and e.trip.id = :tripId")
+    Optional<Expense> findByIdAndTripId(@Param("id") Long id, @Param("tripId") Long tripId);
+
+    // Keyset pagination over idx_expense_trip_id (trip_id, id), newest first
+    @Query("select new com.tripplanner.dto.ExpenseResponse(e.id, e.description, e.kind, e.amountMinor, e.currency, " +
+           "e.baseAmountMinor, p.id, p.username, e.createdAt, e.updatedAt) " +
+           "from Expense e join e.paidBy p " +
+           "where e.trip.id = :tripId and e.id < :before " +
+           "order by e.id desc")
+    List<ExpenseResponse> findPageByTripId(@Param("tripId") Long tripId, @Param("before") Long before, Limit limit);
+}
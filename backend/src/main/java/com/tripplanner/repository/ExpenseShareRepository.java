@@ -0,0 +1,24 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.entity.ExpenseShare;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExpenseShareRepository extends JpaRepository<ExpenseShare, Long> {
+
+    @Query("select s.expense.id as expenseId, s.user.id as userId, s.amountMinor as amountMinor " +
+           "from ExpenseShare s where s.expense.id in :expenseIds order by s.expense.id, s.user.id")
+    List<ShareRow> findRowsByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    interface ShareRow {
+        Long getExpenseId();
+        Long getUserId();
+        Long getAmountMinor();
+    }
+}
@@ -0,0 +1,46 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.entity.Friend;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface FriendRepository extends JpaRepository<Friend, Long> {
+
+    default Optional<Friend> findBetween(Long userA, Long userB) {
+        return findByPair(Math.min(userA, userB), Math.max(userA, userB));
+    }
+
+    @Query("select f from Friend f where f.userLowId = :lowId and f.userHighId = :highId")
+    Optional<Friend> findByPair(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    // The other side of every friendship with the given status; the fallback while FriendGraphIndex loads
+    @Query("select case when f.requester.id = :userId then f.addressee.id else f.requester.id end " +
+           "from Friend f where f.status = :status and (f.requester.id = :userId or f.addressee.id = :userId)")
+    List<Long> findOtherUserIds(@Param("userId") Long userId, @Param("status") Friend.Status status);
+
+    // Every (requester_id, addressee_id) pair with the given status touching any of the users
+    @Query("select f.requester.id, f.addressee.id from Friend f " +
+           "where f.status = :status and (f.requester.id in :userIds or f.addressee.id in :userIds)")
+    List<Object[]> findEdgesTouching(@Param("userIds") Collection<Long> userIds, @Param("status") Friend.Status status);
+
+    // Streams the whole graph for one status as (requester_id, addressee_id) pairs to seed FriendGraphIndex
+    @Query("select f.requester.id, f.addressee.id from Friend f where f.status = :status")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamEdgesByStatus(@Param("status") Friend.Status status);
+}
@@ -0,0 +1,16 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.entity.GroupMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+
+    @Query("select gm.group.id from GroupMember gm where gm.user.id = :userId")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+}
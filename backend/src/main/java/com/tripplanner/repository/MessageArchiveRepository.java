@@ -0,0 +1,33 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.MessageArchivePeriodResponse;
+import com.tripplanner.entity.MessageArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MessageArchiveRepository extends JpaRepository<MessageArchive, Long> {
+
+    // Listing never loads the compressed payloads
+    @Query("select new com.tripplanner.dto.MessageArchivePeriodResponse(a.periodStart, a.messageCount) " +
+           "from MessageArchive a where a.trip.id = :tripId order by a.periodStart desc")
+    List<MessageArchivePeriodResponse> findPeriodsByTripId(@Param("tripId") Long tripId);
+
+    @Query("select a from MessageArchive a where a.trip.id = :tripId and a.periodStart = :periodStart")
+    Optional<MessageArchive> findByTripIdAndPeriodStart(@Param("tripId") Long tripId,
+                                                        @Param("periodStart") LocalDate periodStart);
+
+    @Query("select new com.tripplanner.dto.MessageArchivePeriodResponse(a.periodStart, a.messageCount) " +
+           "from MessageArchive a where a.conversation.id = :conversationId order by a.periodStart desc")
+    List<MessageArchivePeriodResponse> findPeriodsByConversationId(@Param("conversationId") Long conversationId);
+
+    @Query("select a from MessageArchive a where a.conversation.id = :conversationId and a.periodStart = :periodStart")
+    Optional<MessageArchive> findByConversationIdAndPeriodStart(@Param("conversationId") Long conversationId,
+                                                                @Param("periodStart") LocalDate periodStart);
+}
@@ -0,0 +1,162 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.entity.Message;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface MessageRepository extends JpaRepository<Message, Long> {
+
+    // Keyset pagination over idx_message_trip_created (trip_id, created_at, id). All history
+    // queries project straight into MessageResponse so no Message entities are managed. The
+    // backward queries take a lower bound on created_at so PostgreSQL only scans the monthly
+    // partitions inside the window (see MessagePartitionMaintenance).
+
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.trip.id = :tripId and m.createdAt >= :from " +
+           "order by m.createdAt desc, m.id desc")
+    List<MessageResponse> findLatestTripMessages(@Param("tripId") Long tripId,
+                                                 @Param("from") LocalDateTime from,
+                                                 Limit limit);
+
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.trip.id = :tripId and m.createdAt >= :from " +
+           "and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) " +
+           "order by m.createdAt desc, m.id desc")
+    List<MessageResponse> findTripMessagesBefore(@Param("tripId") Long tripId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Limit limit);
+
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.trip.id = :tripId " +
+           "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)) " +
+           "order by m.createdAt asc, m.id asc")
+    List<MessageResponse> findTripMessagesAfter(@Param("tripId") Long tripId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    // Read watermarks (ChatReadWatermarks): same keyset order as history, so the count is an index range scan
+    @Query("select count(m) from Message m where m.trip.id = :tripId and m.sender.id <> :userId " +
+           "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))")
+    long countTripMessagesAfter(@Param("tripId") Long tripId,
+                                @Param("userId") Long userId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id);
+
+    @Query("select m.createdAt from Message m where m.id = :id and m.trip.id = :tripId")
+    Optional<LocalDateTime> findCreatedAtByIdAndTripId(@Param("id") Long id, @Param("tripId") Long tripId);
+
+    // Private messages, keyset-paged over idx_message_conversation_created (conversation_id, created_at, id)
+
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.conversation.id = :conversationId " +
+           "and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) " +
+           "order by m.createdAt desc, m.id desc")
+    List<MessageResponse> findConversationMessagesBefore(@Param("conversationId") Long conversationId,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id,
+                                                         Limit limit);
+
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.conversation.id = :conversationId " +
+           "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)) " +
+           "order by m.createdAt asc, m.id asc")
+    List<MessageResponse> findConversationMessagesAfter(@Param("conversationId") Long conversationId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
+    @Query("select count(m) from Message m where m.conversation.id = :conversationId and m.sender.id <> :userId " +
+           "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))")
+    long countConversationMessagesAfter(@Param("conversationId") Long conversationId,
+                                        @Param("userId") Long userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id);
+
+    @Query("select m.createdAt from Message m where m.id = :id and m.conversation.id = :conversationId")
+    Optional<LocalDateTime> findCreatedAtByIdAndConversationId(@Param("id") Long id,
+                                                               @Param("conversationId") Long conversationId);
+
+    @Query("select m from Message m where m.id = :id and m.trip.id = :tripId")
+    Optional<Message> findByIdAndTripId(@Param("id") Long id, @Param("tripId") Long tripId);
+
+    // Chat search (ChatSearchIndex): hits are hydrated by id, with created_at bounding the partitions read
+
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.trip.id = :tripId and m.createdAt >= :from and m.id in :ids")
+    List<MessageResponse> findTripMessagesByIdIn(@Param("tripId") Long tripId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("ids") Collection<Long> ids);
+
+    // Fallback while the index loads, newest first over idx_message_trip_created
+    @Query("select new com.tripplanner.dto.MessageResponse(m.id, m.content, m.messageType, m.edited, " +
+           "m.editedAt, m.createdAt, s.id, s.username, s.avatarUrl, a.id, a.fileName, a.contentType, a.size, a.createdAt) " +
+           "from Message m join m.sender s left join m.attachment a " +
+           "where m.trip.id = :tripId and lower(m.content) like :pattern " +
+           "and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) " +
+           "order by m.createdAt desc, m.id desc")
+    List<MessageResponse> findTripMessagesContaining(@Param("tripId") Long tripId,
+                                                     @Param("pattern") String pattern,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
+
+    // Streams (trip_id, id, created_at, content) of every trip message to rebuild ChatSearchIndex
+    @Query("select m.trip.id, m.id, m.createdAt, m.content from Message m where m.trip is not null " +
+           "order by m.trip.id, m.createdAt, m.id")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamTripMessagesForSearch();
+
+    // Trip messages created or edited at or after a time, to catch ChatSearchIndex up after a restart
+    @Query("select m.trip.id, m.id, m.createdAt, m.content from Message m where m.trip is not null " +
+           "and m.createdAt >= :from")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamTripMessagesCreatedSince(@Param("from") LocalDateTime from);
+
+    @Query("select m.trip.id, m.id, m.createdAt, m.content from Message m where m.trip is not null " +
+           "and m.editedAt >= :from")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamTripMessagesEditedSince(@Param("from") LocalDateTime from);
+
+    @Query("select max(m.id) from Message m")
+    Optional<Long> findMaxId();
+}
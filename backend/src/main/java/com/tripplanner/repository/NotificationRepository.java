@@ -0,0 +1,53 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.NotificationResponse;
+import com.tripplanner.entity.Notification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    @Query("select count(n) from Notification n where n.user.id = :userId and n.isRead = false")
+    int countUnreadByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.tripplanner.dto.NotificationResponse(n.id, n.type, n.title, n.content, n.isRead, " +
+           "n.actionUrl, n.data, n.createdAt, n.readAt) " +
+           "from Notification n where n.user.id = :userId and n.id < :beforeId order by n.id desc")
+    List<NotificationResponse> findPageByUserId(@Param("userId") Long userId,
+                                                @Param("beforeId") Long beforeId,
+                                                Limit limit);
+
+    // Set-based mark-read: one statement regardless of how many rows are unread
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true, n.readAt = :readAt " +
+           "where n.user.id = :userId and n.isRead = false")
+    int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true, n.readAt = :readAt " +
+           "where n.user.id = :userId and n.isRead = false and n.type = :type")
+    int markAllReadByType(@Param("userId") Long userId,
+                          @Param("type") Notification.NotificationType type,
+                          @Param("readAt") LocalDateTime readAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true, n.readAt = :readAt " +
+           "where n.user.id = :userId and n.isRead = false and n.id <= :upToId")
+    int markReadUpTo(@Param("userId") Long userId,
+                     @Param("upToId") Long upToId,
+                     @Param("readAt") LocalDateTime readAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true, n.readAt = :readAt " +
+           "where n.id = :id and n.user.id = :userId and n.isRead = false")
+    int markRead(@Param("userId") Long userId, @Param("id") Long id, @Param("readAt") LocalDateTime readAt);
+}
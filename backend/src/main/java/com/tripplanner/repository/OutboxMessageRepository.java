@@ -0,0 +1,40 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.entity.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // A lock timeout of -2 renders FOR UPDATE SKIP LOCKED, so concurrent dispatchers claim disjoint rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxMessage o where o.status = :status and o.nextAttemptAt <= :now " +
+           "order by o.nextAttemptAt, o.id")
+    List<OutboxMessage> findDueForUpdate(@Param("status") OutboxMessage.Status status,
+                                         @Param("now") LocalDateTime now,
+                                         Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OutboxMessage o set o.status = :status, o.sentAt = :sentAt, o.lastError = null " +
+           "where o.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") OutboxMessage.Status status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Query("select min(o.createdAt) from OutboxMessage o where o.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxMessage.Status status);
+}
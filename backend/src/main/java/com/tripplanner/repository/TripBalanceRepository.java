@@ -0,0 +1,24 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.BalanceResponse;
+import com.tripplanner.entity.TripBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TripBalanceRepository extends JpaRepository<TripBalance, Long> {
+
+    @Query("select b from TripBalance b where b.trip.id = :tripId and b.user.id in :userIds")
+    List<TripBalance> findByTripIdAndUserIdIn(@Param("tripId") Long tripId,
+                                             @Param("userIds") Collection<Long> userIds);
+
+    @Query("select new com.tripplanner.dto.BalanceResponse(u.id, u.username, b.balanceMinor) " +
+           "from TripBalance b join b.user u where b.trip.id = :tripId " +
+           "order by b.balanceMinor desc, u.id")
+    List<BalanceResponse> findResponsesByTripId(@Param("tripId") Long tripId);
+}
@@ -0,0 +1,43 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.TripMemberResponse;
+import com.tripplanner.entity.TripMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TripMemberRepository extends JpaRepository<TripMember, Long> {
+
+    long countByTripIdAndStatus(Long tripId, TripMember.Status status);
+
+    @Query("select tm.trip.id from TripMember tm where tm.user.id = :userId and tm.status = :status")
+    List<Long> findTripIdsByUserIdAndStatus(@Param("userId") Long userId,
+                                            @Param("status") TripMember.Status status);
+
+    @Query("select tm.user.id as userId, tm.role as role, tm.status as status from TripMember tm " +
+           "where tm.trip.id = :tripId order by tm.user.id, tm.id")
+    List<MembershipRow> findMembershipRowsByTripId(@Param("tripId") Long tripId);
+
+    @Query("select tm.user.id from TripMember tm where tm.trip.id = :tripId")
+    List<Long> findUserIdsByTripId(@Param("tripId") Long tripId);
+
+    @Query("select tm.user.id from TripMember tm where tm.trip.id = :tripId and tm.status = :status")
+    List<Long> findUserIdsByTripIdAndStatus(@Param("tripId") Long tripId,
+                                            @Param("status") TripMember.Status status);
+
+    @Query("select new com.tripplanner.dto.TripMemberResponse(u.id, u.username, u.firstName, u.lastName, " +
+           "u.avatarUrl, tm.role, tm.status, tm.joinedAt) " +
+           "from TripMember tm join tm.user u where tm.trip.id = :tripId order by tm.joinedAt, tm.id")
+    List<TripMemberResponse> findMemberResponsesByTripId(@Param("tripId") Long tripId);
+
+    // Loaded by TripMembershipCache
+    interface MembershipRow {
+        Long getUserId();
+        TripMember.Role getRole();
+        TripMember.Status getStatus();
+    }
+}
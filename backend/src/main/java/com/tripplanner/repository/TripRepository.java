@@ -0,0 +1,60 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.TripCardResponse;
+import com.tripplanner.dto.TripDetailResponse;
+import com.tripplanner.dto.TripShareSummary;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TripRepository extends JpaRepository<Trip, Long> {
+
+    @Query("select new com.tripplanner.dto.TripShareSummary(t.id, t.name, t.description, t.location, " +
+           "t.startDate, t.endDate, c.username) " +
+           "from Trip t join t.creator c where t.shareToken = :token and t.active = true")
+    Optional<TripShareSummary> findShareSummaryByToken(@Param("token") UUID token);
+
+    // Read models below select only the columns they return; member counts come from a correlated subquery
+    @Query("select new com.tripplanner.dto.TripCardResponse(t.id, t.name, t.location, t.startDate, t.endDate, " +
+           "t.isPublic, c.id, c.username, " +
+           "(select count(tm) from TripMember tm where tm.trip = t and tm.status = :status)) " +
+           "from Trip t join t.creator c where t.id in :ids and t.active = true " +
+           "order by t.startDate desc nulls last, t.id desc")
+    List<TripCardResponse> findCardsByIdIn(@Param("ids") Collection<Long> ids,
+                                           @Param("status") TripMember.Status status);
+
+    @Query("select new com.tripplanner.dto.TripDetailResponse(t.id, t.name, t.description, t.location, " +
+           "t.startDate, t.endDate, t.isPublic, t.estimatedBudget, t.currency, t.createdAt, c.id, c.username, " +
+           "(select count(tm) from TripMember tm where tm.trip = t and tm.status = :status)) " +
+           "from Trip t join t.creator c where t.id = :id and t.active = true")
+    Optional<TripDetailResponse> findDetailById(@Param("id") Long id, @Param("status") TripMember.Status status);
+
+    @Query("select t.creator.id from Trip t where t.id = :id and t.active = true")
+    Optional<Long> findActiveCreatorIdById(@Param("id") Long id);
+
+    @Query("select t.id from Trip t where t.creator.id = :userId and t.active = true")
+    List<Long> findActiveIdsByCreatorId(@Param("userId") Long userId);
+
+    @Query("select t.createdAt from Trip t where t.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
+
+    @Query("select t.currency from Trip t where t.id = :id and t.active = true")
+    Optional<String> findActiveCurrencyById(@Param("id") Long id);
+
+    // Row lock that serializes expense ledger writes per trip, see ExpenseService
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Trip t where t.id = :id and t.active = true")
+    Optional<Trip> findActiveByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,99 @@
+package com.tripplanner.repository;
+
+import com.tripplanner.dto.PublicUserResponse;
+import com.tripplanner.dto.UserResponse;
+import com.tripplanner.dto.UserSearchResult;
+import com.tripplanner.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    Optional<User> findByUsername(String username);
+
+    Optional<User> findByEmail(String email);
+
+    @Query("select u.id as id, u.username as username, u.active as active, u.passwordHash as passwordHash, " +
+           "u.passwordFingerprint as passwordFingerprint from User u where u.id = :id")
+    Optional<PrincipalRow> findPrincipalRowById(@Param("id") Long id);
+
+    // Streams (id, username, first_name, last_name, avatar_url) of active users to seed UserSearchIndex
+    @Query("select u.id, u.username, u.firstName, u.lastName, u.avatarUrl from User u where u.active = true")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamSearchRows();
+
+    // Fallback while the search index is loading; only the username prefix can use an index
+    @Query("select new com.tripplanner.dto.UserSearchResult(u.id, u.username, u.firstName, u.lastName, " +
+           "u.avatarUrl, false) " +
+           "from User u where u.active = true and u.username like :prefix order by u.username")
+    List<UserSearchResult> findActiveByUsernamePrefix(@Param("prefix") String prefix, Limit limit);
+
+    // Column projection for list endpoints, so the entity and its lazy collections are never instantiated
+    @Query("select new com.tripplanner.dto.UserResponse(u.id, u.username, u.email, u.firstName, u.lastName, " +
+           "u.avatarUrl, u.bio, u.active, u.createdAt, u.updatedAt) " +
+           "from User u where u.id in :ids")
+    List<UserResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Profiles shown to other users, e.g. friend lists and message senders; never includes the email
+    @Query("select new com.tripplanner.dto.PublicUserResponse(u.id, u.username, u.firstName, u.lastName, u.avatarUrl) " +
+           "from User u where u.id in :ids")
+    List<PublicUserResponse> findPublicProfilesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.tripplanner.dto.PublicUserResponse(u.id, u.username, u.firstName, u.lastName, u.avatarUrl) " +
+           "from User u where u.id in :ids and u.active = true")
+    List<PublicUserResponse> findActivePublicProfilesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Resolves import rows, which name users by username or email
+    @Query("select u.id as id, u.username as username, u.email as email, u.active as active from User u " +
+           "where u.username in :usernames or u.email in :emails")
+    List<UserKeyRow> findKeysByUsernameInOrEmailIn(@Param("usernames") Collection<String> usernames,
+                                                   @Param("emails") Collection<String> emails);
+
+    // Upgrades a hash only if it is still the one that was verified; the token fingerprint is pinned
+    // to the old hash's so live tokens stay valid
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.passwordHash = :newHash, " +
+           "u.passwordFingerprint = coalesce(u.passwordFingerprint, :oldFingerprint) " +
+           "where u.id = :id and u.passwordHash = :oldHash")
+    int upgradePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash, @Param("oldFingerprint") String oldFingerprint);
+
+    boolean existsByUsername(String username);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByAvatarUrl(String avatarUrl);
+
+    interface PrincipalRow {
+        Long getId();
+        String getUsername();
+        Boolean getActive();
+        String getPasswordHash();
+        String getPasswordFingerprint();
+    }
+
+    interface UserKeyRow {
+        Long getId();
+        String getUsername();
+        String getEmail();
+        Boolean getActive();
+    }
+}
@@ -0,0 +1,96 @@
+package com.tripplanner.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Authenticated principal resolved from a JWT. Holds only what authorization checks need, so it can
+ * be cached without keeping a managed {@code User} around.
+ */
+public final class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    private final String username;
+    private final boolean active;
+    private final String passwordFingerprint;
+    private final long[] tripIds;
+    private final long[] groupIds;
+
+    public AuthenticatedUser(Long id, String username, boolean active, String passwordFingerprint,
+                             long[] tripIds, long[] groupIds) {
+        this.id = id;
+        this.username = username;
+        this.active = active;
+        this.passwordFingerprint = passwordFingerprint;
+        this.tripIds = sorted(tripIds);
+        this.groupIds = sorted(groupIds);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getPasswordFingerprint() {
+        return passwordFingerprint;
+    }
+
+    public long[] getTripIds() {
+        return tripIds.clone();
+    }
+
+    // Accepted trip memberships
+    public boolean isTripMember(long tripId) {
+        return Arrays.binarySearch(tripIds, tripId) >= 0;
+    }
+
+    public boolean isGroupMember(long groupId) {
+        return Arrays.binarySearch(groupIds, groupId) >= 0;
+    }
+
+    /**
+     * Short digest of the stored password hash. Tokens carry it, so changing the password revokes
+     * every token issued before the change without keeping a revocation list. A rehash on login
+     * pins the previous fingerprint on the user, which then takes precedence.
+     */
+    public static String fingerprint(String pinnedFingerprint, String passwordHash) {
+        return pinnedFingerprint != null ? pinnedFingerprint : fingerprint(passwordHash);
+    }
+
+    public static String fingerprint(String passwordHash) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static long[] sorted(long[] ids) {
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", username='" + username + "'}";
+    }
+}
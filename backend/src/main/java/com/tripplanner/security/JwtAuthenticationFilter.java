@@ -0,0 +1,70 @@
+package com.tripplanner.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates bearer tokens. On the steady-state path both the signature check and the user
+ * lookup are served from memory by {@link VerifiedTokenCache} and {@link PrincipalCache}.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    // Browsers cannot set headers on a WebSocket handshake
+    private static final String WEBSOCKET_TOKEN_PARAM = "access_token";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PrincipalCache principalCache;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, PrincipalCache principalCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = extractToken(request);
+        if (token != null) {
+            AuthenticatedUser user = authenticate(token);
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        user, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private AuthenticatedUser authenticate(String token) {
+        VerifiedToken verified = verifiedTokenCache.verify(token);
+        if (verified == null) {
+            return null;
+        }
+        AuthenticatedUser user = principalCache.get(verified.getUserId());
+        if (user == null || !user.isActive()
+                || !user.getPasswordFingerprint().equals(verified.getPasswordFingerprint())) {
+            return null;
+        }
+        return user;
+    }
+
+    private static String extractToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        if (request.getServletPath().startsWith("/ws/")) {
+            return request.getParameter(WEBSOCKET_TOKEN_PARAM);
+        }
+        return null;
+    }
+}
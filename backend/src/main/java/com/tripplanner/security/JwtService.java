@@ -0,0 +1,58 @@
+package com.tripplanner.security;
+
+import com.tripplanner.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+
+@Service
+public class JwtService {
+
+    static final String PASSWORD_FINGERPRINT_CLAIM = "pwd";
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expirationMillis;
+
+    public JwtService(@Value("${spring.security.jwt.secret}") String secret,
+                      @Value("${spring.security.jwt.expiration}") long expirationMillis) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expirationMillis = expirationMillis;
+    }
+
+    public String generateToken(User user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(user.getId().toString())
+                .claim("username", user.getUsername())
+                .claim(PASSWORD_FINGERPRINT_CLAIM, AuthenticatedUser.fingerprint(user.getPasswordFingerprint(), user.getPasswordHash()))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verifies the signature and expiry. Returns {@code null} for any invalid token.
+     */
+    public VerifiedToken verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return new VerifiedToken(Long.valueOf(claims.getSubject()),
+                    claims.get(PASSWORD_FINGERPRINT_CLAIM, String.class),
+                    claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
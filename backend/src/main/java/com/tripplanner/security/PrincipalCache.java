@@ -0,0 +1,94 @@
+package com.tripplanner.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.repository.GroupMemberRepository;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches the {@link AuthenticatedUser} for each user id so the steady-state request path does not
+ * touch the database. Entries are dropped by {@link PrincipalCacheListener} after any committed
+ * change to the user, their memberships or the trips they created; the write TTL only bounds how
+ * long changes made outside JPA entity callbacks (bulk updates, manual SQL) stay invisible.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<Long, AuthenticatedUser> cache;
+    private final UserRepository userRepository;
+    private final TripMemberRepository tripMemberRepository;
+    private final TripRepository tripRepository;
+    private final GroupMemberRepository groupMemberRepository;
+
+    public PrincipalCache(UserRepository userRepository,
+                          TripMemberRepository tripMemberRepository,
+                          TripRepository tripRepository,
+                          GroupMemberRepository groupMemberRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.max-size:50000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.tripMemberRepository = tripMemberRepository;
+        this.tripRepository = tripRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.principals");
+    }
+
+    /**
+     * Returns the principal for the user, or {@code null} when the user no longer exists.
+     */
+    public AuthenticatedUser get(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * Drops the cached principal. A load in flight for the same user completes first and is then
+     * discarded, so calling this after commit never leaves pre-commit state behind.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private AuthenticatedUser load(Long userId) {
+        return userRepository.findPrincipalRowById(userId)
+                .map(row -> new AuthenticatedUser(row.getId(), row.getUsername(),
+                        Boolean.TRUE.equals(row.getActive()),
+                        AuthenticatedUser.fingerprint(row.getPasswordFingerprint(), row.getPasswordHash()),
+                        tripIds(userId),
+                        toArray(groupMemberRepository.findGroupIdsByUserId(userId))))
+                .orElse(null);
+    }
+
+    private long[] tripIds(Long userId) {
+        List<Long> member = tripMemberRepository.findTripIdsByUserIdAndStatus(userId, TripMember.Status.ACCEPTED);
+        List<Long> created = tripRepository.findActiveIdsByCreatorId(userId);
+        long[] ids = new long[member.size() + created.size()];
+        int i = 0;
+        for (Long id : member) {
+            ids[i++] = id;
+        }
+        for (Long id : created) {
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
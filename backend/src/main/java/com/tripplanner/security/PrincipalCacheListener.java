@@ -0,0 +1,54 @@
+package com.tripplanner.security;
+
+import com.tripplanner.entity.GroupMember;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.entity.User;
+import com.tripplanner.util.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached principals after commit when something they were built from changes: the user row
+ * (active flag, password hash, username), a trip or group membership, or a trip the user created.
+ * Bulk JPQL updates bypass entity callbacks and must call {@link PrincipalCache#invalidate(Long)}
+ * themselves.
+ */
+@Component
+public class PrincipalCacheListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public PrincipalCacheListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        Long userId = affectedUserId(entity);
+        if (userId != null) {
+            TransactionCallbacks.afterCommit(() -> principalCache.ifAvailable(cache -> cache.invalidate(userId)));
+        }
+    }
+
+    private static Long affectedUserId(Object entity) {
+        if (entity instanceof User user) {
+            return user.getId();
+        }
+        if (entity instanceof TripMember member) {
+            return member.getUser() == null ? null : member.getUser().getId();
+        }
+        if (entity instanceof GroupMember member) {
+            return member.getUser() == null ? null : member.getUser().getId();
+        }
+        if (entity instanceof Trip trip) {
+            return trip.getCreator() == null ? null : trip.getCreator().getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tripplanner.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripplanner.dto.ErrorResponse;
+import com.tripplanner.service.ratelimit.RateLimitPolicy;
+import com.tripplanner.service.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimitPolicy#API} bucket of the client address to every request, ahead of
+ * authentication, so a flood is turned away before it costs a token check or a database call.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(RateLimitPolicy.API, request.getRemoteAddr());
+        if (waitNanos > 0) {
+            HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+            response.setStatus(status.value());
+            // Whole seconds, rounded up, as in GlobalExceptionHandler
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse(status.value(), status.getReasonPhrase(), "Too many requests, please slow down"));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tripplanner.security;
+
+/**
+ * The parts of a verified JWT the request path needs.
+ */
+public final class VerifiedToken {
+
+    private final Long userId;
+    private final String passwordFingerprint;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(Long userId, String passwordFingerprint, long expiresAtMillis) {
+        this.userId = userId;
+        this.passwordFingerprint = passwordFingerprint;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getPasswordFingerprint() {
+        return passwordFingerprint;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
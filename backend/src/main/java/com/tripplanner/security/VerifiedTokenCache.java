@@ -0,0 +1,84 @@
+package com.tripplanner.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches successful JWT verifications keyed by the SHA-256 of the token, so a client reusing its
+ * token pays for one hash instead of a parse and signature check per request. An entry never
+ * outlives its token's own expiry. Failed verifications are not cached, so garbage tokens cannot
+ * flood the cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+    private final JwtService jwtService;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.token-cache.max-size:100000}") long maxSize,
+                              @Value("${app.security.token-cache.max-ttl:15m}") Duration maxTtl) {
+        this.jwtService = jwtService;
+        long maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+                        long remaining = TimeUnit.MILLISECONDS.toNanos(
+                                token.getExpiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(remaining, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, VerifiedToken token,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, VerifiedToken token,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.verified.tokens");
+    }
+
+    public VerifiedToken verify(String token) {
+        ByteBuffer key = ByteBuffer.wrap(sha256(token));
+        VerifiedToken verified = cache.getIfPresent(key);
+        if (verified == null) {
+            verified = jwtService.verify(token);
+            if (verified == null) {
+                return null;
+            }
+            cache.put(key, verified);
+        }
+        // Expiry is enforced here as well, Caffeine evicts lazily
+        return verified.isExpired(System.currentTimeMillis()) ? null : verified;
+    }
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
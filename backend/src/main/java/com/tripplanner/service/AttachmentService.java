@@ -0,0 +1,113 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.AttachmentResponse;
+import com.tripplanner.entity.Attachment;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.AttachmentRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.attachment.AttachmentStore;
+import com.tripplanner.service.attachment.ImageVariant;
+import com.tripplanner.service.attachment.ImageVariants;
+import com.tripplanner.service.trip.TripMembershipCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Trip attachments. Uploads are written to the {@link AttachmentStore} before any transaction is
+ * opened, so a slow client never holds a database connection; only the metadata row is saved in a
+ * transaction once the bytes are on disk. Resized variants of images are queued for
+ * {@link ImageVariants} straight after upload.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttachmentService {
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final int MAX_CONTENT_TYPE_LENGTH = 100;
+
+    private final AttachmentRepository attachmentRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final AttachmentStore attachmentStore;
+    private final ImageVariants imageVariants;
+    private final TripMembershipCache membershipCache;
+
+    public AttachmentResponse upload(Long tripId, Long userId, InputStream content, String contentType,
+                                     String fileName) throws IOException {
+        requireMember(tripId, userId);
+        AttachmentStore.StoredBlob blob = attachmentStore.store(content);
+
+        Attachment attachment = new Attachment();
+        attachment.setTrip(tripRepository.getReferenceById(tripId));
+        attachment.setUploader(userRepository.getReferenceById(userId));
+        attachment.setSha256(blob.getSha256());
+        attachment.setSize(blob.getSize());
+        attachment.setContentType(normalizeContentType(contentType));
+        attachment.setFileName(sanitizeFileName(fileName));
+        AttachmentResponse response = AttachmentResponse.from(attachmentRepository.save(attachment));
+        imageVariants.generateAll(attachment.getSha256(), attachment.getContentType());
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public Attachment getAttachment(Long tripId, Long attachmentId, Long userId) {
+        requireMember(tripId, userId);
+        return attachmentRepository.findByIdAndTripId(attachmentId, tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment", attachmentId));
+    }
+
+    public Path pathOf(Attachment attachment) {
+        return attachmentStore.pathOf(attachment.getSha256());
+    }
+
+    /** Returns the resized file, or null when the original should be served instead. */
+    public Path variantOf(Attachment attachment, ImageVariant variant) {
+        return imageVariants.resolve(attachment.getSha256(), attachment.getContentType(), variant);
+    }
+
+    private void requireMember(Long tripId, Long userId) {
+        if (!membershipCache.isAcceptedMember(tripId, userId)) {
+            throw new AccessDeniedException("Not a member of this trip");
+        }
+    }
+
+    // Only type/subtype is kept; anything unparseable is stored as opaque bytes
+    static String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            String value = (type.getType() + "/" + type.getSubtype()).toLowerCase(Locale.ROOT);
+            if (type.isWildcardType() || type.isWildcardSubtype() || value.length() > MAX_CONTENT_TYPE_LENGTH) {
+                return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            }
+            return value;
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    private static String sanitizeFileName(String fileName) {
+        if (fileName == null) {
+            return "file";
+        }
+        // Browsers may send a full client path; keep the last segment without control characters
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1)
+                .replaceAll("\\p{Cntrl}", "").strip();
+        if (name.isEmpty()) {
+            return "file";
+        }
+        return name.length() <= MAX_FILE_NAME_LENGTH ? name : name.substring(0, MAX_FILE_NAME_LENGTH);
+    }
+}
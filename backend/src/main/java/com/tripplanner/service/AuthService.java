@@ -0,0 +1,97 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.AuthResponse;
+import com.tripplanner.dto.LoginRequest;
+import com.tripplanner.dto.RegisterRequest;
+import com.tripplanner.dto.UserResponse;
+import com.tripplanner.entity.User;
+import com.tripplanner.exception.ConflictException;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.security.JwtService;
+import com.tripplanner.service.auth.LoginAdmission;
+import com.tripplanner.service.auth.PasswordHasher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Registration and sign-in. Neither holds a transaction while a password is hashed: lookups and
+ * writes run in short transactions of their own, and the hashing itself goes through the bounded
+ * {@link PasswordHasher} once {@link LoginAdmission} has let the attempt through.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthService {
+
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final LoginAdmission loginAdmission;
+    private final JwtService jwtService;
+    private final TransactionTemplate transactionTemplate;
+
+    public AuthResponse register(RegisterRequest request, String clientAddress) {
+        if (!request.isPasswordMatching()) {
+            throw new IllegalArgumentException("Passwords do not match");
+        }
+        if (userRepository.existsByUsername(request.getUsername())) {
+            throw new ConflictException("Username is already taken");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new ConflictException("Email is already registered");
+        }
+        loginAdmission.admitRegistration(clientAddress);
+
+        User candidate = new User(request.getUsername(), request.getEmail(), passwordHasher.encode(request.getPassword()));
+        candidate.setFirstName(request.getFirstName());
+        candidate.setLastName(request.getLastName());
+        User user;
+        try {
+            user = transactionTemplate.execute(status -> userRepository.save(candidate));
+        } catch (DataIntegrityViolationException ex) {
+            // Lost a race with a concurrent registration for the same username or email
+            throw new ConflictException("Username or email is already registered");
+        }
+        return new AuthResponse(jwtService.generateToken(user), UserResponse.from(user));
+    }
+
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        try (LoginAdmission.Attempt attempt = loginAdmission.admitLogin(request.getEmail(), clientAddress)) {
+            User user = userRepository.findByEmail(request.getEmail())
+                    .filter(candidate -> Boolean.TRUE.equals(candidate.getActive()))
+                    .orElse(null);
+            if (user == null) {
+                // Same cost as a wrong password, so timing does not tell which accounts exist
+                passwordHasher.verifyDummy(request.getPassword());
+            }
+            if (user == null || !passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
+                attempt.failed();
+                throw new BadCredentialsException("Invalid email or password");
+            }
+            attempt.succeeded();
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                rehash(user, request.getPassword());
+            }
+            return new AuthResponse(jwtService.generateToken(user), UserResponse.from(user));
+        }
+    }
+
+    // Upgrades a hash made with an older work factor while the plain password is at hand
+    private void rehash(User user, String rawPassword) {
+        String oldHash = user.getPasswordHash();
+        String oldFingerprint = AuthenticatedUser.fingerprint(user.getPasswordFingerprint(), oldHash);
+        String newHash = passwordHasher.encode(rawPassword);
+        Integer updated = transactionTemplate.execute(status ->
+                userRepository.upgradePasswordHash(user.getId(), oldHash, newHash, oldFingerprint));
+        if (updated != null && updated > 0) {
+            user.setPasswordHash(newHash);
+            user.setPasswordFingerprint(oldFingerprint);
+        } else {
+            log.debug("Skipped rehash of user {}: the password changed concurrently", user.getId());
+        }
+    }
+}
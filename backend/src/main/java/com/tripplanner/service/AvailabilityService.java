@@ -0,0 +1,82 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.DateWindowCriteria;
+import com.tripplanner.dto.DateWindowResponse;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.AvailabilityRepository;
+import com.tripplanner.repository.AvailabilityRepository.AvailabilityRange;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.service.availability.DateWindowEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AvailabilityService {
+
+    private final AvailabilityRepository availabilityRepository;
+    private final TripRepository tripRepository;
+    private final TripMemberRepository tripMemberRepository;
+
+    public List<DateWindowResponse> findOptimalDates(Long tripId, DateWindowCriteria criteria) {
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+
+        List<AvailabilityRange> ranges = availabilityRepository.findRangesByTripId(tripId);
+        int count = ranges.size();
+        long[] userIds = new long[count];
+        int[] startDays = new int[count];
+        int[] endDays = new int[count];
+        for (int i = 0; i < count; i++) {
+            AvailabilityRange range = ranges.get(i);
+            userIds[i] = range.getUserId();
+            startDays[i] = (int) range.getStartDate().toEpochDay();
+            endDays[i] = (int) range.getEndDate().toEpochDay();
+        }
+        DateWindowEngine engine = DateWindowEngine.of(userIds, startDays, endDays, count);
+
+        // Quorum is measured against accepted members, falling back to everyone who entered dates
+        int memberCount = (int) Math.max(
+                tripMemberRepository.countByTripIdAndStatus(tripId, TripMember.Status.ACCEPTED),
+                engine.getDistinctUsers());
+        int minAttendees = (int) Math.ceil(criteria.getQuorum() * memberCount);
+
+        int clipStart = Integer.MIN_VALUE;
+        int clipEnd = Integer.MAX_VALUE;
+        if (criteria.isClipToTripDates()) {
+            if (trip.getStartDate() != null) {
+                clipStart = (int) trip.getStartDate().toEpochDay();
+            }
+            if (trip.getEndDate() != null) {
+                clipEnd = (int) trip.getEndDate().toEpochDay();
+            }
+        }
+
+        long[] required = criteria.getRequiredUserIds() == null ? new long[0]
+                : criteria.getRequiredUserIds().stream().mapToLong(Long::longValue).toArray();
+
+        List<DateWindowEngine.Window> windows = engine.findBestWindows(
+                criteria.getMinLength(), required, minAttendees, clipStart, clipEnd, criteria.getLimit());
+
+        List<DateWindowResponse> responses = new ArrayList<>(windows.size());
+        for (DateWindowEngine.Window window : windows) {
+            responses.add(new DateWindowResponse(
+                    LocalDate.ofEpochDay(window.getStartDay()),
+                    LocalDate.ofEpochDay(window.getEndDay()),
+                    window.getAttendeeCount(),
+                    memberCount,
+                    Arrays.stream(window.getAttendeeIds()).boxed().toList()));
+        }
+        return responses;
+    }
+}
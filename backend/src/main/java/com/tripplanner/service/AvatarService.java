@@ -0,0 +1,107 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.UserResponse;
+import com.tripplanner.entity.User;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.attachment.AttachmentStore;
+import com.tripplanner.service.attachment.AvatarUrls;
+import com.tripplanner.service.attachment.ImageVariant;
+import com.tripplanner.service.attachment.ImageVariants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Profile pictures, kept in the same content-addressed store as trip attachments. The user's
+ * {@code avatarUrl} points at the stored file, so a new picture is a new URL and every response
+ * for a given URL can be cached for good.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvatarService {
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            MediaType.IMAGE_PNG_VALUE, "png",
+            MediaType.IMAGE_JPEG_VALUE, "jpg",
+            MediaType.IMAGE_GIF_VALUE, "gif",
+            "image/webp", "webp");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "png", MediaType.IMAGE_PNG_VALUE,
+            "jpg", MediaType.IMAGE_JPEG_VALUE,
+            "gif", MediaType.IMAGE_GIF_VALUE,
+            "webp", "image/webp");
+    private static final Pattern AVATAR_FILE = Pattern.compile("([0-9a-f]{64})\\.(png|jpg|gif|webp)");
+
+    private final UserRepository userRepository;
+    private final AttachmentStore attachmentStore;
+    private final ImageVariants imageVariants;
+    private final TransactionTemplate transactionTemplate;
+
+    // The upload is stored before the transaction starts, so a slow client never holds a connection
+    public UserResponse upload(Long userId, InputStream content, String contentType) throws IOException {
+        String type = AttachmentService.normalizeContentType(contentType);
+        String extension = EXTENSIONS.get(type);
+        if (extension == null) {
+            throw new IllegalArgumentException("Avatar must be a PNG, JPEG, GIF or WebP image");
+        }
+        AttachmentStore.StoredBlob blob = attachmentStore.store(content);
+        String avatarUrl = AvatarUrls.of(blob.getSha256(), extension);
+
+        UserResponse response = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+            user.setAvatarUrl(avatarUrl);
+            return UserResponse.from(userRepository.saveAndFlush(user));
+        });
+        imageVariants.generateAll(blob.getSha256(), type);
+        return response;
+    }
+
+    /** Resolves {@code <sha256>.<ext>}; only pictures that some user currently has are served. */
+    @Transactional(readOnly = true)
+    public Avatar getAvatar(String fileName) {
+        Matcher matcher = AVATAR_FILE.matcher(fileName);
+        if (!matcher.matches() || !userRepository.existsByAvatarUrl(AvatarUrls.PREFIX + fileName)) {
+            throw new ResourceNotFoundException("Avatar", fileName);
+        }
+        return new Avatar(matcher.group(1), CONTENT_TYPES.get(matcher.group(2)));
+    }
+
+    public Path pathOf(Avatar avatar) {
+        return attachmentStore.pathOf(avatar.getSha256());
+    }
+
+    /** Returns the resized file, or null when the original should be served instead. */
+    public Path variantOf(Avatar avatar, ImageVariant variant) {
+        return imageVariants.resolve(avatar.getSha256(), avatar.getContentType(), variant);
+    }
+
+    public static final class Avatar {
+
+        private final String sha256;
+        private final String contentType;
+
+        Avatar(String sha256, String contentType) {
+            this.sha256 = sha256;
+            this.contentType = contentType;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.ConversationPageResponse;
+import com.tripplanner.dto.ConversationResponse;
+import com.tripplanner.entity.Conversation;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.ConversationRepository;
+import com.tripplanner.repository.MessageRepository;
+import com.tripplanner.service.message.MessageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The private-message inbox. Everything here reads or updates the denormalized
+ * {@link Conversation} row; the messages themselves are only touched to recount unread after a
+ * read watermark moves.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Sorts after every real conversation, so the first page needs no separate query
+    private static final MessageCursor INBOX_START = new MessageCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+
+    /**
+     * Returns the conversation between two users locked for update, creating it on the first
+     * message. Must be called inside a transaction; the lock is held until it ends.
+     */
+    public Conversation lockConversation(Long userA, Long userB) {
+        long low = Math.min(userA, userB);
+        long high = Math.max(userA, userB);
+        if (conversationRepository.findIdByUsers(low, high).isEmpty()) {
+            // On the caller's connection: a racing first message waits for this insert's commit and then
+            // skips its own, so no second connection is needed and no unique violation aborts the transaction
+            conversationRepository.insertIfAbsent(low, high, LocalDateTime.now());
+        }
+        return conversationRepository.findByUsersForUpdate(low, high)
+                .orElseThrow(() -> new IllegalStateException("Conversation could not be created"));
+    }
+
+    /**
+     * One inbox page, most recent conversation first. The user sits on one side of each ordered
+     * pair, so each side is a single index range scan and the two are merged here.
+     */
+    @Transactional(readOnly = true)
+    public ConversationPageResponse getInbox(Long userId, String before, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        MessageCursor cursor = before == null ? INBOX_START : MessageCursor.decode(before);
+
+        List<ConversationResponse> asLow = conversationRepository.findInboxAsLow(
+                userId, cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+        List<ConversationResponse> asHigh = conversationRepository.findInboxAsHigh(
+                userId, cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+
+        List<ConversationResponse> page = new ArrayList<>(pageSize);
+        int i = 0;
+        int j = 0;
+        while (page.size() < pageSize && (i < asLow.size() || j < asHigh.size())) {
+            if (j == asHigh.size() || (i < asLow.size() && isNewer(asLow.get(i), asHigh.get(j)))) {
+                page.add(asLow.get(i++));
+            } else {
+                page.add(asHigh.get(j++));
+            }
+        }
+        boolean hasMore = i < asLow.size() || j < asHigh.size();
+        String nextBefore = null;
+        if (hasMore) {
+            ConversationResponse last = page.get(page.size() - 1);
+            nextBefore = new MessageCursor(last.getLastMessageAt(), last.getId()).encode();
+        }
+        return new ConversationPageResponse(page, nextBefore);
+    }
+
+    @Transactional(readOnly = true)
+    public int getUnreadCount(Long userId) {
+        return Math.toIntExact(conversationRepository.sumUnreadAsLow(userId) + conversationRepository.sumUnreadAsHigh(userId));
+    }
+
+    /**
+     * Moves the user's read watermark in the conversation with {@code peerId} up to the given
+     * message and returns what is still unread. Marks never move backwards.
+     */
+    @Transactional
+    public int markRead(Long userId, Long peerId, Long messageId) {
+        long low = Math.min(userId, peerId);
+        long high = Math.max(userId, peerId);
+        Conversation conversation = conversationRepository.findByUsersForUpdate(low, high)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", peerId));
+        LocalDateTime createdAt = messageRepository.findCreatedAtByIdAndConversationId(messageId, conversation.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Message", messageId));
+        int unread = Math.toIntExact(messageRepository.countConversationMessagesAfter(
+                conversation.getId(), userId, createdAt, messageId));
+        if (!conversation.markRead(userId, messageId, unread)) {
+            return conversation.unreadCountFor(userId);
+        }
+        return unread;
+    }
+
+    private static boolean isNewer(ConversationResponse a, ConversationResponse b) {
+        int byTime = a.getLastMessageAt().compareTo(b.getLastMessageAt());
+        return byTime != 0 ? byTime > 0 : a.getId() > b.getId();
+    }
+}
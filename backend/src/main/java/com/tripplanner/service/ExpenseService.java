@@ -0,0 +1,310 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.BalanceResponse;
+import com.tripplanner.dto.ExpensePageResponse;
+import com.tripplanner.dto.ExpenseRequest;
+import com.tripplanner.dto.ExpenseResponse;
+import com.tripplanner.dto.SettleUpResponse;
+import com.tripplanner.dto.SettlementRequest;
+import com.tripplanner.entity.Expense;
+import com.tripplanner.entity.ExpenseShare;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripBalance;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.ExpenseRepository;
+import com.tripplanner.repository.ExpenseShareRepository;
+import com.tripplanner.repository.TripBalanceRepository;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.expense.ExchangeRates;
+import com.tripplanner.service.expense.ExpenseSplit;
+import com.tripplanner.service.expense.SettleUp;
+import com.tripplanner.service.trip.TripMembershipCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-trip expense ledger with running member balances.
+ *
+ * Every write locks the trip row and applies the entry's effect to the {@link TripBalance} rows of
+ * the members it touches, in the same transaction: the payer is credited with the amount and each
+ * share is debited. An edit reverses the old effect before applying the new one and a delete
+ * reverses it, so balances always match a full recomputation over the expenses while balance and
+ * settle-up reads only touch one row per member. The lock keeps concurrent writers to one trip
+ * from racing on balance rows; different trips never contend.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final TripBalanceRepository tripBalanceRepository;
+    private final TripRepository tripRepository;
+    private final TripMemberRepository tripMemberRepository;
+    private final UserRepository userRepository;
+    private final TripMembershipCache membershipCache;
+    private final ExchangeRates exchangeRates;
+
+    @Transactional
+    public ExpenseResponse create(Long tripId, Long userId, ExpenseRequest request) {
+        requireMember(tripId, userId);
+        Trip trip = lockTrip(tripId);
+        Expense expense = new Expense();
+        expense.setTrip(trip);
+        expense.setCreatedBy(userRepository.getReferenceById(userId));
+        fill(trip, expense, userId, request);
+        expenseRepository.save(expense);
+
+        Map<Long, Long> deltas = new HashMap<>();
+        addEffect(deltas, expense, 1);
+        applyDeltas(trip, deltas);
+        return ExpenseResponse.from(expense);
+    }
+
+    @Transactional
+    public ExpenseResponse update(Long tripId, Long expenseId, Long userId, ExpenseRequest request) {
+        requireMember(tripId, userId);
+        Trip trip = lockTrip(tripId);
+        Expense expense = findExpense(tripId, expenseId);
+        requireEditor(expense, tripId, userId);
+        if (expense.getKind() != Expense.Kind.EXPENSE) {
+            throw new IllegalArgumentException("Settlements cannot be edited; delete it and record a new one");
+        }
+
+        Map<Long, Long> deltas = new HashMap<>();
+        addEffect(deltas, expense, -1);
+        expense.getShares().clear();
+        fill(trip, expense, expense.getPaidBy().getId(), request);
+        addEffect(deltas, expense, 1);
+        applyDeltas(trip, deltas);
+        // Flushed so the response carries the new updatedAt
+        return ExpenseResponse.from(expenseRepository.saveAndFlush(expense));
+    }
+
+    @Transactional
+    public void delete(Long tripId, Long expenseId, Long userId) {
+        requireMember(tripId, userId);
+        Trip trip = lockTrip(tripId);
+        Expense expense = findExpense(tripId, expenseId);
+        requireEditor(expense, tripId, userId);
+
+        Map<Long, Long> deltas = new HashMap<>();
+        addEffect(deltas, expense, -1);
+        applyDeltas(trip, deltas);
+        expenseRepository.delete(expense);
+    }
+
+    // Records a repayment from the current user to another member
+    @Transactional
+    public ExpenseResponse settle(Long tripId, Long userId, SettlementRequest request) {
+        if (request.getToUserId().equals(userId)) {
+            throw new IllegalArgumentException("Cannot settle up with yourself");
+        }
+        requireMember(tripId, userId);
+        requireParticipant(tripId, request.getToUserId());
+        Trip trip = lockTrip(tripId);
+
+        String currency = currencyOf(trip, request.getCurrency());
+        Expense expense = new Expense();
+        expense.setTrip(trip);
+        expense.setKind(Expense.Kind.SETTLEMENT);
+        expense.setDescription("Settlement");
+        expense.setAmountMinor(request.getAmountMinor());
+        expense.setCurrency(currency);
+        expense.setBaseAmountMinor(exchangeRates.convert(request.getAmountMinor(), currency, trip.getCurrency()));
+        expense.setPaidBy(userRepository.getReferenceById(userId));
+        expense.setCreatedBy(userRepository.getReferenceById(userId));
+        expense.addShare(userRepository.getReferenceById(request.getToUserId()), expense.getBaseAmountMinor());
+        expenseRepository.save(expense);
+
+        Map<Long, Long> deltas = new HashMap<>();
+        addEffect(deltas, expense, 1);
+        applyDeltas(trip, deltas);
+        return ExpenseResponse.from(expense);
+    }
+
+    // Newest first; shares for the whole page come from one query
+    @Transactional(readOnly = true)
+    public ExpensePageResponse getPage(Long tripId, Long userId, Long before, Integer limit) {
+        requireMember(tripId, userId);
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ExpenseResponse> expenses = new ArrayList<>(expenseRepository.findPageByTripId(tripId,
+                before == null ? Long.MAX_VALUE : before, Limit.of(size + 1)));
+        boolean hasMore = expenses.size() > size;
+        if (hasMore) {
+            expenses.remove(size);
+        }
+        if (!expenses.isEmpty()) {
+            Map<Long, ExpenseResponse> byId = expenses.stream()
+                    .collect(Collectors.toMap(ExpenseResponse::getId, Function.identity()));
+            for (ExpenseShareRepository.ShareRow row : expenseShareRepository.findRowsByExpenseIdIn(byId.keySet())) {
+                byId.get(row.getExpenseId()).getShares()
+                        .add(new ExpenseResponse.Share(row.getUserId(), row.getAmountMinor()));
+            }
+        }
+        return new ExpensePageResponse(expenses, hasMore ? expenses.get(expenses.size() - 1).getId() : null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BalanceResponse> getBalances(Long tripId, Long userId) {
+        requireMember(tripId, userId);
+        return tripBalanceRepository.findResponsesByTripId(tripId);
+    }
+
+    @Transactional(readOnly = true)
+    public SettleUpResponse getSettleUp(Long tripId, Long userId) {
+        requireMember(tripId, userId);
+        String currency = tripRepository.findActiveCurrencyById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+        List<BalanceResponse> balances = tripBalanceRepository.findResponsesByTripId(tripId);
+        Map<Long, Long> amounts = new HashMap<>();
+        Map<Long, String> usernames = new HashMap<>();
+        for (BalanceResponse balance : balances) {
+            amounts.put(balance.getUserId(), balance.getBalanceMinor());
+            usernames.put(balance.getUserId(), balance.getUsername());
+        }
+        List<SettleUpResponse.Transfer> transfers = new ArrayList<>();
+        for (SettleUp.Transfer transfer : SettleUp.transfers(amounts)) {
+            transfers.add(new SettleUpResponse.Transfer(transfer.getFromUserId(), usernames.get(transfer.getFromUserId()),
+                    transfer.getToUserId(), usernames.get(transfer.getToUserId()), transfer.getAmountMinor()));
+        }
+        return new SettleUpResponse(ExchangeRates.normalize(currency), transfers);
+    }
+
+    private void fill(Trip trip, Expense expense, Long defaultPayerId, ExpenseRequest request) {
+        Long tripId = trip.getId();
+        String currency = currencyOf(trip, request.getCurrency());
+        long amount = request.getAmountMinor();
+        long baseAmount = exchangeRates.convert(amount, currency, trip.getCurrency());
+        Long payerId = request.getPaidByUserId() != null ? request.getPaidByUserId() : defaultPayerId;
+        requireParticipant(tripId, payerId);
+
+        expense.setDescription(request.getDescription().strip());
+        expense.setAmountMinor(amount);
+        expense.setCurrency(currency);
+        expense.setBaseAmountMinor(baseAmount);
+        expense.setPaidBy(userRepository.getReferenceById(payerId));
+
+        List<Long> userIds = new ArrayList<>();
+        long[] parts;
+        if (request.getShares() != null) {
+            if (request.getParticipantIds() != null) {
+                throw new IllegalArgumentException("Give either participantIds or shares, not both");
+            }
+            long[] weights = new long[request.getShares().size()];
+            long sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                ExpenseRequest.Share share = request.getShares().get(i);
+                userIds.add(share.getUserId());
+                weights[i] = share.getAmountMinor();
+                sum = Math.addExact(sum, weights[i]);
+            }
+            if (sum != amount) {
+                throw new IllegalArgumentException("Shares add up to " + sum + " but the amount is " + amount);
+            }
+            // Converted in proportion so the shares still add up to the converted amount exactly
+            parts = ExpenseSplit.allocate(baseAmount, weights);
+        } else {
+            userIds.addAll(request.getParticipantIds() != null
+                    ? new TreeSet<>(request.getParticipantIds())
+                    : new TreeSet<>(tripMemberRepository.findUserIdsByTripIdAndStatus(tripId, TripMember.Status.ACCEPTED)));
+            if (userIds.isEmpty()) {
+                throw new IllegalArgumentException("An expense needs at least one participant");
+            }
+            parts = ExpenseSplit.equal(baseAmount, userIds.size());
+        }
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < parts.length; i++) {
+            Long participantId = userIds.get(i);
+            if (!seen.add(participantId)) {
+                throw new IllegalArgumentException("User " + participantId + " has more than one share");
+            }
+            requireParticipant(tripId, participantId);
+            if (parts[i] > 0) {
+                expense.addShare(userRepository.getReferenceById(participantId), parts[i]);
+            }
+        }
+    }
+
+    // Payer is credited with the amount, each share is debited; sign -1 undoes an entry
+    private static void addEffect(Map<Long, Long> deltas, Expense expense, int sign) {
+        deltas.merge(expense.getPaidBy().getId(), sign * expense.getBaseAmountMinor(), Math::addExact);
+        for (ExpenseShare share : expense.getShares()) {
+            deltas.merge(share.getUser().getId(), -sign * share.getAmountMinor(), Math::addExact);
+        }
+    }
+
+    private void applyDeltas(Trip trip, Map<Long, Long> deltas) {
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<Long, TripBalance> balances = new HashMap<>();
+        for (TripBalance balance : tripBalanceRepository.findByTripIdAndUserIdIn(trip.getId(), deltas.keySet())) {
+            balances.put(balance.getUser().getId(), balance);
+        }
+        List<TripBalance> created = new ArrayList<>();
+        deltas.forEach((userId, delta) -> {
+            TripBalance balance = balances.get(userId);
+            if (balance == null) {
+                balance = new TripBalance(trip, userRepository.getReferenceById(userId));
+                created.add(balance);
+            }
+            balance.setBalanceMinor(Math.addExact(balance.getBalanceMinor(), delta));
+        });
+        tripBalanceRepository.saveAll(created);
+    }
+
+    private String currencyOf(Trip trip, String requested) {
+        return ExchangeRates.normalize(requested != null ? requested : trip.getCurrency());
+    }
+
+    private Trip lockTrip(Long tripId) {
+        return tripRepository.findActiveByIdForUpdate(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+    }
+
+    private Expense findExpense(Long tripId, Long expenseId) {
+        return expenseRepository.findByIdAndTripId(expenseId, tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", expenseId));
+    }
+
+    private void requireMember(Long tripId, Long userId) {
+        if (!membershipCache.isAcceptedMember(tripId, userId)) {
+            throw new AccessDeniedException("Not a member of this trip");
+        }
+    }
+
+    private void requireParticipant(Long tripId, Long userId) {
+        if (!membershipCache.isAcceptedMember(tripId, userId)) {
+            throw new IllegalArgumentException("User " + userId + " is not a member of this trip");
+        }
+    }
+
+    private void requireEditor(Expense expense, Long tripId, Long userId) {
+        if (!expense.getCreatedBy().getId().equals(userId) && !expense.getPaidBy().getId().equals(userId)
+                && !membershipCache.canManage(tripId, userId)) {
+            throw new AccessDeniedException("Only whoever added or paid this expense, or a trip admin, can change it");
+        }
+    }
+}
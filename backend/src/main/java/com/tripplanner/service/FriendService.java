@@ -0,0 +1,204 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.FriendSuggestionResponse;
+import com.tripplanner.dto.FriendshipResponse;
+import com.tripplanner.dto.PublicUserResponse;
+import com.tripplanner.entity.Friend;
+import com.tripplanner.entity.Notification;
+import com.tripplanner.entity.User;
+import com.tripplanner.exception.ConflictException;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.FriendRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.friend.FriendGraphIndex;
+import com.tripplanner.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class FriendService {
+
+    private final FriendRepository friendRepository;
+    private final UserRepository userRepository;
+    private final FriendGraphIndex friendGraphIndex;
+    private final NotificationService notificationService;
+
+    @Value("${app.friends.suggestions.max-fanout:5000}")
+    private int suggestionMaxFanout;
+
+    @Transactional
+    public FriendshipResponse sendRequest(Long requesterId, Long addresseeId) {
+        if (requesterId.equals(addresseeId)) {
+            throw new IllegalArgumentException("You cannot send a friend request to yourself");
+        }
+        User addressee = userRepository.findById(addresseeId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", addresseeId));
+        friendRepository.findBetween(requesterId, addresseeId).ifPresent(existing -> {
+            throw new ConflictException("A friendship already exists with status " + existing.getStatus());
+        });
+        User requester = userRepository.getReferenceById(requesterId);
+        Friend friend;
+        try {
+            friend = friendRepository.saveAndFlush(new Friend(requester, addressee));
+        } catch (DataIntegrityViolationException ex) {
+            // Lost a race with a concurrent request between the same two users, in either direction
+            throw new ConflictException("A friendship already exists");
+        }
+        notificationService.create(addresseeId, Notification.NotificationType.FRIEND_REQUEST,
+                "New friend request", null, "/friends/requests");
+        return FriendshipResponse.from(friend);
+    }
+
+    /**
+     * Accepts or declines a pending request addressed to {@code userId}.
+     */
+    @Transactional
+    public FriendshipResponse respond(Long friendshipId, Long userId, boolean accept) {
+        Friend friend = friendRepository.findById(friendshipId)
+                .orElseThrow(() -> new ResourceNotFoundException("Friend request", friendshipId));
+        if (!friend.getAddressee().getId().equals(userId)) {
+            throw new AccessDeniedException("Only the addressee can respond to a friend request");
+        }
+        if (!friend.isPending()) {
+            throw new ConflictException("Friend request is already " + friend.getStatus());
+        }
+        friend.setStatus(accept ? Friend.Status.ACCEPTED : Friend.Status.DECLINED);
+        if (accept) {
+            long requesterId = friend.getRequester().getId();
+            TransactionCallbacks.afterCommit(() -> friendGraphIndex.addFriendship(requesterId, userId));
+            notificationService.create(requesterId, Notification.NotificationType.FRIEND_ACCEPTED,
+                    "Friend request accepted", null, "/friends");
+        }
+        return FriendshipResponse.from(friend);
+    }
+
+    @Transactional
+    public void block(Long userId, Long otherUserId) {
+        Friend friend = friendRepository.findBetween(userId, otherUserId)
+                .orElseGet(() -> new Friend(userRepository.getReferenceById(userId),
+                        userRepository.getReferenceById(otherUserId)));
+        friend.setStatus(Friend.Status.BLOCKED);
+        friendRepository.save(friend);
+        TransactionCallbacks.afterCommit(() -> friendGraphIndex.removeFriendship(userId, otherUserId));
+    }
+
+    @Transactional
+    public void removeFriend(Long userId, Long otherUserId) {
+        Friend friend = friendRepository.findBetween(userId, otherUserId)
+                .filter(Friend::isAccepted)
+                .orElseThrow(() -> new ResourceNotFoundException("Friendship", otherUserId));
+        friendRepository.delete(friend);
+        TransactionCallbacks.afterCommit(() -> friendGraphIndex.removeFriendship(userId, otherUserId));
+    }
+
+    @Transactional(readOnly = true)
+    public boolean areFriends(Long userId, Long otherUserId) {
+        if (friendGraphIndex.isReady()) {
+            return friendGraphIndex.areFriends(userId, otherUserId);
+        }
+        return friendRepository.findBetween(userId, otherUserId).filter(Friend::isAccepted).isPresent();
+    }
+
+    @Transactional(readOnly = true)
+    public int getMutualFriendCount(Long userId, Long otherUserId) {
+        if (friendGraphIndex.isReady()) {
+            return friendGraphIndex.mutualFriendCount(userId, otherUserId);
+        }
+        long[] friendsOfOther = friendIdsFromDatabase(otherUserId);
+        int mutual = 0;
+        for (long friend : friendIdsFromDatabase(userId)) {
+            if (Arrays.binarySearch(friendsOfOther, friend) >= 0) {
+                mutual++;
+            }
+        }
+        return mutual;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PublicUserResponse> getFriends(Long userId) {
+        long[] ids = friendGraphIndex.isReady() ? friendGraphIndex.friendsOf(userId) : friendIdsFromDatabase(userId);
+        return ids.length == 0 ? List.of() : userRepository.findPublicProfilesByIdIn(boxed(ids));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendSuggestionResponse> getSuggestions(Long userId, int limit) {
+        int capped = Math.max(1, Math.min(limit, 50));
+        List<FriendGraphIndex.Suggestion> suggestions = friendGraphIndex.isReady()
+                ? friendGraphIndex.suggestFriends(userId, capped, suggestionMaxFanout)
+                : suggestionsFromDatabase(userId, capped);
+        if (suggestions.isEmpty()) {
+            return List.of();
+        }
+        // Inactive users are left out by the query
+        Map<Long, PublicUserResponse> users = userRepository.findActivePublicProfilesByIdIn(
+                        boxed(suggestions.stream().mapToLong(FriendGraphIndex.Suggestion::getUserId).toArray()))
+                .stream()
+                .collect(Collectors.toMap(PublicUserResponse::getId, Function.identity()));
+        List<FriendSuggestionResponse> responses = new ArrayList<>(suggestions.size());
+        for (FriendGraphIndex.Suggestion suggestion : suggestions) {
+            PublicUserResponse user = users.get(suggestion.getUserId());
+            if (user != null) {
+                responses.add(new FriendSuggestionResponse(user, suggestion.getMutualFriends()));
+            }
+        }
+        return responses;
+    }
+
+    // Sorted ids of accepted friends, read from the table while the graph index is still loading
+    private long[] friendIdsFromDatabase(Long userId) {
+        return friendRepository.findOtherUserIds(userId, Friend.Status.ACCEPTED).stream()
+                .mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    // Same ranking as FriendGraphIndex.suggestFriends, from the friendships touching the user's friends
+    private List<FriendGraphIndex.Suggestion> suggestionsFromDatabase(Long userId, int limit) {
+        long[] friends = friendIdsFromDatabase(userId);
+        if (friends.length == 0) {
+            return List.of();
+        }
+        List<Object[]> edges = friendRepository.findEdgesTouching(
+                Arrays.stream(friends).boxed().toList(), Friend.Status.ACCEPTED);
+        Map<Long, Integer> fanout = new HashMap<>();
+        for (Object[] edge : edges) {
+            fanout.merge((Long) edge[0], 1, Integer::sum);
+            fanout.merge((Long) edge[1], 1, Integer::sum);
+        }
+        Map<Long, Integer> mutuals = new HashMap<>();
+        for (Object[] edge : edges) {
+            countMutual(userId, friends, (Long) edge[0], (Long) edge[1], fanout, mutuals);
+            countMutual(userId, friends, (Long) edge[1], (Long) edge[0], fanout, mutuals);
+        }
+        return mutuals.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new FriendGraphIndex.Suggestion(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private void countMutual(Long userId, long[] friends, long bridge, long candidate,
+                             Map<Long, Integer> fanout, Map<Long, Integer> mutuals) {
+        if (Arrays.binarySearch(friends, bridge) < 0 || fanout.get(bridge) > suggestionMaxFanout) {
+            return;
+        }
+        if (candidate != userId && Arrays.binarySearch(friends, candidate) < 0) {
+            mutuals.merge(candidate, 1, Integer::sum);
+        }
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.AttachmentResponse;
+import com.tripplanner.dto.MessageArchivePeriodResponse;
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.PublicUserResponse;
+import com.tripplanner.entity.Message;
+import com.tripplanner.entity.MessageArchive;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.AttachmentRepository;
+import com.tripplanner.repository.ConversationRepository;
+import com.tripplanner.repository.MessageArchiveRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.message.MessageArchiveCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads trip chat and private conversations that have aged out of the live {@code messages} table.
+ * An archived month comes back whole, in chronological order, with senders and attachments
+ * resolved in one query each.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageArchiveService {
+
+    private final MessageArchiveRepository messageArchiveRepository;
+    private final MessageArchiveCodec archiveCodec;
+    private final ConversationRepository conversationRepository;
+    private final UserRepository userRepository;
+    private final AttachmentRepository attachmentRepository;
+
+    @Transactional(readOnly = true)
+    public List<MessageArchivePeriodResponse> getArchivedPeriods(Long tripId) {
+        return messageArchiveRepository.findPeriodsByTripId(tripId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MessageResponse> getArchivedMonth(Long tripId, String month) {
+        YearMonth period = parseMonth(month);
+        MessageArchive archive = messageArchiveRepository.findByTripIdAndPeriodStart(tripId, period.atDay(1))
+                .orElseThrow(() -> new ResourceNotFoundException("Message archive", month));
+        return toResponses(archive);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MessageArchivePeriodResponse> getConversationArchivedPeriods(Long userId, Long peerId) {
+        return messageArchiveRepository.findPeriodsByConversationId(conversationId(userId, peerId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MessageResponse> getConversationArchivedMonth(Long userId, Long peerId, String month) {
+        YearMonth period = parseMonth(month);
+        MessageArchive archive = messageArchiveRepository
+                .findByConversationIdAndPeriodStart(conversationId(userId, peerId), period.atDay(1))
+                .orElseThrow(() -> new ResourceNotFoundException("Message archive", month));
+        return toResponses(archive);
+    }
+
+    private Long conversationId(Long userId, Long peerId) {
+        return conversationRepository.findIdByUsers(Math.min(userId, peerId), Math.max(userId, peerId))
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", peerId));
+    }
+
+    private List<MessageResponse> toResponses(MessageArchive archive) {
+        List<MessageArchiveCodec.ArchivedMessage> messages = archiveCodec.decode(archive.getData());
+
+        Set<Long> senderIds = new HashSet<>();
+        Set<Long> attachmentIds = new HashSet<>();
+        for (MessageArchiveCodec.ArchivedMessage message : messages) {
+            senderIds.add(message.getSenderId());
+            if (message.getAttachmentId() != null) {
+                attachmentIds.add(message.getAttachmentId());
+            }
+        }
+        Map<Long, PublicUserResponse> senders = userRepository.findPublicProfilesByIdIn(senderIds).stream()
+                .collect(Collectors.toMap(PublicUserResponse::getId, Function.identity()));
+        Map<Long, AttachmentResponse> attachments = new HashMap<>();
+        if (!attachmentIds.isEmpty()) {
+            attachmentRepository.findAllById(attachmentIds)
+                    .forEach(attachment -> attachments.put(attachment.getId(), AttachmentResponse.from(attachment)));
+        }
+
+        List<MessageResponse> responses = new ArrayList<>(messages.size());
+        for (MessageArchiveCodec.ArchivedMessage message : messages) {
+            PublicUserResponse sender = senders.get(message.getSenderId());
+            MessageResponse response = new MessageResponse(message.getId(), message.getContent(),
+                    Message.MessageType.valueOf(message.getMessageType()), message.getEdited(),
+                    message.getEditedAt(), message.getCreatedAt(), message.getSenderId(),
+                    sender == null ? null : sender.getUsername(), sender == null ? null : sender.getAvatarUrl());
+            if (message.getAttachmentId() != null) {
+                response.setAttachment(attachments.get(message.getAttachmentId()));
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private static YearMonth parseMonth(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Month must be formatted as yyyy-MM");
+        }
+    }
+}
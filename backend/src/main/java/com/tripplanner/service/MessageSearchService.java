@@ -0,0 +1,86 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.MessageSearchResponse;
+import com.tripplanner.repository.MessageRepository;
+import com.tripplanner.service.message.MessageCursor;
+import com.tripplanner.service.search.ChatSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    // Sorts after every real message, so the first page needs no separate query
+    private static final MessageCursor SEARCH_START = new MessageCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private final ChatSearchIndex chatSearchIndex;
+    private final MessageRepository messageRepository;
+
+    /**
+     * Searches a trip's chat, newest match first. Pass the previous page's {@code nextBefore} as
+     * {@code before} for older matches.
+     */
+    @Transactional(readOnly = true)
+    public MessageSearchResponse search(Long tripId, String query, String before, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("A search query is required");
+        }
+        MessageCursor cursor = before == null ? SEARCH_START : MessageCursor.decode(before);
+        if (!chatSearchIndex.isReady()) {
+            return searchDatabase(tripId, query, cursor, size);
+        }
+
+        List<ChatSearchIndex.Hit> hits = chatSearchIndex.search(tripId, query, cursor.getCreatedAt(), cursor.getId(), size + 1);
+        boolean hasMore = hits.size() > size;
+        List<ChatSearchIndex.Hit> page = hasMore ? hits.subList(0, size) : hits;
+        if (page.isEmpty()) {
+            return new MessageSearchResponse(List.of(), null);
+        }
+
+        // Newest first, so the last hit is the oldest and bounds the partitions read
+        LocalDateTime from = page.get(page.size() - 1).getCreatedAt();
+        Map<Long, MessageResponse> found = messageRepository.findTripMessagesByIdIn(tripId, from,
+                        page.stream().map(ChatSearchIndex.Hit::getMessageId).toList())
+                .stream()
+                .collect(Collectors.toMap(MessageResponse::getId, Function.identity()));
+        // Hits for messages that were archived since they were indexed are dropped here
+        List<MessageResponse> messages = new ArrayList<>(page.size());
+        for (ChatSearchIndex.Hit hit : page) {
+            MessageResponse message = found.get(hit.getMessageId());
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        ChatSearchIndex.Hit last = page.get(page.size() - 1);
+        String nextBefore = hasMore ? new MessageCursor(last.getCreatedAt(), last.getMessageId()).encode() : null;
+        return new MessageSearchResponse(messages, nextBefore);
+    }
+
+    private MessageSearchResponse searchDatabase(Long tripId, String query, MessageCursor cursor, int size) {
+        String pattern = "%" + query.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_").replace("\"", "") + "%";
+        List<MessageResponse> rows = messageRepository.findTripMessagesContaining(tripId, pattern,
+                cursor.getCreatedAt(), cursor.getId(), Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new MessageSearchResponse(rows, null);
+        }
+        List<MessageResponse> page = new ArrayList<>(rows.subList(0, size));
+        MessageResponse last = page.get(size - 1);
+        return new MessageSearchResponse(page, new MessageCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+}
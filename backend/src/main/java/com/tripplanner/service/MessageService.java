@@ -0,0 +1,247 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.EditMessageRequest;
+import com.tripplanner.dto.MessagePageResponse;
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.dto.SendMessageRequest;
+import com.tripplanner.entity.Attachment;
+import com.tripplanner.entity.Conversation;
+import com.tripplanner.entity.Friend;
+import com.tripplanner.entity.Message;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.User;
+import com.tripplanner.event.MessageCreatedEvent;
+import com.tripplanner.event.MessageEditedEvent;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.AttachmentRepository;
+import com.tripplanner.repository.ConversationRepository;
+import com.tripplanner.repository.FriendRepository;
+import com.tripplanner.repository.MessageRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.message.MessageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class MessageService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final MessageRepository messageRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final ConversationRepository conversationRepository;
+    private final FriendRepository friendRepository;
+    private final ConversationService conversationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public MessageResponse sendTripMessage(Long tripId, Long senderId, SendMessageRequest request) {
+        Message.MessageType type = request.getMessageType() == null ? Message.MessageType.TEXT : request.getMessageType();
+        // SYSTEM and NOTIFICATION rows are written by the server, never posted by members
+        if (type == Message.MessageType.SYSTEM || type == Message.MessageType.NOTIFICATION) {
+            throw new IllegalArgumentException("Only TEXT, IMAGE and FILE messages can be sent");
+        }
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", senderId));
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+
+        Message message = new Message(sender, request.getContent(), type);
+        message.setTrip(trip);
+        message.setAttachment(attachmentFor(tripId, type, request.getAttachmentId()));
+        message = messageRepository.save(message);
+
+        MessageResponse response = MessageResponse.from(message);
+        eventPublisher.publishEvent(new MessageCreatedEvent(tripId, null, response));
+        return response;
+    }
+
+    @Transactional
+    public MessageResponse editTripMessage(Long tripId, Long messageId, Long userId, EditMessageRequest request) {
+        Message message = messageRepository.findByIdAndTripId(messageId, tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Message", messageId));
+        if (!message.getSender().getId().equals(userId)) {
+            throw new AccessDeniedException("Only the sender can edit a message");
+        }
+        if (message.getMessageType() != Message.MessageType.TEXT) {
+            throw new IllegalArgumentException("Only TEXT messages can be edited");
+        }
+        message.setContent(request.getContent());
+        message.markAsEdited();
+
+        MessageResponse response = MessageResponse.from(message);
+        eventPublisher.publishEvent(new MessageEditedEvent(tripId, null, response));
+        return response;
+    }
+
+    /**
+     * Sends a private message and updates the conversation row in the same transaction. Sends
+     * between the same two users are serialized on that row.
+     */
+    @Transactional
+    public MessageResponse sendDirectMessage(Long senderId, Long recipientId, SendMessageRequest request) {
+        if (senderId.equals(recipientId)) {
+            throw new IllegalArgumentException("You cannot message yourself");
+        }
+        Message.MessageType type = request.getMessageType() == null ? Message.MessageType.TEXT : request.getMessageType();
+        if (type != Message.MessageType.TEXT || request.getAttachmentId() != null) {
+            // Attachments are stored per trip, so private messages are text only
+            throw new IllegalArgumentException("Private messages can only be TEXT");
+        }
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", senderId));
+        User recipient = userRepository.findById(recipientId)
+                .filter(user -> Boolean.TRUE.equals(user.getActive()))
+                .orElseThrow(() -> new ResourceNotFoundException("User", recipientId));
+        friendRepository.findBetween(senderId, recipientId)
+                .filter(friend -> friend.getStatus() == Friend.Status.BLOCKED)
+                .ifPresent(friend -> {
+                    throw new AccessDeniedException("You cannot message this user");
+                });
+
+        Conversation conversation = conversationService.lockConversation(senderId, recipientId);
+        Message message = new Message(sender, request.getContent(), type);
+        message.setRecipient(recipient);
+        message.setConversation(conversation);
+        message = messageRepository.save(message);
+        conversation.recordMessage(message);
+
+        MessageResponse response = MessageResponse.from(message);
+        eventPublisher.publishEvent(new MessageCreatedEvent(null, recipientId, response));
+        return response;
+    }
+
+    private Attachment attachmentFor(Long tripId, Message.MessageType type, Long attachmentId) {
+        boolean needsAttachment = type == Message.MessageType.IMAGE || type == Message.MessageType.FILE;
+        if (attachmentId == null) {
+            if (needsAttachment) {
+                throw new IllegalArgumentException(type + " messages need an attachmentId");
+            }
+            return null;
+        }
+        if (!needsAttachment) {
+            throw new IllegalArgumentException("Only IMAGE and FILE messages can carry an attachment");
+        }
+        Attachment attachment = attachmentRepository.findByIdAndTripId(attachmentId, tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment", attachmentId));
+        if (type == Message.MessageType.IMAGE && !attachment.isImage()) {
+            throw new IllegalArgumentException("IMAGE messages need an image attachment");
+        }
+        return attachment;
+    }
+
+    /**
+     * Returns one page of trip chat in chronological order. Without cursors the newest page is
+     * returned; {@code before} pages backwards and {@code after} pages forwards from a cursor.
+     */
+    @Transactional(readOnly = true)
+    public MessagePageResponse getTripHistory(Long tripId, String before, String after, Integer limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Only one of 'before' and 'after' may be given");
+        }
+        LocalDateTime tripCreatedAt = tripRepository.findCreatedAtById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells us whether another page exists without a count query
+        if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            List<MessageResponse> rows = messageRepository.findTripMessagesAfter(
+                    tripId, cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+            boolean hasNewer = rows.size() > pageSize;
+            List<MessageResponse> page = hasNewer ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+            return toPage(page, true, hasNewer);
+        }
+
+        MessageCursor cursor = before == null ? null : MessageCursor.decode(before);
+        List<MessageResponse> rows = findOlder(tripId, tripCreatedAt, cursor, pageSize + 1);
+        boolean hasOlder = rows.size() > pageSize;
+        List<MessageResponse> page = new ArrayList<>(hasOlder ? rows.subList(0, pageSize) : rows);
+        Collections.reverse(page);
+        return toPage(page, hasOlder, before != null);
+    }
+
+    /**
+     * Reads newest-first from the cursor (or from now) through month-aligned windows that double in
+     * size, stopping once enough rows are found or the window reaches the trip's creation. Each query
+     * then touches only the partitions in its window: a busy trip is served from the current month,
+     * and a quiet one still reaches its first message in a handful of queries.
+     */
+    private List<MessageResponse> findOlder(Long tripId, LocalDateTime floor, MessageCursor cursor, int wanted) {
+        LocalDateTime upper = cursor == null ? LocalDateTime.now() : cursor.getCreatedAt();
+        LocalDateTime from = upper.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        List<MessageResponse> rows = new ArrayList<>(cursor == null
+                ? messageRepository.findLatestTripMessages(tripId, from, Limit.of(wanted))
+                : messageRepository.findTripMessagesBefore(tripId, from, cursor.getCreatedAt(), cursor.getId(), Limit.of(wanted)));
+        int months = 1;
+        while (rows.size() < wanted && from.isAfter(floor)) {
+            LocalDateTime to = from;
+            from = from.minusMonths(months);
+            months *= 2;
+            // Ids are positive, so id 0 keeps everything strictly before the previous window
+            rows.addAll(messageRepository.findTripMessagesBefore(tripId, from, to, 0L, Limit.of(wanted - rows.size())));
+        }
+        return rows;
+    }
+
+    /**
+     * Returns one page of the private conversation with {@code peerId}, paged like trip history.
+     */
+    @Transactional(readOnly = true)
+    public MessagePageResponse getConversationHistory(Long userId, Long peerId, String before, String after, Integer limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Only one of 'before' and 'after' may be given");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long conversationId = conversationRepository.findIdByUsers(Math.min(userId, peerId), Math.max(userId, peerId))
+                .orElse(null);
+        if (conversationId == null) {
+            return toPage(new ArrayList<>(), false, false);
+        }
+
+        if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            List<MessageResponse> rows = messageRepository.findConversationMessagesAfter(
+                    conversationId, cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+            boolean hasNewer = rows.size() > pageSize;
+            List<MessageResponse> page = hasNewer ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+            return toPage(page, true, hasNewer);
+        }
+
+        // Without a cursor, start past anything that could exist
+        MessageCursor cursor = before == null ? new MessageCursor(LocalDateTime.now().plusDays(1), Long.MAX_VALUE)
+                : MessageCursor.decode(before);
+        List<MessageResponse> rows = messageRepository.findConversationMessagesBefore(
+                conversationId, cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+        boolean hasOlder = rows.size() > pageSize;
+        List<MessageResponse> page = new ArrayList<>(hasOlder ? rows.subList(0, pageSize) : rows);
+        Collections.reverse(page);
+        return toPage(page, hasOlder, before != null);
+    }
+
+    private MessagePageResponse toPage(List<MessageResponse> page, boolean hasOlder, boolean hasNewer) {
+        if (page.isEmpty()) {
+            return new MessagePageResponse(page, null, null, false, hasNewer);
+        }
+        MessageResponse first = page.get(0);
+        MessageResponse last = page.get(page.size() - 1);
+        return new MessagePageResponse(page,
+                new MessageCursor(first.getCreatedAt(), first.getId()).encode(),
+                new MessageCursor(last.getCreatedAt(), last.getId()).encode(),
+                hasOlder, hasNewer);
+    }
+}
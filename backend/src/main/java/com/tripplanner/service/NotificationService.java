@@ -0,0 +1,121 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.NotificationResponse;
+import com.tripplanner.dto.UnreadCountResponse;
+import com.tripplanner.entity.Notification;
+import com.tripplanner.entity.User;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.NotificationRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.mail.MailOutbox;
+import com.tripplanner.service.notification.UnreadNotificationCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Notification types that are also emailed, through the outbox in the same transaction
+    private static final Set<Notification.NotificationType> EMAILED_TYPES = EnumSet.of(
+            Notification.NotificationType.FRIEND_REQUEST,
+            Notification.NotificationType.FRIEND_ACCEPTED,
+            Notification.NotificationType.TRIP_INVITATION);
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final MailOutbox mailOutbox;
+
+    @Transactional
+    public NotificationResponse create(Long userId, Notification.NotificationType type, String title,
+                                       String content, String actionUrl) {
+        User user = userRepository.getReferenceById(userId);
+        Notification notification = new Notification(user, type, title, content);
+        notification.setActionUrl(actionUrl);
+        notification = notificationRepository.save(notification);
+        unreadCounter.adjustAfterCommit(userId, 1);
+        if (EMAILED_TYPES.contains(type)) {
+            mailOutbox.enqueue(userId, title, content, actionUrl);
+        }
+        return NotificationResponse.from(notification);
+    }
+
+    /**
+     * Creates the same notification for many users, e.g. the members added by a trip import.
+     * The rows go out in JDBC batches of {@code hibernate.jdbc.batch_size}.
+     */
+    @Transactional
+    public void createAll(Collection<Long> userIds, Notification.NotificationType type, String title,
+                          String content, String actionUrl) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Notification notification = new Notification(userRepository.getReferenceById(userId), type, title, content);
+            notification.setActionUrl(actionUrl);
+            notifications.add(notification);
+            unreadCounter.adjustAfterCommit(userId, 1);
+        }
+        notificationRepository.saveAll(notifications);
+        if (EMAILED_TYPES.contains(type)) {
+            mailOutbox.enqueueAll(userIds, title, content, actionUrl);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getNotifications(Long userId, Long beforeId, Integer limit) {
+        int pageSize = limit == null ? 20 : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return notificationRepository.findPageByUserId(userId,
+                beforeId == null ? Long.MAX_VALUE : beforeId, Limit.of(pageSize));
+    }
+
+    public UnreadCountResponse getUnreadCount(Long userId) {
+        return new UnreadCountResponse(unreadCounter.getUnreadCount(userId));
+    }
+
+    @Transactional
+    public void markRead(Long userId, Long notificationId) {
+        int updated = notificationRepository.markRead(userId, notificationId, LocalDateTime.now());
+        if (updated == 0 && !notificationRepository.existsById(notificationId)) {
+            throw new ResourceNotFoundException("Notification", notificationId);
+        }
+        unreadCounter.adjustAfterCommit(userId, -updated);
+    }
+
+    /**
+     * Marks unread notifications as read in a single statement: all of them, only those of
+     * {@code type}, or those with an id up to {@code upToId}.
+     */
+    @Transactional
+    public UnreadCountResponse markAllRead(Long userId, Notification.NotificationType type, Long upToId) {
+        if (type != null && upToId != null) {
+            throw new IllegalArgumentException("Specify either 'type' or 'upToId', not both");
+        }
+        // Read the cached count before updating so a cache miss never loads our own uncommitted rows
+        int unreadBefore = unreadCounter.getUnreadCount(userId);
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        if (type != null) {
+            updated = notificationRepository.markAllReadByType(userId, type, now);
+        } else if (upToId != null) {
+            updated = notificationRepository.markReadUpTo(userId, upToId, now);
+        } else {
+            updated = notificationRepository.markAllRead(userId, now);
+        }
+        unreadCounter.adjustAfterCommit(userId, -updated);
+        return new UnreadCountResponse(Math.max(0, unreadBefore - updated), updated);
+    }
+}
@@ -0,0 +1,313 @@
+package com.tripplanner.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripplanner.dto.ImportRowError;
+import com.tripplanner.dto.TripImportResponse;
+import com.tripplanner.entity.Availability;
+import com.tripplanner.entity.Notification;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.AvailabilityRepository;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.repository.UserRepository.UserKeyRow;
+import com.tripplanner.service.trip.ImportRow;
+import com.tripplanner.service.trip.ImportRowReader;
+import com.tripplanner.service.trip.TripMembershipCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of trip members and their availability ranges from a CSV or JSON upload.
+ *
+ * The upload is streamed in chunks of {@code app.trips.import.chunk-size} rows. Each chunk is
+ * validated with one user lookup query and written in its own transaction, so the inserts go out as
+ * JDBC batches (both tables use pooled sequences) and the persistence context never grows past one
+ * chunk. Invalid rows are reported and skipped; a chunk that fails to save reports all of its rows.
+ * The import is therefore not atomic: chunks committed before a failure stay committed.
+ *
+ * Imported members are always invitations: a row may leave the status out or say PENDING, and the
+ * member accepts for themselves. Only the trip creator may import ADMINs, so an admin cannot use an
+ * upload to mint further admins.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TripImportService {
+
+    private static final int MAX_NOTES_LENGTH = 255;
+
+    private final TripRepository tripRepository;
+    private final TripMemberRepository tripMemberRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final UserRepository userRepository;
+    private final TripMembershipCache membershipCache;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.trips.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.trips.import.max-errors:1000}")
+    private int maxErrors;
+
+    public TripImportResponse importUpload(Long tripId, Long userId, InputStream input, MediaType contentType)
+            throws IOException {
+        Long creatorId = tripRepository.findActiveCreatorIdById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+        if (!membershipCache.canManage(tripId, userId)) {
+            throw new AccessDeniedException("Only the trip creator or an admin can import members");
+        }
+
+        try (ImportRowReader reader = openReader(input, contentType)) {
+            ImportRun run = new ImportRun(tripId, creatorId, creatorId.equals(userId));
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            long lastRow = 0;
+            while (true) {
+                ImportRow row;
+                try {
+                    row = reader.next();
+                } catch (ImportRowReader.MalformedRowException ex) {
+                    lastRow = ex.getRow();
+                    run.response.setRowsRead(run.response.getRowsRead() + 1);
+                    run.response.addError(ex.getRow(), ex.getMessage(), maxErrors);
+                    continue;
+                } catch (IOException ex) {
+                    // The stream is unusable past this point; keep what was already imported
+                    String reason = ex instanceof JsonProcessingException json ? json.getOriginalMessage() : ex.getMessage();
+                    run.response.addError(lastRow + 1, "Upload could not be read: " + reason, maxErrors);
+                    break;
+                }
+                if (row == null) {
+                    break;
+                }
+                lastRow = row.getRow();
+                run.response.setRowsRead(run.response.getRowsRead() + 1);
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(run, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(run, chunk);
+            }
+            run.response.getErrors().sort(Comparator.comparingLong(ImportRowError::getRow));
+            log.info("Imported {} members and {} availabilities into trip {} ({} rows, {} errors)",
+                    run.response.getMembersCreated(), run.response.getAvailabilitiesCreated(), tripId,
+                    run.response.getRowsRead(), run.response.getErrorCount());
+            return run.response;
+        }
+    }
+
+    private ImportRowReader openReader(InputStream input, MediaType contentType) throws IOException {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return ImportRowReader.json(input, objectMapper);
+        }
+        if (contentType == null || contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                || contentType.isCompatibleWith(MediaType.TEXT_PLAIN)) {
+            return ImportRowReader.csv(input);
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+
+    private void importChunk(ImportRun run, List<ImportRow> rows) {
+        List<ValidRow> valid = new ArrayList<>(rows.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : rows) {
+            try {
+                ValidRow validRow = validate(row, run.mayImportAdmins);
+                valid.add(validRow);
+                (validRow.user.indexOf('@') >= 0 ? emails : usernames).add(validRow.user);
+            } catch (IllegalArgumentException ex) {
+                run.response.addError(row.getRow(), ex.getMessage(), maxErrors);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Map<String, UserKeyRow> users = new HashMap<>();
+        for (UserKeyRow user : userRepository.findKeysByUsernameInOrEmailIn(usernames, emails)) {
+            users.put(user.getUsername(), user);
+            users.put(user.getEmail(), user);
+        }
+
+        List<ValidRow> accepted = new ArrayList<>(valid.size());
+        Set<Long> newMembers = new HashSet<>();
+        // The first row naming a new member decides its role
+        List<ValidRow> members = new ArrayList<>();
+        for (ValidRow row : valid) {
+            UserKeyRow user = users.get(row.user);
+            if (user == null) {
+                run.response.addError(row.row, "Unknown user: " + row.user, maxErrors);
+                continue;
+            }
+            if (!Boolean.TRUE.equals(user.getActive())) {
+                run.response.addError(row.row, "User is not active: " + row.user, maxErrors);
+                continue;
+            }
+            row.userId = user.getId();
+            if (!run.memberIds.contains(row.userId) && newMembers.add(row.userId)) {
+                members.add(row);
+            }
+            accepted.add(row);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            int availabilities = transactionTemplate.execute(status -> save(run.tripId, members, accepted));
+            run.memberIds.addAll(newMembers);
+            run.response.setMembersCreated(run.response.getMembersCreated() + members.size());
+            run.response.setAvailabilitiesCreated(run.response.getAvailabilitiesCreated() + availabilities);
+        } catch (RuntimeException ex) {
+            log.warn("Trip {} import chunk failed", run.tripId, ex);
+            for (ValidRow row : accepted) {
+                run.response.addError(row.row, "Row could not be saved", maxErrors);
+            }
+        }
+    }
+
+    private int save(Long tripId, List<ValidRow> members, List<ValidRow> rows) {
+        Trip trip = tripRepository.getReferenceById(tripId);
+        List<TripMember> newMembers = new ArrayList<>(members.size());
+        for (ValidRow member : members) {
+            newMembers.add(new TripMember(trip, userRepository.getReferenceById(member.userId), member.role));
+        }
+        List<Availability> availabilities = new ArrayList<>(rows.size());
+        for (ValidRow row : rows) {
+            if (row.startDate != null) {
+                Availability availability = new Availability(trip, userRepository.getReferenceById(row.userId),
+                        row.startDate, row.endDate);
+                availability.setNotes(row.notes);
+                availabilities.add(availability);
+            }
+        }
+        tripMemberRepository.saveAll(newMembers);
+        availabilityRepository.saveAll(availabilities);
+
+        // Every new member is an invitation; the notifications and emails commit with the chunk
+        List<Long> invited = new ArrayList<>(members.size());
+        for (ValidRow member : members) {
+            invited.add(member.userId);
+        }
+        notificationService.createAll(invited, Notification.NotificationType.TRIP_INVITATION,
+                "New trip invitation", "You have been invited to a trip", "/trips/" + tripId);
+        return availabilities.size();
+    }
+
+    private static ValidRow validate(ImportRow row, boolean mayImportAdmins) {
+        if (row.getUser() == null) {
+            throw new IllegalArgumentException("User is required");
+        }
+        TripMember.Role role = parse(TripMember.Role.class, row.getRole(), TripMember.Role.MEMBER, "role");
+        if (role == TripMember.Role.CREATOR) {
+            throw new IllegalArgumentException("Role must be MEMBER or ADMIN");
+        }
+        if (role == TripMember.Role.ADMIN && !mayImportAdmins) {
+            throw new IllegalArgumentException("Only the trip creator can import admins");
+        }
+        TripMember.Status status = parse(TripMember.Status.class, row.getStatus(), TripMember.Status.PENDING,
+                "status");
+        if (status != TripMember.Status.PENDING) {
+            throw new IllegalArgumentException("Imported members are invited and must be PENDING");
+        }
+
+        LocalDate startDate = date(row.getStartDate(), "start date");
+        LocalDate endDate = date(row.getEndDate(), "end date");
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("Availability needs both a start date and an end date");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        if (row.getNotes() != null && row.getNotes().length() > MAX_NOTES_LENGTH) {
+            throw new IllegalArgumentException("Notes are longer than " + MAX_NOTES_LENGTH + " characters");
+        }
+        return new ValidRow(row.getRow(), row.getUser(), role, startDate, endDate, row.getNotes());
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, E defaultValue, String field) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static LocalDate date(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private final class ImportRun {
+
+        private final Long tripId;
+        private final Set<Long> memberIds;
+        private final boolean mayImportAdmins;
+        private final TripImportResponse response = new TripImportResponse();
+
+        ImportRun(Long tripId, Long creatorId, boolean mayImportAdmins) {
+            this.tripId = tripId;
+            this.mayImportAdmins = mayImportAdmins;
+            // The creator may have no member row; importing them must not add one
+            this.memberIds = new HashSet<>(tripMemberRepository.findUserIdsByTripId(tripId));
+            this.memberIds.add(creatorId);
+        }
+    }
+
+    private static final class ValidRow {
+
+        private final long row;
+        private final String user;
+        private final TripMember.Role role;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final String notes;
+        private Long userId;
+
+        ValidRow(long row, String user, TripMember.Role role, LocalDate startDate, LocalDate endDate,
+                 String notes) {
+            this.row = row;
+            this.user = user;
+            this.role = role;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.notes = notes;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.TripCardResponse;
+import com.tripplanner.dto.TripDetailResponse;
+import com.tripplanner.dto.TripMemberResponse;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.trip.TripMembershipCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trip reads go through DTO projections, never through {@link Trip} entities, so a list or detail
+ * request costs one query and no lazy collection is ever initialized.
+ */
+@Service
+@RequiredArgsConstructor
+public class TripService {
+
+    private final TripRepository tripRepository;
+    private final TripMemberRepository tripMemberRepository;
+    private final TripMembershipCache membershipCache;
+
+    // The principal already carries the caller's trip ids, so no membership join is needed
+    @Transactional(readOnly = true)
+    public List<TripCardResponse> getTrips(AuthenticatedUser user) {
+        long[] tripIds = user.getTripIds();
+        if (tripIds.length == 0) {
+            return List.of();
+        }
+        return tripRepository.findCardsByIdIn(Arrays.stream(tripIds).boxed().toList(),
+                TripMember.Status.ACCEPTED);
+    }
+
+    // A private trip the caller is not a member of answers 404 like a missing one, so ids cannot be probed
+    @Transactional(readOnly = true)
+    public TripDetailResponse getTrip(Long tripId, AuthenticatedUser user) {
+        boolean member = membershipCache.isAcceptedMember(tripId, user.getId());
+        return tripRepository.findDetailById(tripId, TripMember.Status.ACCEPTED)
+                .filter(trip -> member || Boolean.TRUE.equals(trip.getIsPublic()))
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TripMemberResponse> getMembers(Long tripId, AuthenticatedUser user) {
+        if (!membershipCache.isAcceptedMember(tripId, user.getId())) {
+            throw new AccessDeniedException("Not a member of this trip");
+        }
+        return tripMemberRepository.findMemberResponsesByTripId(tripId);
+    }
+
+    // Trips are soft deleted so shared links and history stay resolvable for auditing
+    @Transactional
+    public void deactivate(Long tripId, Long userId) {
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+        if (!trip.getCreator().getId().equals(userId)) {
+            throw new AccessDeniedException("Only the trip creator can delete the trip");
+        }
+        trip.setActive(false);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.ShareTokenResponse;
+import com.tripplanner.dto.TripShareSummary;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.TripRepository;
+import com.tripplanner.service.trip.ShareTokenCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class TripShareService {
+
+    private final TripRepository tripRepository;
+    private final ShareTokenCache shareTokenCache;
+
+    public TripShareSummary resolve(String token) {
+        return shareTokenCache.resolve(token)
+                .orElseThrow(() -> new ResourceNotFoundException("Shared trip not found"));
+    }
+
+    @Transactional
+    public ShareTokenResponse regenerateShareToken(Long tripId, Long userId) {
+        Trip trip = requireCreator(tripId, userId);
+        trip.generateNewShareToken();
+        return new ShareTokenResponse(trip.getShareToken().toString());
+    }
+
+    private Trip requireCreator(Long tripId, Long userId) {
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip", tripId));
+        if (!trip.getCreator().getId().equals(userId)) {
+            throw new AccessDeniedException("Only the trip creator can manage sharing");
+        }
+        return trip;
+    }
+}
@@ -0,0 +1,69 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.UserSearchResult;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.friend.FriendGraphIndex;
+import com.tripplanner.service.search.UserSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class UserSearchService {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+    private static final long[] NONE = new long[0];
+
+    private final UserSearchIndex userSearchIndex;
+    private final FriendGraphIndex friendGraphIndex;
+    private final UserRepository userRepository;
+
+    @Value("${app.friends.suggestions.max-fanout:5000}")
+    private int maxFanout;
+
+    @Value("${app.search.users.max-friends-of-friends:5000}")
+    private int maxFriendsOfFriends;
+
+    @Transactional(readOnly = true)
+    public List<UserSearchResult> search(Long userId, String query, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (!userSearchIndex.isReady()) {
+            return searchDatabase(userId, query, size);
+        }
+
+        long[] friends = NONE;
+        long[] friendsOfFriends = NONE;
+        if (friendGraphIndex.isReady()) {
+            friends = friendGraphIndex.friendsOf(userId);
+            friendsOfFriends = friendGraphIndex.friendsOfFriends(userId, maxFanout, maxFriendsOfFriends);
+        }
+        return userSearchIndex.search(userId, query, size, friends, friendsOfFriends).stream()
+                .map(UserSearchResult::from)
+                .toList();
+    }
+
+    private List<UserSearchResult> searchDatabase(Long userId, String query, int size) {
+        String prefix = query.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<UserSearchResult> results = userRepository.findActiveByUsernamePrefix(prefix, Limit.of(size + 1))
+                .stream()
+                .filter(user -> !user.getId().equals(userId))
+                .limit(size)
+                .toList();
+        boolean graphReady = friendGraphIndex.isReady();
+        for (UserSearchResult result : results) {
+            result.setFriend(graphReady && friendGraphIndex.areFriends(userId, result.getId()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,163 @@
+package com.tripplanner.service.attachment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store on the local disk.
+ *
+ * Uploads are streamed through a fixed 64 KB buffer into a temporary file while their SHA-256 is
+ * computed, then moved atomically to {@code blobs/ab/cd/<sha256>}. If that path already exists the
+ * upload was a duplicate and the temporary file is simply dropped, so each distinct content is
+ * stored once no matter how often it is attached. Stored files are never modified, which is what
+ * makes the hash usable as a strong ETag. Files derived from a blob, such as resized images, live
+ * under {@code variants/<name>/ab/cd/<sha256>.<ext>} and are written the same way.
+ */
+@Component
+public class AttachmentStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path blobs;
+    private final Path variants;
+    private final Path incoming;
+    private final long maxFileSize;
+
+    public AttachmentStore(@Value("${app.file.upload-dir:uploads/}") Path uploadDir,
+                           @Value("${app.file.max-file-size:10MB}") DataSize maxFileSize) throws IOException {
+        this.blobs = Files.createDirectories(uploadDir.resolve("blobs")).toAbsolutePath();
+        this.variants = Files.createDirectories(uploadDir.resolve("variants")).toAbsolutePath();
+        this.incoming = Files.createDirectories(uploadDir.resolve("incoming")).toAbsolutePath();
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    /**
+     * Streams {@code input} into the store and returns its hash and size. Rejects inputs that are
+     * empty or larger than {@code app.file.max-file-size} without keeping anything on disk.
+     */
+    public StoredBlob store(InputStream input) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize) {
+                        throw new IllegalArgumentException("File is larger than " + DataSize.ofBytes(maxFileSize).toMegabytes() + "MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(sha256);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ex) {
+                    // A concurrent upload of the same content won the race
+                }
+            }
+            return new StoredBlob(sha256, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path pathOf(String sha256) {
+        requireHash(sha256);
+        return blobs.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public Path variantPathOf(String sha256, String variant, String extension) {
+        requireHash(sha256);
+        return variants.resolve(variant).resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4))
+                .resolve(sha256 + "." + extension);
+    }
+
+    /**
+     * Writes a derived file through a temporary file and moves it into place, so readers never see
+     * a partially written variant. Variants are deterministic, so when two writers race it does not
+     * matter whose file ends up in place.
+     */
+    public void writeDerived(Path target, DerivedWriter writer) throws IOException {
+        Path temp = Files.createTempFile(incoming, "variant-", ".tmp");
+        try {
+            writer.write(temp);
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ex) {
+                // Another instance produced the same variant first
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void requireHash(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @FunctionalInterface
+    public interface DerivedWriter {
+
+        void write(Path target) throws IOException;
+    }
+
+    public static final class StoredBlob {
+
+        private final String sha256;
+        private final long size;
+
+        StoredBlob(String sha256, long size) {
+            this.sha256 = sha256;
+            this.size = size;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
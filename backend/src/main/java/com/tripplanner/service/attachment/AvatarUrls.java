@@ -0,0 +1,24 @@
+package com.tripplanner.service.attachment;
+
+/**
+ * Avatars uploaded to the app are stored as {@code /avatars/<sha256>.<ext>}, relative to the API
+ * base path. Other values of {@code User.avatarUrl} are external links and are passed through.
+ */
+public final class AvatarUrls {
+
+    public static final String PREFIX = "/avatars/";
+
+    private AvatarUrls() {}
+
+    public static String of(String sha256, String extension) {
+        return PREFIX + sha256 + "." + extension;
+    }
+
+    /** The URL to render in lists: the thumbnail for hosted avatars, anything else as it is. */
+    public static String thumbnail(String avatarUrl) {
+        if (avatarUrl == null || !avatarUrl.startsWith(PREFIX)) {
+            return avatarUrl;
+        }
+        return avatarUrl + "?variant=" + ImageVariant.THUMBNAIL.param();
+    }
+}
@@ -0,0 +1,24 @@
+package com.tripplanner.service.attachment;
+
+import java.util.Locale;
+
+/**
+ * Resized renditions served in place of a full image, selected with {@code ?variant=}.
+ */
+public enum ImageVariant {
+    THUMBNAIL,
+    MEDIUM;
+
+    public String param() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ImageVariant fromParam(String value) {
+        for (ImageVariant variant : values()) {
+            if (variant.param().equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image variant: " + value);
+    }
+}
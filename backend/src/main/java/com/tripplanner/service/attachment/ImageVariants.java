@@ -0,0 +1,283 @@
+package com.tripplanner.service.attachment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resized image variants, generated off the request thread and cached in the {@link AttachmentStore}.
+ *
+ * Uploads queue every variant right away. A request for a variant that is not on disk yet (an older
+ * upload, or one whose job was shed) queues it lazily and waits up to {@code request-wait} for it;
+ * concurrent requests for the same variant share one job. Resizing runs on a small fixed pool with a
+ * bounded queue, so a burst of uploads cannot take more than {@code workers} cores or unbounded
+ * memory: when the queue is full the job is dropped and the caller serves the original instead.
+ *
+ * JPEG sources produce JPEG variants and PNG or GIF sources produce PNG. Other types (WebP, which
+ * ImageIO cannot read) are always served as uploaded.
+ */
+@Slf4j
+@Component
+public class ImageVariants {
+
+    // Decoding is refused above this many pixels so a tiny file cannot claim gigabytes of heap
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final AttachmentStore attachmentStore;
+    private final Map<ImageVariant, Integer> maxDimensions = new EnumMap<>(ImageVariant.class);
+    private final Duration requestWait;
+    private final ThreadPoolExecutor executor;
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    // Sources that failed to decode, so a broken image is not re-read on every list render
+    private final Cache<Path, Boolean> failures = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final Counter generated;
+    private final Counter collapsed;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer resizeTime;
+
+    public ImageVariants(AttachmentStore attachmentStore,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.images.variants.thumbnail-size:160}") int thumbnailSize,
+                         @Value("${app.images.variants.medium-size:800}") int mediumSize,
+                         @Value("${app.images.variants.workers:2}") int workers,
+                         @Value("${app.images.variants.queue-capacity:200}") int queueCapacity,
+                         @Value("${app.images.variants.request-wait:2s}") Duration requestWait) {
+        this.attachmentStore = attachmentStore;
+        this.maxDimensions.put(ImageVariant.THUMBNAIL, thumbnailSize);
+        this.maxDimensions.put(ImageVariant.MEDIUM, mediumSize);
+        this.requestWait = requestWait;
+        int threads = Math.max(1, workers);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("image-variant-"));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.generated = Counter.builder("images.variants.generated")
+                .description("Image variants written to disk").register(meterRegistry);
+        this.collapsed = Counter.builder("images.variants.collapsed")
+                .description("Variant requests that joined a job already in flight").register(meterRegistry);
+        this.rejected = Counter.builder("images.variants.rejected")
+                .description("Variant jobs dropped because the queue was full").register(meterRegistry);
+        this.failed = Counter.builder("images.variants.failed")
+                .description("Variant jobs that could not decode or encode the source").register(meterRegistry);
+        this.resizeTime = Timer.builder("images.variants.resize")
+                .description("Time to decode, resize and write one variant").register(meterRegistry);
+        Gauge.builder("images.variants.queue", executor, pool -> pool.getQueue().size())
+                .description("Variant jobs waiting for a worker").register(meterRegistry);
+    }
+
+    public static boolean supports(String contentType) {
+        return extensionFor(contentType) != null;
+    }
+
+    public static String contentTypeOf(String sourceContentType) {
+        return MediaType.IMAGE_JPEG_VALUE.equals(sourceContentType) ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE;
+    }
+
+    /** Queues every variant of a freshly stored image. Best effort: anything dropped is made on demand. */
+    public void generateAll(String sha256, String contentType) {
+        if (!supports(contentType)) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path target = attachmentStore.variantPathOf(sha256, variant.param(), extensionFor(contentType));
+            if (!Files.exists(target)) {
+                submit(sha256, contentType, variant, target);
+            }
+        }
+    }
+
+    /**
+     * Returns the variant file, generating it if needed. Returns null when the original should be
+     * served instead: the type is not resizable, the source is broken, the pool is saturated or the
+     * job did not finish within {@code request-wait} (it keeps running for the next request).
+     */
+    public Path resolve(String sha256, String contentType, ImageVariant variant) {
+        if (!supports(contentType)) {
+            return null;
+        }
+        Path target = attachmentStore.variantPathOf(sha256, variant.param(), extensionFor(contentType));
+        if (Files.exists(target)) {
+            return target;
+        }
+        if (failures.getIfPresent(target) != null) {
+            return null;
+        }
+        try {
+            return submit(sha256, contentType, variant, target).get(requestWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private CompletableFuture<Path> submit(String sha256, String contentType, ImageVariant variant, Path target) {
+        CompletableFuture<Path> job = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(target, job);
+        if (existing != null) {
+            collapsed.increment();
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    job.complete(resizeTime.recordCallable(() -> generate(sha256, contentType, variant, target)));
+                } catch (Exception ex) {
+                    failed.increment();
+                    failures.put(target, Boolean.TRUE);
+                    log.warn("Could not generate {} variant of {}: {}", variant.param(), sha256, ex.toString());
+                    job.completeExceptionally(ex);
+                } finally {
+                    inFlight.remove(target, job);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            inFlight.remove(target, job);
+            job.completeExceptionally(ex);
+        }
+        return job;
+    }
+
+    private Path generate(String sha256, String contentType, ImageVariant variant, Path target) throws IOException {
+        // A job queued before an earlier one for the same target finished finds the file already there
+        if (Files.exists(target)) {
+            return target;
+        }
+        int maxDimension = maxDimensions.get(variant);
+        BufferedImage source = read(attachmentStore.pathOf(sha256), maxDimension);
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        boolean jpeg = MediaType.IMAGE_JPEG_VALUE.equals(contentType);
+        BufferedImage resized = scale(source, width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        attachmentStore.writeDerived(target, temp -> write(resized, jpeg ? "jpeg" : "png", temp));
+        generated.increment();
+        return target;
+    }
+
+    // Reads the header first to bound memory, then decodes with subsampling down to about twice the target size
+    private static BufferedImage read(Path path, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unrecognized image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image is " + width + "x" + height + ", too large to resize");
+                }
+                int subsampling = Math.max(1, Math.max(width, height) / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves in bilinear steps rather than one large jump, which would skip most source pixels
+    private static BufferedImage scale(BufferedImage source, int width, int height, int type) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (type == BufferedImage.TYPE_INT_RGB) {
+                    // JPEG has no alpha channel; transparent areas become white rather than black
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpeg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String extensionFor(String contentType) {
+        if (MediaType.IMAGE_JPEG_VALUE.equals(contentType)) {
+            return "jpg";
+        }
+        if (MediaType.IMAGE_PNG_VALUE.equals(contentType) || MediaType.IMAGE_GIF_VALUE.equals(contentType)) {
+            return "png";
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,161 @@
+package com.tripplanner.service.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripplanner.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Decides whether a sign-in or registration may go on to the {@link PasswordHasher}, so a
+ * credential-stuffing burst is turned away before it costs any CPU.
+ *
+ * Each client address gets {@code ip-max-attempts} hashing requests per {@code ip-window}, shared by
+ * logins and registrations. Each account (by lower-cased email, whether or not it exists) allows one
+ * attempt at a time and, after {@code account-max-failures} consecutive wrong passwords, is locked
+ * for {@code account-base-lockout}, doubling with every further failure up to
+ * {@code account-max-lockout}. A successful sign-in clears the account's failures.
+ *
+ * State is per instance and held in bounded caches, so behind several instances the effective
+ * limits are multiplied by the instance count.
+ */
+@Component
+public class LoginAdmission {
+
+    private final Cache<String, Window> addresses;
+    private final Cache<String, Account> accounts;
+    private final int ipMaxAttempts;
+    private final long ipWindowNanos;
+    private final int accountMaxFailures;
+    private final long baseLockoutNanos;
+    private final long maxLockoutNanos;
+
+    private final Counter rejectedByAddress;
+    private final Counter rejectedByAccount;
+
+    public LoginAdmission(MeterRegistry meterRegistry,
+                          @Value("${app.auth.admission.ip-max-attempts:30}") int ipMaxAttempts,
+                          @Value("${app.auth.admission.ip-window:1m}") Duration ipWindow,
+                          @Value("${app.auth.admission.account-max-failures:5}") int accountMaxFailures,
+                          @Value("${app.auth.admission.account-base-lockout:30s}") Duration baseLockout,
+                          @Value("${app.auth.admission.account-max-lockout:15m}") Duration maxLockout,
+                          @Value("${app.auth.admission.max-tracked:100000}") long maxTracked) {
+        this.ipMaxAttempts = ipMaxAttempts;
+        this.ipWindowNanos = ipWindow.toNanos();
+        this.accountMaxFailures = accountMaxFailures;
+        this.baseLockoutNanos = baseLockout.toNanos();
+        this.maxLockoutNanos = maxLockout.toNanos();
+        this.addresses = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(ipWindow)
+                .build();
+        // Kept past the longest lockout so the failure count survives until it can matter again
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(maxLockout.multipliedBy(2))
+                .build();
+
+        this.rejectedByAddress = Counter.builder("auth.admission.rejected").tag("limit", "address")
+                .description("Sign-in and registration attempts refused before hashing").register(meterRegistry);
+        this.rejectedByAccount = Counter.builder("auth.admission.rejected").tag("limit", "account")
+                .description("Sign-in and registration attempts refused before hashing").register(meterRegistry);
+    }
+
+    /**
+     * Admits a sign-in attempt or throws {@link TooManyRequestsException}. The caller reports the
+     * outcome on the returned attempt and closes it when done.
+     */
+    public Attempt admitLogin(String email, String clientAddress) {
+        admitAddress(clientAddress);
+        Account account = accounts.get(email.strip().toLowerCase(Locale.ROOT), key -> new Account());
+        long now = System.nanoTime();
+        synchronized (account) {
+            if (account.lockedUntil - now > 0) {
+                rejectedByAccount.increment();
+                throw new TooManyRequestsException("Too many failed sign-in attempts, please try again later",
+                        Duration.ofNanos(account.lockedUntil - now));
+            }
+            if (account.inFlight) {
+                rejectedByAccount.increment();
+                throw new TooManyRequestsException("A sign-in for this account is already in progress",
+                        Duration.ofSeconds(1));
+            }
+            account.inFlight = true;
+        }
+        return new Attempt(account);
+    }
+
+    /** Admits a registration or throws {@link TooManyRequestsException}. */
+    public void admitRegistration(String clientAddress) {
+        admitAddress(clientAddress);
+    }
+
+    private void admitAddress(String clientAddress) {
+        Window window = addresses.get(clientAddress, key -> new Window());
+        long now = System.nanoTime();
+        synchronized (window) {
+            if (now - window.start >= ipWindowNanos) {
+                window.start = now;
+                window.count = 0;
+            }
+            if (window.count >= ipMaxAttempts) {
+                rejectedByAddress.increment();
+                throw new TooManyRequestsException("Too many attempts from this address, please try again later",
+                        Duration.ofNanos(window.start + ipWindowNanos - now));
+            }
+            window.count++;
+        }
+    }
+
+    /** An admitted sign-in. Closing it without a reported outcome leaves the failure count unchanged. */
+    public final class Attempt implements AutoCloseable {
+
+        private final Account account;
+
+        private Attempt(Account account) {
+            this.account = account;
+        }
+
+        public void succeeded() {
+            synchronized (account) {
+                account.failures = 0;
+                account.lockedUntil = System.nanoTime();
+            }
+        }
+
+        public void failed() {
+            synchronized (account) {
+                account.failures++;
+                int excess = account.failures - accountMaxFailures;
+                if (excess >= 0) {
+                    // Capped shift so a long run of failures cannot overflow
+                    long lockout = Math.min(maxLockoutNanos, baseLockoutNanos << Math.min(excess, 20));
+                    account.lockedUntil = System.nanoTime() + (lockout < 0 ? maxLockoutNanos : lockout);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (account) {
+                account.inFlight = false;
+            }
+        }
+    }
+
+    private static final class Window {
+        private long start = System.nanoTime();
+        private int count;
+    }
+
+    private static final class Account {
+        private int failures;
+        private long lockedUntil = System.nanoTime();
+        private boolean inFlight;
+    }
+}
@@ -0,0 +1,117 @@
+package com.tripplanner.service.auth;
+
+import com.tripplanner.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated pool, off the request threads.
+ *
+ * A bcrypt call takes tens of milliseconds of pure CPU, so a burst of logins on request threads
+ * would starve every other endpoint. The pool has one worker per core and a short bounded queue:
+ * when the queue is full, or a queued job has not finished within {@code request-wait}, the caller
+ * gets a {@link ServiceBusyException} (503) straight away rather than piling up behind the burst.
+ *
+ * Sign-ins for unknown or inactive accounts still pay for one verification, against a hash made
+ * at startup with the configured strength, so response time does not reveal which emails exist.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final String dummyHash;
+    private final Duration requestWait;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter rejected;
+    private final Timer hashTime;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.auth.hashing.workers:0}") int workers,
+                          @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.auth.hashing.request-wait:5s}") Duration requestWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.dummyHash = passwordEncoder.encode("dummy password for unknown accounts");
+        this.requestWait = requestWait;
+        // Zero means one worker per available core
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("password-hash-"));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Hash jobs refused because the queue was full or the wait ran out").register(meterRegistry);
+        this.hashTime = Timer.builder("auth.hashing")
+                .description("Time to compute or verify one password hash").register(meterRegistry);
+        Gauge.builder("auth.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Hash jobs waiting for a worker").register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String passwordHash) {
+        return run(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /** Costs the same as {@link #matches} but checks against the dummy hash; use when there is no real hash. */
+    public void verifyDummy(CharSequence rawPassword) {
+        run(() -> passwordEncoder.matches(rawPassword, dummyHash));
+    }
+
+    /** True when the hash was made with weaker settings than the current ones. Only parses the hash. */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    private <T> T run(Supplier<T> work) {
+        CompletableFuture<T> job;
+        try {
+            job = CompletableFuture.supplyAsync(() -> hashTime.record(work), executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServiceBusyException("The service is busy, please retry");
+        }
+        try {
+            return job.get(requestWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // A job still in the queue sees the cancellation and never runs
+            job.cancel(false);
+            rejected.increment();
+            throw new ServiceBusyException("The service is busy, please retry");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.cancel(false);
+            throw new ServiceBusyException("The service is busy, please retry");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,269 @@
+package com.tripplanner.service.availability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sweep-line search for the date windows most members can attend.
+ *
+ * Availability ranges are kept as epoch-day primitives. Each member's ranges are merged first so
+ * overlapping rows never count a member twice, then every merged range long enough for the
+ * requested window contributes one interval of valid window start days. A single sorted sweep over
+ * those intervals yields runs of start days with a constant attendee set, so the whole search costs
+ * O(R log R) for R ranges regardless of how many days the ranges span.
+ */
+public final class DateWindowEngine {
+
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int REQUIRED_START = 2;
+    private static final int REQUIRED_END = 3;
+
+    private final long[] mergedUsers;
+    private final int[] mergedStarts;
+    private final int[] mergedEnds;
+    private final int mergedCount;
+    private final int distinctUsers;
+
+    private DateWindowEngine(long[] mergedUsers, int[] mergedStarts, int[] mergedEnds, int mergedCount, int distinctUsers) {
+        this.mergedUsers = mergedUsers;
+        this.mergedStarts = mergedStarts;
+        this.mergedEnds = mergedEnds;
+        this.mergedCount = mergedCount;
+        this.distinctUsers = distinctUsers;
+    }
+
+    /**
+     * Builds an engine over {@code count} ranges. Days are epoch days and both ends are inclusive.
+     */
+    public static DateWindowEngine of(long[] userIds, int[] startDays, int[] endDays, int count) {
+        if (count == 0) {
+            return new DateWindowEngine(new long[0], new int[0], new int[0], 0, 0);
+        }
+
+        // Dense user indexes so ranges can be bucketed per user without hashing
+        long[] users = Arrays.copyOf(userIds, count);
+        Arrays.sort(users);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || users[i] != users[i - 1]) {
+                users[distinct++] = users[i];
+            }
+        }
+
+        int minDay = Integer.MAX_VALUE;
+        int[] bucketSizes = new int[distinct + 1];
+        int[] userIndex = new int[count];
+        for (int i = 0; i < count; i++) {
+            userIndex[i] = Arrays.binarySearch(users, 0, distinct, userIds[i]);
+            bucketSizes[userIndex[i] + 1]++;
+            minDay = Math.min(minDay, startDays[i]);
+        }
+        for (int u = 0; u < distinct; u++) {
+            bucketSizes[u + 1] += bucketSizes[u];
+        }
+
+        // start/end packed into one long (relative to minDay) so a primitive sort orders by start
+        long[] packed = new long[count];
+        int[] cursor = Arrays.copyOf(bucketSizes, distinct);
+        for (int i = 0; i < count; i++) {
+            int start = startDays[i];
+            int end = endDays[i];
+            if (end < start) {
+                continue;
+            }
+            packed[cursor[userIndex[i]]++] = ((long) (start - minDay) << 32) | (end - minDay);
+        }
+
+        long[] mergedUsers = new long[count];
+        int[] mergedStarts = new int[count];
+        int[] mergedEnds = new int[count];
+        int merged = 0;
+        for (int u = 0; u < distinct; u++) {
+            int from = bucketSizes[u];
+            int to = cursor[u];
+            Arrays.sort(packed, from, to);
+            int runStart = 0;
+            int runEnd = -1;
+            boolean open = false;
+            for (int k = from; k < to; k++) {
+                int start = (int) (packed[k] >>> 32) + minDay;
+                int end = (int) packed[k] + minDay;
+                if (open && start <= runEnd + 1) {
+                    runEnd = Math.max(runEnd, end);
+                    continue;
+                }
+                if (open) {
+                    mergedUsers[merged] = users[u];
+                    mergedStarts[merged] = runStart;
+                    mergedEnds[merged++] = runEnd;
+                }
+                runStart = start;
+                runEnd = end;
+                open = true;
+            }
+            if (open) {
+                mergedUsers[merged] = users[u];
+                mergedStarts[merged] = runStart;
+                mergedEnds[merged++] = runEnd;
+            }
+        }
+        return new DateWindowEngine(mergedUsers, mergedStarts, mergedEnds, merged, distinct);
+    }
+
+    public int getDistinctUsers() {
+        return distinctUsers;
+    }
+
+    /**
+     * Returns up to {@code limit} windows ordered by attendee count, then length, then earliest start.
+     *
+     * @param minLength     minimum window length in days
+     * @param requiredUsers members that must attend every returned window (may be empty)
+     * @param minAttendees  quorum expressed as an absolute attendee count
+     * @param clipStart     first allowed day (inclusive), or {@link Integer#MIN_VALUE} for no bound
+     * @param clipEnd       last allowed day (inclusive), or {@link Integer#MAX_VALUE} for no bound
+     */
+    public List<Window> findBestWindows(int minLength, long[] requiredUsers, int minAttendees,
+                                        int clipStart, int clipEnd, int limit) {
+        if (minLength < 1) {
+            throw new IllegalArgumentException("minLength must be at least 1");
+        }
+        if (limit < 1 || mergedCount == 0) {
+            return List.of();
+        }
+
+        long[] required = requiredUsers.clone();
+        Arrays.sort(required);
+        int requiredCount = 0;
+        for (int i = 0; i < required.length; i++) {
+            if (i == 0 || required[i] != required[i - 1]) {
+                required[requiredCount++] = required[i];
+            }
+        }
+
+        long[] events = new long[mergedCount * 2];
+        int eventCount = 0;
+        int base = Integer.MAX_VALUE;
+        for (int i = 0; i < mergedCount; i++) {
+            base = Math.min(base, Math.max(mergedStarts[i], clipStart));
+        }
+        for (int i = 0; i < mergedCount; i++) {
+            int start = Math.max(mergedStarts[i], clipStart);
+            int end = Math.min(mergedEnds[i], clipEnd);
+            // Window starts that keep a window of minLength days inside [start, end]
+            int lastStart = end - minLength + 1;
+            if (lastStart < start) {
+                continue;
+            }
+            boolean isRequired = Arrays.binarySearch(required, 0, requiredCount, mergedUsers[i]) >= 0;
+            events[eventCount++] = ((long) (start - base) << 2) | (isRequired ? REQUIRED_START : START);
+            events[eventCount++] = ((long) (lastStart + 1 - base) << 2) | (isRequired ? REQUIRED_END : END);
+        }
+        if (eventCount == 0) {
+            return List.of();
+        }
+        Arrays.sort(events, 0, eventCount);
+
+        PriorityQueue<Window> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        int attendees = 0;
+        int requiredPresent = 0;
+        int threshold = Math.max(1, minAttendees);
+        int i = 0;
+        while (i < eventCount) {
+            long position = events[i] >>> 2;
+            while (i < eventCount && (events[i] >>> 2) == position) {
+                switch ((int) (events[i] & 3)) {
+                    case START -> attendees++;
+                    case END -> attendees--;
+                    case REQUIRED_START -> {
+                        attendees++;
+                        requiredPresent++;
+                    }
+                    default -> {
+                        attendees--;
+                        requiredPresent--;
+                    }
+                }
+                i++;
+            }
+            if (i == eventCount || attendees < threshold || requiredPresent < requiredCount) {
+                continue;
+            }
+            // Every start day in [position, next - 1] has the same attendee set, which therefore
+            // covers the whole span from the first start to the last window's end
+            int firstStart = (int) position + base;
+            int lastStart = (int) (events[i] >>> 2) + base - 1;
+            top.offer(new Window(firstStart, lastStart + minLength - 1, attendees, null));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Window> result = new ArrayList<>(top);
+        result.sort(RANKING);
+        List<Window> withAttendees = new ArrayList<>(result.size());
+        for (Window window : result) {
+            withAttendees.add(new Window(window.startDay, window.endDay, window.attendeeCount,
+                    attendeesOf(window.startDay, window.endDay, window.attendeeCount)));
+        }
+        return withAttendees;
+    }
+
+    private long[] attendeesOf(int startDay, int endDay, int expected) {
+        long[] ids = new long[expected];
+        int found = 0;
+        for (int i = 0; i < mergedCount && found < expected; i++) {
+            if (mergedStarts[i] <= startDay && mergedEnds[i] >= endDay) {
+                ids[found++] = mergedUsers[i];
+            }
+        }
+        return found == expected ? ids : Arrays.copyOf(ids, found);
+    }
+
+    private static final Comparator<Window> RANKING = Comparator
+            .comparingInt((Window w) -> w.attendeeCount).reversed()
+            .thenComparing(Comparator.comparingInt((Window w) -> w.endDay - w.startDay).reversed())
+            .thenComparingInt(w -> w.startDay);
+
+    /**
+     * A window of consecutive days (inclusive epoch days) and the members free for all of it.
+     */
+    public static final class Window {
+
+        private final int startDay;
+        private final int endDay;
+        private final int attendeeCount;
+        private final long[] attendeeIds;
+
+        Window(int startDay, int endDay, int attendeeCount, long[] attendeeIds) {
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.attendeeCount = attendeeCount;
+            this.attendeeIds = attendeeIds;
+        }
+
+        public int getStartDay() {
+            return startDay;
+        }
+
+        public int getEndDay() {
+            return endDay;
+        }
+
+        public int getLengthDays() {
+            return endDay - startDay + 1;
+        }
+
+        public int getAttendeeCount() {
+            return attendeeCount;
+        }
+
+        public long[] getAttendeeIds() {
+            return attendeeIds;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.tripplanner.service.expense;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts minor-unit amounts between currencies using the locally configured rate table
+ * ({@code app.expenses.rates}), respecting each currency's number of minor digits (JPY has none,
+ * THB and USD have two). Results are rounded half-even to a whole minor unit.
+ */
+@Component
+public class ExchangeRates {
+
+    private final Map<String, BigDecimal> rates = new HashMap<>();
+
+    public ExchangeRates(ExpenseProperties properties) {
+        properties.getRates().forEach((code, rate) -> {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalStateException("Exchange rate for " + code + " must be positive");
+            }
+            rates.put(currency(code).getCurrencyCode(), rate);
+        });
+    }
+
+    public long convert(long amountMinor, String from, String to) {
+        Currency source = currency(from);
+        Currency target = currency(to);
+        if (source.equals(target)) {
+            return amountMinor;
+        }
+        BigDecimal converted = BigDecimal.valueOf(amountMinor)
+                .scaleByPowerOfTen(-fractionDigits(source))
+                .multiply(rateOf(target))
+                .divide(rateOf(source), MathContext.DECIMAL64)
+                .scaleByPowerOfTen(fractionDigits(target))
+                .setScale(0, RoundingMode.HALF_EVEN);
+        return converted.longValueExact();
+    }
+
+    /** Canonical ISO 4217 code, rejecting unknown codes. */
+    public static String normalize(String code) {
+        return currency(code).getCurrencyCode();
+    }
+
+    private BigDecimal rateOf(Currency currency) {
+        BigDecimal rate = rates.get(currency.getCurrencyCode());
+        if (rate == null) {
+            throw new IllegalArgumentException("No exchange rate configured for " + currency.getCurrencyCode());
+        }
+        return rate;
+    }
+
+    private static Currency currency(String code) {
+        if (code == null) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+        try {
+            return Currency.getInstance(code.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown currency: " + code);
+        }
+    }
+
+    private static int fractionDigits(Currency currency) {
+        return Math.max(0, currency.getDefaultFractionDigits());
+    }
+}
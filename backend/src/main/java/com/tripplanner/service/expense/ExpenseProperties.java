@@ -0,0 +1,23 @@
+package com.tripplanner.service.expense;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.expenses")
+public class ExpenseProperties {
+
+    // Units of each currency per one unit of a common reference currency; only the ratios matter
+    private Map<String, BigDecimal> rates = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, BigDecimal> rates) {
+        this.rates = rates;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tripplanner.service.expense;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public final class ExpenseSplit {
+
+    private ExpenseSplit() {}
+
+    /**
+     * Splits {@code total} minor units in proportion to {@code weights} so that the parts add up to
+     * exactly {@code total}: everyone gets the rounded-down proportional part, and the units left
+     * over go one each to the largest remainders, earlier positions first on ties.
+     */
+    public static long[] allocate(long total, long[] weights) {
+        BigInteger weightSum = BigInteger.ZERO;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Shares cannot be negative");
+            }
+            weightSum = weightSum.add(BigInteger.valueOf(weight));
+        }
+        if (weightSum.signum() == 0) {
+            throw new IllegalArgumentException("Shares must add up to more than zero");
+        }
+
+        long[] parts = new long[weights.length];
+        BigInteger[] remainders = new BigInteger[weights.length];
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            BigInteger[] division = BigInteger.valueOf(total).multiply(BigInteger.valueOf(weights[i]))
+                    .divideAndRemainder(weightSum);
+            parts[i] = division[0].longValueExact();
+            remainders[i] = division[1];
+            allocated += parts[i];
+        }
+
+        Integer[] order = new Integer[weights.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing((Integer i) -> remainders[i]).reversed().thenComparing(i -> i));
+        for (int k = 0; k < total - allocated; k++) {
+            parts[order[k]]++;
+        }
+        return parts;
+    }
+
+    public static long[] equal(long total, int count) {
+        long[] weights = new long[count];
+        Arrays.fill(weights, 1);
+        return allocate(total, weights);
+    }
+}
@@ -0,0 +1,115 @@
+package com.tripplanner.service.expense;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Turns member balances into a short list of transfers that settles everyone.
+ *
+ * The true minimum number of transfers is NP-hard (it means partitioning the balances into as many
+ * zero-sum groups as possible), so this uses the usual heuristic: first pair every debtor with a
+ * creditor of exactly the same amount, then repeatedly let the largest debtor pay the largest
+ * creditor. Each greedy step settles at least one member, so there are never more than n - 1
+ * transfers for n unsettled members, and the whole thing is O(n log n) in the number of members,
+ * independent of how many expenses produced the balances.
+ */
+public final class SettleUp {
+
+    private static final Comparator<Position> LARGEST_FIRST = Comparator
+            .comparingLong((Position position) -> position.amount).reversed()
+            .thenComparingLong(position -> position.userId);
+
+    private SettleUp() {}
+
+    /**
+     * @param balances user id to balance in minor units; positive is owed money, and the balances
+     *                 must sum to zero
+     */
+    public static List<Transfer> transfers(Map<Long, Long> balances) {
+        long total = 0;
+        // Sorted so the same balances always give the same transfers
+        TreeMap<Long, Long> creditors = new TreeMap<>();
+        Map<Long, ArrayDeque<Long>> debtorsByAmount = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(balances).entrySet()) {
+            long amount = entry.getValue();
+            total += amount;
+            if (amount > 0) {
+                creditors.put(entry.getKey(), amount);
+            } else if (amount < 0) {
+                debtorsByAmount.computeIfAbsent(-amount, key -> new ArrayDeque<>()).add(entry.getKey());
+            }
+        }
+        if (total != 0) {
+            throw new IllegalStateException("Ledger is out of balance by " + total);
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        PriorityQueue<Position> openCreditors = new PriorityQueue<>(LARGEST_FIRST);
+        for (Map.Entry<Long, Long> creditor : creditors.entrySet()) {
+            ArrayDeque<Long> exact = debtorsByAmount.get(creditor.getValue());
+            if (exact != null && !exact.isEmpty()) {
+                transfers.add(new Transfer(exact.poll(), creditor.getKey(), creditor.getValue()));
+            } else {
+                openCreditors.add(new Position(creditor.getKey(), creditor.getValue()));
+            }
+        }
+        PriorityQueue<Position> openDebtors = new PriorityQueue<>(LARGEST_FIRST);
+        debtorsByAmount.forEach((amount, userIds) -> userIds.forEach(userId -> openDebtors.add(new Position(userId, amount))));
+
+        while (!openCreditors.isEmpty() && !openDebtors.isEmpty()) {
+            Position creditor = openCreditors.poll();
+            Position debtor = openDebtors.poll();
+            long amount = Math.min(creditor.amount, debtor.amount);
+            transfers.add(new Transfer(debtor.userId, creditor.userId, amount));
+            if (creditor.amount > amount) {
+                openCreditors.add(new Position(creditor.userId, creditor.amount - amount));
+            }
+            if (debtor.amount > amount) {
+                openDebtors.add(new Position(debtor.userId, debtor.amount - amount));
+            }
+        }
+        return transfers;
+    }
+
+    private static final class Position {
+
+        private final long userId;
+        private final long amount;
+
+        Position(long userId, long amount) {
+            this.userId = userId;
+            this.amount = amount;
+        }
+    }
+
+    public static final class Transfer {
+
+        private final long fromUserId;
+        private final long toUserId;
+        private final long amountMinor;
+
+        Transfer(long fromUserId, long toUserId, long amountMinor) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.amountMinor = amountMinor;
+        }
+
+        public long getFromUserId() {
+            return fromUserId;
+        }
+
+        public long getToUserId() {
+            return toUserId;
+        }
+
+        public long getAmountMinor() {
+            return amountMinor;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.tripplanner.service.friend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory adjacency index of ACCEPTED friendships.
+ *
+ * Every user maps to a sorted {@code long[]} of friend ids. Sorted primitive arrays cost 8 bytes per
+ * edge end, answer membership with a binary search and intersect in linear time, which is what
+ * mutual-friend counts and suggestions need. Arrays are never mutated in place: an edge change
+ * publishes a new array through {@link ConcurrentHashMap#compute}, so readers never lock.
+ *
+ * Edge changes that arrive while the initial snapshot is loading are queued and replayed on top of
+ * it, so a friendship removed during startup cannot be resurrected by the snapshot.
+ */
+@Slf4j
+@Component
+public class FriendGraphIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, long[]> adjacency = new ConcurrentHashMap<>();
+    private final List<long[]> pendingChanges = new ArrayList<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replaces the index with a snapshot of edges given as parallel arrays, then replays any
+     * changes recorded while the snapshot was being read.
+     */
+    public void load(long[] from, long[] to, int edgeCount) {
+        // Counting sort into per-user neighbour lists (CSR layout) avoids growing arrays per edge
+        Map<Long, int[]> degrees = new HashMap<>();
+        for (int i = 0; i < edgeCount; i++) {
+            degrees.computeIfAbsent(from[i], id -> new int[1])[0]++;
+            degrees.computeIfAbsent(to[i], id -> new int[1])[0]++;
+        }
+        Map<Long, long[]> lists = new HashMap<>(degrees.size() * 2);
+        Map<Long, int[]> fill = new HashMap<>(degrees.size() * 2);
+        degrees.forEach((user, degree) -> {
+            lists.put(user, new long[degree[0]]);
+            fill.put(user, new int[1]);
+        });
+        for (int i = 0; i < edgeCount; i++) {
+            lists.get(from[i])[fill.get(from[i])[0]++] = to[i];
+            lists.get(to[i])[fill.get(to[i])[0]++] = from[i];
+        }
+
+        synchronized (pendingChanges) {
+            adjacency.clear();
+            lists.forEach((user, friends) -> adjacency.put(user, dedupe(friends)));
+            for (long[] change : pendingChanges) {
+                apply(change[0], change[1], change[2] == 1);
+            }
+            pendingChanges.clear();
+            ready = true;
+        }
+        log.info("Friend graph loaded: {} users, {} friendships", adjacency.size(), edgeCount);
+    }
+
+    public void addFriendship(long a, long b) {
+        record(a, b, true);
+    }
+
+    public void removeFriendship(long a, long b) {
+        record(a, b, false);
+    }
+
+    private void record(long a, long b, boolean add) {
+        if (!ready) {
+            synchronized (pendingChanges) {
+                if (!ready) {
+                    pendingChanges.add(new long[]{a, b, add ? 1 : 0});
+                    return;
+                }
+            }
+        }
+        apply(a, b, add);
+    }
+
+    private void apply(long a, long b, boolean add) {
+        if (a == b) {
+            return;
+        }
+        if (add) {
+            adjacency.compute(a, (id, friends) -> insert(friends, b));
+            adjacency.compute(b, (id, friends) -> insert(friends, a));
+        } else {
+            adjacency.computeIfPresent(a, (id, friends) -> remove(friends, b));
+            adjacency.computeIfPresent(b, (id, friends) -> remove(friends, a));
+        }
+    }
+
+    public boolean areFriends(long a, long b) {
+        long[] friendsOfA = adjacency.getOrDefault(a, EMPTY);
+        long[] friendsOfB = adjacency.getOrDefault(b, EMPTY);
+        // Search the shorter list
+        return friendsOfA.length <= friendsOfB.length
+                ? Arrays.binarySearch(friendsOfA, b) >= 0
+                : Arrays.binarySearch(friendsOfB, a) >= 0;
+    }
+
+    public long[] friendsOf(long user) {
+        return adjacency.getOrDefault(user, EMPTY).clone();
+    }
+
+    public int friendCount(long user) {
+        return adjacency.getOrDefault(user, EMPTY).length;
+    }
+
+    public int mutualFriendCount(long a, long b) {
+        return intersectionSize(adjacency.getOrDefault(a, EMPTY), adjacency.getOrDefault(b, EMPTY));
+    }
+
+    /**
+     * Friends-of-friends who are not already friends, ranked by mutual friend count and then by id.
+     * Friends with more than {@code maxFanout} friends are skipped as bridges: they add little signal
+     * and would otherwise dominate the cost for users connected to very popular accounts.
+     */
+    public List<Suggestion> suggestFriends(long user, int limit, int maxFanout) {
+        long[] friends = adjacency.getOrDefault(user, EMPTY);
+        if (friends.length == 0 || limit < 1) {
+            return List.of();
+        }
+        LongIntCounter mutuals = new LongIntCounter(Math.min(1 << 16, friends.length * 16));
+        for (long friend : friends) {
+            long[] second = adjacency.getOrDefault(friend, EMPTY);
+            if (second.length > maxFanout) {
+                continue;
+            }
+            for (long candidate : second) {
+                if (candidate != user && Arrays.binarySearch(friends, candidate) < 0) {
+                    mutuals.increment(candidate);
+                }
+            }
+        }
+
+        // Bounded selection of the top entries without sorting every candidate
+        long[] topIds = new long[limit];
+        int[] topCounts = new int[limit];
+        int size = 0;
+        for (int slot = 0; slot < mutuals.capacity(); slot++) {
+            int count = mutuals.countAt(slot);
+            if (count == 0) {
+                continue;
+            }
+            long id = mutuals.keyAt(slot);
+            if (size == limit && !ranksBefore(count, id, topCounts[size - 1], topIds[size - 1])) {
+                continue;
+            }
+            int pos = size < limit ? size++ : size - 1;
+            while (pos > 0 && ranksBefore(count, id, topCounts[pos - 1], topIds[pos - 1])) {
+                topCounts[pos] = topCounts[pos - 1];
+                topIds[pos] = topIds[pos - 1];
+                pos--;
+            }
+            topCounts[pos] = count;
+            topIds[pos] = id;
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            suggestions.add(new Suggestion(topIds[i], topCounts[i]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Sorted ids at distance two, excluding the user and their direct friends. Bridges with more than
+     * {@code maxFanout} friends are skipped as in {@link #suggestFriends}, and at most {@code cap}
+     * ids are collected.
+     */
+    public long[] friendsOfFriends(long user, int maxFanout, int cap) {
+        long[] friends = adjacency.getOrDefault(user, EMPTY);
+        long[] collected = new long[Math.min(cap, 256)];
+        int size = 0;
+        outer:
+        for (long friend : friends) {
+            long[] second = adjacency.getOrDefault(friend, EMPTY);
+            if (second.length > maxFanout) {
+                continue;
+            }
+            for (long candidate : second) {
+                if (candidate == user || Arrays.binarySearch(friends, candidate) >= 0) {
+                    continue;
+                }
+                if (size == collected.length) {
+                    if (size >= cap) {
+                        break outer;
+                    }
+                    collected = Arrays.copyOf(collected, Math.min(cap, size * 2));
+                }
+                collected[size++] = candidate;
+            }
+        }
+        return dedupe(Arrays.copyOf(collected, size));
+    }
+
+    public int userCount() {
+        return adjacency.size();
+    }
+
+    private static boolean ranksBefore(int count, long id, int otherCount, long otherId) {
+        return count > otherCount || (count == otherCount && id < otherId);
+    }
+
+    static int intersectionSize(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] dedupe(long[] friends) {
+        Arrays.sort(friends);
+        int size = 0;
+        for (int i = 0; i < friends.length; i++) {
+            if (i == 0 || friends[i] != friends[i - 1]) {
+                friends[size++] = friends[i];
+            }
+        }
+        return size == friends.length ? friends : Arrays.copyOf(friends, size);
+    }
+
+    private static long[] insert(long[] friends, long friend) {
+        if (friends == null) {
+            return new long[]{friend};
+        }
+        int pos = Arrays.binarySearch(friends, friend);
+        if (pos >= 0) {
+            return friends;
+        }
+        pos = -pos - 1;
+        long[] updated = new long[friends.length + 1];
+        System.arraycopy(friends, 0, updated, 0, pos);
+        updated[pos] = friend;
+        System.arraycopy(friends, pos, updated, pos + 1, friends.length - pos);
+        return updated;
+    }
+
+    private static long[] remove(long[] friends, long friend) {
+        int pos = Arrays.binarySearch(friends, friend);
+        if (pos < 0) {
+            return friends;
+        }
+        if (friends.length == 1) {
+            // Returning null from computeIfPresent drops users without friends
+            return null;
+        }
+        long[] updated = new long[friends.length - 1];
+        System.arraycopy(friends, 0, updated, 0, pos);
+        System.arraycopy(friends, pos + 1, updated, pos, friends.length - pos - 1);
+        return updated;
+    }
+
+    public static final class Suggestion {
+
+        private final long userId;
+        private final int mutualFriends;
+
+        public Suggestion(long userId, int mutualFriends) {
+            this.userId = userId;
+            this.mutualFriends = mutualFriends;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public int getMutualFriends() {
+            return mutualFriends;
+        }
+    }
+
+    /**
+     * Open-addressing long to int counter, avoiding a boxed map entry per candidate.
+     */
+    private static final class LongIntCounter {
+
+        private long[] keys;
+        private int[] counts;
+        private int size;
+
+        LongIntCounter(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            counts = new int[capacity];
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        long keyAt(int slot) {
+            return keys[slot];
+        }
+
+        int countAt(int slot) {
+            return counts[slot];
+        }
+
+        void increment(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (counts[slot] == 0) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    counts[slot] = 1;
+                    grow();
+                    return;
+                }
+            }
+            counts[slot]++;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldCounts.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (counts[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
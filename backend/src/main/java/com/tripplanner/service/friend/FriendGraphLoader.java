@@ -0,0 +1,58 @@
+package com.tripplanner.service.friend;
+
+import com.tripplanner.entity.Friend;
+import com.tripplanner.repository.FriendRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Seeds {@link FriendGraphIndex} in the background once the application is up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendGraphLoader {
+
+    private final FriendGraphIndex friendGraphIndex;
+    private final FriendRepository friendRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "friend-graph-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                long[] from = new long[1024];
+                long[] to = new long[1024];
+                int count = 0;
+                try (Stream<Object[]> edges = friendRepository.streamEdgesByStatus(Friend.Status.ACCEPTED)) {
+                    for (Object[] edge : (Iterable<Object[]>) edges::iterator) {
+                        if (count == from.length) {
+                            from = Arrays.copyOf(from, count * 2);
+                            to = Arrays.copyOf(to, count * 2);
+                        }
+                        from[count] = (Long) edge[0];
+                        to[count] = (Long) edge[1];
+                        count++;
+                    }
+                }
+                friendGraphIndex.load(from, to, count);
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to load friend graph; friendship queries will use the database", ex);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.tripplanner.service.mail;
+
+import com.tripplanner.entity.OutboxMessage;
+import com.tripplanner.repository.OutboxMessageRepository;
+import com.tripplanner.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queues emails in the caller's transaction. Nothing talks to SMTP here: the rows commit or roll
+ * back together with the change that produced them, and {@link MailOutboxDispatcher} delivers them.
+ */
+@Component
+public class MailOutbox {
+
+    private static final int MAX_SUBJECT_LENGTH = 200;
+    private static final int MAX_BODY_LENGTH = 4000;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final UserRepository userRepository;
+    private final String linkBaseUrl;
+
+    public MailOutbox(OutboxMessageRepository outboxMessageRepository,
+                      UserRepository userRepository,
+                      @Value("${app.mail.link-base-url:http://localhost:3000}") String linkBaseUrl) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.userRepository = userRepository;
+        this.linkBaseUrl = linkBaseUrl;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long recipientId, String subject, String text, String actionUrl) {
+        outboxMessageRepository.save(message(recipientId, subject, text, actionUrl));
+    }
+
+    /**
+     * Queues the same email for every recipient; the rows go out as one insert batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(Collection<Long> recipientIds, String subject, String text, String actionUrl) {
+        List<OutboxMessage> messages = new ArrayList<>(recipientIds.size());
+        for (Long recipientId : recipientIds) {
+            messages.add(message(recipientId, subject, text, actionUrl));
+        }
+        outboxMessageRepository.saveAll(messages);
+    }
+
+    private OutboxMessage message(Long recipientId, String subject, String text, String actionUrl) {
+        StringBuilder body = new StringBuilder();
+        if (text != null) {
+            body.append(text).append("\n\n");
+        }
+        if (actionUrl != null) {
+            body.append(linkBaseUrl).append(actionUrl).append('\n');
+        }
+        return new OutboxMessage(userRepository.getReferenceById(recipientId),
+                truncate(subject, MAX_SUBJECT_LENGTH), truncate(body.toString(), MAX_BODY_LENGTH));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,268 @@
+package com.tripplanner.service.mail;
+
+import com.tripplanner.dto.UserResponse;
+import com.tripplanner.entity.OutboxMessage;
+import com.tripplanner.repository.OutboxMessageRepository;
+import com.tripplanner.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers {@link OutboxMessage}s written by {@link MailOutbox}.
+ *
+ * Polls every {@code poll-interval} on the application task scheduler once startup is complete.
+ * Each round claims up to {@code batch-size} due rows with {@code FOR UPDATE SKIP LOCKED}, pushes
+ * their lease forward and commits, so no lock or connection is held while SMTP is slow and several
+ * instances can dispatch side by side without sending a row twice. The batch then goes out over a
+ * single SMTP connection, and a second short transaction records the outcome: sent rows are marked
+ * in one update, failed ones are retried with jittered exponential backoff until
+ * {@code max-attempts}. Delivery is at-least-once: a crash between sending and recording means the
+ * batch is sent again after the lease expires.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class MailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final UserRepository userRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Duration pollInterval;
+    private final String from;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer deliveryDelay;
+    private volatile double lagSeconds;
+
+    public MailOutboxDispatcher(OutboxMessageRepository outboxMessageRepository,
+                                UserRepository userRepository,
+                                JavaMailSender mailSender,
+                                TransactionTemplate transactionTemplate,
+                                TaskScheduler taskScheduler,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.outbox.poll-interval:1s}") Duration pollInterval,
+                                @Value("${app.mail.from:no-reply@tripplanner.local}") String from,
+                                @Value("${app.outbox.batch-size:50}") int batchSize,
+                                @Value("${app.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${app.outbox.lease:5m}") Duration lease,
+                                @Value("${app.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                @Value("${app.outbox.max-backoff:1h}") Duration maxBackoff) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.userRepository = userRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.pollInterval = pollInterval;
+        this.from = from;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.sent = Counter.builder("outbox.mail.sent")
+                .description("Outbox emails accepted by the SMTP server").register(meterRegistry);
+        this.retried = Counter.builder("outbox.mail.retried")
+                .description("Outbox email attempts that failed and were rescheduled").register(meterRegistry);
+        this.failed = Counter.builder("outbox.mail.failed")
+                .description("Outbox emails given up on").register(meterRegistry);
+        this.deliveryDelay = Timer.builder("outbox.mail.delivery.delay")
+                .description("Time from enqueue to SMTP acceptance").register(meterRegistry);
+        Gauge.builder("outbox.mail.lag", this, dispatcher -> dispatcher.lagSeconds)
+                .baseUnit("seconds")
+                .description("Age of the oldest undelivered outbox email").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::dispatch, pollInterval);
+    }
+
+    void dispatch() {
+        try {
+            // Keep draining while batches come back full
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == batchSize);
+            LocalDateTime oldest = outboxMessageRepository.findOldestCreatedAt(OutboxMessage.Status.PENDING);
+            lagSeconds = oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+        } catch (RuntimeException ex) {
+            log.warn("Outbox dispatch failed", ex);
+        }
+    }
+
+    int dispatchBatch() {
+        List<Delivery> batch = transactionTemplate.execute(status -> claim(LocalDateTime.now()));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Exception> failures = send(batch);
+        transactionTemplate.executeWithoutResult(status -> record(batch, failures, LocalDateTime.now()));
+        return batch.size();
+    }
+
+    private List<Delivery> claim(LocalDateTime now) {
+        List<OutboxMessage> messages = outboxMessageRepository.findDueForUpdate(OutboxMessage.Status.PENDING, now,
+                Limit.of(batchSize));
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        List<Long> recipientIds = messages.stream().map(message -> message.getRecipient().getId()).distinct().toList();
+        Map<Long, UserResponse> recipients = userRepository.findResponsesByIdIn(recipientIds).stream()
+                .collect(Collectors.toMap(UserResponse::getId, Function.identity()));
+        LocalDateTime leaseEnd = now.plus(lease);
+        List<Delivery> batch = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            message.setNextAttemptAt(leaseEnd);
+            UserResponse recipient = recipients.get(message.getRecipient().getId());
+            String email = recipient != null && Boolean.TRUE.equals(recipient.getActive()) ? recipient.getEmail() : null;
+            batch.add(new Delivery(message.getId(), email, message.getSubject(), message.getBody(),
+                    message.getCreatedAt()));
+        }
+        return batch;
+    }
+
+    private Map<Long, Exception> send(List<Delivery> batch) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (Delivery delivery : batch) {
+            if (delivery.email == null) {
+                failures.put(delivery.id, new AddressException("Recipient is missing or inactive"));
+                continue;
+            }
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+                helper.setFrom(from);
+                helper.setTo(delivery.email);
+                helper.setSubject(delivery.subject);
+                helper.setText(delivery.body);
+                message.setHeader("X-Outbox-Id", Long.toString(delivery.id));
+                ids.put(message, delivery.id);
+                messages.add(message);
+            } catch (MessagingException ex) {
+                failures.put(delivery.id, ex);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        // One call, one SMTP connection for the whole batch
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException ex) {
+            if (ex.getFailedMessages().isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, ex));
+            }
+            ex.getFailedMessages().forEach((message, cause) -> failures.put(ids.get(message), cause));
+        } catch (MailException ex) {
+            ids.values().forEach(id -> failures.put(id, ex));
+        }
+        return failures;
+    }
+
+    private void record(List<Delivery> batch, Map<Long, Exception> failures, LocalDateTime now) {
+        if (!failures.isEmpty()) {
+            for (OutboxMessage message : outboxMessageRepository.findAllById(failures.keySet())) {
+                Exception cause = failures.get(message.getId());
+                int attempts = message.getAttempts() + 1;
+                message.setAttempts(attempts);
+                message.setLastError(describe(cause));
+                if (attempts >= maxAttempts || cause instanceof AddressException) {
+                    message.setStatus(OutboxMessage.Status.FAILED);
+                    failed.increment();
+                    log.warn("Giving up on outbox message {} after {} attempts: {}", message.getId(), attempts,
+                            message.getLastError());
+                } else {
+                    message.setNextAttemptAt(now.plus(backoff(attempts)));
+                    retried.increment();
+                }
+            }
+        }
+
+        List<Long> delivered = new ArrayList<>(batch.size() - failures.size());
+        for (Delivery delivery : batch) {
+            if (!failures.containsKey(delivery.id)) {
+                delivered.add(delivery.id);
+                deliveryDelay.record(Duration.between(delivery.createdAt, now));
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboxMessageRepository.markSent(delivered, OutboxMessage.Status.SENT, now);
+            sent.increment(delivered.size());
+        }
+    }
+
+    // Exponential backoff with jitter so messages that failed together are not retried together
+    Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long capped = Math.min(base < 0 ? Long.MAX_VALUE : base, maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private static String describe(Exception cause) {
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static final class Delivery {
+
+        private final Long id;
+        private final String email;
+        private final String subject;
+        private final String body;
+        private final LocalDateTime createdAt;
+
+        Delivery(Long id, String email, String subject, String body, LocalDateTime createdAt) {
+            this.id = id;
+            this.email = email;
+            this.subject = subject;
+            this.body = body;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.tripplanner.service.message;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripplanner.dto.ReadReceiptResponse;
+import com.tripplanner.event.MessageCreatedEvent;
+import com.tripplanner.event.MessageReadEvent;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.ChatReadMarkerRepository;
+import com.tripplanner.repository.MessageRepository;
+import com.tripplanner.service.trip.TripMembershipCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-member read watermarks for trip chat, and unread counts derived from them.
+ *
+ * A member's read state is a single watermark, the newest message they have read in history order
+ * {@code (created_at, id)}, so nothing is written per message per reader. Sending a message moves
+ * the sender's watermark to it. Advanced watermarks are coalesced in memory and written every
+ * {@code flush-interval} in one batch, so a client marking each incoming message read costs at most
+ * one row update per interval; a crash loses at most that interval of read marks.
+ *
+ * Unread counts come from an in-memory ordinal per trip: every committed message bumps the trip's
+ * head, each member holds the ordinal they have read up to, and unread is the difference, so
+ * reading a count, sending and marking the latest message read are all O(1) with no query. A
+ * member is loaded with one indexed count the first time they are asked about; marking an older
+ * message read than the last {@value #RECENT_MESSAGES} needs one more. The head is read after
+ * that count, so a count can only drift by a message whose commit lands between the query and its
+ * after-commit event; like the notification counter, trips are dropped a fixed time after loading,
+ * which bounds how long such drift lasts.
+ */
+@Slf4j
+@Component
+public class ChatReadWatermarks {
+
+    // Recent messages per trip whose ordinal is known, so "read up to here" near the bottom needs no query
+    static final int RECENT_MESSAGES = 256;
+    // Watermark of a member who has never read anything: before every message
+    private static final Watermark NEVER_READ = new Watermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final String UPDATE_MARKER = "update chat_read_markers " +
+            "set last_read_message_id = ?, last_read_at = ?, updated_at = ? " +
+            "where trip_id = ? and user_id = ? and (last_read_at < ? or (last_read_at = ? and last_read_message_id < ?))";
+    private static final String INSERT_MARKER = "insert into chat_read_markers " +
+            "(trip_id, user_id, last_read_message_id, last_read_at, updated_at) " +
+            "select ?, ?, ?, ?, ? where not exists (select 1 from chat_read_markers where trip_id = ? and user_id = ?)";
+
+    private final MessageRepository messageRepository;
+    private final ChatReadMarkerRepository chatReadMarkerRepository;
+    private final TripMembershipCache membershipCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration flushInterval;
+    private final int receiptsMaxMembers;
+    private final Cache<Long, TripReads> trips;
+    // Watermarks not yet written, keeping only the newest per member
+    private final Map<MemberKey, Watermark> pending = new ConcurrentHashMap<>();
+
+    public ChatReadWatermarks(MessageRepository messageRepository,
+                              ChatReadMarkerRepository chatReadMarkerRepository,
+                              TripMembershipCache membershipCache,
+                              JdbcTemplate jdbcTemplate,
+                              TaskScheduler taskScheduler,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${app.messages.read.max-trips:100000}") long maxTrips,
+                              @Value("${app.messages.read.max-age:30m}") Duration maxAge,
+                              @Value("${app.messages.read.flush-interval:1s}") Duration flushInterval,
+                              @Value("${app.messages.read.receipts-max-members:50}") int receiptsMaxMembers) {
+        this.messageRepository = messageRepository;
+        this.chatReadMarkerRepository = chatReadMarkerRepository;
+        this.membershipCache = membershipCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+        this.flushInterval = flushInterval;
+        this.receiptsMaxMembers = receiptsMaxMembers;
+        this.trips = Caffeine.newBuilder()
+                .maximumSize(maxTrips)
+                // Trip state is mutated in place, so this is the time since the trip was loaded
+                .expireAfterWrite(maxAge)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::flush, flushInterval);
+    }
+
+    public int getUnreadCount(Long tripId, Long userId) {
+        TripReads reads = trips.get(tripId, id -> new TripReads());
+        Reader reader = reader(tripId, userId, reads);
+        synchronized (reads) {
+            return reads.unread(reader);
+        }
+    }
+
+    /**
+     * Moves the member's watermark forward to the message and returns their unread count after it.
+     * Marking a message at or before the current watermark changes nothing.
+     */
+    public int markRead(Long tripId, Long userId, Long messageId) {
+        TripReads reads = trips.get(tripId, id -> new TripReads());
+        Watermark mark;
+        long ordinal;
+        synchronized (reads) {
+            int slot = reads.recentSlot(messageId);
+            mark = slot < 0 ? null : reads.recentMarks[slot];
+            ordinal = slot < 0 ? -1 : reads.recentOrdinals[slot];
+        }
+        if (mark == null) {
+            LocalDateTime createdAt = messageRepository.findCreatedAtByIdAndTripId(messageId, tripId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Message", messageId));
+            mark = new Watermark(createdAt, messageId);
+        }
+
+        Reader reader = reader(tripId, userId, reads);
+        synchronized (reads) {
+            if (!mark.isAfter(reader.watermark)) {
+                return reads.unread(reader);
+            }
+        }
+        long unreadAfter = 0;
+        if (ordinal < 0) {
+            unreadAfter = messageRepository.countTripMessagesAfter(tripId, userId, mark.createdAt, mark.messageId);
+        }
+        int unread;
+        synchronized (reads) {
+            // Another mark for the same member may have won while counting
+            if (!mark.isAfter(reader.watermark)) {
+                return reads.unread(reader);
+            }
+            reader.watermark = mark;
+            reader.readOrdinal = ordinal >= 0 ? ordinal : reads.head - unreadAfter;
+            unread = reads.unread(reader);
+        }
+        enqueue(tripId, userId, mark);
+        if (membershipCache.acceptedMemberCount(tripId) <= receiptsMaxMembers) {
+            eventPublisher.publishEvent(new MessageReadEvent(tripId, userId, mark.messageId, mark.createdAt));
+        }
+        return unread;
+    }
+
+    /** Every member's watermark, including ones not flushed yet. */
+    public List<ReadReceiptResponse> getReceipts(Long tripId) {
+        List<ReadReceiptResponse> receipts = chatReadMarkerRepository.findReceiptsByTripId(tripId);
+        for (ReadReceiptResponse receipt : receipts) {
+            Watermark unflushed = pending.get(new MemberKey(tripId, receipt.getUserId()));
+            if (unflushed != null && unflushed.isAfter(new Watermark(receipt.getLastReadAt(), receipt.getLastReadMessageId()))) {
+                receipt.setLastReadMessageId(unflushed.messageId);
+                receipt.setLastReadAt(unflushed.createdAt);
+            }
+        }
+        return receipts;
+    }
+
+    @TransactionalEventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        if (!event.isTripMessage()) {
+            return;
+        }
+        Long tripId = event.getTripId();
+        Long senderId = event.getMessage().getSenderId();
+        Watermark mark = new Watermark(event.getMessage().getCreatedAt(), event.getMessage().getId());
+        TripReads reads = trips.getIfPresent(tripId);
+        if (reads != null) {
+            synchronized (reads) {
+                reads.append(mark);
+                Reader sender = reads.readers.get(senderId);
+                if (sender != null && mark.isAfter(sender.watermark)) {
+                    sender.watermark = mark;
+                    sender.readOrdinal = reads.head;
+                }
+            }
+        }
+        enqueue(tripId, senderId, mark);
+    }
+
+    // Loads a member on first use: their stored watermark and one count of what is newer
+    private Reader reader(Long tripId, Long userId, TripReads reads) {
+        synchronized (reads) {
+            Reader reader = reads.readers.get(userId);
+            if (reader != null) {
+                return reader;
+            }
+        }
+        Watermark stored = chatReadMarkerRepository.findWatermark(tripId, userId)
+                .map(row -> new Watermark(row.getCreatedAt(), row.getMessageId()))
+                .orElse(NEVER_READ);
+        Watermark unflushed = pending.get(new MemberKey(tripId, userId));
+        Watermark watermark = unflushed != null && unflushed.isAfter(stored) ? unflushed : stored;
+        long unread = messageRepository.countTripMessagesAfter(tripId, userId, watermark.createdAt, watermark.messageId);
+        synchronized (reads) {
+            // Messages appended while counting were counted too, so the head is taken afterwards
+            return reads.readers.computeIfAbsent(userId, id -> new Reader(watermark, reads.head - unread));
+        }
+    }
+
+    private void enqueue(Long tripId, Long userId, Watermark mark) {
+        pending.merge(new MemberKey(tripId, userId), mark, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    /** Writes every pending watermark: one batch of updates, then inserts for members without a row. */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<MemberKey, Watermark> batch = new HashMap<>();
+        for (Map.Entry<MemberKey, Watermark> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        List<MemberKey> keys = new ArrayList<>(batch.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            List<Object[]> updates = new ArrayList<>(keys.size());
+            for (MemberKey key : keys) {
+                Watermark mark = batch.get(key);
+                Timestamp createdAt = Timestamp.valueOf(mark.createdAt);
+                updates.add(new Object[] {mark.messageId, createdAt, now, key.tripId, key.userId,
+                        createdAt, createdAt, mark.messageId});
+            }
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_MARKER, updates);
+
+            // Zero rows means no row yet, or one already at or past this mark; the insert sorts them out
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                if (updated[i] == 0) {
+                    MemberKey key = keys.get(i);
+                    Watermark mark = batch.get(key);
+                    inserts.add(new Object[] {key.tripId, key.userId, mark.messageId, Timestamp.valueOf(mark.createdAt),
+                            now, key.tripId, key.userId});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_MARKER, inserts);
+            }
+        } catch (DataAccessException ex) {
+            // Keep them for the next run; a concurrent first insert from another node is retried as an update
+            batch.forEach(this::enqueue);
+            log.warn("Could not write {} chat read watermarks: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    private void enqueue(MemberKey key, Watermark mark) {
+        enqueue(key.tripId, key.userId, mark);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Guarded by its own monitor
+    private static final class TripReads {
+
+        private long head;
+        private final long[] recentIds = new long[RECENT_MESSAGES];
+        private final Watermark[] recentMarks = new Watermark[RECENT_MESSAGES];
+        private final long[] recentOrdinals = new long[RECENT_MESSAGES];
+        private int recentCount;
+        private final Map<Long, Reader> readers = new HashMap<>();
+
+        void append(Watermark mark) {
+            head++;
+            int slot = (int) (head % RECENT_MESSAGES);
+            recentIds[slot] = mark.messageId;
+            recentMarks[slot] = mark;
+            recentOrdinals[slot] = head;
+            recentCount = Math.min(RECENT_MESSAGES, recentCount + 1);
+        }
+
+        int recentSlot(long messageId) {
+            for (int i = 0; i < recentCount; i++) {
+                int slot = (int) ((head - i) % RECENT_MESSAGES);
+                if (recentIds[slot] == messageId) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int unread(Reader reader) {
+            return (int) Math.max(0, head - reader.readOrdinal);
+        }
+    }
+
+    private static final class Reader {
+
+        private Watermark watermark;
+        private long readOrdinal;
+
+        Reader(Watermark watermark, long readOrdinal) {
+            this.watermark = watermark;
+            this.readOrdinal = readOrdinal;
+        }
+    }
+
+    private static final class Watermark {
+
+        private final LocalDateTime createdAt;
+        private final long messageId;
+
+        Watermark(LocalDateTime createdAt, long messageId) {
+            this.createdAt = createdAt;
+            this.messageId = messageId;
+        }
+
+        boolean isAfter(Watermark other) {
+            int byTime = createdAt.compareTo(other.createdAt);
+            return byTime > 0 || (byTime == 0 && messageId > other.messageId);
+        }
+    }
+
+    private static final class MemberKey {
+
+        private final long tripId;
+        private final long userId;
+
+        MemberKey(long tripId, long userId) {
+            this.tripId = tripId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof MemberKey key && key.tripId == tripId && key.userId == userId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(tripId) * 31 + Long.hashCode(userId);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.tripplanner.service.message;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes archived messages as a gzip-compressed JSON array. Rows are streamed into the compressor
+ * one at a time, so archiving a month only ever holds one trip's compressed bytes in memory.
+ */
+@Component
+public class MessageArchiveCodec {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader listReader;
+
+    public MessageArchiveCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.listReader = objectMapper.readerForListOf(ArchivedMessage.class);
+    }
+
+    public Encoder encoder() {
+        try {
+            return new Encoder(objectMapper);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public List<ArchivedMessage> decode(byte[] data) {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return listReader.readValue(input);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Corrupt message archive", ex);
+        }
+    }
+
+    public static final class Encoder {
+
+        private final ObjectMapper objectMapper;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final JsonGenerator generator;
+        private int count;
+
+        private Encoder(ObjectMapper objectMapper) throws IOException {
+            this.objectMapper = objectMapper;
+            this.generator = objectMapper.getFactory().createGenerator(new GZIPOutputStream(bytes));
+            this.generator.writeStartArray();
+        }
+
+        public void add(ArchivedMessage message) {
+            try {
+                objectMapper.writeValue(generator, message);
+                count++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // Closes the array and the gzip stream and returns the compressed bytes
+        public byte[] finish() {
+            try {
+                generator.writeEndArray();
+                generator.close();
+                return bytes.toByteArray();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /** The stored columns of a message; sender and attachment details are joined in when read. */
+    public static class ArchivedMessage {
+
+        private Long id;
+        private String content;
+        private String messageType;
+        private Boolean edited;
+        private LocalDateTime editedAt;
+        private LocalDateTime createdAt;
+        private Long senderId;
+        private Long recipientId;
+        private Long conversationId;
+        private Long attachmentId;
+
+        // Getters and Setters
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public String getMessageType() {
+            return messageType;
+        }
+
+        public void setMessageType(String messageType) {
+            this.messageType = messageType;
+        }
+
+        public Boolean getEdited() {
+            return edited;
+        }
+
+        public void setEdited(Boolean edited) {
+            this.edited = edited;
+        }
+
+        public LocalDateTime getEditedAt() {
+            return editedAt;
+        }
+
+        public void setEditedAt(LocalDateTime editedAt) {
+            this.editedAt = editedAt;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public Long getSenderId() {
+            return senderId;
+        }
+
+        public void setSenderId(Long senderId) {
+            this.senderId = senderId;
+        }
+
+        public Long getRecipientId() {
+            return recipientId;
+        }
+
+        public void setRecipientId(Long recipientId) {
+            this.recipientId = recipientId;
+        }
+
+        public Long getConversationId() {
+            return conversationId;
+        }
+
+        public void setConversationId(Long conversationId) {
+            this.conversationId = conversationId;
+        }
+
+        public Long getAttachmentId() {
+            return attachmentId;
+        }
+
+        public void setAttachmentId(Long attachmentId) {
+            this.attachmentId = attachmentId;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tripplanner.service.message;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a chat history, ordered by {@code (created_at, id)}.
+ */
+public final class MessageCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public MessageCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt.toEpochSecond(ZoneOffset.UTC) + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static MessageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            long id = Long.parseLong(raw.substring(colon + 1));
+            return new MessageCursor(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), id);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid message cursor");
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.tripplanner.service.message;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code messages} range-partitioned by month on {@code created_at} (PostgreSQL only).
+ *
+ * On first run the plain table Hibernate created is converted in one transaction: its rows are
+ * copied into monthly partitions and its indexes and foreign keys are recreated on the partitioned
+ * table, with the primary key widened to {@code (id, created_at)} as partitioning requires. After
+ * that each run, every {@code check-interval}:
+ * <ul>
+ *   <li>creates the partitions for the current month and {@code months-ahead} months after it, so
+ *       the default partition stays empty;</li>
+ *   <li>archives every partition that ended more than {@code retention-months} ago: its rows are
+ *       written per trip, and direct messages per conversation, into {@code message_archives} as
+ *       compressed JSON, then the partition is detached and dropped in the same transaction.</li>
+ * </ul>
+ * The hot table therefore only ever holds the retention window, however long the history gets.
+ * Runs take a transaction-scoped advisory lock, so several instances never maintain at once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.messages.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+public class MessagePartitionMaintenance {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("messages_y(\\d{4})m(\\d{2})");
+    private static final String DEFAULT_PARTITION = "messages_default";
+    // Arbitrary application-wide key for pg_advisory_xact_lock
+    private static final long ADVISORY_LOCK_KEY = 7_305_046_372_117_601_281L;
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final MessageArchiveCodec archiveCodec;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Duration checkInterval;
+    private final Counter archivedMessages;
+
+    public MessagePartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       TaskScheduler taskScheduler,
+                                       MessageArchiveCodec archiveCodec,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.messages.partitioning.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.messages.partitioning.retention-months:12}") int retentionMonths,
+                                       @Value("${app.messages.partitioning.check-interval:6h}") Duration checkInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.archiveCodec = archiveCodec;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.checkInterval = checkInterval;
+        this.archivedMessages = Counter.builder("messages.archived")
+                .description("Messages moved from the partitioned table into compressed archives").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.info("Message partitioning needs PostgreSQL, not enabling it on {}", database);
+            return;
+        }
+        taskScheduler.scheduleWithFixedDelay(this::runSafely, checkInterval);
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException ex) {
+            log.error("Message partition maintenance failed", ex);
+        }
+    }
+
+    public void run() {
+        YearMonth current = YearMonth.now();
+        boolean ready = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            lock();
+            String kind = jdbcTemplate.queryForObject(
+                    "select c.relkind::text from pg_class c where c.oid = to_regclass('messages')", String.class);
+            if (kind == null) {
+                log.warn("Table messages does not exist, skipping partition maintenance");
+                return false;
+            }
+            if (!"p".equals(kind)) {
+                partitionTable(current);
+            }
+            createPartitions(current, current.plusMonths(monthsAhead));
+            return true;
+        }));
+        if (!ready) {
+            return;
+        }
+        LocalDate cutoff = current.minusMonths(retentionMonths).atDay(1);
+        for (YearMonth month : partitionMonths()) {
+            if (!month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    lock();
+                    archive(month);
+                });
+            }
+        }
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?)::text", String.class, ADVISORY_LOCK_KEY);
+    }
+
+    // One-off conversion of the plain table; everything here commits or rolls back together
+    private void partitionTable(YearMonth current) {
+        jdbcTemplate.execute("lock table messages in access exclusive mode");
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select indexdef from pg_indexes where schemaname = current_schema() and tablename = 'messages' " +
+                "and indexname not in (select conname from pg_constraint where conrelid = 'messages'::regclass and contype = 'p')",
+                String.class);
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "select format('alter table messages add constraint %I %s', conname, pg_get_constraintdef(oid)) " +
+                "from pg_constraint where conrelid = 'messages'::regclass and contype = 'f'", String.class);
+        Map<String, Object> stats = jdbcTemplate.queryForMap(
+                "select min(created_at) as oldest, coalesce(max(id), 0) as max_id from messages");
+        Timestamp oldest = (Timestamp) stats.get("oldest");
+        long maxId = ((Number) stats.get("max_id")).longValue();
+        boolean identity = !jdbcTemplate.queryForObject("select attidentity::text from pg_attribute " +
+                "where attrelid = 'messages'::regclass and attname = 'id'", String.class).isEmpty();
+
+        jdbcTemplate.execute("alter table messages rename to messages_unpartitioned");
+        // Copies a serial default as it is; an identity column comes over as a plain bigint instead
+        jdbcTemplate.execute("create table messages (like messages_unpartitioned including defaults) " +
+                "partition by range (created_at)");
+        YearMonth first = oldest == null ? current : YearMonth.from(oldest.toLocalDateTime());
+        createPartitions(first.isBefore(current) ? first : current, current.plusMonths(monthsAhead));
+        int copied = jdbcTemplate.update("insert into messages select * from messages_unpartitioned");
+
+        if (identity) {
+            // Partitioned tables cannot have identity columns before PostgreSQL 17; a sequence default
+            // replaces it, named once the old table and the sequence it owned are gone
+            jdbcTemplate.execute("drop table messages_unpartitioned");
+            jdbcTemplate.execute("create sequence messages_id_seq start with " + (maxId + 1));
+            jdbcTemplate.execute("alter table messages alter column id set default nextval('messages_id_seq')");
+            jdbcTemplate.execute("alter sequence messages_id_seq owned by messages.id");
+        } else {
+            // The serial sequence moves to the new table so dropping the old one keeps it
+            String sequence = jdbcTemplate.queryForObject(
+                    "select pg_get_serial_sequence('messages_unpartitioned', 'id')", String.class);
+            if (sequence != null) {
+                jdbcTemplate.execute("alter sequence " + sequence + " owned by messages.id");
+            }
+            jdbcTemplate.execute("drop table messages_unpartitioned");
+        }
+        jdbcTemplate.execute("alter table messages add primary key (id, created_at)");
+        indexes.forEach(jdbcTemplate::execute);
+        foreignKeys.forEach(jdbcTemplate::execute);
+        log.info("Converted messages to monthly partitions, {} rows copied", copied);
+    }
+
+    private void createPartitions(YearMonth from, YearMonth to) {
+        jdbcTemplate.execute("create table if not exists " + DEFAULT_PARTITION + " partition of messages default");
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String name = partitionName(month);
+            if (jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, name)) {
+                continue;
+            }
+            Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+            Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+            String bounds = " for values from ('" + start + "') to ('" + end + "')";
+            // Rows that landed in the default partition for this range must move before it can exist
+            boolean stray = jdbcTemplate.queryForObject("select exists (select 1 from " + DEFAULT_PARTITION +
+                    " where created_at >= ? and created_at < ?)", Boolean.class, start, end);
+            if (stray) {
+                jdbcTemplate.execute("create table " + name + " (like messages including defaults)");
+                jdbcTemplate.update("with moved as (delete from " + DEFAULT_PARTITION +
+                        " where created_at >= ? and created_at < ? returning *) insert into " + name +
+                        " select * from moved", start, end);
+                jdbcTemplate.execute("alter table messages attach partition " + name + bounds);
+            } else {
+                jdbcTemplate.execute("create table " + name + " partition of messages" + bounds);
+            }
+        }
+    }
+
+    private List<YearMonth> partitionMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList("select c.relname::text from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid where i.inhparent = 'messages'::regclass", String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    private void archive(YearMonth month) {
+        String name = partitionName(month);
+        // Another instance may have archived it between listing and locking
+        if (!jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, name)) {
+            return;
+        }
+        ArchiveWriter writer = new ArchiveWriter(month.atDay(1));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select id, trip_id, conversation_id, sender_id, " +
+                    "recipient_id, attachment_id, content, message_type, edited, edited_at, created_at from " + name +
+                    " order by trip_id nulls first, conversation_id nulls first, created_at, id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) writer::add);
+        writer.flush();
+
+        jdbcTemplate.execute("alter table messages detach partition " + name);
+        jdbcTemplate.execute("drop table " + name);
+        archivedMessages.increment(writer.total);
+        log.info("Archived {} messages from {} in {} archives", writer.total, month, writer.archives);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("messages_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    // Rows arrive ordered by trip and then conversation, so each archive is written as soon as the next one starts
+    private final class ArchiveWriter {
+
+        private final LocalDate periodStart;
+        private final LocalDateTime archivedAt = LocalDateTime.now();
+        private Long tripId;
+        private Long conversationId;
+        private MessageArchiveCodec.Encoder encoder;
+        private long total;
+        private int archives;
+
+        ArchiveWriter(LocalDate periodStart) {
+            this.periodStart = periodStart;
+        }
+
+        void add(ResultSet row) throws SQLException {
+            Long rowTripId = row.getObject("trip_id", Long.class);
+            Long rowConversationId = row.getObject("conversation_id", Long.class);
+            if (encoder == null || !Objects.equals(tripId, rowTripId) || !Objects.equals(conversationId, rowConversationId)) {
+                flush();
+                tripId = rowTripId;
+                conversationId = rowConversationId;
+                encoder = archiveCodec.encoder();
+            }
+            MessageArchiveCodec.ArchivedMessage message = new MessageArchiveCodec.ArchivedMessage();
+            message.setId(row.getLong("id"));
+            message.setContent(row.getString("content"));
+            message.setMessageType(row.getString("message_type"));
+            message.setEdited(row.getBoolean("edited"));
+            message.setEditedAt(row.getObject("edited_at", LocalDateTime.class));
+            message.setCreatedAt(row.getObject("created_at", LocalDateTime.class));
+            message.setSenderId(row.getObject("sender_id", Long.class));
+            message.setRecipientId(row.getObject("recipient_id", Long.class));
+            message.setConversationId(rowConversationId);
+            message.setAttachmentId(row.getObject("attachment_id", Long.class));
+            encoder.add(message);
+        }
+
+        void flush() {
+            if (encoder == null || encoder.getCount() == 0) {
+                return;
+            }
+            jdbcTemplate.update("insert into message_archives (trip_id, conversation_id, period_start, message_count, " +
+                    "data, archived_at) values (?, ?, ?, ?, ?, ?)", tripId, conversationId, periodStart,
+                    encoder.getCount(), encoder.finish(), archivedAt);
+            total += encoder.getCount();
+            archives++;
+            encoder = null;
+        }
+    }
+}
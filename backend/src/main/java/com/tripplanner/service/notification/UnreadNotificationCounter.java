@@ -0,0 +1,73 @@
+package com.tripplanner.service.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tripplanner.repository.NotificationRepository;
+import com.tripplanner.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user unread notification counts.
+ *
+ * A user's count is loaded with one query on first access and then maintained purely by deltas:
+ * +1 for each committed insert and -n for each committed mark-read that touched n rows. Deltas
+ * commute, so concurrent inserts and bulk updates converge without re-counting. Users who were not
+ * cached are skipped; their next read loads the committed truth. A load can still race a concurrent
+ * commit, so every entry is dropped a fixed time after it was loaded: applying a delta does not
+ * extend its life, which bounds how long any drift can survive even for a constantly active user.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private final Cache<Long, Integer> counts;
+    private final NotificationRepository notificationRepository;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${app.notifications.counter.max-users:200000}") long maxUsers,
+                                     @Value("${app.notifications.counter.max-age:10m}") Duration maxAge) {
+        this.notificationRepository = notificationRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                // Like expireAfterWrite, except that applying a delta keeps the remaining time
+                .expireAfter(new Expiry<Long, Integer>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Integer count, long currentTime) {
+                        return maxAge.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Integer count, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Integer count, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public int getUnreadCount(Long userId) {
+        return counts.get(userId, notificationRepository::countUnreadByUserId);
+    }
+
+    /**
+     * Applies a delta once the surrounding transaction commits.
+     */
+    public void adjustAfterCommit(Long userId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() ->
+                counts.asMap().computeIfPresent(userId, (id, count) -> Math.max(0, count + delta)));
+    }
+
+    public void evict(Long userId) {
+        counts.invalidate(userId);
+    }
+}
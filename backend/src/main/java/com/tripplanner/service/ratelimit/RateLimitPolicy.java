@@ -0,0 +1,15 @@
+package com.tripplanner.service.ratelimit;
+
+/**
+ * Endpoint classes with a bucket of their own, and what each bucket is keyed by.
+ */
+public enum RateLimitPolicy {
+    // Every request, per client address
+    API,
+    // Trip and private messages, per sender
+    CHAT_SENDER,
+    // Trip messages, per trip, so many members together cannot flood one fan-out
+    CHAT_TRIP,
+    // Actions that notify other users (friend requests, trip imports), per user
+    INVITATION
+}
@@ -0,0 +1,79 @@
+package com.tripplanner.service.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets tracked per policy; the least recently used are dropped beyond this
+    private long maxKeys = 100_000;
+
+    private Map<RateLimitPolicy, Limit> policies = new EnumMap<>(Map.of(
+            RateLimitPolicy.API, new Limit(600, Duration.ofMinutes(1)),
+            RateLimitPolicy.CHAT_SENDER, new Limit(30, Duration.ofSeconds(10)),
+            RateLimitPolicy.CHAT_TRIP, new Limit(200, Duration.ofSeconds(10)),
+            RateLimitPolicy.INVITATION, new Limit(30, Duration.ofMinutes(10))));
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(long maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public Map<RateLimitPolicy, Limit> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(Map<RateLimitPolicy, Limit> policies) {
+        this.policies = policies;
+    }
+
+    /** Up to {@code permits} at once, refilled evenly so that {@code permits} are regained per {@code period}. */
+    public static class Limit {
+
+        private int permits;
+        private Duration period;
+
+        // Constructors
+        public Limit() {}
+
+        public Limit(int permits, Duration period) {
+            this.permits = permits;
+            this.period = period;
+        }
+
+        // Getters and Setters
+        public int getPermits() {
+            return permits;
+        }
+
+        public void setPermits(int permits) {
+            this.permits = permits;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.tripplanner.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripplanner.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per {@link RateLimitPolicy} and key (user id, trip id or client address).
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will next be full again
+ * (the generic cell rate algorithm, equivalent to a token bucket). A check reads the clock, works out
+ * the refill since the last one and takes a permit with one compare-and-set, so there is no lock and
+ * no refill thread. Buckets live in a bounded Caffeine map, whose reads do not lock and whose
+ * bookkeeping runs on the calling threads; a bucket idle for a whole period is full again, so
+ * expiring it then loses nothing.
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final Map<RateLimitPolicy, Buckets> buckets = new EnumMap<>(RateLimitPolicy.class);
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        for (RateLimitPolicy policy : RateLimitPolicy.values()) {
+            RateLimitProperties.Limit limit = properties.getPolicies().get(policy);
+            if (limit == null || limit.getPermits() < 1 || limit.getPeriod() == null || limit.getPeriod().isNegative()
+                    || limit.getPeriod().isZero()) {
+                throw new IllegalStateException("app.rate-limit.policies." + policy + " needs permits and a period");
+            }
+            Counter rejected = Counter.builder("ratelimit.rejected").tag("policy", policy.name())
+                    .description("Requests refused by a rate limit").register(meterRegistry);
+            buckets.put(policy, new Buckets(limit, properties.getMaxKeys(), rejected));
+        }
+    }
+
+    /**
+     * Takes one permit from the key's bucket, or throws {@link TooManyRequestsException} saying
+     * how long until one is available.
+     */
+    public void acquire(RateLimitPolicy policy, Object key) {
+        long waitNanos = tryAcquire(policy, key);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Too many requests, please slow down", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Takes one permit from each of two buckets or from neither, throwing
+     * {@link TooManyRequestsException} when either is empty.
+     */
+    public void acquire(RateLimitPolicy first, Object firstKey, RateLimitPolicy second, Object secondKey) {
+        long waitNanos = tryAcquire(first, firstKey, second, secondKey);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Too many requests, please slow down", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /** Takes one permit if available. Returns 0 on success, otherwise the nanoseconds until one is. */
+    public long tryAcquire(RateLimitPolicy policy, Object key) {
+        return enabled ? buckets.get(policy).tryAcquire(key) : 0;
+    }
+
+    /**
+     * Takes one permit from each of two buckets or from neither. Both are checked before either is
+     * charged, so a request refused by one limit does not use up the other; if a concurrent request
+     * empties the second bucket in between, the permit already taken from the first is handed back.
+     */
+    public long tryAcquire(RateLimitPolicy first, Object firstKey, RateLimitPolicy second, Object secondKey) {
+        if (!enabled) {
+            return 0;
+        }
+        Buckets a = buckets.get(first);
+        Buckets b = buckets.get(second);
+        long waitNanos = Math.max(a.check(firstKey), b.check(secondKey));
+        if (waitNanos > 0) {
+            return waitNanos;
+        }
+        waitNanos = a.tryAcquire(firstKey);
+        if (waitNanos > 0) {
+            return waitNanos;
+        }
+        waitNanos = b.tryAcquire(secondKey);
+        if (waitNanos > 0) {
+            a.release(firstKey);
+        }
+        return waitNanos;
+    }
+
+    private static final class Buckets {
+
+        // Time between permits, and how far ahead of now the full time may run (the burst)
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Cache<Object, AtomicLong> fullAt;
+        private final Counter rejected;
+
+        private Buckets(RateLimitProperties.Limit limit, long maxKeys, Counter rejected) {
+            long periodNanos = limit.getPeriod().toNanos();
+            this.intervalNanos = Math.max(1, periodNanos / limit.getPermits());
+            this.toleranceNanos = periodNanos;
+            this.fullAt = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(limit.getPeriod())
+                    .executor(Runnable::run)
+                    .build();
+            this.rejected = rejected;
+        }
+
+        // Like tryAcquire, but only reports the wait without taking a permit
+        private long check(Object key) {
+            long now = System.nanoTime();
+            AtomicLong bucket = fullAt.getIfPresent(key);
+            long current = bucket != null ? bucket.get() : now;
+            long overdraft = (current - now > 0 ? current : now) + intervalNanos - now - toleranceNanos;
+            if (overdraft > 0) {
+                rejected.increment();
+                return overdraft;
+            }
+            return 0;
+        }
+
+        // Undoes one tryAcquire; a bucket pushed back before now is simply full again
+        private void release(Object key) {
+            AtomicLong bucket = fullAt.getIfPresent(key);
+            if (bucket != null) {
+                bucket.addAndGet(-intervalNanos);
+            }
+        }
+
+        private long tryAcquire(Object key) {
+            long now = System.nanoTime();
+            AtomicLong bucket = fullAt.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = bucket.get();
+                // A bucket that filled up in the past starts from now, so idle time does not bank extra permits
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long overdraft = next - now - toleranceNanos;
+                if (overdraft > 0) {
+                    rejected.increment();
+                    return overdraft;
+                }
+                if (bucket.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,646 @@
+package com.tripplanner.service.search;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full-text index over trip chat, one inverted index per trip.
+ *
+ * Each trip has at most one sealed {@link ChatSegment} on disk, opened through a memory map when
+ * the trip is first searched, and a live tail in memory holding messages indexed since that
+ * segment was written. A message edit appends the new text to the tail and marks the message's
+ * sealed copy stale. Tails are merged into a new segment once they reach {@code max-live-docs} or
+ * {@code max-live-age}, so the heap only ever holds recent changes.
+ *
+ * Every flush that writes segments also writes a checkpoint: a time before which every committed
+ * change is on disk. After a restart only messages created or edited since then are re-read (see
+ * {@link ChatSearchIndexLoader}); without a usable checkpoint the index is rebuilt from scratch.
+ *
+ * A query is a list of clauses, terms or phrases, that must all match. Results come newest first
+ * by {@code (created_at, id)}, which is also the keyset the caller pages with.
+ */
+@Slf4j
+@Component
+public class ChatSearchIndex {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final Path segmentsDir;
+    private final Path incomingDir;
+    private final Path checkpointFile;
+    private final TaskScheduler taskScheduler;
+    private final Duration flushInterval;
+    private final int maxLiveDocs;
+    private final Duration maxLiveAge;
+    private final LoadingCache<Long, Optional<ChatSegment>> segments;
+    private final Map<Long, LiveTrip> live = new ConcurrentHashMap<>();
+    private final AtomicLong maxMessageId = new AtomicLong();
+    private final Object flushLock = new Object();
+
+    private final List<IndexedMessage> pendingChanges = new ArrayList<>();
+    private volatile boolean ready;
+
+    public ChatSearchIndex(TaskScheduler taskScheduler,
+                           @Value("${app.search.chat.directory:data/chat-index}") Path directory,
+                           @Value("${app.search.chat.flush-interval:10s}") Duration flushInterval,
+                           @Value("${app.search.chat.max-live-docs:1000}") int maxLiveDocs,
+                           @Value("${app.search.chat.max-live-age:5m}") Duration maxLiveAge,
+                           @Value("${app.search.chat.max-open-segments:10000}") long maxOpenSegments) throws IOException {
+        this.segmentsDir = Files.createDirectories(directory.resolve("trips")).toAbsolutePath();
+        this.incomingDir = Files.createDirectories(directory.resolve("incoming")).toAbsolutePath();
+        this.checkpointFile = directory.resolve(CHECKPOINT).toAbsolutePath();
+        this.taskScheduler = taskScheduler;
+        this.flushInterval = flushInterval;
+        this.maxLiveDocs = maxLiveDocs;
+        this.maxLiveAge = maxLiveAge;
+        // Evicted segments are unmapped by the garbage collector
+        this.segments = Caffeine.newBuilder()
+                .maximumSize(maxOpenSegments)
+                .build(this::openSegment);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::flushDue, flushInterval);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexes a new message or the new text of an edited one. Before the index is loaded changes
+     * are queued and applied once loading finishes.
+     */
+    public void index(IndexedMessage message) {
+        if (!ready) {
+            synchronized (pendingChanges) {
+                if (!ready) {
+                    pendingChanges.add(message);
+                    return;
+                }
+            }
+        }
+        apply(message);
+    }
+
+    /**
+     * Returns up to {@code limit} messages of the trip matching {@code query} that come strictly
+     * before {@code (beforeAt, beforeId)}, newest first.
+     */
+    public List<Hit> search(long tripId, String query, LocalDateTime beforeAt, long beforeId, int limit) {
+        List<String[]> clauses = ChatTokenizer.parseQuery(query);
+        if (clauses.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        long before = micros(beforeAt);
+        TopHits top = new TopHits(limit);
+
+        ChatSegment sealed;
+        Set<Long> stale;
+        LiveTrip trip = live.get(tripId);
+        if (trip == null) {
+            sealed = segments.get(tripId).orElse(null);
+            stale = Set.of();
+        } else {
+            // The tail and the segment it sits on are swapped together by a flush
+            synchronized (trip) {
+                sealed = segments.get(tripId).orElse(null);
+                stale = new HashSet<>(trip.stale.keySet());
+                for (ChatSegment.Document document : trip.docs) {
+                    if (document != null && isBefore(document.createdAt, document.messageId, before, beforeId)
+                            && matches(document.terms, clauses)) {
+                        top.offer(document.messageId, document.createdAt);
+                    }
+                }
+            }
+        }
+        if (sealed != null) {
+            searchSealed(sealed, clauses, stale, before, beforeId, top);
+        }
+        return top.toHits();
+    }
+
+    private void searchSealed(ChatSegment sealed, List<String[]> clauses, Set<Long> stale,
+                              long before, long beforeId, TopHits top) {
+        List<int[]> matches = new ArrayList<>(clauses.size());
+        for (String[] clause : clauses) {
+            int[] docs = clause.length == 1 ? termDocs(sealed, clause[0]) : phraseDocs(sealed, clause);
+            if (docs.length == 0) {
+                return;
+            }
+            matches.add(docs);
+        }
+        // Intersect from the rarest clause so the working set only shrinks
+        matches.sort(Comparator.comparingInt(docs -> docs.length));
+        int[] docs = matches.get(0);
+        for (int i = 1; i < matches.size() && docs.length > 0; i++) {
+            docs = intersect(docs, matches.get(i));
+        }
+        for (int doc : docs) {
+            long messageId = sealed.messageId(doc);
+            long createdAt = sealed.createdAt(doc);
+            if (isBefore(createdAt, messageId, before, beforeId) && !stale.contains(messageId)) {
+                top.offer(messageId, createdAt);
+            }
+        }
+    }
+
+    private static int[] termDocs(ChatSegment sealed, String term) {
+        ChatSegment.Postings postings = sealed.postings(term, false);
+        return postings == null ? new int[0] : postings.docs;
+    }
+
+    private static int[] phraseDocs(ChatSegment sealed, String[] phrase) {
+        ChatSegment.Postings[] postings = new ChatSegment.Postings[phrase.length];
+        int rarest = 0;
+        for (int i = 0; i < phrase.length; i++) {
+            postings[i] = sealed.postings(phrase[i], true);
+            if (postings[i] == null) {
+                return new int[0];
+            }
+            if (postings[i].size() < postings[rarest].size()) {
+                rarest = i;
+            }
+        }
+        int[] found = new int[postings[rarest].size()];
+        int count = 0;
+        int[] index = new int[phrase.length];
+        candidates:
+        for (int doc : postings[rarest].docs) {
+            for (int i = 0; i < phrase.length; i++) {
+                index[i] = Arrays.binarySearch(postings[i].docs, doc);
+                if (index[i] < 0) {
+                    continue candidates;
+                }
+            }
+            if (phraseAt(postings, index)) {
+                found[count++] = doc;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // Whether some position p of the first term has term i at p + i for every i
+    private static boolean phraseAt(ChatSegment.Postings[] postings, int[] index) {
+        ChatSegment.Postings first = postings[0];
+        for (int k = first.starts[index[0]]; k < first.starts[index[0] + 1]; k++) {
+            int start = first.positions[k];
+            boolean all = true;
+            for (int i = 1; i < postings.length && all; i++) {
+                ChatSegment.Postings next = postings[i];
+                all = Arrays.binarySearch(next.positions, next.starts[index[i]], next.starts[index[i] + 1], start + i) >= 0;
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int j = 0;
+        for (int value : a) {
+            while (j < b.length && b[j] < value) {
+                j++;
+            }
+            if (j == b.length) {
+                break;
+            }
+            if (b[j] == value) {
+                out[count++] = value;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private static boolean matches(String[] terms, List<String[]> clauses) {
+        for (String[] clause : clauses) {
+            if (!containsSequence(terms, clause)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsSequence(String[] terms, String[] sequence) {
+        for (int start = 0; start + sequence.length <= terms.length; start++) {
+            int i = 0;
+            while (i < sequence.length && terms[start + i].equals(sequence[i])) {
+                i++;
+            }
+            if (i == sequence.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBefore(long createdAt, long messageId, long before, long beforeId) {
+        return createdAt < before || (createdAt == before && messageId < beforeId);
+    }
+
+    void apply(IndexedMessage message) {
+        ChatSegment.Document document = new ChatSegment.Document(message.messageId, micros(message.createdAt),
+                ChatTokenizer.tokenize(message.content).toArray(new String[0]));
+        // compute() keeps a flush from dropping an emptied tail while a change is being added to it
+        live.compute(message.tripId, (tripId, trip) -> {
+            LiveTrip target = trip == null ? new LiveTrip() : trip;
+            synchronized (target) {
+                target.add(document);
+            }
+            return target;
+        });
+        maxMessageId.accumulateAndGet(message.messageId, Math::max);
+    }
+
+    /**
+     * Finishes a load that read everything committed since {@code loadedFrom}: applies the changes
+     * queued meanwhile, writes all of it to segments, checkpoints at {@code loadedFrom} and starts
+     * serving searches.
+     */
+    void markReady(LocalDateTime loadedFrom) {
+        applyPendingChanges();
+        flush(true);
+        writeCheckpoint(loadedFrom);
+        synchronized (pendingChanges) {
+            applyPendingChanges();
+            ready = true;
+        }
+        log.info("Chat search index ready");
+    }
+
+    private void applyPendingChanges() {
+        synchronized (pendingChanges) {
+            for (IndexedMessage message : pendingChanges) {
+                apply(message);
+            }
+            pendingChanges.clear();
+        }
+    }
+
+    /**
+     * Writes a trip's segment from scratch, replacing whatever was on disk. Used by rebuilds, which
+     * run before the index is ready.
+     */
+    void writeTrip(long tripId, List<IndexedMessage> messages) {
+        List<ChatSegment.Document> documents = new ArrayList<>(messages.size());
+        for (IndexedMessage message : messages) {
+            documents.add(new ChatSegment.Document(message.messageId, micros(message.createdAt),
+                    ChatTokenizer.tokenize(message.content).toArray(new String[0])));
+            maxMessageId.accumulateAndGet(message.messageId, Math::max);
+        }
+        try {
+            ChatSegment.merge(null, Set.of(), documents).write(segmentPath(tripId), incomingDir);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        segments.invalidate(tripId);
+    }
+
+    /**
+     * Deletes every segment and the checkpoint.
+     */
+    void clear() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(segmentsDir)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        segments.invalidateAll();
+        maxMessageId.set(0);
+    }
+
+    /**
+     * Returns the checkpoint, or null if there is none or it was written by another format version.
+     */
+    Checkpoint readCheckpoint() {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            if (Integer.parseInt(properties.getProperty("version", "0")) != ChatSegment.VERSION) {
+                return null;
+            }
+            long maxId = Long.parseLong(properties.getProperty("maxMessageId"));
+            maxMessageId.accumulateAndGet(maxId, Math::max);
+            return new Checkpoint(fromMicros(Long.parseLong(properties.getProperty("since"))), maxId);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Unreadable chat search checkpoint, rebuilding: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    void flushDue() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(true);
+    }
+
+    private void flush(boolean all) {
+        synchronized (flushLock) {
+            LocalDateTime passStart = LocalDateTime.now();
+            long now = System.currentTimeMillis();
+            int flushed = 0;
+            for (Map.Entry<Long, LiveTrip> entry : live.entrySet()) {
+                LiveTrip trip = entry.getValue();
+                boolean due;
+                synchronized (trip) {
+                    due = all || trip.docs.size() >= maxLiveDocs || now - trip.firstChange >= maxLiveAge.toMillis();
+                }
+                if (due) {
+                    try {
+                        flushTrip(entry.getKey(), trip);
+                        flushed++;
+                    } catch (IOException | RuntimeException ex) {
+                        log.error("Failed to write chat index segment for trip {}", entry.getKey(), ex);
+                    }
+                }
+            }
+            if (flushed > 0 && ready) {
+                // Whatever is still in memory changed at or after its tail's first change
+                LocalDateTime since = passStart;
+                for (LiveTrip trip : live.values()) {
+                    synchronized (trip) {
+                        if (trip.firstChange > 0) {
+                            LocalDateTime first = LocalDateTime.ofInstant(Instant.ofEpochMilli(trip.firstChange),
+                                    ZoneId.systemDefault());
+                            since = first.isBefore(since) ? first : since;
+                        }
+                    }
+                }
+                writeCheckpoint(since);
+                log.debug("Flushed {} chat index segments", flushed);
+            }
+        }
+    }
+
+    private void flushTrip(long tripId, LiveTrip trip) throws IOException {
+        List<ChatSegment.Document> docs;
+        Set<Long> stale;
+        long generation;
+        long snapshotAt;
+        synchronized (trip) {
+            snapshotAt = System.currentTimeMillis();
+            docs = new ArrayList<>(trip.docs);
+            stale = new HashSet<>(trip.stale.keySet());
+            generation = trip.generation;
+        }
+        List<ChatSegment.Document> fresh = new ArrayList<>(docs.size());
+        for (ChatSegment.Document document : docs) {
+            if (document != null) {
+                fresh.add(document);
+            }
+        }
+        // The expensive part runs without the trip lock; searches keep using the old segment and tail
+        ChatSegment.Builder builder = ChatSegment.merge(segments.get(tripId).orElse(null), stale, fresh);
+        Path incoming = Files.createTempFile(incomingDir, "trip-" + tripId + "-", SEGMENT_SUFFIX);
+        try {
+            builder.write(incoming, incomingDir);
+            synchronized (trip) {
+                Files.move(incoming, segmentPath(tripId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                segments.put(tripId, Optional.of(ChatSegment.open(segmentPath(tripId))));
+                trip.trim(docs.size(), generation, snapshotAt);
+            }
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+        live.computeIfPresent(tripId, (id, current) -> current.isEmpty() ? null : current);
+    }
+
+    private void writeCheckpoint(LocalDateTime since) {
+        Properties properties = new Properties();
+        properties.setProperty("version", String.valueOf(ChatSegment.VERSION));
+        properties.setProperty("since", String.valueOf(micros(since)));
+        properties.setProperty("maxMessageId", String.valueOf(maxMessageId.get()));
+        try {
+            Path temp = Files.createTempFile(incomingDir, "checkpoint-", ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    properties.store(writer, null);
+                }
+                Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            log.error("Failed to write chat search checkpoint", ex);
+        }
+    }
+
+    private Optional<ChatSegment> openSegment(Long tripId) {
+        Path path = segmentPath(tripId);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(ChatSegment.open(path));
+        } catch (IOException ex) {
+            log.error("Failed to open chat index segment for trip {}", tripId, ex);
+            return Optional.empty();
+        }
+    }
+
+    private Path segmentPath(long tripId) {
+        return segmentsDir.resolve(tripId + SEGMENT_SUFFIX);
+    }
+
+    // Segments keep timestamps as UTC epoch microseconds, the precision PostgreSQL stores
+    static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * A trip's changes since its segment was written. A message indexed again replaces its earlier
+     * tail entry in place with null and is marked stale in the segment; stale marks carry the
+     * generation they were made in, so a flush clears only the marks its merge applied.
+     */
+    private static final class LiveTrip {
+
+        private final List<ChatSegment.Document> docs = new ArrayList<>();
+        private final Map<Long, Integer> positions = new HashMap<>();
+        private final Map<Long, Long> stale = new HashMap<>();
+        private long generation;
+        private long firstChange;
+
+        void add(ChatSegment.Document document) {
+            Integer previous = positions.put(document.messageId, docs.size());
+            if (previous != null) {
+                docs.set(previous, null);
+            }
+            docs.add(document);
+            stale.put(document.messageId, ++generation);
+            if (firstChange == 0) {
+                firstChange = System.currentTimeMillis();
+            }
+        }
+
+        void trim(int flushedDocs, long flushedGeneration, long snapshotAt) {
+            docs.subList(0, flushedDocs).clear();
+            positions.clear();
+            for (int i = 0; i < docs.size(); i++) {
+                if (docs.get(i) != null) {
+                    positions.put(docs.get(i).messageId, i);
+                }
+            }
+            stale.values().removeIf(generation -> generation <= flushedGeneration);
+            // Whatever remains arrived after the snapshot the merge was built from
+            firstChange = isEmpty() ? 0 : snapshotAt;
+        }
+
+        boolean isEmpty() {
+            return docs.isEmpty() && stale.isEmpty();
+        }
+    }
+
+    /**
+     * Bounded top-k by {@code (createdAt, messageId)} descending.
+     */
+    private static final class TopHits {
+
+        private final int limit;
+        private final PriorityQueue<long[]> heap = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(hit -> hit[1]).thenComparingLong(hit -> hit[0]));
+
+        TopHits(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(long messageId, long createdAt) {
+            if (heap.size() < limit) {
+                heap.add(new long[] {messageId, createdAt});
+                return;
+            }
+            long[] worst = heap.peek();
+            if (createdAt > worst[1] || (createdAt == worst[1] && messageId > worst[0])) {
+                heap.poll();
+                heap.add(new long[] {messageId, createdAt});
+            }
+        }
+
+        List<Hit> toHits() {
+            List<long[]> sorted = new ArrayList<>(heap);
+            sorted.sort(Comparator.<long[]>comparingLong(hit -> hit[1]).thenComparingLong(hit -> hit[0]).reversed());
+            List<Hit> hits = new ArrayList<>(sorted.size());
+            for (long[] hit : sorted) {
+                hits.add(new Hit(hit[0], fromMicros(hit[1])));
+            }
+            return hits;
+        }
+    }
+
+    /**
+     * A trip message as handed to the index.
+     */
+    public static final class IndexedMessage {
+
+        private final long tripId;
+        private final long messageId;
+        private final LocalDateTime createdAt;
+        private final String content;
+
+        public IndexedMessage(long tripId, long messageId, LocalDateTime createdAt, String content) {
+            this.tripId = tripId;
+            this.messageId = messageId;
+            this.createdAt = createdAt;
+            this.content = content;
+        }
+
+        public long getTripId() {
+            return tripId;
+        }
+
+        public long getMessageId() {
+            return messageId;
+        }
+    }
+
+    public static final class Hit {
+
+        private final long messageId;
+        private final LocalDateTime createdAt;
+
+        Hit(long messageId, LocalDateTime createdAt) {
+            this.messageId = messageId;
+            this.createdAt = createdAt;
+        }
+
+        public long getMessageId() {
+            return messageId;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+
+    static final class Checkpoint {
+
+        private final LocalDateTime since;
+        private final long maxMessageId;
+
+        Checkpoint(LocalDateTime since, long maxMessageId) {
+            this.since = since;
+            this.maxMessageId = maxMessageId;
+        }
+
+        LocalDateTime getSince() {
+            return since;
+        }
+
+        long getMaxMessageId() {
+            return maxMessageId;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tripplanner.service.search;
+
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.event.MessageCreatedEvent;
+import com.tripplanner.event.MessageEditedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies sent and edited trip messages to {@link ChatSearchIndex} after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatSearchIndexListener {
+
+    private final ChatSearchIndex chatSearchIndex;
+
+    @TransactionalEventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        if (event.isTripMessage()) {
+            index(event.getTripId(), event.getMessage());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMessageEdited(MessageEditedEvent event) {
+        if (event.isTripMessage()) {
+            index(event.getTripId(), event.getMessage());
+        }
+    }
+
+    private void index(Long tripId, MessageResponse message) {
+        chatSearchIndex.index(new ChatSearchIndex.IndexedMessage(tripId, message.getId(),
+                message.getCreatedAt(), message.getContent()));
+    }
+}
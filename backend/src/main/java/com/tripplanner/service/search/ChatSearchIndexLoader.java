@@ -0,0 +1,107 @@
+package com.tripplanner.service.search;
+
+import com.tripplanner.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Brings {@link ChatSearchIndex} up to date in the background once the application is up.
+ *
+ * With a checkpoint, only trip messages created or edited since it are re-read. A checkpoint that
+ * is missing, from another format version, or ahead of the database (the index belongs to a
+ * different database) triggers a full rebuild, streamed one trip at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatSearchIndexLoader {
+
+    // Covers messages whose transaction was still open when the checkpoint was taken
+    private static final long CATCH_UP_SLACK_MINUTES = 1;
+
+    private final ChatSearchIndex chatSearchIndex;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "chat-search-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        try {
+            LocalDateTime started = LocalDateTime.now();
+            ChatSearchIndex.Checkpoint checkpoint = chatSearchIndex.readCheckpoint();
+            long databaseMaxId = messageRepository.findMaxId().orElse(0L);
+            if (checkpoint == null || checkpoint.getMaxMessageId() > databaseMaxId) {
+                rebuild();
+            } else {
+                catchUp(checkpoint.getSince().minusMinutes(CATCH_UP_SLACK_MINUTES));
+            }
+            chatSearchIndex.markReady(started);
+        } catch (RuntimeException ex) {
+            log.error("Failed to load chat search index; searches will use the database", ex);
+        }
+    }
+
+    private void rebuild() {
+        chatSearchIndex.clear();
+        int[] trips = new int[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            List<ChatSearchIndex.IndexedMessage> batch = new ArrayList<>();
+            try (Stream<Object[]> rows = messageRepository.streamTripMessagesForSearch()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    ChatSearchIndex.IndexedMessage message = toIndexed(row);
+                    if (!batch.isEmpty() && batch.get(0).getTripId() != message.getTripId()) {
+                        chatSearchIndex.writeTrip(batch.get(0).getTripId(), batch);
+                        trips[0]++;
+                        batch.clear();
+                    }
+                    batch.add(message);
+                }
+            }
+            if (!batch.isEmpty()) {
+                chatSearchIndex.writeTrip(batch.get(0).getTripId(), batch);
+                trips[0]++;
+            }
+        });
+        log.info("Chat search index rebuilt: {} trips", trips[0]);
+    }
+
+    private void catchUp(LocalDateTime from) {
+        int[] messages = new int[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            // Two queries rather than an OR, so each can use its own index
+            try (Stream<Object[]> rows = messageRepository.streamTripMessagesCreatedSince(from)) {
+                rows.forEach(row -> {
+                    chatSearchIndex.apply(toIndexed(row));
+                    messages[0]++;
+                });
+            }
+            try (Stream<Object[]> rows = messageRepository.streamTripMessagesEditedSince(from)) {
+                rows.forEach(row -> {
+                    chatSearchIndex.apply(toIndexed(row));
+                    messages[0]++;
+                });
+            }
+        });
+        log.info("Chat search index caught up from {}: {} messages", from, messages[0]);
+    }
+
+    private static ChatSearchIndex.IndexedMessage toIndexed(Object[] row) {
+        return new ChatSearchIndex.IndexedMessage((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (String) row[3]);
+    }
+}
@@ -0,0 +1,415 @@
+package com.tripplanner.service.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One trip's sealed chat index, read straight from a memory-mapped file.
+ *
+ * Layout, big-endian:
+ * <pre>
+ *   header    magic, version, docCount, termCount
+ *   docs      long messageId[docCount] ascending, then long createdAt[docCount] (epoch micros, UTC)
+ *   terms     termCount entries of (termOffset, termLength, postingsOffset, postingsDocs), sorted by
+ *             the term's UTF-8 bytes, followed by the term bytes
+ *   postings  per term, per document in ordinal order: ordinal, frequency, positions[frequency]
+ * </pre>
+ * A document's ordinal is its index in the docs arrays. A term lookup is a binary search over the
+ * fixed-width term entries and only the postings it returns are decoded, so an open segment costs a
+ * mapping and no heap. Files are never modified: a merge writes a new file and moves it over the old.
+ */
+final class ChatSegment {
+
+    static final int MAGIC = 0x43485331;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int TERM_ENTRY_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final int createdAtOffset;
+    private final int termsOffset;
+
+    private ChatSegment(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a chat index segment");
+        }
+        this.buffer = buffer;
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.createdAtOffset = HEADER_SIZE + docCount * 8;
+        this.termsOffset = createdAtOffset + docCount * 8;
+    }
+
+    static ChatSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ChatSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    long messageId(int doc) {
+        return buffer.getLong(HEADER_SIZE + doc * 8);
+    }
+
+    long createdAt(int doc) {
+        return buffer.getLong(createdAtOffset + doc * 8);
+    }
+
+    /**
+     * Returns the documents containing {@code term}, with their positions if asked for, or null if
+     * the term does not occur.
+     */
+    Postings postings(String term, boolean withPositions) {
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = termsOffset + mid * TERM_ENTRY_SIZE;
+            int cmp = compareTerm(buffer.getInt(entry), buffer.getInt(entry + 4), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readPostings(buffer.getInt(entry + 8), buffer.getInt(entry + 12), withPositions);
+            }
+        }
+        return null;
+    }
+
+    private int compareTerm(int offset, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(offset + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private Postings readPostings(int offset, int docs, boolean withPositions) {
+        int[] ordinals = new int[docs];
+        int[] starts = withPositions ? new int[docs + 1] : null;
+        int[] positions = null;
+        if (withPositions) {
+            // Sized in a first pass so positions land in one flat array
+            int total = 0;
+            int cursor = offset;
+            for (int i = 0; i < docs; i++) {
+                int frequency = buffer.getInt(cursor + 4);
+                total += frequency;
+                cursor += 8 + frequency * 4;
+            }
+            positions = new int[total];
+        }
+        int cursor = offset;
+        int next = 0;
+        for (int i = 0; i < docs; i++) {
+            ordinals[i] = buffer.getInt(cursor);
+            int frequency = buffer.getInt(cursor + 4);
+            cursor += 8;
+            if (withPositions) {
+                starts[i] = next;
+                for (int k = 0; k < frequency; k++) {
+                    positions[next++] = buffer.getInt(cursor + k * 4);
+                }
+            }
+            cursor += frequency * 4;
+        }
+        if (withPositions) {
+            starts[docs] = next;
+        }
+        return new Postings(ordinals, starts, positions);
+    }
+
+    /**
+     * Builds the segment that replaces {@code sealed}: its documents minus those in {@code stale},
+     * plus {@code fresh} documents, where a later fresh copy of a message wins over an earlier one.
+     */
+    static Builder merge(ChatSegment sealed, Set<Long> stale, List<Document> fresh) {
+        Map<Long, Document> latest = new LinkedHashMap<>();
+        for (Document document : fresh) {
+            latest.put(document.messageId, document);
+        }
+        List<Document> added = new ArrayList<>(latest.values());
+        added.sort(Comparator.comparingLong(document -> document.messageId));
+
+        int sealedCount = sealed == null ? 0 : sealed.docCount;
+        int[] remap = new int[sealedCount];
+        int survivors = 0;
+        for (int doc = 0; doc < sealedCount; doc++) {
+            long messageId = sealed.messageId(doc);
+            boolean dropped = stale.contains(messageId) || latest.containsKey(messageId);
+            remap[doc] = dropped ? -1 : survivors++;
+        }
+
+        // Both inputs are sorted by message id, so a single merge pass assigns the new ordinals
+        int total = survivors + added.size();
+        long[] messageIds = new long[total];
+        long[] createdAt = new long[total];
+        int[] addedOrdinals = new int[added.size()];
+        int doc = 0;
+        int next = 0;
+        for (int ordinal = 0; ordinal < total; ordinal++) {
+            while (doc < sealedCount && remap[doc] < 0) {
+                doc++;
+            }
+            boolean takeSealed = doc < sealedCount
+                    && (next == added.size() || sealed.messageId(doc) < added.get(next).messageId);
+            if (takeSealed) {
+                messageIds[ordinal] = sealed.messageId(doc);
+                createdAt[ordinal] = sealed.createdAt(doc);
+                remap[doc++] = ordinal;
+            } else {
+                Document document = added.get(next);
+                messageIds[ordinal] = document.messageId;
+                createdAt[ordinal] = document.createdAt;
+                addedOrdinals[next++] = ordinal;
+            }
+        }
+
+        Builder builder = new Builder(messageIds, createdAt);
+        if (sealed != null) {
+            sealed.copyPostings(remap, builder);
+        }
+        for (int i = 0; i < added.size(); i++) {
+            builder.addDocument(addedOrdinals[i], added.get(i).terms);
+        }
+        return builder;
+    }
+
+    private void copyPostings(int[] remap, Builder builder) {
+        for (int t = 0; t < termCount; t++) {
+            int entry = termsOffset + t * TERM_ENTRY_SIZE;
+            byte[] bytes = new byte[buffer.getInt(entry + 4)];
+            buffer.get(buffer.getInt(entry), bytes);
+            String term = new String(bytes, StandardCharsets.UTF_8);
+            Postings postings = readPostings(buffer.getInt(entry + 8), buffer.getInt(entry + 12), true);
+            for (int i = 0; i < postings.size(); i++) {
+                int ordinal = remap[postings.docs[i]];
+                if (ordinal >= 0) {
+                    builder.add(term, ordinal, postings.positions, postings.starts[i], postings.starts[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A message as indexed: its terms in order, so a term's positions are its indexes here.
+     */
+    static final class Document {
+
+        final long messageId;
+        final long createdAt;
+        final String[] terms;
+
+        Document(long messageId, long createdAt, String[] terms) {
+            this.messageId = messageId;
+            this.createdAt = createdAt;
+            this.terms = terms;
+        }
+    }
+
+    static final class Postings {
+
+        final int[] docs;
+        // Positions of docs[i] are positions[starts[i]] up to positions[starts[i + 1]]; null unless asked for
+        final int[] starts;
+        final int[] positions;
+
+        Postings(int[] docs, int[] starts, int[] positions) {
+            this.docs = docs;
+            this.starts = starts;
+            this.positions = positions;
+        }
+
+        int size() {
+            return docs.length;
+        }
+    }
+
+    /**
+     * Accumulates postings for a new segment and writes it. Postings normally arrive in ordinal
+     * order; a term that received them out of order is sorted once when written.
+     */
+    static final class Builder {
+
+        private final long[] messageIds;
+        private final long[] createdAt;
+        private final Map<String, TermPostings> terms = new HashMap<>();
+
+        Builder(long[] messageIds, long[] createdAt) {
+            this.messageIds = messageIds;
+            this.createdAt = createdAt;
+        }
+
+        int docCount() {
+            return messageIds.length;
+        }
+
+        void addDocument(int ordinal, String[] documentTerms) {
+            Map<String, IntList> positions = new HashMap<>();
+            for (int i = 0; i < documentTerms.length; i++) {
+                positions.computeIfAbsent(documentTerms[i], term -> new IntList()).add(i);
+            }
+            positions.forEach((term, list) -> add(term, ordinal, list.values, 0, list.size));
+        }
+
+        void add(String term, int ordinal, int[] positions, int from, int to) {
+            TermPostings postings = terms.computeIfAbsent(term, key -> new TermPostings());
+            if (ordinal < postings.lastDoc) {
+                postings.sorted = false;
+            }
+            postings.lastDoc = ordinal;
+            postings.docs++;
+            postings.data.add(ordinal);
+            postings.data.add(to - from);
+            for (int i = from; i < to; i++) {
+                postings.data.add(positions[i]);
+            }
+        }
+
+        /**
+         * Writes the segment to a temporary file in {@code incoming}, syncs it and moves it over
+         * {@code target}.
+         */
+        void write(Path target, Path incoming) throws IOException {
+            int docCount = messageIds.length;
+            List<Map.Entry<byte[], TermPostings>> sorted = new ArrayList<>(terms.size());
+            for (Map.Entry<String, TermPostings> entry : terms.entrySet()) {
+                entry.getValue().sortIfNeeded();
+                sorted.add(Map.entry(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue()));
+            }
+            sorted.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+
+            long termBytesOffset = HEADER_SIZE + docCount * 16L + sorted.size() * (long) TERM_ENTRY_SIZE;
+            long postingsOffset = termBytesOffset;
+            for (Map.Entry<byte[], TermPostings> entry : sorted) {
+                postingsOffset += entry.getKey().length;
+            }
+            long end = postingsOffset;
+            for (Map.Entry<byte[], TermPostings> entry : sorted) {
+                end += entry.getValue().data.size * 4L;
+            }
+            if (end > Integer.MAX_VALUE) {
+                throw new IOException("Chat index segment would exceed 2 GB");
+            }
+
+            Path temp = Files.createTempFile(incoming, "segment-", ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(docCount);
+                    out.writeInt(sorted.size());
+                    for (long messageId : messageIds) {
+                        out.writeLong(messageId);
+                    }
+                    for (long created : createdAt) {
+                        out.writeLong(created);
+                    }
+                    int termOffset = (int) termBytesOffset;
+                    int postingOffset = (int) postingsOffset;
+                    for (Map.Entry<byte[], TermPostings> entry : sorted) {
+                        out.writeInt(termOffset);
+                        out.writeInt(entry.getKey().length);
+                        out.writeInt(postingOffset);
+                        out.writeInt(entry.getValue().docs);
+                        termOffset += entry.getKey().length;
+                        postingOffset += entry.getValue().data.size * 4;
+                    }
+                    for (Map.Entry<byte[], TermPostings> entry : sorted) {
+                        out.write(entry.getKey());
+                    }
+                    for (Map.Entry<byte[], TermPostings> entry : sorted) {
+                        IntList data = entry.getValue().data;
+                        for (int i = 0; i < data.size; i++) {
+                            out.writeInt(data.values[i]);
+                        }
+                    }
+                    out.flush();
+                    // On disk before the checkpoint can claim it
+                    channel.force(true);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Flattened (ordinal, frequency, positions...) entries of one term
+    private static final class TermPostings {
+
+        private final IntList data = new IntList();
+        private int docs;
+        private int lastDoc = -1;
+        private boolean sorted = true;
+
+        void sortIfNeeded() {
+            if (sorted) {
+                return;
+            }
+            int[] starts = new int[docs];
+            for (int i = 0, cursor = 0; i < docs; i++) {
+                starts[i] = cursor;
+                cursor += 2 + data.values[cursor + 1];
+            }
+            Integer[] order = new Integer[docs];
+            for (int i = 0; i < docs; i++) {
+                order[i] = starts[i];
+            }
+            Arrays.sort(order, Comparator.comparingInt(start -> data.values[start]));
+            IntList copy = new IntList();
+            for (int start : order) {
+                int length = 2 + data.values[start + 1];
+                for (int k = 0; k < length; k++) {
+                    copy.add(data.values[start + k]);
+                }
+            }
+            data.values = copy.values;
+            data.size = copy.size;
+            sorted = true;
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.tripplanner.service.search;
+
+import java.text.BreakIterator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits chat text into search terms.
+ *
+ * Word boundaries come from the JDK's Thai word iterator, which segments Thai runs with its
+ * dictionary and falls back to the usual Unicode rules for Latin and everything else. Words are
+ * then split once more at anything that is not a letter, digit or combining mark, so "chiang-mai"
+ * and "chiang mai" index the same terms while Thai vowel and tone marks stay attached.
+ */
+final class ChatTokenizer {
+
+    static final int MAX_TERM_LENGTH = 64;
+    static final int MAX_CLAUSES = 16;
+
+    private static final Locale THAI = Locale.forLanguageTag("th");
+
+    private ChatTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        BreakIterator words = BreakIterator.getWordInstance(THAI);
+        words.setText(normalized);
+        int start = words.first();
+        for (int end = words.next(); end != BreakIterator.DONE; start = end, end = words.next()) {
+            int termStart = -1;
+            for (int i = start; i < end; ) {
+                int codePoint = normalized.codePointAt(i);
+                if (isTermChar(codePoint)) {
+                    if (termStart < 0) {
+                        termStart = i;
+                    }
+                } else if (termStart >= 0) {
+                    addTerm(terms, normalized, termStart, i);
+                    termStart = -1;
+                }
+                i += Character.charCount(codePoint);
+            }
+            if (termStart >= 0) {
+                addTerm(terms, normalized, termStart, end);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Parses a query into clauses that must all match. Text in double quotes is one phrase; outside
+     * quotes every whitespace-separated chunk is a clause of its own, which is a single term or,
+     * when the tokenizer splits it (a run of Thai words, "chiang-mai"), a phrase.
+     */
+    static List<String[]> parseQuery(String query) {
+        List<String[]> clauses = new ArrayList<>();
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 1) {
+                addClause(clauses, parts[i]);
+                continue;
+            }
+            for (String chunk : parts[i].strip().split("\\s+")) {
+                addClause(clauses, chunk);
+            }
+        }
+        if (clauses.size() > MAX_CLAUSES) {
+            throw new IllegalArgumentException("Search queries can have at most " + MAX_CLAUSES + " terms");
+        }
+        return clauses;
+    }
+
+    private static void addClause(List<String[]> clauses, String text) {
+        List<String> terms = tokenize(text);
+        if (!terms.isEmpty()) {
+            clauses.add(terms.toArray(new String[0]));
+        }
+    }
+
+    private static void addTerm(List<String> terms, String text, int start, int end) {
+        if (end - start > MAX_TERM_LENGTH) {
+            end = start + MAX_TERM_LENGTH;
+            // Never split a surrogate pair
+            if (Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+        }
+        terms.add(text.substring(start, end));
+    }
+
+    private static boolean isTermChar(int codePoint) {
+        if (Character.isLetterOrDigit(codePoint)) {
+            return true;
+        }
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+}
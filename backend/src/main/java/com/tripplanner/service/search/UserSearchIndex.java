@@ -0,0 +1,816 @@
+package com.tripplanner.service.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory typeahead index over username, first name and last name of active users.
+ *
+ * Every indexed user gets a dense ordinal, and each gram maps to an append-only list of ordinals:
+ * username prefixes and name prefixes of up to three characters, plus trigrams of the username and
+ * the full name. Ordinals only ever grow, so posting lists stay sorted without any insertion work;
+ * a profile edit tombstones the old ordinal and appends the user under a new one. Once tombstones
+ * make up a quarter of the index, a compacted copy is built on a background thread and swapped in.
+ *
+ * Matches are ranked by tier (exact username, username prefix, name prefix, substring) plus a
+ * proximity bonus for friends and friends of friends. The caller's friends are scored first, after
+ * which every remaining candidate is a stranger, so a tier scan can stop at the first candidate
+ * that cannot beat the current top-k instead of visiting the whole posting list. The substring tier
+ * is best effort: it verifies at most a fixed number of trigram candidates per query.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    static final int EXACT = 4;
+    static final int USERNAME_PREFIX = 3;
+    static final int NAME_PREFIX = 2;
+    static final int SUBSTRING = 1;
+
+    public static final int FRIEND = 2;
+    public static final int FRIEND_OF_FRIEND = 1;
+
+    private static final int NS_USERNAME_PREFIX = 1;
+    private static final int NS_NAME_PREFIX = 2;
+    private static final int NS_TRIGRAM = 3;
+    private static final int MAX_PREFIX = 3;
+    private static final long CHARS_MASK = (1L << 48) - 1;
+    private static final int MAX_SCAN_PER_TIER = 200_000;
+    // Trigram co-occurrence is a weak filter for rare substrings; cap the string checks it can cause
+    private static final int MAX_SUBSTRING_CHECKS = 2_000;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Executor compactor;
+
+    // Guarded by lock
+    private Segment segment = new Segment();
+    // Non-null while a compacted copy is built off the lock; changes made meanwhile are replayed onto it
+    private List<Object> compactionLog;
+    // Bumped by load, so a compaction of the replaced index is discarded
+    private long generation;
+
+    private final List<Object> pendingChanges = new ArrayList<>();
+    private volatile boolean ready;
+
+    public UserSearchIndex() {
+        this(new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1),
+                new CustomizableThreadFactory("user-search-compact-")));
+    }
+
+    UserSearchIndex(Executor compactor) {
+        this.compactor = compactor;
+        if (compactor instanceof ThreadPoolExecutor executor) {
+            executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replaces the index with a snapshot of active users, then replays changes recorded while the
+     * snapshot was being read.
+     */
+    public void load(List<IndexedUser> users) {
+        lock.writeLock().lock();
+        try {
+            segment = new Segment();
+            compactionLog = null;
+            generation++;
+            for (IndexedUser user : users) {
+                segment.apply(user);
+            }
+            synchronized (pendingChanges) {
+                for (Object change : pendingChanges) {
+                    segment.replay(change);
+                }
+                pendingChanges.clear();
+                ready = true;
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User search index loaded: {} users", users.size());
+    }
+
+    public void upsert(IndexedUser user) {
+        if (deferred(user)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            segment.apply(user);
+            changed(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        if (deferred(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            segment.remove(userId);
+            changed(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean deferred(Object change) {
+        if (!ready) {
+            synchronized (pendingChanges) {
+                if (!ready) {
+                    pendingChanges.add(change);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.ordinalByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} users matching {@code query}.
+     *
+     * @param searcherId       excluded from the results
+     * @param friends          sorted ids of the searcher's friends
+     * @param friendsOfFriends sorted ids at distance two
+     */
+    public List<Hit> search(long searcherId, String query, int limit, long[] friends, long[] friendsOfFriends) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        TopHits top = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            Segment s = segment;
+            IntList[] trigrams = q.length() >= 3 ? trigramPostings(s, q) : null;
+            scoreKnown(s, q, trigrams, friends, FRIEND, searcherId, top);
+            scoreKnown(s, q, trigrams, friendsOfFriends, FRIEND_OF_FRIEND, searcherId, top);
+
+            Integer exact = s.ordinalByUsername.get(q);
+            if (exact != null && isStranger(s.entries[exact].getId(), searcherId, friends, friendsOfFriends)) {
+                top.offer(exact, EXACT, 0);
+            }
+            if (q.length() <= MAX_PREFIX) {
+                // Prefix grams cover the whole query, so every posting entry is a real prefix match
+                scan(s, q, s.postings.get(gram(NS_USERNAME_PREFIX, q, 0, q.length())), null, USERNAME_PREFIX,
+                        MAX_SCAN_PER_TIER, searcherId, friends, friendsOfFriends, top);
+                scan(s, q, s.postings.get(gram(NS_NAME_PREFIX, q, 0, q.length())), null, NAME_PREFIX,
+                        MAX_SCAN_PER_TIER, searcherId, friends, friendsOfFriends, top);
+            } else if (trigrams != null) {
+                // A longer prefix must also contain every query trigram, which rules out most of the
+                // three-character prefix posting without reading strings
+                scan(s, q, s.postings.get(gram(NS_USERNAME_PREFIX, q, 0, MAX_PREFIX)), new TrigramFilter(trigrams, 0),
+                        USERNAME_PREFIX, MAX_SCAN_PER_TIER, searcherId, friends, friendsOfFriends, top);
+                scan(s, q, s.postings.get(gram(NS_NAME_PREFIX, q, 0, MAX_PREFIX)), new TrigramFilter(trigrams, 0),
+                        NAME_PREFIX, MAX_SCAN_PER_TIER, searcherId, friends, friendsOfFriends, top);
+            }
+            if (trigrams != null) {
+                // Walk the rarest trigram and intersect the others before reading any strings
+                scan(s, q, trigrams[0], new TrigramFilter(trigrams, 1), SUBSTRING, MAX_SUBSTRING_CHECKS,
+                        searcherId, friends, friendsOfFriends, top);
+            }
+            return top.toHits(s.entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void scoreKnown(Segment s, String q, IntList[] trigrams, long[] ids, int proximity,
+                                   long searcherId, TopHits top) {
+        int[] known = new int[ids.length];
+        int count = 0;
+        for (long id : ids) {
+            int ordinal = s.ordinalByUser.get(id);
+            if (ordinal >= 0 && id != searcherId) {
+                known[count++] = ordinal;
+            }
+        }
+        // Ascending ordinals let the trigram check gallop forward through the postings
+        Arrays.sort(known, 0, count);
+        TrigramFilter filter = trigrams == null ? null : new TrigramFilter(trigrams, 0);
+
+        long[] signatures = s.signatures;
+        long qPrefix = prefixSignature(q);
+        long mask = prefixMask(q.length());
+        boolean hasSpace = q.indexOf(' ') >= 0;
+        // Up to three characters the signatures decide the tier exactly; longer queries use them as
+        // a filter and confirm against the strings
+        boolean signatureOnly = q.length() <= MAX_PREFIX && !hasSpace;
+        for (int i = 0; i < count; i++) {
+            int ordinal = known[i];
+            int base = ordinal * 3;
+            boolean usernamePrefix = (signatures[base] & mask) == qPrefix;
+            boolean namePrefix = (signatures[base + 1] & mask) == qPrefix || (signatures[base + 2] & mask) == qPrefix;
+            int tier;
+            if (signatureOnly) {
+                if (usernamePrefix) {
+                    tier = signatures[base] >>> 48 == q.length() ? EXACT : USERNAME_PREFIX;
+                } else if (namePrefix) {
+                    tier = NAME_PREFIX;
+                } else {
+                    tier = filter != null && filter.containsAll(ordinal) ? SUBSTRING : 0;
+                }
+            } else if (hasSpace || usernamePrefix || namePrefix || (filter != null && filter.containsAll(ordinal))) {
+                tier = s.entries[ordinal].match(q);
+            } else {
+                tier = 0;
+            }
+            if (tier > 0) {
+                top.offer(ordinal, tier, proximity);
+            }
+        }
+    }
+
+    private static void scan(Segment s, String q, IntList posting, TrigramFilter filter, int tierBound, int maxChecks,
+                             long searcherId, long[] friends, long[] friendsOfFriends, TopHits top) {
+        if (posting == null) {
+            return;
+        }
+        int checked = 0;
+        for (int i = 0; i < posting.size && checked < maxChecks; i++) {
+            int ordinal = posting.values[i];
+            if (filter != null && !filter.containsAll(ordinal)) {
+                continue;
+            }
+            IndexedUser user = s.entries[ordinal];
+            if (user == null) {
+                continue;
+            }
+            // Ordinals ascend and strangers in this list score at most tierBound, so once one cannot
+            // enter the top-k no later one can either
+            if (!top.accepts(tierBound, 0, ordinal)) {
+                break;
+            }
+            checked++;
+            if (!isStranger(user.getId(), searcherId, friends, friendsOfFriends)) {
+                continue;
+            }
+            int tier = user.match(q);
+            if (tier > 0) {
+                top.offer(ordinal, tier, 0);
+            }
+        }
+    }
+
+    private static boolean isStranger(long userId, long searcherId, long[] friends, long[] friendsOfFriends) {
+        return userId != searcherId
+                && Arrays.binarySearch(friends, userId) < 0
+                && Arrays.binarySearch(friendsOfFriends, userId) < 0;
+    }
+
+    // Distinct query trigram postings, rarest first, or null when some trigram occurs nowhere
+    private static IntList[] trigramPostings(Segment s, String q) {
+        List<IntList> found = new ArrayList<>(q.length() - 2);
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            IntList posting = s.postings.get(gram(NS_TRIGRAM, q, i, 3));
+            if (posting == null) {
+                return null;
+            }
+            if (!found.contains(posting)) {
+                found.add(posting);
+            }
+        }
+        found.sort((a, b) -> Integer.compare(a.size, b.size));
+        return found.toArray(new IntList[0]);
+    }
+
+    // Called under the write lock after every change
+    private void changed(Object change) {
+        if (compactionLog != null) {
+            compactionLog.add(change);
+        } else {
+            compactIfNeeded();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (compactionLog != null || !segment.needsCompaction()) {
+            return;
+        }
+        IndexedUser[] snapshot = Arrays.copyOf(segment.entries, segment.ordinals);
+        long startedAt = generation;
+        compactionLog = new ArrayList<>();
+        try {
+            compactor.execute(() -> compact(snapshot, startedAt));
+        } catch (RejectedExecutionException ex) {
+            // Shutting down; the tombstones stay until the next change tries again
+            compactionLog = null;
+        }
+    }
+
+    // Builds the compacted segment without holding the lock, so searches and updates only wait for
+    // the replay of changes made in the meantime and the swap
+    private void compact(IndexedUser[] snapshot, long startedAt) {
+        Segment compacted = null;
+        try {
+            compacted = new Segment();
+            for (IndexedUser user : snapshot) {
+                if (user != null) {
+                    compacted.append(user);
+                }
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (generation == startedAt) {
+                    if (compacted != null) {
+                        for (Object change : compactionLog) {
+                            compacted.replay(change);
+                        }
+                        segment = compacted;
+                    }
+                    compactionLog = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (compactor instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    // namespace (2 bits) | length (2 bits) | up to three UTF-16 chars
+    private static long gram(int namespace, String text, int offset, int length) {
+        long key = ((long) namespace << 62) | ((long) length << 48);
+        for (int i = 0; i < length; i++) {
+            key |= (long) text.charAt(offset + i) << (16 * (2 - i));
+        }
+        return key;
+    }
+
+    // First three chars in the same layout as gram(); shorter texts leave trailing slots zero
+    private static long prefixSignature(String text) {
+        return gram(0, text, 0, Math.min(MAX_PREFIX, text.length())) & CHARS_MASK;
+    }
+
+    private static long prefixMask(int length) {
+        return CHARS_MASK & ~(-1L >>> (16 * Math.min(MAX_PREFIX, length)) >>> 16);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).strip().toLowerCase(Locale.ROOT);
+        return normalized.replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Immutable search document. Display fields are kept as entered so results can be rendered
+     * without going back to the database.
+     */
+    public static final class IndexedUser {
+
+        private final long id;
+        private final String displayUsername;
+        private final String displayFirstName;
+        private final String displayLastName;
+        private final String avatarUrl;
+
+        final String username;
+        final String firstName;
+        final String lastName;
+        final String fullName;
+
+        public IndexedUser(long id, String username, String firstName, String lastName, String avatarUrl) {
+            this.id = id;
+            this.displayUsername = username;
+            this.displayFirstName = firstName;
+            this.displayLastName = lastName;
+            this.avatarUrl = avatarUrl;
+            this.username = normalize(username);
+            this.firstName = normalize(firstName);
+            this.lastName = normalize(lastName);
+            this.fullName = (this.firstName + " " + this.lastName).strip();
+        }
+
+        int match(String q) {
+            if (username.equals(q)) {
+                return EXACT;
+            }
+            if (username.startsWith(q)) {
+                return USERNAME_PREFIX;
+            }
+            if (firstName.startsWith(q) || lastName.startsWith(q) || fullName.startsWith(q)) {
+                return NAME_PREFIX;
+            }
+            // Shorter queries only match prefixes, as there are no trigrams to find them by
+            if (q.length() >= 3 && (username.contains(q) || fullName.contains(q))) {
+                return SUBSTRING;
+            }
+            return 0;
+        }
+
+        boolean hasSameText(IndexedUser other) {
+            return username.equals(other.username) && firstName.equals(other.firstName)
+                    && lastName.equals(other.lastName);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return displayUsername;
+        }
+
+        public String getFirstName() {
+            return displayFirstName;
+        }
+
+        public String getLastName() {
+            return displayLastName;
+        }
+
+        public String getAvatarUrl() {
+            return avatarUrl;
+        }
+    }
+
+    public static final class Hit {
+
+        private final IndexedUser user;
+        private final int tier;
+        private final int proximity;
+
+        Hit(IndexedUser user, int tier, int proximity) {
+            this.user = user;
+            this.tier = tier;
+            this.proximity = proximity;
+        }
+
+        public IndexedUser getUser() {
+            return user;
+        }
+
+        public int getTier() {
+            return tier;
+        }
+
+        public int getProximity() {
+            return proximity;
+        }
+    }
+
+    /**
+     * The grams, ordinals and entries of one generation of the index. The published segment is
+     * guarded by the index lock; a compacted replacement is built privately and then swapped in.
+     */
+    private static final class Segment {
+
+        private final Map<Long, IntList> postings = new HashMap<>();
+        private final LongIntMap ordinalByUser = new LongIntMap();
+        private final Map<String, Integer> ordinalByUsername = new HashMap<>();
+        private IndexedUser[] entries = new IndexedUser[1024];
+        // Packed three-character prefixes of username (with its length), first and last name per
+        // ordinal, so friends can be ranked without touching their strings
+        private long[] signatures = new long[1024 * 3];
+        private int ordinals;
+        private int tombstones;
+
+        void replay(Object change) {
+            if (change instanceof IndexedUser user) {
+                apply(user);
+            } else {
+                remove((Long) change);
+            }
+        }
+
+        void apply(IndexedUser user) {
+            int previous = ordinalByUser.get(user.getId());
+            if (previous >= 0) {
+                if (entries[previous].hasSameText(user)) {
+                    // Display-only change such as a new avatar, no grams move
+                    entries[previous] = user;
+                    return;
+                }
+                tombstone(previous);
+            }
+            append(user);
+        }
+
+        void remove(long userId) {
+            int previous = ordinalByUser.remove(userId);
+            if (previous >= 0) {
+                tombstone(previous);
+            }
+        }
+
+        boolean needsCompaction() {
+            return tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones * 4 >= ordinals;
+        }
+
+        private void tombstone(int ordinal) {
+            IndexedUser user = entries[ordinal];
+            ordinalByUsername.remove(user.username, ordinal);
+            entries[ordinal] = null;
+            tombstones++;
+        }
+
+        void append(IndexedUser user) {
+            int ordinal = ordinals++;
+            if (ordinal == entries.length) {
+                entries = Arrays.copyOf(entries, ordinal * 2);
+                signatures = Arrays.copyOf(signatures, ordinal * 2 * 3);
+            }
+            entries[ordinal] = user;
+            signatures[ordinal * 3] = prefixSignature(user.username) | (long) Math.min(user.username.length(), 0xFFFF) << 48;
+            signatures[ordinal * 3 + 1] = prefixSignature(user.firstName);
+            signatures[ordinal * 3 + 2] = prefixSignature(user.lastName);
+            ordinalByUser.put(user.getId(), ordinal);
+            ordinalByUsername.put(user.username, ordinal);
+
+            addPrefixes(NS_USERNAME_PREFIX, user.username, ordinal);
+            addPrefixes(NS_NAME_PREFIX, user.firstName, ordinal);
+            addPrefixes(NS_NAME_PREFIX, user.lastName, ordinal);
+            addPrefixes(NS_NAME_PREFIX, user.fullName, ordinal);
+            addTrigrams(user.username, ordinal);
+            addTrigrams(user.fullName, ordinal);
+        }
+
+        private void addPrefixes(int namespace, String text, int ordinal) {
+            for (int length = 1; length <= Math.min(MAX_PREFIX, text.length()); length++) {
+                addPosting(gram(namespace, text, 0, length), ordinal);
+            }
+        }
+
+        private void addTrigrams(String text, int ordinal) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                addPosting(gram(NS_TRIGRAM, text, i, 3), ordinal);
+            }
+        }
+
+        private void addPosting(long gram, int ordinal) {
+            IntList posting = postings.computeIfAbsent(gram, key -> new IntList());
+            // The same gram can come from several fields of one user
+            if (posting.size == 0 || posting.values[posting.size - 1] != ordinal) {
+                posting.add(ordinal);
+            }
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+
+    /**
+     * Membership in every trigram posting from {@code from} on, for ordinals presented in ascending
+     * order. Each posting keeps a cursor that gallops forward, so a pass costs
+     * O(k log(n / k)) rather than a full binary search per ordinal.
+     */
+    private static final class TrigramFilter {
+
+        private final IntList[] postings;
+        private final int[] cursors;
+        private final int from;
+
+        TrigramFilter(IntList[] postings, int from) {
+            this.postings = postings;
+            this.cursors = new int[postings.length];
+            this.from = from;
+        }
+
+        boolean containsAll(int ordinal) {
+            for (int k = from; k < postings.length; k++) {
+                IntList posting = postings[k];
+                int cursor = seek(posting, cursors[k], ordinal);
+                cursors[k] = cursor;
+                if (cursor == posting.size || posting.values[cursor] != ordinal) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Index of the first value >= target at or after start
+        private static int seek(IntList posting, int start, int target) {
+            int[] values = posting.values;
+            int size = posting.size;
+            if (start >= size || values[start] >= target) {
+                return start;
+            }
+            int low = start;
+            int step = 1;
+            int high = start + 1;
+            while (high < size && values[high] < target) {
+                low = high;
+                step <<= 1;
+                high = start + step;
+            }
+            int index = Arrays.binarySearch(values, low + 1, Math.min(high, size), target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Open-addressing long to int map with linear probing and backward-shift deletion; -1 means
+     * absent. Avoids a boxed key, value and node per indexed user.
+     */
+    private static final class LongIntMap {
+
+        private long[] keys = new long[1024];
+        private int[] values = filled(1024);
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; values[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] < 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            int removed = values[slot];
+            if (removed < 0) {
+                return -1;
+            }
+            size--;
+            // Shift later entries of the probe run back so lookups never stop at the hole early
+            int hole = slot;
+            for (int next = (hole + 1) & mask; values[next] >= 0; next = (next + 1) & mask) {
+                int home = mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            values[hole] = -1;
+            return removed;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            keys = new long[1024];
+            values = filled(1024);
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = filled(capacity);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int[] filled(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, -1);
+            return values;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Bounded, sorted top-k by (tier + proximity) desc, tier desc, ordinal asc.
+     */
+    private static final class TopHits {
+
+        private final int[] ordinals;
+        private final int[] tiers;
+        private final int[] proximities;
+        private int size;
+
+        TopHits(int limit) {
+            ordinals = new int[limit];
+            tiers = new int[limit];
+            proximities = new int[limit];
+        }
+
+        boolean accepts(int tier, int proximity, int ordinal) {
+            return size < ordinals.length
+                    || ranksBefore(tier, proximity, ordinal, tiers[size - 1], proximities[size - 1], ordinals[size - 1]);
+        }
+
+        void offer(int ordinal, int tier, int proximity) {
+            if (!accepts(tier, proximity, ordinal)) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    return;
+                }
+            }
+            int pos = size < ordinals.length ? size++ : size - 1;
+            while (pos > 0 && ranksBefore(tier, proximity, ordinal, tiers[pos - 1], proximities[pos - 1], ordinals[pos - 1])) {
+                ordinals[pos] = ordinals[pos - 1];
+                tiers[pos] = tiers[pos - 1];
+                proximities[pos] = proximities[pos - 1];
+                pos--;
+            }
+            ordinals[pos] = ordinal;
+            tiers[pos] = tier;
+            proximities[pos] = proximity;
+        }
+
+        List<Hit> toHits(IndexedUser[] entries) {
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new Hit(entries[ordinals[i]], tiers[i], proximities[i]));
+            }
+            return hits;
+        }
+
+        private static boolean ranksBefore(int tier, int proximity, int ordinal,
+                                           int otherTier, int otherProximity, int otherOrdinal) {
+            int score = tier + proximity;
+            int otherScore = otherTier + otherProximity;
+            if (score != otherScore) {
+                return score > otherScore;
+            }
+            if (tier != otherTier) {
+                return tier > otherTier;
+            }
+            return ordinal < otherOrdinal;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tripplanner.service.search;
+
+import com.tripplanner.entity.User;
+import com.tripplanner.util.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies registrations, profile edits and deactivations to {@link UserSearchIndex} after commit.
+ */
+@Component
+public class UserSearchIndexListener {
+
+    private final ObjectProvider<UserSearchIndex> userSearchIndex;
+
+    public UserSearchIndexListener(ObjectProvider<UserSearchIndex> userSearchIndex) {
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onUserSaved(User user) {
+        Long userId = user.getId();
+        if (!Boolean.TRUE.equals(user.getActive())) {
+            onRemoved(userId);
+            return;
+        }
+        // Snapshot now; the entity may change again before the transaction commits
+        UserSearchIndex.IndexedUser document = new UserSearchIndex.IndexedUser(userId, user.getUsername(),
+                user.getFirstName(), user.getLastName(), user.getAvatarUrl());
+        TransactionCallbacks.afterCommit(() -> userSearchIndex.ifAvailable(index -> index.upsert(document)));
+    }
+
+    @PostRemove
+    public void onUserRemoved(User user) {
+        onRemoved(user.getId());
+    }
+
+    private void onRemoved(Long userId) {
+        TransactionCallbacks.afterCommit(() -> userSearchIndex.ifAvailable(index -> index.remove(userId)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.tripplanner.service.search;
+
+import com.tripplanner.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Seeds {@link UserSearchIndex} in the background once the application is up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndexLoader {
+
+    private final UserSearchIndex userSearchIndex;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "user-search-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                List<UserSearchIndex.IndexedUser> users = new ArrayList<>();
+                try (Stream<Object[]> rows = userRepository.streamSearchRows()) {
+                    for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                        users.add(new UserSearchIndex.IndexedUser((Long) row[0], (String) row[1],
+                                (String) row[2], (String) row[3], (String) row[4]));
+                    }
+                }
+                userSearchIndex.load(users);
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to load user search index; searches will use the database", ex);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.tripplanner.service.trip;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 style CSV with a header row. Columns are matched by name, case-insensitively and with
+ * either snake_case or camelCase; unknown columns are ignored. Quoted fields may contain commas,
+ * doubled quotes and line breaks.
+ */
+final class CsvImportRowReader implements ImportRowReader {
+
+    private static final int USER = 0;
+    private static final int ROLE = 1;
+    private static final int STATUS = 2;
+    private static final int START_DATE = 3;
+    private static final int END_DATE = 4;
+    private static final int NOTES = 5;
+
+    private final BufferedReader reader;
+    private final int[] columns = {-1, -1, -1, -1, -1, -1};
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+
+    CsvImportRowReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        if (!readRecord()) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).strip().replace("_", "").toLowerCase(Locale.ROOT);
+            // A UTF-8 byte order mark would otherwise stick to the first column name
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            int column = switch (name) {
+                case "user", "username", "email" -> USER;
+                case "role" -> ROLE;
+                case "status" -> STATUS;
+                case "startdate", "start" -> START_DATE;
+                case "enddate", "end" -> END_DATE;
+                case "notes" -> NOTES;
+                default -> -1;
+            };
+            if (column >= 0 && columns[column] < 0) {
+                columns[column] = i;
+            }
+        }
+        if (columns[USER] < 0) {
+            throw new IllegalArgumentException("CSV header must include a user column");
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        while (true) {
+            long row = line;
+            if (!readRecord()) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            return new ImportRow(row, column(USER), column(ROLE), column(STATUS), column(START_DATE),
+                    column(END_DATE), column(NOTES));
+        }
+    }
+
+    private String column(int column) {
+        int index = columns[column];
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one record into {@link #fields}. Returns false at end of input.
+     */
+    private boolean readRecord() throws IOException {
+        long startLine = line;
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        if (quoted) {
+            // The open quote consumed the rest of the input, so this is also the last record
+            throw new MalformedRowException(startLine, "Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
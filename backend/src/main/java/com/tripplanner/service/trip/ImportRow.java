@@ -0,0 +1,58 @@
+package com.tripplanner.service.trip;
+
+/**
+ * One raw row of a trip member import, before validation. Values are trimmed strings or null.
+ *
+ * A row names a user (username or email) and may carry a role and status for their membership and
+ * an availability range. Repeating a user adds further ranges; the membership is created once.
+ */
+public final class ImportRow {
+
+    private final long row;
+    private final String user;
+    private final String role;
+    private final String status;
+    private final String startDate;
+    private final String endDate;
+    private final String notes;
+
+    public ImportRow(long row, String user, String role, String status, String startDate, String endDate,
+                     String notes) {
+        this.row = row;
+        this.user = user;
+        this.role = role;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.notes = notes;
+    }
+
+    // CSV line number or 1-based JSON array index, used in error reports
+    public long getRow() {
+        return row;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+}
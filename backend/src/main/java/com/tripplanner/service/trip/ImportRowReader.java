@@ -0,0 +1,42 @@
+package com.tripplanner.service.trip;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pulls {@link ImportRow}s one at a time from an upload, so an import never holds the whole file.
+ * Malformed rows surface as {@link MalformedRowException} and the reader stays usable; an
+ * {@link IOException} means the stream itself is unreadable and the import must stop.
+ */
+public interface ImportRowReader extends Closeable {
+
+    /**
+     * Returns the next row, or null at the end of the input.
+     */
+    ImportRow next() throws IOException;
+
+    static ImportRowReader csv(InputStream input) throws IOException {
+        return new CsvImportRowReader(input);
+    }
+
+    static ImportRowReader json(InputStream input, ObjectMapper objectMapper) throws IOException {
+        return new JsonImportRowReader(input, objectMapper);
+    }
+
+    final class MalformedRowException extends RuntimeException {
+
+        private final long row;
+
+        public MalformedRowException(long row, String message) {
+            super(message);
+            this.row = row;
+        }
+
+        public long getRow() {
+            return row;
+        }
+    }
+}
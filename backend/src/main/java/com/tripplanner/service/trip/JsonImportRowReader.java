@@ -0,0 +1,63 @@
+package com.tripplanner.service.trip;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A JSON array of row objects with the same fields as the CSV columns, read element by element
+ * with a streaming parser. Fields may be camelCase or snake_case.
+ */
+final class JsonImportRowReader implements ImportRowReader {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private long row;
+
+    JsonImportRowReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("JSON upload must be an array of rows");
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        row++;
+        JsonNode node = objectMapper.readTree(parser);
+        if (!node.isObject()) {
+            throw new MalformedRowException(row, "Row must be a JSON object");
+        }
+        return new ImportRow(row, text(node, "user", "username", "email"), text(node, "role"),
+                text(node, "status"), text(node, "startDate", "start_date"), text(node, "endDate", "end_date"),
+                text(node, "notes"));
+    }
+
+    // First present, non-blank field among the accepted names
+    private static String text(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull() && !value.isContainerNode()) {
+                String text = value.asText().strip();
+                if (!text.isEmpty()) {
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
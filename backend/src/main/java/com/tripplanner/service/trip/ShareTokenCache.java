@@ -0,0 +1,141 @@
+package com.tripplanner.service.trip;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.tripplanner.dto.TripShareSummary;
+import com.tripplanner.repository.TripRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded share token to trip summary cache for guest links.
+ *
+ * Unknown and revoked tokens are cached as empty entries with a shorter lifetime, so scraping random
+ * tokens costs one query per token rather than one per request. A trip id to token side index lets
+ * trip updates evict the entry without knowing the old token; only a rotated token or a
+ * deactivated or deleted trip turns the old token into an empty entry.
+ */
+@Component
+public class ShareTokenCache {
+
+    private static final Optional<TripShareSummary> MISSING = Optional.empty();
+
+    private final Cache<UUID, Optional<TripShareSummary>> cache;
+    private final Map<Long, UUID> tokensByTrip = new ConcurrentHashMap<>();
+    // When each trip was last invalidated, so a load that raced an invalidation re-reads
+    private final Cache<Long, Long> invalidatedAt = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+    private final TripRepository tripRepository;
+
+    public ShareTokenCache(TripRepository tripRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.share-tokens.cache.max-size:100000}") long maxSize,
+                           @Value("${app.share-tokens.cache.ttl:30m}") Duration ttl,
+                           @Value("${app.share-tokens.cache.negative-ttl:5m}") Duration negativeTtl) {
+        this.tripRepository = tripRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<UUID, Optional<TripShareSummary>>() {
+                    @Override
+                    public long expireAfterCreate(UUID token, Optional<TripShareSummary> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID token, Optional<TripShareSummary> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID token, Optional<TripShareSummary> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((UUID token, Optional<TripShareSummary> value, RemovalCause cause) -> {
+                    if (value != null && value.isPresent() && cause != RemovalCause.REPLACED) {
+                        tokensByTrip.remove(value.get().getId(), token);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "trip.share.tokens");
+    }
+
+    public Optional<TripShareSummary> resolve(String rawToken) {
+        UUID token;
+        try {
+            token = UUID.fromString(rawToken);
+        } catch (IllegalArgumentException ex) {
+            // Malformed tokens can never match, no need to cache or query them
+            return MISSING;
+        }
+        return cache.get(token, this::load);
+    }
+
+    private Optional<TripShareSummary> load(UUID token) {
+        long startedAt = System.nanoTime();
+        Optional<TripShareSummary> summary = tripRepository.findShareSummaryByToken(token);
+        if (summary.isPresent()) {
+            Long stamp = invalidatedAt.getIfPresent(summary.get().getId());
+            if (stamp != null && stamp - startedAt >= 0) {
+                summary = tripRepository.findShareSummaryByToken(token);
+            }
+        }
+        summary.ifPresent(value -> tokensByTrip.put(value.getId(), token));
+        return summary;
+    }
+
+    /**
+     * Drops the cached summary of a trip, so the next request for its token reads the trip again.
+     * For changes whose new state is unknown, such as bulk updates.
+     */
+    public void invalidateTrip(Long tripId) {
+        invalidatedAt.put(tripId, System.nanoTime());
+        UUID token = tokensByTrip.remove(tripId);
+        if (token != null) {
+            cache.invalidate(token);
+        }
+    }
+
+    /**
+     * Applies a committed update of a trip. The cached token is only remembered as unknown when the
+     * trip no longer answers to it: the token was rotated or the trip deactivated. Any other update
+     * just drops the summary so it is reloaded.
+     */
+    public void tripUpdated(Long tripId, UUID currentToken, boolean active) {
+        invalidatedAt.put(tripId, System.nanoTime());
+        UUID token = tokensByTrip.remove(tripId);
+        if (token == null) {
+            return;
+        }
+        if (!active || !token.equals(currentToken)) {
+            cache.put(token, MISSING);
+        } else {
+            cache.invalidate(token);
+        }
+    }
+
+    /**
+     * Applies a committed delete of a trip; its token is remembered as unknown.
+     */
+    public void tripRemoved(Long tripId) {
+        invalidatedAt.put(tripId, System.nanoTime());
+        UUID token = tokensByTrip.remove(tripId);
+        if (token != null) {
+            cache.put(token, MISSING);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.tripplanner.service.trip;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripMemberRepository.MembershipRow;
+import com.tripplanner.repository.TripRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Per-trip membership table for authorization checks.
+ *
+ * Each cached trip holds its member user ids as a sorted {@code long[]} with a parallel
+ * {@code byte[]} of packed role and status, so a check is one binary search and no query. Trips
+ * are loaded on first use and evicted by total member count. {@link TripMembershipListener} applies
+ * member changes in place after commit and drops a trip when the trip row itself changes; the write
+ * TTL only bounds how long changes made outside JPA entity callbacks stay invisible.
+ *
+ * The trip creator is always an accepted {@code CREATOR}, whether or not they have a member row,
+ * and a deactivated or missing trip has no members at all.
+ */
+@Component
+public class TripMembershipCache {
+
+    /** Returned by {@link #state} for users with no membership row. */
+    public static final byte NOT_MEMBER = -1;
+
+    private static final TripMember.Role[] ROLES = TripMember.Role.values();
+    private static final TripMember.Status[] STATUSES = TripMember.Status.values();
+    private static final byte CREATOR = pack(TripMember.Role.CREATOR, TripMember.Status.ACCEPTED);
+
+    private final Cache<Long, Members> cache;
+    private final Function<Long, Members> loader = this::load;
+    private final TripRepository tripRepository;
+    private final TripMemberRepository tripMemberRepository;
+
+    public TripMembershipCache(TripRepository tripRepository,
+                               TripMemberRepository tripMemberRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.trips.membership-cache.max-members:2000000}") long maxMembers,
+                               @Value("${app.trips.membership-cache.ttl:30m}") Duration ttl) {
+        this.tripRepository = tripRepository;
+        this.tripMemberRepository = tripMemberRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxMembers)
+                .weigher((Long tripId, Members members) -> members.userIds.length + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "trip.memberships");
+    }
+
+    /**
+     * Packed role and status of the user in the trip, or {@link #NOT_MEMBER}.
+     */
+    public byte state(long tripId, long userId) {
+        return cache.get(tripId, loader).state(userId);
+    }
+
+    public boolean isAcceptedMember(long tripId, long userId) {
+        byte state = state(tripId, userId);
+        return state != NOT_MEMBER && statusOf(state) == TripMember.Status.ACCEPTED;
+    }
+
+    /**
+     * Role of an accepted member, or null when the user is not an accepted member.
+     */
+    public TripMember.Role acceptedRole(long tripId, long userId) {
+        byte state = state(tripId, userId);
+        return state != NOT_MEMBER && statusOf(state) == TripMember.Status.ACCEPTED ? roleOf(state) : null;
+    }
+
+    /**
+     * Accepted members of the trip, counting the creator.
+     */
+    public int acceptedMemberCount(long tripId) {
+        return cache.get(tripId, loader).acceptedCount;
+    }
+
+    // Creators and admins may manage members
+    public boolean canManage(long tripId, long userId) {
+        TripMember.Role role = acceptedRole(tripId, userId);
+        return role == TripMember.Role.CREATOR || role == TripMember.Role.ADMIN;
+    }
+
+    /**
+     * Records a committed member insert or update if the trip is cached.
+     */
+    public void memberChanged(long tripId, long userId, TripMember.Role role, TripMember.Status status) {
+        byte state = pack(role, status);
+        cache.asMap().computeIfPresent(tripId, (id, members) -> members.with(userId, state));
+    }
+
+    public void memberRemoved(long tripId, long userId) {
+        cache.asMap().computeIfPresent(tripId, (id, members) -> members.without(userId));
+    }
+
+    public void invalidate(long tripId) {
+        cache.invalidate(tripId);
+    }
+
+    private Members load(Long tripId) {
+        Long creatorId = tripRepository.findActiveCreatorIdById(tripId).orElse(null);
+        if (creatorId == null) {
+            return Members.INACTIVE;
+        }
+        List<MembershipRow> rows = tripMemberRepository.findMembershipRowsByTripId(tripId);
+        long[] userIds = new long[rows.size()];
+        byte[] states = new byte[rows.size()];
+        int size = 0;
+        for (MembershipRow row : rows) {
+            // Rows arrive ordered by user id; a duplicate row for a user keeps the first one
+            if (size > 0 && userIds[size - 1] == row.getUserId()) {
+                continue;
+            }
+            userIds[size] = row.getUserId();
+            states[size++] = pack(row.getRole(), row.getStatus());
+        }
+        if (size < userIds.length) {
+            userIds = Arrays.copyOf(userIds, size);
+            states = Arrays.copyOf(states, size);
+        }
+        return new Members(creatorId, userIds, states);
+    }
+
+    public static byte pack(TripMember.Role role, TripMember.Status status) {
+        return (byte) (role.ordinal() | status.ordinal() << 2);
+    }
+
+    public static TripMember.Role roleOf(byte state) {
+        return ROLES[state & 0x3];
+    }
+
+    public static TripMember.Status statusOf(byte state) {
+        return STATUSES[(state >> 2) & 0x3];
+    }
+
+    /**
+     * Immutable membership snapshot of one trip; changes publish a new instance.
+     */
+    private static final class Members {
+
+        static final Members INACTIVE = new Members(null, new long[0], new byte[0]);
+
+        private final Long creatorId;
+        private final long[] userIds;
+        private final byte[] states;
+        private final int acceptedCount;
+
+        Members(Long creatorId, long[] userIds, byte[] states) {
+            this.creatorId = creatorId;
+            this.userIds = userIds;
+            this.states = states;
+            int accepted = creatorId == null ? 0 : 1;
+            for (int i = 0; i < userIds.length; i++) {
+                if (statusOf(states[i]) == TripMember.Status.ACCEPTED && (creatorId == null || userIds[i] != creatorId)) {
+                    accepted++;
+                }
+            }
+            this.acceptedCount = accepted;
+        }
+
+        byte state(long userId) {
+            if (creatorId == null) {
+                return NOT_MEMBER;
+            }
+            if (creatorId == userId) {
+                return CREATOR;
+            }
+            int index = Arrays.binarySearch(userIds, userId);
+            return index >= 0 ? states[index] : NOT_MEMBER;
+        }
+
+        Members with(long userId, byte state) {
+            if (creatorId == null) {
+                return this;
+            }
+            int index = Arrays.binarySearch(userIds, userId);
+            if (index >= 0) {
+                if (states[index] == state) {
+                    return this;
+                }
+                byte[] updated = states.clone();
+                updated[index] = state;
+                return new Members(creatorId, userIds, updated);
+            }
+            int insert = -index - 1;
+            long[] ids = new long[userIds.length + 1];
+            byte[] packed = new byte[states.length + 1];
+            System.arraycopy(userIds, 0, ids, 0, insert);
+            System.arraycopy(states, 0, packed, 0, insert);
+            ids[insert] = userId;
+            packed[insert] = state;
+            System.arraycopy(userIds, insert, ids, insert + 1, userIds.length - insert);
+            System.arraycopy(states, insert, packed, insert + 1, states.length - insert);
+            return new Members(creatorId, ids, packed);
+        }
+
+        Members without(long userId) {
+            int index = Arrays.binarySearch(userIds, userId);
+            if (index < 0) {
+                return this;
+            }
+            long[] ids = new long[userIds.length - 1];
+            byte[] packed = new byte[states.length - 1];
+            System.arraycopy(userIds, 0, ids, 0, index);
+            System.arraycopy(states, 0, packed, 0, index);
+            System.arraycopy(userIds, index + 1, ids, index, ids.length - index);
+            System.arraycopy(states, index + 1, packed, index, packed.length - index);
+            return new Members(creatorId, ids, packed);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.tripplanner.service.trip;
+
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.util.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link TripMembershipCache} coherent with entity-level changes: member invites, accepts,
+ * role changes and removals are applied to the cached trip after commit, and any change to the trip
+ * row (deactivation, new creator) drops the trip. Bulk JPQL updates bypass entity callbacks and
+ * must call {@link TripMembershipCache#invalidate(long)} themselves.
+ */
+@Component
+public class TripMembershipListener {
+
+    private final ObjectProvider<TripMembershipCache> membershipCache;
+
+    public TripMembershipListener(ObjectProvider<TripMembershipCache> membershipCache) {
+        this.membershipCache = membershipCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        if (entity instanceof TripMember member) {
+            long tripId = member.getTrip().getId();
+            long userId = member.getUser().getId();
+            TripMember.Role role = member.getRole();
+            TripMember.Status status = member.getStatus();
+            TransactionCallbacks.afterCommit(() -> membershipCache.ifAvailable(
+                    cache -> cache.memberChanged(tripId, userId, role, status)));
+        } else if (entity instanceof Trip trip) {
+            invalidate(trip);
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof TripMember member) {
+            long tripId = member.getTrip().getId();
+            long userId = member.getUser().getId();
+            TransactionCallbacks.afterCommit(() -> membershipCache.ifAvailable(
+                    cache -> cache.memberRemoved(tripId, userId)));
+        } else if (entity instanceof Trip trip) {
+            invalidate(trip);
+        }
+    }
+
+    private void invalidate(Trip trip) {
+        long tripId = trip.getId();
+        TransactionCallbacks.afterCommit(() -> membershipCache.ifAvailable(cache -> cache.invalidate(tripId)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.tripplanner.service.trip;
+
+import com.tripplanner.entity.Trip;
+import com.tripplanner.util.TransactionCallbacks;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Keeps {@link ShareTokenCache} coherent with any entity-level change to a trip, including
+ * {@link Trip#generateNewShareToken()} and deactivation. Bulk JPQL updates bypass entity callbacks
+ * and must call {@link ShareTokenCache#invalidateTrip(Long)} themselves.
+ */
+@Component
+public class TripShareTokenListener {
+
+    private final ObjectProvider<ShareTokenCache> shareTokenCache;
+
+    public TripShareTokenListener(ObjectProvider<ShareTokenCache> shareTokenCache) {
+        this.shareTokenCache = shareTokenCache;
+    }
+
+    @PostUpdate
+    public void onTripUpdated(Trip trip) {
+        Long tripId = trip.getId();
+        UUID token = trip.getShareToken();
+        boolean active = Boolean.TRUE.equals(trip.getActive());
+        TransactionCallbacks.afterCommit(() ->
+                shareTokenCache.ifAvailable(cache -> cache.tripUpdated(tripId, token, active)));
+    }
+
+    @PostRemove
+    public void onTripRemoved(Trip trip) {
+        Long tripId = trip.getId();
+        TransactionCallbacks.afterCommit(() -> shareTokenCache.ifAvailable(cache -> cache.tripRemoved(tripId)));
+    }
+}
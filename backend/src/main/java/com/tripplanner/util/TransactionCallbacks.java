@@ -0,0 +1,26 @@
+package com.tripplanner.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Runs the action once the current transaction commits, or immediately when there is none.
+     * Used to keep in-memory state from ever reflecting rolled back changes.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.tripplanner.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+class BrokerStats {
+
+    private final Counter framesSent;
+    private final Counter batchesSent;
+    private final Counter framesDropped;
+    private final Counter publishesRejected;
+    private final Counter slowSessionsClosed;
+
+    BrokerStats(MeterRegistry registry) {
+        this.framesSent = Counter.builder("tripchat.frames.sent")
+                .description("Frames delivered to trip chat sessions").register(registry);
+        this.batchesSent = Counter.builder("tripchat.batches.sent")
+                .description("WebSocket writes, each carrying one or more coalesced frames").register(registry);
+        this.framesDropped = Counter.builder("tripchat.frames.dropped")
+                .description("Frames dropped because a session queue was full").register(registry);
+        this.publishesRejected = Counter.builder("tripchat.publishes.rejected")
+                .description("Publishes dropped because a dispatcher shard queue was full").register(registry);
+        this.slowSessionsClosed = Counter.builder("tripchat.sessions.closed.slow")
+                .description("Sessions closed for exceeding the send time limit").register(registry);
+    }
+
+    void batchSent(int frames) {
+        batchesSent.increment();
+        framesSent.increment(frames);
+    }
+
+    void frameDropped() {
+        framesDropped.increment();
+    }
+
+    void publishRejected() {
+        publishesRejected.increment();
+    }
+
+    void slowSessionClosed() {
+        slowSessionsClosed.increment();
+    }
+}
@@ -0,0 +1,182 @@
+package com.tripplanner.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded per-session frame queue. At most one sender thread drains a session at a time, which
+ * keeps {@link WebSocketSession#sendMessage} single-threaded and lets queued frames coalesce.
+ *
+ * Every WebSocket message a client receives is a JSON array of one or more frames in publish
+ * order, e.g. {@code [{"type":"MESSAGE",...}]} or {@code [{"type":"MESSAGE",...},{"type":"READ",...}]},
+ * so clients always iterate the array whatever the batch size.
+ */
+@Slf4j
+class SessionOutbox {
+
+    private final WebSocketSession session;
+    private final Long tripId;
+    private final Queue<String> frames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final BrokerStats stats;
+    private final int capacity;
+    private final int batchSize;
+    private final long sendTimeLimitNanos;
+
+    // System.nanoTime() when the in-flight write started, 0 when idle
+    private volatile long sendStartedAt;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SessionOutbox(WebSocketSession session, Long tripId, BrokerStats stats, TripChatProperties properties) {
+        this.session = session;
+        this.tripId = tripId;
+        this.stats = stats;
+        this.capacity = properties.getSessionQueueCapacity();
+        this.batchSize = properties.getBatchSize();
+        this.sendTimeLimitNanos = properties.getSendTimeLimit().toNanos();
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    Long getTripId() {
+        return tripId;
+    }
+
+    int getQueuedFrames() {
+        return size.get();
+    }
+
+    boolean isClosed() {
+        return closed.get() || !session.isOpen();
+    }
+
+    /**
+     * Queues a frame and schedules a drain. Returns {@code false} when the frame was dropped.
+     */
+    boolean offer(String frame, Executor senders) {
+        if (isClosed()) {
+            return false;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            stats.frameDropped();
+            long started = sendStartedAt;
+            if (started != 0 && System.nanoTime() - started > sendTimeLimitNanos) {
+                // Offers run on a dispatcher shard, which must not wait on this session's socket
+                if (closeLater(CloseStatus.SESSION_NOT_RELIABLE, senders)) {
+                    stats.slowSessionClosed();
+                }
+            }
+            return false;
+        }
+        frames.add(frame);
+        scheduleDrain(senders);
+        return true;
+    }
+
+    private void scheduleDrain(Executor senders) {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(senders));
+            } catch (RejectedExecutionException ex) {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Executor senders) {
+        try {
+            StringBuilder batch = new StringBuilder(256);
+            while (!isClosed()) {
+                int count = 0;
+                String frame;
+                batch.setLength(0);
+                batch.append('[');
+                while (count < batchSize && (frame = frames.poll()) != null) {
+                    if (count > 0) {
+                        batch.append(',');
+                    }
+                    batch.append(frame);
+                    count++;
+                }
+                if (count == 0) {
+                    break;
+                }
+                size.addAndGet(-count);
+                send(batch.append(']').toString(), count);
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A frame may have arrived between the last poll and clearing the flag
+        if (!frames.isEmpty() && !isClosed()) {
+            scheduleDrain(senders);
+        }
+    }
+
+    private void send(String payload, int frameCount) {
+        sendStartedAt = System.nanoTime();
+        try {
+            session.sendMessage(new TextMessage(payload));
+            stats.batchSent(frameCount);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Closing trip {} session {} after failed send: {}", tripId, session.getId(), ex.getMessage());
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        } finally {
+            sendStartedAt = 0;
+        }
+    }
+
+    void close(CloseStatus status) {
+        if (markClosed()) {
+            closeSession(status);
+        }
+    }
+
+    /**
+     * Stops queueing and drops queued frames right away, but leaves closing the socket, which can
+     * block behind a stalled write, to a sender thread. Returns {@code false} if already closed.
+     */
+    boolean closeLater(CloseStatus status, Executor senders) {
+        if (!markClosed()) {
+            return false;
+        }
+        try {
+            senders.execute(() -> closeSession(status));
+        } catch (RejectedExecutionException ex) {
+            // Senders only refuse work while shutting down, when blocking here no longer matters
+            closeSession(status);
+        }
+        return true;
+    }
+
+    private boolean markClosed() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        frames.clear();
+        size.set(0);
+        return true;
+    }
+
+    private void closeSession(CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException ex) {
+            log.debug("Error closing session {}: {}", session.getId(), ex.getMessage());
+        }
+    }
+}
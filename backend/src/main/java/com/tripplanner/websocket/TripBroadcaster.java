@@ -0,0 +1,240 @@
+package com.tripplanner.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripplanner.event.MessageCreatedEvent;
+import com.tripplanner.event.MessageEditedEvent;
+import com.tripplanner.event.MessageReadEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans trip chat frames out to subscribed WebSocket sessions.
+ *
+ * Each trip is owned by one dispatcher shard ({@code tripId % shards}); the shard thread is the only
+ * thread touching that trip's subscriber list, so publishing needs no locks. Dispatchers only enqueue
+ * into per-session {@link SessionOutbox}es; the actual socket writes happen on a separate sender
+ * pool so a slow client can never stall a shard.
+ */
+@Slf4j
+@Component
+public class TripBroadcaster implements DisposableBean {
+
+    private final Shard[] shards;
+    private final Executor senders;
+    private final Map<String, SessionOutbox> sessions = new ConcurrentHashMap<>();
+    private final TripChatProperties properties;
+    private final BrokerStats stats;
+    private final ObjectMapper objectMapper;
+
+    public TripBroadcaster(TripChatProperties properties, MeterRegistry registry, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.stats = new BrokerStats(registry);
+        this.shards = new Shard[Math.max(1, properties.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, properties.getDispatchQueueCapacity());
+            Gauge.builder("tripchat.dispatch.queue.depth", shards[i], Shard::queueDepth)
+                    .tag("shard", Integer.toString(i))
+                    .description("Publishes waiting for a dispatcher shard")
+                    .register(registry);
+        }
+        this.senders = createSenders(properties);
+
+        Gauge.builder("tripchat.sessions", sessions, Map::size)
+                .description("Open trip chat sessions").register(registry);
+        Gauge.builder("tripchat.session.queue.depth", this, TripBroadcaster::queuedFrames)
+                .description("Frames queued across all session outboxes").register(registry);
+    }
+
+    public void subscribe(Long tripId, WebSocketSession session) {
+        SessionOutbox outbox = new SessionOutbox(session, tripId, stats, properties);
+        sessions.put(session.getId(), outbox);
+        boolean accepted = shardFor(tripId).submit(
+                subscribers -> subscribers.computeIfAbsent(tripId, id -> new ArrayList<>()).add(outbox));
+        if (!accepted) {
+            sessions.remove(session.getId());
+            outbox.close(CloseStatus.SERVICE_OVERLOAD);
+        }
+    }
+
+    public void unsubscribe(WebSocketSession session) {
+        SessionOutbox outbox = sessions.remove(session.getId());
+        if (outbox == null) {
+            return;
+        }
+        Long tripId = outbox.getTripId();
+        shardFor(tripId).submit(subscribers -> {
+            List<SessionOutbox> list = subscribers.get(tripId);
+            if (list != null) {
+                list.remove(outbox);
+                if (list.isEmpty()) {
+                    subscribers.remove(tripId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues an already serialized JSON frame for every session subscribed to the trip.
+     */
+    public void publish(Long tripId, String frame) {
+        shardFor(tripId).submit(subscribers -> {
+            List<SessionOutbox> list = subscribers.get(tripId);
+            if (list == null) {
+                return;
+            }
+            for (int i = list.size() - 1; i >= 0; i--) {
+                SessionOutbox outbox = list.get(i);
+                if (outbox.isClosed()) {
+                    list.remove(i);
+                    sessions.remove(outbox.getSession().getId(), outbox);
+                    continue;
+                }
+                outbox.offer(frame, senders);
+            }
+        });
+    }
+
+    /**
+     * Queues a frame for one session only, going through its outbox so the write never races a drain.
+     */
+    public boolean send(WebSocketSession session, String frame) {
+        SessionOutbox outbox = sessions.get(session.getId());
+        return outbox != null && outbox.offer(frame, senders);
+    }
+
+    public void publish(Long tripId, Object payload) {
+        try {
+            publish(tripId, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize trip {} frame: {}", tripId, ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        if (event.isTripMessage()) {
+            publish(event.getTripId(), Map.of("type", "message", "message", event.getMessage()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMessageEdited(MessageEditedEvent event) {
+        if (event.isTripMessage()) {
+            publish(event.getTripId(), Map.of("type", "edited", "message", event.getMessage()));
+        }
+    }
+
+    @EventListener
+    public void onMessageRead(MessageReadEvent event) {
+        publish(event.getTripId(), Map.of("type", "read", "userId", event.getUserId(),
+                "messageId", event.getMessageId(), "createdAt", event.getCreatedAt()));
+    }
+
+    int queuedFrames() {
+        int total = 0;
+        for (SessionOutbox outbox : sessions.values()) {
+            total += outbox.getQueuedFrames();
+        }
+        return total;
+    }
+
+    private Shard shardFor(Long tripId) {
+        return shards[(int) Math.floorMod(tripId, (long) shards.length)];
+    }
+
+    @Override
+    public void destroy() {
+        for (Shard shard : shards) {
+            shard.executor.shutdownNow();
+        }
+        for (SessionOutbox outbox : sessions.values()) {
+            outbox.close(CloseStatus.GOING_AWAY);
+        }
+        if (senders instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    // Socket writes block, so with virtual threads each drain simply gets its own thread
+    private static Executor createSenders(TripChatProperties properties) {
+        if (properties.isVirtualThreads()) {
+            if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                return new VirtualThreadTaskExecutor("trip-chat-sender-");
+            }
+            log.warn("Virtual threads need Java 21; trip chat senders use a platform thread pool");
+        }
+        return Executors.newFixedThreadPool(Math.max(1, properties.getSenderThreads()),
+                namedThreads("trip-chat-sender-"));
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private interface ShardTask {
+        void run(Map<Long, List<SessionOutbox>> subscribers);
+    }
+
+    private final class Shard {
+
+        // Confined to the shard thread
+        private final Map<Long, List<SessionOutbox>> subscribers = new HashMap<>();
+        private final ThreadPoolExecutor executor;
+
+        Shard(int index, int queueCapacity) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), namedThreads("trip-chat-dispatch-" + index + "-"));
+        }
+
+        boolean submit(ShardTask task) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run(subscribers);
+                    } catch (RuntimeException ex) {
+                        log.warn("Trip chat dispatch task failed", ex);
+                    }
+                });
+                return true;
+            } catch (RejectedExecutionException ex) {
+                stats.publishRejected();
+                return false;
+            }
+        }
+
+        int queueDepth() {
+            return executor.getQueue().size();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.tripplanner.websocket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.websocket")
+public class TripChatProperties {
+
+    // Dispatcher threads; subscribers are sharded across them by trip id
+    private int shards = Runtime.getRuntime().availableProcessors();
+
+    // Threads that write frames to sockets; a slow client only ever occupies one of them
+    private int senderThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+    // Pending publishes per shard before new frames are dropped
+    private int dispatchQueueCapacity = 65_536;
+
+    // Pending frames per session before that session starts dropping
+    private int sessionQueueCapacity = 256;
+
+    // Frames coalesced into one outbound WebSocket message
+    private int batchSize = 32;
+
+    // A session whose current send has been stuck this long is closed once its queue is full
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    private int maxTextMessageSize = 16 * 1024;
+
+    // Run socket writes on virtual threads instead of the sender pool (Java 21+)
+    private boolean virtualThreads;
+
+    // Getters and Setters
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public int getDispatchQueueCapacity() {
+        return dispatchQueueCapacity;
+    }
+
+    public void setDispatchQueueCapacity(int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = dispatchQueueCapacity;
+    }
+
+    public int getSessionQueueCapacity() {
+        return sessionQueueCapacity;
+    }
+
+    public void setSessionQueueCapacity(int sessionQueueCapacity) {
+        this.sessionQueueCapacity = sessionQueueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
+    public void setSendTimeLimit(Duration sendTimeLimit) {
+        this.sendTimeLimit = sendTimeLimit;
+    }
+
+    public int getMaxTextMessageSize() {
+        return maxTextMessageSize;
+    }
+
+    public void setMaxTextMessageSize(int maxTextMessageSize) {
+        this.maxTextMessageSize = maxTextMessageSize;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
@@ -0,0 +1,169 @@
+package com.tripplanner.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripplanner.dto.SendMessageRequest;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.security.AuthenticatedUser;
+import com.tripplanner.service.MessageService;
+import com.tripplanner.service.message.ChatReadWatermarks;
+import com.tripplanner.service.ratelimit.RateLimitPolicy;
+import com.tripplanner.service.ratelimit.RateLimiter;
+import com.tripplanner.service.trip.TripMembershipCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class TripChatWebSocketHandler extends TextWebSocketHandler {
+
+    static final String TRIP_ID_ATTRIBUTE = "tripId";
+
+    private final TripBroadcaster broadcaster;
+    private final MessageService messageService;
+    private final ObjectMapper objectMapper;
+    private final TripMembershipCache membershipCache;
+    private final ChatReadWatermarks readWatermarks;
+    private final RateLimiter rateLimiter;
+    private final Validator validator;
+    // One timer per command type, built up front so recording neither allocates nor looks anything up
+    private final Map<TripSocketCommand.Type, Timer> commandTimers = new EnumMap<>(TripSocketCommand.Type.class);
+
+    public TripChatWebSocketHandler(TripBroadcaster broadcaster,
+                                    MessageService messageService,
+                                    ObjectMapper objectMapper,
+                                    TripMembershipCache membershipCache,
+                                    ChatReadWatermarks readWatermarks,
+                                    RateLimiter rateLimiter,
+                                    Validator validator,
+                                    MeterRegistry meterRegistry) {
+        this.broadcaster = broadcaster;
+        this.messageService = messageService;
+        this.objectMapper = objectMapper;
+        this.membershipCache = membershipCache;
+        this.readWatermarks = readWatermarks;
+        this.rateLimiter = rateLimiter;
+        this.validator = validator;
+        for (TripSocketCommand.Type type : TripSocketCommand.Type.values()) {
+            commandTimers.put(type, Timer.builder("websocket.chat.commands")
+                    .description("Time to handle one inbound trip chat command")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Long tripId = tripId(session);
+        AuthenticatedUser user = currentUser(session);
+        if (tripId == null || user == null || !membershipCache.isAcceptedMember(tripId, user.getId())) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        broadcaster.subscribe(tripId, session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        TripSocketCommand command;
+        try {
+            command = objectMapper.readValue(message.getPayload(), TripSocketCommand.class);
+        } catch (JsonProcessingException ex) {
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        if (command.getType() == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            handleCommand(session, command);
+        } finally {
+            commandTimers.get(command.getType()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void handleCommand(WebSocketSession session, TripSocketCommand command) throws Exception {
+        Long tripId = tripId(session);
+        AuthenticatedUser user = currentUser(session);
+        switch (command.getType()) {
+            case SEND -> {
+                // Re-checked per message so a member removed mid-session cannot keep posting
+                if (!membershipCache.isAcceptedMember(tripId, user.getId())) {
+                    session.close(CloseStatus.POLICY_VIOLATION);
+                    return;
+                }
+                // Same checks as the REST endpoint; a bad message gets an error frame rather than ending the session
+                SendMessageRequest request = new SendMessageRequest(command.getContent(), command.getMessageType(),
+                        command.getAttachmentId());
+                Set<ConstraintViolation<SendMessageRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    sendError(session, violations.iterator().next().getMessage());
+                    return;
+                }
+                // Over the limit, the message is dropped and the client told when to retry
+                long waitNanos = rateLimiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, user.getId(),
+                        RateLimitPolicy.CHAT_TRIP, tripId);
+                if (waitNanos > 0) {
+                    broadcaster.send(session, "{\"type\":\"rate-limited\",\"retryAfterMs\":"
+                            + TimeUnit.NANOSECONDS.toMillis(waitNanos + 999_999) + "}");
+                    return;
+                }
+                // Persisted and then fanned out to every subscriber (including this one) after commit
+                try {
+                    messageService.sendTripMessage(tripId, user.getId(), request);
+                } catch (IllegalArgumentException | ResourceNotFoundException ex) {
+                    sendError(session, ex.getMessage());
+                }
+            }
+            case READ -> {
+                if (command.getMessageId() != null) {
+                    readWatermarks.markRead(tripId, user.getId(), command.getMessageId());
+                }
+            }
+            case TYPING -> broadcaster.publish(tripId, Map.of("type", "typing", "username", user.getUsername()));
+            // Tomcat rejects concurrent writes, so even the pong queues behind broadcast frames
+            case PING -> broadcaster.send(session, "{\"type\":\"pong\"}");
+        }
+    }
+
+    private void sendError(WebSocketSession session, String message) throws JsonProcessingException {
+        broadcaster.send(session, objectMapper.writeValueAsString(Map.of("type", "error", "message", message)));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Transport error on session {}: {}", session.getId(), exception.getMessage());
+        broadcaster.unsubscribe(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        broadcaster.unsubscribe(session);
+    }
+
+    private static AuthenticatedUser currentUser(WebSocketSession session) {
+        // The handshake principal is the Authentication set by the JWT filter
+        return session.getPrincipal() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser user ? user : null;
+    }
+
+    private static Long tripId(WebSocketSession session) {
+        Object value = session.getAttributes().get(TRIP_ID_ATTRIBUTE);
+        return value instanceof Long id ? id : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tripplanner.websocket;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriTemplate;
+
+import java.util.Map;
+
+/**
+ * Copies the trip id from {@code /ws/trips/{tripId}} into the session attributes.
+ */
+public class TripIdHandshakeInterceptor implements HandshakeInterceptor {
+
+    private static final UriTemplate TEMPLATE = new UriTemplate("{prefix}/ws/trips/{tripId}");
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Map<String, String> variables = TEMPLATE.match(request.getURI().getPath());
+        try {
+            attributes.put(TripChatWebSocketHandler.TRIP_ID_ATTRIBUTE, Long.valueOf(variables.get("tripId")));
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
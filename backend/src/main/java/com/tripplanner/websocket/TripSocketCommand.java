@@ -0,0 +1,65 @@
+package com.tripplanner.websocket;
+
+import com.tripplanner.entity.Message;
+
+/**
+ * Inbound frame sent by a trip chat client.
+ */
+public class TripSocketCommand {
+
+    public enum Type {
+        SEND,
+        TYPING,
+        READ,
+        PING
+    }
+
+    private Type type;
+    private String content;
+    private Message.MessageType messageType = Message.MessageType.TEXT;
+    // SEND: required for IMAGE and FILE, uploaded beforehand to the trip's attachments
+    private Long attachmentId;
+    // READ: the newest message the client has shown
+    private Long messageId;
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Message.MessageType getMessageType() {
+        return messageType;
+    }
+
+    public void setMessageType(Message.MessageType messageType) {
+        this.messageType = messageType;
+    }
+
+    public Long getAttachmentId() {
+        return attachmentId;
+    }
+
+    public void setAttachmentId(Long attachmentId) {
+        this.attachmentId = attachmentId;
+    }
+
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(Long messageId) {
+        this.messageId = messageId;
+    }
+}
@@ -0,0 +1,20 @@
+-- Adds the ordered (user_low_id, user_high_id) pair to friends and makes it unique, so concurrent
+-- requests A->B and B->A cannot both insert. The constraint cannot be added while duplicates
+-- exist, so run this once, before starting the new version, on databases created before the change.
+ALTER TABLE friends ADD COLUMN IF NOT EXISTS user_low_id BIGINT;
+ALTER TABLE friends ADD COLUMN IF NOT EXISTS user_high_id BIGINT;
+UPDATE friends
+SET user_low_id = LEAST(requester_id, addressee_id), user_high_id = GREATEST(requester_id, addressee_id)
+WHERE user_low_id IS NULL OR user_high_id IS NULL;
+
+-- Keeps one row of each duplicated pair: an accepted one if there is one, otherwise the oldest
+DELETE FROM friends f
+USING friends kept
+WHERE kept.user_low_id = f.user_low_id AND kept.user_high_id = f.user_high_id AND kept.id <> f.id
+  AND ((kept.status = 'ACCEPTED') > (f.status = 'ACCEPTED')
+       OR ((kept.status = 'ACCEPTED') = (f.status = 'ACCEPTED') AND kept.id < f.id));
+
+ALTER TABLE friends ALTER COLUMN user_low_id SET NOT NULL;
+ALTER TABLE friends ALTER COLUMN user_high_id SET NOT NULL;
+ALTER TABLE friends DROP CONSTRAINT IF EXISTS uk_friend_pair;
+ALTER TABLE friends ADD CONSTRAINT uk_friend_pair UNIQUE (user_low_id, user_high_id);
@@ -0,0 +1,10 @@
+-- Moves notifications ids from an IDENTITY column to a pooled sequence so the notifications of a
+-- trip import can be JDBC batched. ddl-auto=update creates the sequence but does not seed it, so
+-- run this once on databases created before the change.
+--
+-- As in pooled_sequences.sql, each sequence value is the top of a block of 50 ids.
+CREATE SEQUENCE IF NOT EXISTS notifications_seq INCREMENT BY 50;
+SELECT setval('notifications_seq', COALESCE((SELECT MAX(id) FROM notifications), 0) + 50, false);
+
+-- The old identity default would hand out ids the sequence also uses
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,15 @@
+-- Moves trip_members and availabilities ids from IDENTITY columns to pooled sequences so inserts
+-- can be JDBC batched. ddl-auto=update creates the sequences but does not seed them, so run this
+-- once on databases created before the change.
+--
+-- Hibernate's pooled optimizer treats each sequence value as the top of a block of 50 ids, hence
+-- the extra 50 on top of the current maximum.
+CREATE SEQUENCE IF NOT EXISTS trip_members_seq INCREMENT BY 50;
+SELECT setval('trip_members_seq', COALESCE((SELECT MAX(id) FROM trip_members), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS availabilities_seq INCREMENT BY 50;
+SELECT setval('availabilities_seq', COALESCE((SELECT MAX(id) FROM availabilities), 0) + 50, false);
+
+-- The old identity defaults would hand out ids the sequences also use
+ALTER TABLE trip_members ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE availabilities ALTER COLUMN id DROP IDENTITY IF EXISTS;
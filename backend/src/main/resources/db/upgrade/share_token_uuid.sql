@@ -0,0 +1,7 @@
+-- Converts trips.share_token from its 36-character text form to a native 16-byte uuid.
+-- ddl-auto=update does not change existing column types, so run this once on databases
+-- created before share tokens were mapped as java.util.UUID.
+ALTER TABLE trips ALTER COLUMN share_token TYPE uuid USING share_token::uuid;
+
+-- The unique constraint already indexes share_token
+DROP INDEX IF EXISTS idx_trip_share_token;
@@ -0,0 +1,137 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.dto.FriendshipResponse;
+import com.tripplanner.entity.Friend;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.FriendRepository;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.JwtService;
+import com.tripplanner.service.FriendService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FriendControllerTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FriendService friendService;
+    @Autowired
+    private FriendRepository friendRepository;
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void friendsAndSuggestionsShowPublicProfilesOnly() throws Exception {
+        User user = user();
+        User friend = user();
+        User friendOfFriend = user();
+        befriend(user, friend);
+        befriend(friend, friendOfFriend);
+
+        mockMvc.perform(get("/friends").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(friend.getId()))
+                .andExpect(jsonPath("$[0].username").value(friend.getUsername()))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].bio").doesNotExist());
+        mockMvc.perform(get("/friends/suggestions").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].user.id").value(friendOfFriend.getId()))
+                .andExpect(jsonPath("$[0].user.email").doesNotExist())
+                .andExpect(jsonPath("$[0].mutualFriends").value(1));
+    }
+
+    @Test
+    void inactiveUsersAreNotSuggested() throws Exception {
+        User user = user();
+        User friend = user();
+        User inactive = user();
+        befriend(user, friend);
+        befriend(friend, inactive);
+        inactive.setActive(false);
+        userRepository.save(inactive);
+
+        mockMvc.perform(get("/friends/suggestions").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void mutualReportsFriendshipAndSharedFriends() throws Exception {
+        User alice = user();
+        User bob = user();
+        User carol = user();
+        befriend(alice, bob);
+        befriend(alice, carol);
+        befriend(bob, carol);
+
+        mockMvc.perform(get("/friends/{userId}/mutual", bob.getId()).header(HttpHeaders.AUTHORIZATION, bearer(alice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.friends").value(true))
+                .andExpect(jsonPath("$.mutualFriends").value(1));
+        mockMvc.perform(get("/friends/{userId}/mutual", user().getId()).header(HttpHeaders.AUTHORIZATION, bearer(alice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.friends").value(false))
+                .andExpect(jsonPath("$.mutualFriends").value(0));
+    }
+
+    @Test
+    void aPairOfUsersHasOneFriendshipRowWhoeverAsked() throws Exception {
+        User alice = user();
+        User bob = user();
+        friendService.sendRequest(alice.getId(), bob.getId());
+
+        mockMvc.perform(post("/friends/requests").header(HttpHeaders.AUTHORIZATION, bearer(bob))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"addresseeId\":" + alice.getId() + "}"))
+                .andExpect(status().isConflict());
+
+        // A request that raced past the lookup is stopped by the unique pair
+        assertThrows(DataIntegrityViolationException.class, () -> friendRepository.saveAndFlush(
+                new Friend(userRepository.getReferenceById(bob.getId()), userRepository.getReferenceById(alice.getId()))));
+        assertTrue(friendRepository.findBetween(bob.getId(), alice.getId()).isPresent());
+    }
+
+    private User user() {
+        String username = "friend" + USERS.incrementAndGet();
+        User user = new User(username, username + "@example.com", "password-hash");
+        user.setFirstName("First " + username);
+        return userRepository.save(user);
+    }
+
+    private void befriend(User requester, User addressee) {
+        FriendshipResponse request = friendService.sendRequest(requester.getId(), addressee.getId());
+        friendService.respond(request.getId(), addressee.getId(), true);
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(user);
+    }
+}
@@ -0,0 +1,84 @@
+package com.tripplanner.controller;
+
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.JwtService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TripControllerTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void privateTripsLookMissingToNonMembers() throws Exception {
+        User creator = user();
+        User stranger = user();
+        Long tripId = trip(creator, false);
+
+        mockMvc.perform(get("/trips/{tripId}", tripId).header(HttpHeaders.AUTHORIZATION, bearer(creator)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(tripId));
+        mockMvc.perform(get("/trips/{tripId}", tripId).header(HttpHeaders.AUTHORIZATION, bearer(stranger)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/trips/{tripId}", Long.MAX_VALUE).header(HttpHeaders.AUTHORIZATION, bearer(stranger)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void publicTripsAreReadableByAnyone() throws Exception {
+        User creator = user();
+        Long tripId = trip(creator, true);
+
+        mockMvc.perform(get("/trips/{tripId}", tripId).header(HttpHeaders.AUTHORIZATION, bearer(user())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isPublic").value(true));
+    }
+
+    private User user() {
+        String username = "tripper" + USERS.incrementAndGet();
+        return userRepository.save(new User(username, username + "@example.com", "password-hash"));
+    }
+
+    private Long trip(User creator, boolean isPublic) {
+        return transactionTemplate.execute(status -> {
+            Trip trip = new Trip("Detail trip", "Seeded for trip detail checks",
+                    entityManager.getReference(User.class, creator.getId()));
+            trip.setIsPublic(isPublic);
+            entityManager.persist(trip);
+            return trip.getId();
+        });
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(user);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tripplanner.monitoring;
+
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ManagementEndpointsTest {
+
+    @LocalServerPort
+    private int serverPort;
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void metricsAreServedOnTheManagementPortOnly() {
+        assertNotEquals(serverPort, managementPort);
+
+        // Tests turn metric exporters off, so /actuator/prometheus only exists in a running application
+        ResponseEntity<String> metrics = get(managementPort, "/actuator/metrics", null);
+        assertEquals(HttpStatus.OK, metrics.getStatusCode());
+        assertTrue(metrics.getBody().contains("jvm.memory.used"));
+        assertEquals(HttpStatus.OK, get(managementPort, "/actuator/hibernate", null).getStatusCode());
+
+        // Not even a signed-in user reaches them through the public port
+        String token = jwtService.generateToken(userRepository.save(
+                new User("metricsreader", "metricsreader@example.com", "password-hash")));
+        for (String path : new String[]{"/api/actuator/metrics", "/api/actuator/prometheus", "/api/actuator/hibernate"}) {
+            assertEquals(HttpStatus.NOT_FOUND, get(serverPort, path, token).getStatusCode(), path);
+        }
+    }
+
+    @Test
+    void probesStayOnThePublicPort() {
+        assertEquals(HttpStatus.OK, get(serverPort, "/api/readyz", null).getStatusCode());
+        assertEquals(HttpStatus.OK, get(serverPort, "/api/livez", null).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, get(serverPort, "/api/actuator/metrics", null).getStatusCode());
+    }
+
+    private ResponseEntity<String> get(int port, String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return restTemplate.exchange("http://127.0.0.1:" + port + path, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,187 @@
+package com.tripplanner.monitoring;
+
+import com.tripplanner.dto.FriendshipResponse;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.JwtService;
+import com.tripplanner.service.FriendService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgeted endpoints run against seeded data in {@code fail} mode (which surefire sets for the
+ * whole build, and this class sets again so it also holds when run alone), so a statement over
+ * budget fails the request and the test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.datasource.query-budget.mode=fail")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+
+    private static final int FRIENDS = 6;
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FriendService friendService;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void friendListsStayWithinBudgetAsFriendsGrow() throws Exception {
+        User user = user();
+        List<User> friends = new ArrayList<>();
+        for (int i = 0; i < FRIENDS; i++) {
+            User friend = user();
+            befriend(user, friend);
+            friends.add(friend);
+        }
+        // Every friend of a friend is a suggestion with one mutual friend
+        for (User friend : friends) {
+            befriend(friend, user());
+        }
+
+        mockMvc.perform(get("/friends").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(FRIENDS)));
+        mockMvc.perform(get("/friends/suggestions").param("limit", "20").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(FRIENDS)));
+    }
+
+    @Test
+    void tripHistoryStaysWithinBudgetWithManySenders() throws Exception {
+        User creator = user();
+        List<User> members = new ArrayList<>(List.of(creator));
+        for (int i = 0; i < 5; i++) {
+            members.add(user());
+        }
+        Long tripId = trip(creator, members);
+        for (User member : members) {
+            mockMvc.perform(post("/trips/{tripId}/messages", tripId)
+                            .header(HttpHeaders.AUTHORIZATION, bearer(member))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"content\":\"hello from " + member.getUsername() + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/trips/{tripId}/messages", tripId).header(HttpHeaders.AUTHORIZATION, bearer(creator)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages", hasSize(members.size())));
+    }
+
+    @Test
+    void exceedingTheBudgetFailsTheRequest() throws Exception {
+        User user = user();
+        List<User> others = List.of(user(), user(), user());
+        String withinBudget = others.get(0).getId() + "," + others.get(1).getId();
+        String overBudget = withinBudget + "," + others.get(2).getId();
+
+        mockMvc.perform(get("/test/query-budget/usernames").param("ids", withinBudget)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        Exception failure = assertThrows(Exception.class, () ->
+                mockMvc.perform(get("/test/query-budget/usernames").param("ids", overBudget)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))));
+        Throwable cause = failure;
+        while (!(cause instanceof QueryBudgetExceededError) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertInstanceOf(QueryBudgetExceededError.class, cause);
+        assertTrue(cause.getMessage().startsWith("GET /test/query-budget/usernames ran 3 SQL statements, budget 2"),
+                cause.getMessage());
+    }
+
+    private User user() {
+        String username = "budget" + USERS.incrementAndGet();
+        return userRepository.save(new User(username, username + "@example.com", "password-hash"));
+    }
+
+    private void befriend(User requester, User addressee) {
+        FriendshipResponse request = friendService.sendRequest(requester.getId(), addressee.getId());
+        friendService.respond(request.getId(), addressee.getId(), true);
+    }
+
+    private Long trip(User creator, List<User> members) {
+        return transactionTemplate.execute(status -> {
+            Trip trip = new Trip("Budget trip", "Seeded for query budget checks",
+                    entityManager.getReference(User.class, creator.getId()));
+            entityManager.persist(trip);
+            for (User member : members) {
+                TripMember membership = new TripMember(trip, entityManager.getReference(User.class, member.getId()),
+                        member == creator ? TripMember.Role.CREATOR : TripMember.Role.MEMBER);
+                membership.setStatus(TripMember.Status.ACCEPTED);
+                entityManager.persist(membership);
+            }
+            return trip.getId();
+        });
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(user);
+    }
+
+    @TestConfiguration
+    static class OverBudgetEndpoint {
+
+        @Bean
+        UsernameController usernameController(UserRepository userRepository) {
+            return new UsernameController(userRepository);
+        }
+    }
+
+    @RestController
+    static class UsernameController {
+
+        private final UserRepository userRepository;
+
+        UsernameController(UserRepository userRepository) {
+            this.userRepository = userRepository;
+        }
+
+        // One lookup per id, the N+1 shape a budget exists to catch
+        @GetMapping("/test/query-budget/usernames")
+        @QueryBudget(2)
+        public List<String> usernames(@RequestParam List<Long> ids) {
+            return ids.stream().map(id -> userRepository.findById(id).orElseThrow().getUsername()).toList();
+        }
+    }
+}
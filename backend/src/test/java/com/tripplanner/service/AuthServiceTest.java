@@ -0,0 +1,70 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.LoginRequest;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.JwtService;
+import com.tripplanner.service.auth.LoginAdmission;
+import com.tripplanner.service.auth.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+    private final AuthService authService = new AuthService(userRepository, passwordHasher,
+            new LoginAdmission(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), 5,
+                    Duration.ofSeconds(30), Duration.ofMinutes(15), 1000),
+            mock(JwtService.class), mock(TransactionTemplate.class));
+
+    @Test
+    void unknownAccountsCostOneVerification() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.login(new LoginRequest("nobody@example.com", "guess"), "203.0.113.7"));
+
+        verify(passwordHasher).verifyDummy("guess");
+        verify(passwordHasher, never()).matches(any(), anyString());
+    }
+
+    @Test
+    void inactiveAccountsCostOneVerification() {
+        User inactive = new User("gone", "gone@example.com", "stored-hash");
+        inactive.setActive(false);
+        when(userRepository.findByEmail("gone@example.com")).thenReturn(Optional.of(inactive));
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.login(new LoginRequest("gone@example.com", "guess"), "203.0.113.7"));
+
+        verify(passwordHasher).verifyDummy("guess");
+        verify(passwordHasher, never()).matches(any(), anyString());
+    }
+
+    @Test
+    void wrongPasswordsAreCheckedAgainstTheStoredHashOnly() {
+        User user = new User("known", "known@example.com", "stored-hash");
+        when(userRepository.findByEmail("known@example.com")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("guess", "stored-hash")).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.login(new LoginRequest("known@example.com", "guess"), "203.0.113.7"));
+
+        verify(passwordHasher).matches("guess", "stored-hash");
+        verify(passwordHasher, never()).verifyDummy(any());
+    }
+}
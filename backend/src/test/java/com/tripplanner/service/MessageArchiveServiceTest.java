@@ -0,0 +1,70 @@
+package com.tripplanner.service;
+
+import com.tripplanner.dto.MessageResponse;
+import com.tripplanner.entity.Message;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.service.message.MessageArchiveCodec;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MessageArchiveServiceTest {
+
+    @Autowired
+    private MessageArchiveService messageArchiveService;
+    @Autowired
+    private MessageArchiveCodec archiveCodec;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void readsBackAnArchivedMonth() {
+        User sender = userRepository.save(new User("archived1", "archived1@example.com", "password-hash"));
+        Long tripId = transactionTemplate.execute(status -> {
+            Trip trip = new Trip("Archived trip", "Chat from last year",
+                    entityManager.getReference(User.class, sender.getId()));
+            entityManager.persist(trip);
+            return trip.getId();
+        });
+        MessageArchiveCodec.Encoder encoder = archiveCodec.encoder();
+        for (int day = 1; day <= 3; day++) {
+            MessageArchiveCodec.ArchivedMessage message = new MessageArchiveCodec.ArchivedMessage();
+            message.setId((long) day);
+            message.setContent("Day " + day);
+            message.setMessageType(Message.MessageType.TEXT.name());
+            message.setEdited(false);
+            message.setCreatedAt(LocalDateTime.of(2025, 3, day, 12, 0));
+            message.setSenderId(sender.getId());
+            encoder.add(message);
+        }
+        // Written the way MessagePartitionMaintenance writes archives
+        jdbcTemplate.update("insert into message_archives (trip_id, conversation_id, period_start, message_count, " +
+                "data, archived_at) values (?, ?, ?, ?, ?, ?)", tripId, null, LocalDate.of(2025, 3, 1),
+                encoder.getCount(), encoder.finish(), LocalDateTime.now());
+
+        assertEquals(3, messageArchiveService.getArchivedPeriods(tripId).get(0).getMessageCount());
+        List<MessageResponse> messages = messageArchiveService.getArchivedMonth(tripId, "2025-03");
+        assertEquals(List.of("Day 1", "Day 2", "Day 3"), messages.stream().map(MessageResponse::getContent).toList());
+        assertEquals("archived1", messages.get(0).getSenderUsername());
+    }
+}
@@ -0,0 +1,56 @@
+package com.tripplanner.service;
+
+import com.tripplanner.entity.Notification;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.NotificationRepository;
+import com.tripplanner.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class NotificationServiceTest {
+
+    private static final int RECIPIENTS = 120;
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createAllInsertsInBatches() {
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            String username = "notified" + USERS.incrementAndGet();
+            userIds.add(userRepository.save(new User(username, username + "@example.com", "password-hash")).getId());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        notificationService.createAll(userIds, Notification.NotificationType.TRIP_INVITATION,
+                "Trip invitation", "You were added to a trip", "/trips/1");
+
+        // A handful of sequence calls and batches, where IDENTITY ids would need one insert per row
+        long statements = statistics.getPrepareStatementCount() - before;
+        assertTrue(statements < 20, "createAll ran " + statements + " statements for " + RECIPIENTS + " users");
+        assertEquals(1, notificationRepository.countUnreadByUserId(userIds.get(0)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.tripplanner.service.auth;
+
+import com.tripplanner.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginAdmissionTest {
+
+    private static final String ADDRESS = "203.0.113.7";
+    private static final Duration BASE_LOCKOUT = Duration.ofMillis(200);
+    private static final Duration MAX_LOCKOUT = Duration.ofMillis(600);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void eachAddressGetsItsAttemptsPerWindowAcrossLoginsAndRegistrations() {
+        LoginAdmission admission = admission(3, 5);
+        admission.admitLogin("a@example.com", ADDRESS).close();
+        admission.admitRegistration(ADDRESS);
+        admission.admitLogin("b@example.com", ADDRESS).close();
+
+        TooManyRequestsException refused = assertThrows(TooManyRequestsException.class,
+                () -> admission.admitLogin("c@example.com", ADDRESS));
+        assertTrue(refused.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        assertTrue(refused.getRetryAfter().compareTo(Duration.ofMinutes(1)) <= 0);
+        assertThrows(TooManyRequestsException.class, () -> admission.admitRegistration(ADDRESS));
+
+        // Other addresses keep their own budget
+        admission.admitLogin("c@example.com", "198.51.100.1").close();
+        assertEquals(2, rejected("address"));
+    }
+
+    @Test
+    void repeatedFailuresLockTheAccountWithDoublingBackoff() throws Exception {
+        LoginAdmission admission = admission(100, 2);
+        fail(admission, "traveller@example.com");
+        fail(admission, "traveller@example.com");
+
+        // Emails are matched without case or surrounding spaces
+        Duration first = lockout(admission, " Traveller@Example.com");
+        assertTrue(first.compareTo(BASE_LOCKOUT) <= 0, first.toString());
+
+        Thread.sleep(BASE_LOCKOUT.toMillis() + 50);
+        fail(admission, "traveller@example.com");
+        Duration second = lockout(admission, "traveller@example.com");
+        assertTrue(second.compareTo(BASE_LOCKOUT) > 0, second.toString());
+        assertTrue(second.compareTo(BASE_LOCKOUT.multipliedBy(2)) <= 0, second.toString());
+
+        Thread.sleep(second.toMillis() + 50);
+        fail(admission, "traveller@example.com");
+        // Four times the base would exceed the cap
+        Duration third = lockout(admission, "traveller@example.com");
+        assertTrue(third.compareTo(BASE_LOCKOUT.multipliedBy(2)) > 0, third.toString());
+        assertTrue(third.compareTo(MAX_LOCKOUT) <= 0, third.toString());
+
+        // Locks are per account
+        admission.admitLogin("someone.else@example.com", ADDRESS).close();
+        assertEquals(3, rejected("account"));
+    }
+
+    @Test
+    void aSuccessfulSignInClearsTheFailures() {
+        LoginAdmission admission = admission(100, 2);
+        fail(admission, "traveller@example.com");
+        try (LoginAdmission.Attempt attempt = admission.admitLogin("traveller@example.com", ADDRESS)) {
+            attempt.succeeded();
+        }
+
+        fail(admission, "traveller@example.com");
+        admission.admitLogin("traveller@example.com", ADDRESS).close();
+    }
+
+    @Test
+    void oneAttemptPerAccountAtATime() {
+        LoginAdmission admission = admission(100, 5);
+        LoginAdmission.Attempt running = admission.admitLogin("traveller@example.com", ADDRESS);
+
+        TooManyRequestsException refused = assertThrows(TooManyRequestsException.class,
+                () -> admission.admitLogin("traveller@example.com", ADDRESS));
+        assertEquals(Duration.ofSeconds(1), refused.getRetryAfter());
+
+        // Closing without an outcome leaves the failure count alone
+        running.close();
+        admission.admitLogin("traveller@example.com", ADDRESS).close();
+    }
+
+    private LoginAdmission admission(int ipMaxAttempts, int accountMaxFailures) {
+        return new LoginAdmission(registry, ipMaxAttempts, Duration.ofMinutes(1), accountMaxFailures,
+                BASE_LOCKOUT, MAX_LOCKOUT, 1000);
+    }
+
+    private static void fail(LoginAdmission admission, String email) {
+        try (LoginAdmission.Attempt attempt = admission.admitLogin(email, ADDRESS)) {
+            attempt.failed();
+        }
+    }
+
+    private static Duration lockout(LoginAdmission admission, String email) {
+        return assertThrows(TooManyRequestsException.class, () -> admission.admitLogin(email, ADDRESS))
+                .getRetryAfter();
+    }
+
+    private double rejected(String limit) {
+        return registry.get("auth.admission.rejected").tag("limit", limit).counter().count();
+    }
+}
@@ -0,0 +1,154 @@
+package com.tripplanner.service.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DateWindowEngineTest {
+
+    private static final long[] NONE = new long[0];
+
+    // User 1 is free on days 0-9 and 5-14 (one range 0-14 once merged), user 2 on 3-6, user 3 on 10-20
+    private static DateWindowEngine sample() {
+        return DateWindowEngine.of(new long[]{1, 1, 2, 3}, new int[]{0, 5, 3, 10}, new int[]{9, 14, 6, 20}, 4);
+    }
+
+    @Test
+    void ranksByAttendeesThenLengthThenStart() {
+        List<DateWindowEngine.Window> windows = sample()
+                .findBestWindows(3, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5);
+
+        assertEquals(5, windows.size());
+        assertWindow(windows.get(0), 10, 14, 1, 3);
+        assertWindow(windows.get(1), 3, 6, 1, 2);
+        assertWindow(windows.get(2), 13, 20, 3);
+        assertWindow(windows.get(3), 5, 11, 1);
+        assertWindow(windows.get(4), 0, 4, 1);
+    }
+
+    @Test
+    void mergesEachMembersOverlappingAndAdjacentRanges() {
+        DateWindowEngine engine = DateWindowEngine.of(new long[]{1, 1, 1}, new int[]{0, 2, 5}, new int[]{4, 3, 9}, 3);
+
+        assertEquals(1, engine.getDistinctUsers());
+        List<DateWindowEngine.Window> windows = engine
+                .findBestWindows(10, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5);
+        assertEquals(1, windows.size());
+        assertWindow(windows.get(0), 0, 9, 1);
+    }
+
+    @Test
+    void requiredMembersMustAttendEveryWindow() {
+        List<DateWindowEngine.Window> windows = sample()
+                .findBestWindows(3, new long[]{2, 2}, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5);
+
+        assertEquals(1, windows.size());
+        assertWindow(windows.get(0), 3, 6, 1, 2);
+    }
+
+    @Test
+    void dropsWindowsBelowTheQuorum() {
+        List<DateWindowEngine.Window> windows = sample()
+                .findBestWindows(3, NONE, 2, Integer.MIN_VALUE, Integer.MAX_VALUE, 5);
+
+        assertEquals(2, windows.size());
+        assertTrue(windows.stream().allMatch(window -> window.getAttendeeCount() == 2));
+    }
+
+    @Test
+    void keepsWindowsInsideTheClipRange() {
+        List<DateWindowEngine.Window> windows = sample().findBestWindows(2, NONE, 0, 5, 8, 5);
+
+        assertEquals(2, windows.size());
+        assertWindow(windows.get(0), 5, 6, 1, 2);
+        assertWindow(windows.get(1), 6, 8, 1);
+    }
+
+    @Test
+    void returnsAtMostLimitWindows() {
+        List<DateWindowEngine.Window> windows = sample()
+                .findBestWindows(3, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 1);
+
+        assertEquals(1, windows.size());
+        assertWindow(windows.get(0), 10, 14, 1, 3);
+    }
+
+    @Test
+    void handlesEmptyAndInvalidInput() {
+        DateWindowEngine empty = DateWindowEngine.of(NONE, new int[0], new int[0], 0);
+        assertEquals(List.of(), empty.findBestWindows(1, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5));
+
+        // A range ending before it starts contributes nothing
+        DateWindowEngine inverted = DateWindowEngine.of(new long[]{1}, new int[]{5}, new int[]{2}, 1);
+        assertEquals(List.of(), inverted.findBestWindows(1, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sample().findBestWindows(0, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 5));
+    }
+
+    @Test
+    void bestWindowMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            int count = 1 + random.nextInt(30);
+            long[] users = new long[count];
+            int[] starts = new int[count];
+            int[] ends = new int[count];
+            for (int i = 0; i < count; i++) {
+                users[i] = 1 + random.nextInt(8);
+                starts[i] = random.nextInt(40);
+                ends[i] = starts[i] + random.nextInt(10);
+            }
+            int minLength = 1 + random.nextInt(5);
+
+            List<DateWindowEngine.Window> best = DateWindowEngine.of(users, starts, ends, count)
+                    .findBestWindows(minLength, NONE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 1);
+
+            int expected = bruteForceBestAttendance(users, starts, ends, minLength);
+            assertEquals(expected, best.isEmpty() ? 0 : best.get(0).getAttendeeCount());
+            if (!best.isEmpty()) {
+                assertEquals(expected, best.get(0).getAttendeeIds().length);
+            }
+        }
+    }
+
+    private static int bruteForceBestAttendance(long[] users, int[] starts, int[] ends, int minLength) {
+        int best = 0;
+        for (int first = 0; first < 50; first++) {
+            int attendees = 0;
+            for (long user = 1; user <= 8; user++) {
+                if (freeForAll(user, first, first + minLength - 1, users, starts, ends)) {
+                    attendees++;
+                }
+            }
+            best = Math.max(best, attendees);
+        }
+        return best;
+    }
+
+    private static boolean freeForAll(long user, int from, int to, long[] users, int[] starts, int[] ends) {
+        for (int day = from; day <= to; day++) {
+            boolean free = false;
+            for (int i = 0; i < users.length && !free; i++) {
+                free = users[i] == user && starts[i] <= day && ends[i] >= day;
+            }
+            if (!free) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void assertWindow(DateWindowEngine.Window window, int startDay, int endDay, long... attendees) {
+        assertEquals(startDay, window.getStartDay());
+        assertEquals(endDay, window.getEndDay());
+        assertEquals(attendees.length, window.getAttendeeCount());
+        assertArrayEquals(attendees, window.getAttendeeIds());
+    }
+}
@@ -0,0 +1,72 @@
+package com.tripplanner.service.expense;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpenseSplitTest {
+
+    @Test
+    void equalSplitGivesLeftoverUnitsToEarlierPositions() {
+        assertArrayEquals(new long[]{334, 333, 333}, ExpenseSplit.equal(1000, 3));
+        assertArrayEquals(new long[]{1001, 1000, 1000}, ExpenseSplit.equal(3001, 3));
+        assertArrayEquals(new long[]{1, 1, 0}, ExpenseSplit.equal(2, 3));
+    }
+
+    @Test
+    void leftoverUnitsGoToTheLargestRemainders() {
+        // 33.33 and 66.67
+        assertArrayEquals(new long[]{33, 67}, ExpenseSplit.allocate(100, new long[]{1, 2}));
+        // 1.67, 3.33 and 5.0
+        assertArrayEquals(new long[]{2, 3, 5}, ExpenseSplit.allocate(10, new long[]{1, 2, 3}));
+    }
+
+    @Test
+    void zeroWeightsGetNothing() {
+        assertArrayEquals(new long[]{0, 10, 0}, ExpenseSplit.allocate(10, new long[]{0, 7, 0}));
+    }
+
+    @Test
+    void rejectsNegativeAndAllZeroWeights() {
+        assertThrows(IllegalArgumentException.class, () -> ExpenseSplit.allocate(10, new long[]{5, -1}));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseSplit.allocate(10, new long[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseSplit.allocate(10, new long[0]));
+    }
+
+    @Test
+    void largeAmountsAndWeightsDoNotOverflow() {
+        long total = Long.MAX_VALUE / 2;
+        long[] parts = ExpenseSplit.allocate(total, new long[]{Long.MAX_VALUE, Long.MAX_VALUE, 1});
+
+        assertEquals(total, Arrays.stream(parts).sum());
+        assertTrue(parts[2] <= 1);
+    }
+
+    @Test
+    void partsAlwaysAddUpAndStayWithinOneUnitOfTheirShare() {
+        Random random = new Random(11);
+        for (int round = 0; round < 1000; round++) {
+            long total = random.nextInt(1_000_000);
+            long[] weights = new long[1 + random.nextInt(12)];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextInt(1000);
+            }
+            weights[random.nextInt(weights.length)] += 1;
+            long weightSum = Arrays.stream(weights).sum();
+
+            long[] parts = ExpenseSplit.allocate(total, weights);
+
+            assertEquals(total, Arrays.stream(parts).sum());
+            for (int i = 0; i < parts.length; i++) {
+                double exact = (double) total * weights[i] / weightSum;
+                assertTrue(Math.abs(parts[i] - exact) < 1, parts[i] + " vs " + exact);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.tripplanner.service.expense;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettleUpTest {
+
+    @Test
+    void pairsExactAmountsFirst() {
+        List<SettleUp.Transfer> transfers = SettleUp.transfers(Map.of(1L, 50L, 2L, -30L, 3L, 30L, 4L, -50L));
+
+        assertEquals(2, transfers.size());
+        assertTransfer(transfers.get(0), 4, 1, 50);
+        assertTransfer(transfers.get(1), 2, 3, 30);
+    }
+
+    @Test
+    void largestDebtorPaysLargestCreditor() {
+        List<SettleUp.Transfer> transfers = SettleUp.transfers(Map.of(1L, 70L, 2L, 30L, 3L, -50L, 4L, -50L));
+
+        assertEquals(3, transfers.size());
+        assertTransfer(transfers.get(0), 3, 1, 50);
+        assertTransfer(transfers.get(1), 4, 2, 30);
+        assertTransfer(transfers.get(2), 4, 1, 20);
+    }
+
+    @Test
+    void settledMembersNeedNoTransfers() {
+        assertEquals(List.of(), SettleUp.transfers(Map.of(1L, 0L, 2L, 0L)));
+        assertEquals(List.of(), SettleUp.transfers(Map.of()));
+    }
+
+    @Test
+    void rejectsBalancesThatDoNotSumToZero() {
+        assertThrows(IllegalStateException.class, () -> SettleUp.transfers(Map.of(1L, 10L, 2L, -9L)));
+    }
+
+    @Test
+    void transfersSettleEveryoneInAtMostNMinusOneSteps() {
+        Random random = new Random(5);
+        for (int round = 0; round < 500; round++) {
+            int members = 2 + random.nextInt(15);
+            Map<Long, Long> balances = new HashMap<>();
+            long total = 0;
+            for (long user = 1; user < members; user++) {
+                long amount = random.nextInt(20_001) - 10_000;
+                balances.put(user, amount);
+                total += amount;
+            }
+            balances.put((long) members, -total);
+
+            List<SettleUp.Transfer> transfers = SettleUp.transfers(balances);
+
+            Map<Long, Long> remaining = new HashMap<>(balances);
+            for (SettleUp.Transfer transfer : transfers) {
+                assertTrue(transfer.getAmountMinor() > 0);
+                remaining.merge(transfer.getFromUserId(), transfer.getAmountMinor(), Long::sum);
+                remaining.merge(transfer.getToUserId(), -transfer.getAmountMinor(), Long::sum);
+            }
+            assertTrue(remaining.values().stream().allMatch(balance -> balance == 0), remaining::toString);
+            long unsettled = balances.values().stream().filter(balance -> balance != 0).count();
+            assertTrue(transfers.size() <= Math.max(0, unsettled - 1));
+        }
+    }
+
+    private static void assertTransfer(SettleUp.Transfer transfer, long from, long to, long amount) {
+        assertEquals(from, transfer.getFromUserId());
+        assertEquals(to, transfer.getToUserId());
+        assertEquals(amount, transfer.getAmountMinor());
+    }
+}
@@ -0,0 +1,234 @@
+package com.tripplanner.service.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tripplanner.entity.OutboxMessage;
+import com.tripplanner.entity.User;
+import com.tripplanner.repository.OutboxMessageRepository;
+import com.tripplanner.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The test profile turns the scheduled dispatcher off, so only the test claims rows
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MailOutboxDispatcherTest {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JavaMailSender mailSender;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxMessageRepository.deleteAll();
+        dispatcher = dispatcher(mailSender, 50, 8);
+    }
+
+    @Test
+    void sendsDueMessagesAndMarksThemSent() throws Exception {
+        User recipient = user();
+        OutboxMessage first = enqueue(recipient, "Welcome");
+        OutboxMessage second = enqueue(recipient, "Trip reminder");
+        OutboxMessage later = new OutboxMessage(recipient, "Not due yet", "body");
+        later.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+        outboxMessageRepository.save(later);
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals(recipient.getEmail(), received[0].getAllRecipients()[0].toString());
+        Set<String> outboxIds = Arrays.stream(received)
+                .map(message -> header(message, "X-Outbox-Id"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(first.getId().toString(), second.getId().toString()), outboxIds);
+
+        OutboxMessage sent = reload(first);
+        assertEquals(OutboxMessage.Status.SENT, sent.getStatus());
+        assertNotNull(sent.getSentAt());
+        assertEquals(0, sent.getAttempts());
+        assertEquals(OutboxMessage.Status.SENT, reload(second).getStatus());
+        assertEquals(OutboxMessage.Status.PENDING, reload(later).getStatus());
+
+        // Sent rows are never claimed again and the remaining one is not due
+        assertEquals(0, dispatcher.dispatchBatch());
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void claimsAtMostOneBatchAndDispatchDrainsTheRest() {
+        User recipient = user();
+        for (int i = 0; i < 5; i++) {
+            enqueue(recipient, "Message " + i);
+        }
+        MailOutboxDispatcher smallBatches = dispatcher(mailSender, 2, 8);
+
+        assertEquals(2, smallBatches.dispatchBatch());
+        assertEquals(2, greenMail.getReceivedMessages().length);
+
+        smallBatches.dispatch();
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertTrue(outboxMessageRepository.findAll().stream()
+                .allMatch(message -> message.getStatus() == OutboxMessage.Status.SENT));
+    }
+
+    @Test
+    void retriesWithBackoffWhileSmtpIsUnreachable() throws Exception {
+        OutboxMessage message = enqueue(user(), "Friend request");
+        MailOutboxDispatcher offline = dispatcher(unreachableMailSender(), 50, 8);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(1, offline.dispatchBatch());
+        LocalDateTime after = LocalDateTime.now();
+
+        OutboxMessage retrying = reload(message);
+        assertEquals(OutboxMessage.Status.PENDING, retrying.getStatus());
+        assertEquals(1, retrying.getAttempts());
+        assertNotNull(retrying.getLastError());
+        assertNull(retrying.getSentAt());
+        // First retry waits between half and all of the initial backoff
+        assertTrue(!retrying.getNextAttemptAt().isBefore(before.plus(INITIAL_BACKOFF.dividedBy(2))));
+        assertTrue(!retrying.getNextAttemptAt().isAfter(after.plus(INITIAL_BACKOFF)));
+
+        // Not due again until the backoff has passed
+        assertEquals(0, offline.dispatchBatch());
+
+        makeDue(message);
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        OutboxMessage sent = reload(message);
+        assertEquals(OutboxMessage.Status.SENT, sent.getStatus());
+        assertNull(sent.getLastError());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        OutboxMessage message = enqueue(user(), "Trip invitation");
+        MailOutboxDispatcher offline = dispatcher(unreachableMailSender(), 50, 2);
+
+        assertEquals(1, offline.dispatchBatch());
+        assertEquals(OutboxMessage.Status.PENDING, reload(message).getStatus());
+
+        makeDue(message);
+        assertEquals(1, offline.dispatchBatch());
+        OutboxMessage failed = reload(message);
+        assertEquals(OutboxMessage.Status.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+
+        makeDue(message);
+        assertEquals(0, dispatcher.dispatchBatch());
+    }
+
+    @Test
+    void failsInactiveRecipientsWithoutRetrying() {
+        User recipient = user();
+        OutboxMessage message = enqueue(recipient, "Welcome");
+        recipient.setActive(false);
+        userRepository.save(recipient);
+
+        assertEquals(1, dispatcher.dispatchBatch());
+
+        OutboxMessage failed = reload(message);
+        assertEquals(OutboxMessage.Status.FAILED, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getLastError().contains("inactive"));
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        for (int i = 0; i < 20; i++) {
+            assertBetween(dispatcher.backoff(1), Duration.ofSeconds(5), Duration.ofSeconds(10));
+            assertBetween(dispatcher.backoff(3), Duration.ofSeconds(20), Duration.ofSeconds(40));
+            assertBetween(dispatcher.backoff(40), MAX_BACKOFF.dividedBy(2), MAX_BACKOFF);
+        }
+    }
+
+    private MailOutboxDispatcher dispatcher(JavaMailSender sender, int batchSize, int maxAttempts) {
+        return new MailOutboxDispatcher(outboxMessageRepository, userRepository, sender, transactionTemplate,
+                taskScheduler, new SimpleMeterRegistry(), Duration.ofHours(1), "no-reply@tripplanner.local",
+                batchSize, maxAttempts, Duration.ofMinutes(5), INITIAL_BACKOFF, MAX_BACKOFF);
+    }
+
+    // A local port nothing listens on, so every send fails to connect
+    private static JavaMailSender unreachableMailSender() throws IOException {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        try (ServerSocket socket = new ServerSocket(0)) {
+            sender.setPort(socket.getLocalPort());
+        }
+        return sender;
+    }
+
+    private User user() {
+        String username = "outbox" + USERS.incrementAndGet();
+        return userRepository.save(new User(username, username + "@example.com", "password-hash"));
+    }
+
+    private OutboxMessage enqueue(User recipient, String subject) {
+        return outboxMessageRepository.save(new OutboxMessage(recipient, subject, "body"));
+    }
+
+    private OutboxMessage reload(OutboxMessage message) {
+        return outboxMessageRepository.findById(message.getId()).orElseThrow();
+    }
+
+    private void makeDue(OutboxMessage message) {
+        OutboxMessage current = reload(message);
+        current.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxMessageRepository.save(current);
+    }
+
+    private static String header(MimeMessage message, String name) {
+        try {
+            return message.getHeader(name)[0];
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void assertBetween(Duration actual, Duration min, Duration max) {
+        assertTrue(actual.compareTo(min) >= 0 && actual.compareTo(max) <= 0,
+                () -> actual + " not within " + min + " and " + max);
+    }
+}
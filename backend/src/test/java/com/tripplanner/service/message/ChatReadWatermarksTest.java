@@ -0,0 +1,167 @@
+package com.tripplanner.service.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripplanner.entity.Trip;
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.entity.User;
+import com.tripplanner.exception.ResourceNotFoundException;
+import com.tripplanner.repository.UserRepository;
+import com.tripplanner.security.JwtService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChatReadWatermarksTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private ChatReadWatermarks watermarks;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsUnreadFromEachMembersWatermark() throws Exception {
+        User alice = user();
+        User bob = user();
+        User carol = user();
+        Long tripId = trip(alice, List.of(alice, bob, carol));
+
+        List<Long> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(send(tripId, alice));
+        }
+        // Loaded from the database the first time, kept in memory afterwards
+        assertEquals(5, unread(tripId, bob));
+        assertEquals(0, unread(tripId, alice));
+
+        for (int i = 0; i < 3; i++) {
+            sent.add(send(tripId, bob));
+        }
+        assertEquals(8, unread(tripId, carol));
+        // Sending a message reads everything up to it
+        assertEquals(0, unread(tripId, bob));
+        assertEquals(3, unread(tripId, alice));
+
+        assertEquals(1, watermarks.markRead(tripId, alice.getId(), sent.get(6)));
+        // Watermarks never move backwards
+        assertEquals(1, watermarks.markRead(tripId, alice.getId(), sent.get(2)));
+        assertEquals(1, unread(tripId, alice));
+
+        assertThrows(ResourceNotFoundException.class, () -> watermarks.markRead(tripId, alice.getId(), -1L));
+    }
+
+    @Test
+    void marksOlderThanTheRecentWindowAreCountedInTheDatabase() throws Exception {
+        User alice = user();
+        User bob = user();
+        Long tripId = trip(alice, List.of(alice, bob));
+
+        List<Long> sent = new ArrayList<>();
+        for (int i = 0; i < ChatReadWatermarks.RECENT_MESSAGES + 20; i++) {
+            sent.add(send(tripId, alice));
+        }
+        assertEquals(sent.size(), unread(tripId, bob));
+
+        assertEquals(sent.size() - 1, watermarks.markRead(tripId, bob.getId(), sent.get(0)));
+        assertEquals(10, watermarks.markRead(tripId, bob.getId(), sent.get(sent.size() - 11)));
+        assertEquals(0, watermarks.markRead(tripId, bob.getId(), sent.get(sent.size() - 1)));
+    }
+
+    @Test
+    void flushWritesOneRowPerMemberAndKeepsTheNewestMark() throws Exception {
+        User alice = user();
+        User bob = user();
+        Long tripId = trip(alice, List.of(alice, bob));
+        Long first = send(tripId, alice);
+        Long second = send(tripId, alice);
+
+        watermarks.markRead(tripId, bob.getId(), first);
+        watermarks.flush();
+        assertEquals(first, storedMark(tripId, bob));
+        assertEquals(second, storedMark(tripId, alice));
+
+        watermarks.markRead(tripId, bob.getId(), second);
+        // Receipts include marks that are not written yet
+        assertEquals(second, watermarks.getReceipts(tripId).stream()
+                .filter(receipt -> receipt.getUserId().equals(bob.getId()))
+                .findFirst().orElseThrow().getLastReadMessageId());
+
+        watermarks.flush();
+        assertEquals(second, storedMark(tripId, bob));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from chat_read_markers where trip_id = ?", Integer.class, tripId));
+    }
+
+    private int unread(Long tripId, User user) {
+        return watermarks.getUnreadCount(tripId, user.getId());
+    }
+
+    private Long storedMark(Long tripId, User user) {
+        return jdbcTemplate.queryForObject(
+                "select last_read_message_id from chat_read_markers where trip_id = ? and user_id = ?",
+                Long.class, tripId, user.getId());
+    }
+
+    private Long send(Long tripId, User sender) throws Exception {
+        String body = mockMvc.perform(post("/trips/{tripId}/messages", tripId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(sender))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"hello\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private User user() {
+        String username = "reader" + USERS.incrementAndGet();
+        return userRepository.save(new User(username, username + "@example.com", "password-hash"));
+    }
+
+    private Long trip(User creator, List<User> members) {
+        return transactionTemplate.execute(status -> {
+            Trip trip = new Trip("Read trip", "Seeded for read watermark checks",
+                    entityManager.getReference(User.class, creator.getId()));
+            entityManager.persist(trip);
+            for (User member : members) {
+                TripMember membership = new TripMember(trip, entityManager.getReference(User.class, member.getId()),
+                        member == creator ? TripMember.Role.CREATOR : TripMember.Role.MEMBER);
+                membership.setStatus(TripMember.Status.ACCEPTED);
+                entityManager.persist(membership);
+            }
+            return trip.getId();
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.tripplanner.service.ratelimit;
+
+import com.tripplanner.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SENDER = 1;
+    private static final long TRIP = 9;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void aFullBucketAllowsABurstThenReportsTheWait() {
+        RateLimiter limiter = limiter(RateLimitPolicy.CHAT_SENDER, 3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        }
+        long waitNanos = limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER);
+
+        // One permit comes back every period / permits
+        assertTrue(waitNanos > 0 && waitNanos <= TimeUnit.SECONDS.toNanos(20), String.valueOf(waitNanos));
+        TooManyRequestsException refused = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        assertTrue(refused.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, 2L));
+        assertEquals(2, rejected(RateLimitPolicy.CHAT_SENDER));
+    }
+
+    @Test
+    void permitsRefillEvenlyAndIdleTimeBanksNoMoreThanTheBurst() throws Exception {
+        RateLimiter limiter = limiter(RateLimitPolicy.CHAT_SENDER, 3, Duration.ofMillis(300));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        }
+        long waitNanos = limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER);
+        assertTrue(waitNanos > 0);
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(waitNanos) + 20);
+        assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        assertTrue(limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER) > 0);
+
+        Thread.sleep(900);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        }
+        assertTrue(limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER) > 0);
+    }
+
+    @Test
+    void aPairRefusedByOneBucketDoesNotChargeTheOther() {
+        RateLimiter limiter = limiter(RateLimitPolicy.CHAT_SENDER, 5, Duration.ofMinutes(1),
+                RateLimitPolicy.CHAT_TRIP, 2, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER, RateLimitPolicy.CHAT_TRIP, TRIP));
+        }
+        assertTrue(limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER, RateLimitPolicy.CHAT_TRIP, TRIP) > 0);
+        assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire(RateLimitPolicy.CHAT_SENDER, SENDER, RateLimitPolicy.CHAT_TRIP, TRIP));
+
+        // The sender paid only for the two messages that went through
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        }
+        assertTrue(limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER) > 0);
+    }
+
+    @Test
+    void aPermitTakenBeforeTheSecondBucketRanOutIsHandedBack() {
+        RateLimiter limiter = limiter(RateLimitPolicy.CHAT_SENDER, 2, Duration.ofMinutes(1));
+        assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+
+        // Both checks see the last permit, the first charge takes it and the second is refused,
+        // as when a concurrent request empties the second bucket between check and charge
+        assertTrue(limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER, RateLimitPolicy.CHAT_SENDER, SENDER) > 0);
+
+        assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER));
+        assertTrue(limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER) > 0);
+    }
+
+    @Test
+    void aDisabledLimiterAdmitsEverything() {
+        properties.setEnabled(false);
+        RateLimiter limiter = limiter(RateLimitPolicy.CHAT_TRIP, 1, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.CHAT_SENDER, SENDER, RateLimitPolicy.CHAT_TRIP, TRIP));
+        }
+        assertEquals(0, rejected(RateLimitPolicy.CHAT_TRIP));
+    }
+
+    @Test
+    void everyPolicyNeedsALimit() {
+        properties.getPolicies().put(RateLimitPolicy.API, new RateLimitProperties.Limit(10, Duration.ZERO));
+
+        assertThrows(IllegalStateException.class, () -> new RateLimiter(properties, registry));
+    }
+
+    private RateLimiter limiter(RateLimitPolicy policy, int permits, Duration period) {
+        properties.getPolicies().put(policy, new RateLimitProperties.Limit(permits, period));
+        return new RateLimiter(properties, registry);
+    }
+
+    private RateLimiter limiter(RateLimitPolicy first, int firstPermits, Duration firstPeriod,
+                                RateLimitPolicy second, int secondPermits, Duration secondPeriod) {
+        properties.getPolicies().put(first, new RateLimitProperties.Limit(firstPermits, firstPeriod));
+        return limiter(second, secondPermits, secondPeriod);
+    }
+
+    private double rejected(RateLimitPolicy policy) {
+        return registry.get("ratelimit.rejected").tag("policy", policy.name()).counter().count();
+    }
+}
@@ -0,0 +1,165 @@
+package com.tripplanner.service.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatSearchIndexTest {
+
+    private static final long TRIP = 7;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+    private static final LocalDateTime END = START.plusYears(1);
+
+    @TempDir
+    Path dir;
+
+    // Never started, so nothing flushes unless the test asks
+    private ChatSearchIndex index() throws IOException {
+        return new ChatSearchIndex(null, dir, Duration.ofSeconds(10), 1000, Duration.ofMinutes(5), 100);
+    }
+
+    private ChatSearchIndex readyIndex() throws IOException {
+        ChatSearchIndex index = index();
+        index.markReady(START);
+        return index;
+    }
+
+    private static ChatSearchIndex.IndexedMessage message(long tripId, long messageId, String content) {
+        return new ChatSearchIndex.IndexedMessage(tripId, messageId, START.plusMinutes(messageId), content);
+    }
+
+    private static void indexSampleChat(ChatSearchIndex index) {
+        index.index(message(TRIP, 1, "Let's go to Chiang-Mai next week!"));
+        index.index(message(TRIP, 2, "ไปเที่ยวเชียงใหม่กันไหม"));
+        index.index(message(TRIP, 3, "Hotel in Bangkok booked"));
+        index.index(message(TRIP, 4, "Flights to Bangkok are cheap, then chiang mai by train"));
+    }
+
+    private static List<Long> search(ChatSearchIndex index, String query) {
+        return ids(index.search(TRIP, query, END, Long.MAX_VALUE, 10));
+    }
+
+    private static List<Long> ids(List<ChatSearchIndex.Hit> hits) {
+        return hits.stream().map(ChatSearchIndex.Hit::getMessageId).toList();
+    }
+
+    private static void assertSampleQueries(ChatSearchIndex index) {
+        assertEquals(List.of(4L, 3L), search(index, "bangkok"));
+        assertEquals(List.of(4L, 1L), search(index, "chiang mai"));
+        assertEquals(List.of(1L), search(index, "\"go to chiang mai\""));
+        assertEquals(List.of(), search(index, "\"mai chiang\""));
+        assertEquals(List.of(2L), search(index, "เชียงใหม่"));
+        assertEquals(List.of(2L), search(index, "เที่ยวเชียงใหม่"));
+        assertEquals(List.of(), search(index, "เชียงใหม่ bangkok"));
+        assertEquals(List.of(), search(index, "   "));
+    }
+
+    @Test
+    void matchesTermsAndPhrasesInTheLiveTail() throws IOException {
+        ChatSearchIndex index = readyIndex();
+        indexSampleChat(index);
+
+        assertSampleQueries(index);
+    }
+
+    @Test
+    void matchesTermsAndPhrasesInASealedSegment() throws IOException {
+        ChatSearchIndex index = readyIndex();
+        indexSampleChat(index);
+        index.flushAll();
+
+        assertTrue(Files.exists(dir.resolve("trips").resolve(TRIP + ".seg")));
+        assertSampleQueries(index);
+    }
+
+    @Test
+    void editsReplaceTheEarlierTextBeforeAndAfterAFlush() throws IOException {
+        ChatSearchIndex index = readyIndex();
+        index.index(message(TRIP, 3, "Hotel in Bangkok booked"));
+        index.flushAll();
+
+        index.index(message(TRIP, 3, "Hostel in Chiang Rai booked"));
+        assertEquals(List.of(), search(index, "bangkok"));
+        assertEquals(List.of(3L), search(index, "hostel"));
+        assertEquals(List.of(3L), search(index, "booked"));
+
+        index.flushAll();
+        assertEquals(List.of(), search(index, "bangkok"));
+        assertEquals(List.of(3L), search(index, "hostel"));
+    }
+
+    @Test
+    void pagesNewestFirstByCreatedAtThenId() throws IOException {
+        ChatSearchIndex index = readyIndex();
+        for (long id = 1; id <= 15; id++) {
+            index.index(message(TRIP, id, "filler message " + id + " about food"));
+        }
+        index.flushAll();
+        for (long id = 16; id <= 30; id++) {
+            index.index(message(TRIP, id, "filler message " + id + " about food"));
+        }
+        // Same timestamp as message 30, so only the id orders them
+        index.index(new ChatSearchIndex.IndexedMessage(TRIP, 31, START.plusMinutes(30), "more food"));
+
+        List<ChatSearchIndex.Hit> first = index.search(TRIP, "food", END, Long.MAX_VALUE, 20);
+        assertEquals(LongStream.rangeClosed(12, 31).boxed().sorted((a, b) -> Long.compare(b, a)).toList(), ids(first));
+
+        ChatSearchIndex.Hit last = first.get(first.size() - 1);
+        List<ChatSearchIndex.Hit> second = index.search(TRIP, "food", last.getCreatedAt(), last.getMessageId(), 20);
+        assertEquals(LongStream.rangeClosed(1, 11).boxed().sorted((a, b) -> Long.compare(b, a)).toList(), ids(second));
+    }
+
+    @Test
+    void keepsTripsApart() throws IOException {
+        ChatSearchIndex index = readyIndex();
+        index.index(message(TRIP, 1, "bangkok"));
+        index.index(message(TRIP + 1, 2, "bangkok"));
+
+        assertEquals(List.of(1L), search(index, "bangkok"));
+        assertEquals(List.of(2L), ids(index.search(TRIP + 1, "bangkok", END, Long.MAX_VALUE, 10)));
+    }
+
+    @Test
+    void queuesChangesUntilReadyAndCheckpointsTheLoad() throws IOException {
+        ChatSearchIndex index = index();
+        index.index(message(TRIP, 5, "Hotel in Bangkok booked"));
+        assertFalse(index.isReady());
+        assertEquals(List.of(), search(index, "bangkok"));
+
+        index.markReady(START);
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(5L), search(index, "bangkok"));
+        assertTrue(Files.exists(dir.resolve("trips").resolve(TRIP + ".seg")));
+        ChatSearchIndex.Checkpoint checkpoint = index.readCheckpoint();
+        assertEquals(START, checkpoint.getSince());
+        assertEquals(5, checkpoint.getMaxMessageId());
+    }
+
+    @Test
+    void servesSegmentsFromDiskAfterARestartUntilCleared() throws IOException {
+        ChatSearchIndex before = readyIndex();
+        indexSampleChat(before);
+        before.flushAll();
+
+        ChatSearchIndex after = index();
+        assertEquals(4, after.readCheckpoint().getMaxMessageId());
+        assertSampleQueries(after);
+
+        after.clear();
+        assertNull(after.readCheckpoint());
+        assertEquals(List.of(), search(after, "bangkok"));
+    }
+}
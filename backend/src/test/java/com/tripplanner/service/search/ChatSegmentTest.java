@@ -0,0 +1,102 @@
+package com.tripplanner.service.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChatSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    private int written;
+
+    private ChatSegment write(ChatSegment sealed, Set<Long> stale, ChatSegment.Document... fresh) throws IOException {
+        Path target = dir.resolve("segment-" + written++ + ".seg");
+        ChatSegment.merge(sealed, stale, List.of(fresh)).write(target, dir);
+        return ChatSegment.open(target);
+    }
+
+    private static ChatSegment.Document document(long messageId, String text) {
+        return new ChatSegment.Document(messageId, messageId * 1_000, text.split(" "));
+    }
+
+    private static long[] messageIds(ChatSegment segment) {
+        long[] ids = new long[segment.docCount()];
+        Arrays.setAll(ids, segment::messageId);
+        return ids;
+    }
+
+    @Test
+    void storesDocumentsByMessageIdWithTermPositions() throws IOException {
+        ChatSegment segment = write(null, Set.of(),
+                document(3, "hotel in bangkok"),
+                document(1, "bangkok bangkok trip"),
+                document(2, "train"));
+
+        assertArrayEquals(new long[]{1, 2, 3}, messageIds(segment));
+        assertEquals(3_000, segment.createdAt(2));
+
+        ChatSegment.Postings bangkok = segment.postings("bangkok", true);
+        assertArrayEquals(new int[]{0, 2}, bangkok.docs);
+        assertArrayEquals(new int[]{0, 1}, Arrays.copyOfRange(bangkok.positions, bangkok.starts[0], bangkok.starts[1]));
+        assertArrayEquals(new int[]{2}, Arrays.copyOfRange(bangkok.positions, bangkok.starts[1], bangkok.starts[2]));
+
+        ChatSegment.Postings train = segment.postings("train", false);
+        assertArrayEquals(new int[]{1}, train.docs);
+        assertNull(train.starts);
+        assertNull(segment.postings("ferry", true));
+    }
+
+    @Test
+    void mergeDropsStaleDocumentsAndRenumbers() throws IOException {
+        ChatSegment sealed = write(null, Set.of(),
+                document(1, "bangkok bangkok trip"),
+                document(2, "train"),
+                document(3, "hotel in bangkok"));
+
+        ChatSegment merged = write(sealed, Set.of(2L), document(1, "ferry"), document(4, "bangkok night"));
+
+        assertArrayEquals(new long[]{1, 3, 4}, messageIds(merged));
+        assertArrayEquals(new int[]{1, 2}, merged.postings("bangkok", false).docs);
+        assertArrayEquals(new int[]{0}, merged.postings("ferry", false).docs);
+        assertNull(merged.postings("train", false));
+        assertNull(merged.postings("trip", false));
+    }
+
+    @Test
+    void laterFreshCopyOfAMessageWins() throws IOException {
+        ChatSegment segment = write(null, Set.of(), document(1, "old text"), document(1, "new text"));
+
+        assertArrayEquals(new long[]{1}, messageIds(segment));
+        assertNull(segment.postings("old", false));
+        ChatSegment.Postings text = segment.postings("text", true);
+        assertArrayEquals(new int[]{1}, Arrays.copyOfRange(text.positions, text.starts[0], text.starts[1]));
+    }
+
+    @Test
+    void emptySegmentHasNoDocumentsOrTerms() throws IOException {
+        ChatSegment segment = write(null, Set.of());
+
+        assertEquals(0, segment.docCount());
+        assertNull(segment.postings("anything", false));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSegments() throws IOException {
+        Path file = Files.writeString(dir.resolve("garbage.seg"), "not a segment at all");
+
+        assertThrows(IOException.class, () -> ChatSegment.open(file));
+    }
+}
@@ -0,0 +1,179 @@
+package com.tripplanner.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTest {
+
+    private static final long[] NONE = new long[0];
+    private static final long SEARCHER = 1000;
+
+    private final List<Runnable> compactions = new ArrayList<>();
+
+    // Compactions are queued here and run by the test, so it can change the index mid-compaction
+    private UserSearchIndex index(UserSearchIndex.IndexedUser... users) {
+        UserSearchIndex index = new UserSearchIndex(compactions::add);
+        index.load(List.of(users));
+        return index;
+    }
+
+    private static UserSearchIndex.IndexedUser user(long id, String username, String firstName, String lastName) {
+        return new UserSearchIndex.IndexedUser(id, username, firstName, lastName, null);
+    }
+
+    private static List<Long> ids(List<UserSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.getUser().getId()).toList();
+    }
+
+    @Test
+    void ranksExactThenUsernamePrefixThenNamePrefixThenSubstring() {
+        UserSearchIndex index = index(
+                user(4, "joanna", "Jo", "Lee"),
+                user(3, "zed", "Anna", "Smith"),
+                user(2, "annabel", "Bel", "Ng"),
+                user(1, "anna", "Bob", "Ray"));
+
+        List<UserSearchIndex.Hit> hits = index.search(SEARCHER, "anna", 10, NONE, NONE);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(hits));
+        assertEquals(UserSearchIndex.EXACT, hits.get(0).getTier());
+        assertEquals(UserSearchIndex.USERNAME_PREFIX, hits.get(1).getTier());
+        assertEquals(UserSearchIndex.NAME_PREFIX, hits.get(2).getTier());
+        assertEquals(UserSearchIndex.SUBSTRING, hits.get(3).getTier());
+    }
+
+    @Test
+    void shortQueriesMatchPrefixesOnly() {
+        UserSearchIndex index = index(
+                user(1, "anna", "Bob", "Ray"),
+                user(2, "zed", "Anna", "Smith"),
+                user(3, "joanna", "Jo", "Lee"));
+
+        assertEquals(List.of(1L, 2L), ids(index.search(SEARCHER, "an", 10, NONE, NONE)));
+    }
+
+    @Test
+    void friendsAndFriendsOfFriendsOutrankStrangers() {
+        // All username prefix matches, so only proximity separates them
+        UserSearchIndex index = index(
+                user(1, "annabel", "Bel", "Ng"),
+                user(2, "annika", "Ann", "Ik"),
+                user(3, "annette", "Net", "Te"));
+
+        List<UserSearchIndex.Hit> hits = index.search(SEARCHER, "ann", 10, new long[]{3}, new long[]{2});
+
+        assertEquals(List.of(3L, 2L, 1L), ids(hits));
+        assertEquals(UserSearchIndex.FRIEND, hits.get(0).getProximity());
+        assertEquals(UserSearchIndex.FRIEND_OF_FRIEND, hits.get(1).getProximity());
+        assertEquals(0, hits.get(2).getProximity());
+    }
+
+    @Test
+    void excludesTheSearcherAndHonoursTheLimit() {
+        UserSearchIndex index = index(
+                user(SEARCHER, "annie", "Me", "Self"),
+                user(1, "anna", "Bob", "Ray"),
+                user(2, "annabel", "Bel", "Ng"),
+                user(3, "annika", "Ann", "Ik"));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search(SEARCHER, "ann", 10, NONE, NONE)));
+        assertEquals(List.of(1L), ids(index.search(SEARCHER, "ann", 1, NONE, NONE)));
+    }
+
+    @Test
+    void normalizesQueriesAndNames() {
+        UserSearchIndex index = index(user(1, "Anna", "Ánna", "Smith"), user(2, "bob", "Mary", "Smithers"));
+
+        assertEquals(List.of(1L), ids(index.search(SEARCHER, "  ANNA ", 10, NONE, NONE)));
+        assertEquals(List.of(2L), ids(index.search(SEARCHER, "mary   smi", 10, NONE, NONE)));
+        assertTrue(index.search(SEARCHER, "   ", 10, NONE, NONE).isEmpty());
+    }
+
+    @Test
+    void upsertReindexesChangedNamesAndRemoveDropsUsers() {
+        UserSearchIndex index = index(user(1, "anna", "Bob", "Ray"), user(2, "annabel", "Bel", "Ng"));
+
+        index.upsert(user(1, "carla", "Bob", "Ray"));
+        assertEquals(List.of(2L), ids(index.search(SEARCHER, "anna", 10, NONE, NONE)));
+        assertEquals(List.of(1L), ids(index.search(SEARCHER, "carla", 10, NONE, NONE)));
+
+        // A display-only change keeps the same entry
+        index.upsert(new UserSearchIndex.IndexedUser(1, "carla", "Bob", "Ray", "avatar.png"));
+        assertEquals("avatar.png", index.search(SEARCHER, "carla", 10, NONE, NONE).get(0).getUser().getAvatarUrl());
+
+        index.remove(2);
+        assertTrue(index.search(SEARCHER, "anna", 10, NONE, NONE).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void changesBeforeTheFirstLoadAreReplayedAfterTheSnapshot() {
+        UserSearchIndex index = new UserSearchIndex(compactions::add);
+        assertFalse(index.isReady());
+
+        index.upsert(user(3, "annika", "Ann", "Ik"));
+        index.remove(2);
+        index.load(List.of(user(1, "anna", "Bob", "Ray"), user(2, "annabel", "Bel", "Ng")));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L, 3L), ids(index.search(SEARCHER, "ann", 10, NONE, NONE)));
+    }
+
+    @Test
+    void compactionRunsOffTheLockAndKeepsChangesMadeMeanwhile() {
+        List<UserSearchIndex.IndexedUser> users = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            users.add(user(i, "user" + i, "First" + i, "Last" + i));
+        }
+        UserSearchIndex index = index(users.toArray(UserSearchIndex.IndexedUser[]::new));
+
+        // Renames leave tombstones until more than a quarter of the index is dead
+        for (int i = 0; i < 1100; i++) {
+            index.upsert(user(i, "renamed" + i, "First" + i, "Last" + i));
+        }
+        assertEquals(1, compactions.size());
+
+        // Searches and changes keep working while the compacted copy is pending
+        index.upsert(user(5, "changedagain", "First5", "Last5"));
+        index.remove(1500);
+        index.upsert(user(5000, "newcomer", "New", "Comer"));
+        assertEquals(List.of(5L), ids(index.search(SEARCHER, "changedagain", 10, NONE, NONE)));
+        assertEquals(1, compactions.size());
+
+        compactions.remove(0).run();
+
+        assertEquals(2000, index.size());
+        assertEquals(List.of(5L), ids(index.search(SEARCHER, "changedagain", 10, NONE, NONE)));
+        assertEquals(List.of(5000L), ids(index.search(SEARCHER, "newcomer", 10, NONE, NONE)));
+        assertTrue(index.search(SEARCHER, "user1500", 10, NONE, NONE).isEmpty());
+        assertEquals(List.of(7L), ids(index.search(SEARCHER, "renamed7", 1, NONE, NONE)));
+        assertEquals(List.of(1999L), ids(index.search(SEARCHER, "user1999", 10, NONE, NONE)));
+        assertTrue(compactions.isEmpty());
+    }
+
+    @Test
+    void compactionOfAReplacedIndexIsDiscarded() {
+        List<UserSearchIndex.IndexedUser> users = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            users.add(user(i, "user" + i, "First" + i, "Last" + i));
+        }
+        UserSearchIndex index = index(users.toArray(UserSearchIndex.IndexedUser[]::new));
+        for (int i = 0; i < 1100; i++) {
+            index.remove(i);
+        }
+        assertEquals(1, compactions.size());
+
+        index.load(List.of(user(1, "anna", "Bob", "Ray")));
+        compactions.remove(0).run();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), ids(index.search(SEARCHER, "anna", 10, NONE, NONE)));
+        assertTrue(index.search(SEARCHER, "user1999", 10, NONE, NONE).isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package com.tripplanner.service.trip;
+
+import com.tripplanner.dto.TripShareSummary;
+import com.tripplanner.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShareTokenCacheTest {
+
+    private static final long TRIP = 1;
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final UUID token = UUID.randomUUID();
+    private ShareTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ShareTokenCache(tripRepository, new SimpleMeterRegistry(), 1000,
+                Duration.ofMinutes(30), Duration.ofMinutes(5));
+        when(tripRepository.findShareSummaryByToken(token)).thenReturn(Optional.of(summary("Beach week")));
+    }
+
+    @Test
+    void resolvesEachTokenWithOneQuery() {
+        assertEquals("Beach week", cache.resolve(token.toString()).orElseThrow().getName());
+        assertEquals("Beach week", cache.resolve(token.toString()).orElseThrow().getName());
+
+        verify(tripRepository, times(1)).findShareSummaryByToken(token);
+    }
+
+    @Test
+    void cachesUnknownTokensAndSkipsMalformedOnes() {
+        UUID unknown = UUID.randomUUID();
+        when(tripRepository.findShareSummaryByToken(unknown)).thenReturn(Optional.empty());
+
+        assertTrue(cache.resolve(unknown.toString()).isEmpty());
+        assertTrue(cache.resolve(unknown.toString()).isEmpty());
+        assertTrue(cache.resolve("not-a-token").isEmpty());
+
+        verify(tripRepository, times(1)).findShareSummaryByToken(unknown);
+        verify(tripRepository, times(1)).findShareSummaryByToken(any());
+    }
+
+    @Test
+    void anUpdateKeepingTheTokenReloadsTheSummary() {
+        cache.resolve(token.toString());
+        when(tripRepository.findShareSummaryByToken(token)).thenReturn(Optional.of(summary("Beach fortnight")));
+
+        cache.tripUpdated(TRIP, token, true);
+
+        // The link keeps working and shows the new details
+        assertEquals("Beach fortnight", cache.resolve(token.toString()).orElseThrow().getName());
+        verify(tripRepository, times(2)).findShareSummaryByToken(token);
+    }
+
+    @Test
+    void aRotatedTokenIsRememberedAsUnknown() {
+        cache.resolve(token.toString());
+
+        cache.tripUpdated(TRIP, UUID.randomUUID(), true);
+
+        assertTrue(cache.resolve(token.toString()).isEmpty());
+        verify(tripRepository, times(1)).findShareSummaryByToken(token);
+    }
+
+    @Test
+    void deactivatedAndDeletedTripsAreRememberedAsUnknown() {
+        cache.resolve(token.toString());
+        cache.tripUpdated(TRIP, token, false);
+        assertTrue(cache.resolve(token.toString()).isEmpty());
+
+        UUID other = UUID.randomUUID();
+        when(tripRepository.findShareSummaryByToken(other)).thenReturn(Optional.of(summary(2, "Ski trip")));
+        cache.resolve(other.toString());
+        cache.tripRemoved(2L);
+        assertTrue(cache.resolve(other.toString()).isEmpty());
+
+        verify(tripRepository, times(1)).findShareSummaryByToken(token);
+        verify(tripRepository, times(1)).findShareSummaryByToken(other);
+    }
+
+    @Test
+    void invalidatingAnUncachedTripQueriesNothing() {
+        cache.invalidateTrip(TRIP);
+        cache.tripUpdated(TRIP, token, false);
+
+        verify(tripRepository, never()).findShareSummaryByToken(any());
+        assertEquals("Beach week", cache.resolve(token.toString()).orElseThrow().getName());
+    }
+
+    @Test
+    void invalidateTripDropsTheEntryWithoutHidingTheTrip() {
+        cache.resolve(token.toString());
+
+        cache.invalidateTrip(TRIP);
+
+        assertEquals("Beach week", cache.resolve(token.toString()).orElseThrow().getName());
+        verify(tripRepository, times(2)).findShareSummaryByToken(token);
+    }
+
+    private static TripShareSummary summary(String name) {
+        return summary(TRIP, name);
+    }
+
+    private static TripShareSummary summary(long tripId, String name) {
+        return new TripShareSummary(tripId, name, null, "Hua Hin", null, null, "creator");
+    }
+}
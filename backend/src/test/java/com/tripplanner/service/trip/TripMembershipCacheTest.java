@@ -0,0 +1,171 @@
+package com.tripplanner.service.trip;
+
+import com.tripplanner.entity.TripMember;
+import com.tripplanner.repository.TripMemberRepository;
+import com.tripplanner.repository.TripMemberRepository.MembershipRow;
+import com.tripplanner.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripMembershipCacheTest {
+
+    private static final long TRIP = 1;
+    private static final long CREATOR = 10;
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final TripMemberRepository tripMemberRepository = mock(TripMemberRepository.class);
+    private TripMembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TripMembershipCache(tripRepository, tripMemberRepository, new SimpleMeterRegistry(),
+                1000, Duration.ofMinutes(30));
+        when(tripRepository.findActiveCreatorIdById(TRIP)).thenReturn(Optional.of(CREATOR));
+        // Rows arrive ordered by user id
+        when(tripMemberRepository.findMembershipRowsByTripId(TRIP)).thenReturn(List.of(
+                row(20, TripMember.Role.ADMIN, TripMember.Status.ACCEPTED),
+                row(30, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED),
+                row(40, TripMember.Role.MEMBER, TripMember.Status.PENDING),
+                row(50, TripMember.Role.MEMBER, TripMember.Status.DECLINED)));
+    }
+
+    @Test
+    void answersFromOneLoadPerTrip() {
+        assertTrue(cache.isAcceptedMember(TRIP, 20));
+        assertTrue(cache.isAcceptedMember(TRIP, 30));
+        assertFalse(cache.isAcceptedMember(TRIP, 40));
+        assertFalse(cache.isAcceptedMember(TRIP, 50));
+        assertFalse(cache.isAcceptedMember(TRIP, 60));
+        assertEquals(TripMembershipCache.NOT_MEMBER, cache.state(TRIP, 60));
+
+        verify(tripRepository, times(1)).findActiveCreatorIdById(TRIP);
+        verify(tripMemberRepository, times(1)).findMembershipRowsByTripId(TRIP);
+    }
+
+    @Test
+    void creatorIsAnAcceptedCreatorWithoutAMemberRow() {
+        assertTrue(cache.isAcceptedMember(TRIP, CREATOR));
+        assertEquals(TripMember.Role.CREATOR, cache.acceptedRole(TRIP, CREATOR));
+        assertTrue(cache.canManage(TRIP, CREATOR));
+    }
+
+    @Test
+    void onlyAcceptedCreatorsAndAdminsCanManage() {
+        assertTrue(cache.canManage(TRIP, 20));
+        assertFalse(cache.canManage(TRIP, 30));
+        assertNull(cache.acceptedRole(TRIP, 40));
+
+        cache.memberChanged(TRIP, 40, TripMember.Role.ADMIN, TripMember.Status.PENDING);
+        assertFalse(cache.canManage(TRIP, 40));
+    }
+
+    @Test
+    void inactiveOrMissingTripsHaveNoMembers() {
+        when(tripRepository.findActiveCreatorIdById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(cache.isAcceptedMember(2, CREATOR));
+        assertEquals(TripMembershipCache.NOT_MEMBER, cache.state(2, 20));
+
+        // Changes to an inactive trip are ignored rather than bringing members back
+        cache.memberChanged(2, 20, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED);
+        assertFalse(cache.isAcceptedMember(2, 20));
+    }
+
+    @Test
+    void appliesMemberChangesInPlace() {
+        assertFalse(cache.isAcceptedMember(TRIP, 40));
+
+        cache.memberChanged(TRIP, 40, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED);
+        cache.memberChanged(TRIP, 35, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED);
+        cache.memberRemoved(TRIP, 30);
+
+        assertTrue(cache.isAcceptedMember(TRIP, 40));
+        assertTrue(cache.isAcceptedMember(TRIP, 35));
+        assertFalse(cache.isAcceptedMember(TRIP, 30));
+        assertTrue(cache.isAcceptedMember(TRIP, 20));
+        verify(tripMemberRepository, times(1)).findMembershipRowsByTripId(TRIP);
+    }
+
+    @Test
+    void changesToUncachedTripsWaitForTheNextLoad() {
+        // Not cached yet, so the change is left to the load
+        cache.memberChanged(TRIP, 60, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED);
+        assertFalse(cache.isAcceptedMember(TRIP, 60));
+
+        cache.invalidate(TRIP);
+        when(tripMemberRepository.findMembershipRowsByTripId(TRIP)).thenReturn(List.of(
+                row(60, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED)));
+        assertTrue(cache.isAcceptedMember(TRIP, 60));
+        assertFalse(cache.isAcceptedMember(TRIP, 20));
+    }
+
+    @Test
+    void countsAcceptedMembersIncludingTheCreator() {
+        assertEquals(3, cache.acceptedMemberCount(TRIP));
+
+        cache.memberChanged(TRIP, 40, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED);
+        cache.memberChanged(TRIP, 20, TripMember.Role.ADMIN, TripMember.Status.DECLINED);
+        assertEquals(3, cache.acceptedMemberCount(TRIP));
+
+        cache.memberRemoved(TRIP, 30);
+        // A member row for the creator is not counted twice
+        cache.memberChanged(TRIP, CREATOR, TripMember.Role.CREATOR, TripMember.Status.ACCEPTED);
+        assertEquals(2, cache.acceptedMemberCount(TRIP));
+        assertEquals(0, cache.acceptedMemberCount(2));
+    }
+
+    @Test
+    void duplicateRowsKeepTheFirst() {
+        when(tripMemberRepository.findMembershipRowsByTripId(3L)).thenReturn(List.of(
+                row(20, TripMember.Role.MEMBER, TripMember.Status.ACCEPTED),
+                row(20, TripMember.Role.ADMIN, TripMember.Status.PENDING)));
+        when(tripRepository.findActiveCreatorIdById(3L)).thenReturn(Optional.of(CREATOR));
+
+        assertEquals(TripMember.Role.MEMBER, cache.acceptedRole(3, 20));
+    }
+
+    @Test
+    void packsEveryRoleAndStatus() {
+        for (TripMember.Role role : TripMember.Role.values()) {
+            for (TripMember.Status status : TripMember.Status.values()) {
+                byte state = TripMembershipCache.pack(role, status);
+                assertEquals(role, TripMembershipCache.roleOf(state));
+                assertEquals(status, TripMembershipCache.statusOf(state));
+                assertTrue(state != TripMembershipCache.NOT_MEMBER);
+            }
+        }
+    }
+
+    private static MembershipRow row(long userId, TripMember.Role role, TripMember.Status status) {
+        return new MembershipRow() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public TripMember.Role getRole() {
+                return role;
+            }
+
+            @Override
+            public TripMember.Status getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package com.tripplanner.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionOutboxTest {
+
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BrokerStats stats = new BrokerStats(registry);
+    private final TripChatProperties properties = new TripChatProperties();
+    private final List<String> sent = new ArrayList<>();
+    // Sender tasks are queued here and run by the test
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("session-1");
+        doAnswer(invocation -> sent.add(invocation.<TextMessage>getArgument(0).getPayload()))
+                .when(session).sendMessage(any());
+        properties.setSessionQueueCapacity(4);
+        properties.setBatchSize(3);
+    }
+
+    @Test
+    void aSingleFrameIsSentAsAnArrayOfOne() {
+        SessionOutbox outbox = outbox();
+
+        assertTrue(outbox.offer("{\"n\":1}", tasks::add));
+        runTasks();
+
+        assertEquals(List.of("[{\"n\":1}]"), sent);
+        assertEquals(0, outbox.getQueuedFrames());
+    }
+
+    @Test
+    void queuedFramesCoalesceUpToTheBatchSize() {
+        SessionOutbox outbox = outbox();
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(outbox.offer("{\"n\":" + i + "}", tasks::add));
+        }
+        // One drain is scheduled however many frames wait
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        assertEquals(List.of("[{\"n\":1},{\"n\":2},{\"n\":3}]", "[{\"n\":4}]"), sent);
+        assertEquals(4, registry.get("tripchat.frames.sent").counter().count());
+        assertEquals(2, registry.get("tripchat.batches.sent").counter().count());
+    }
+
+    @Test
+    void framesBeyondCapacityAreDropped() {
+        SessionOutbox outbox = outbox();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(outbox.offer("{}", tasks::add));
+        }
+
+        assertFalse(outbox.offer("{}", tasks::add));
+
+        assertEquals(4, outbox.getQueuedFrames());
+        assertEquals(1, registry.get("tripchat.frames.dropped").counter().count());
+        // Nothing is being written yet, so a full queue alone does not close the session
+        assertFalse(outbox.isClosed());
+    }
+
+    @Test
+    void aStalledSessionIsClosedWithoutBlockingTheOfferingThread() throws Exception {
+        properties.setSendTimeLimit(Duration.ofMillis(1));
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writeStarted.countDown();
+            releaseWrite.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+        SessionOutbox outbox = outbox();
+
+        assertTrue(outbox.offer("{}", tasks::add));
+        Thread sender = new Thread(tasks.remove(0));
+        sender.start();
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(outbox.offer("{}", tasks::add));
+        }
+        Thread.sleep(5);
+
+        assertFalse(outbox.offer("{}", tasks::add));
+
+        // Closed and emptied at once, but the socket is closed by the queued sender task
+        assertTrue(outbox.isClosed());
+        assertEquals(0, outbox.getQueuedFrames());
+        verify(session, never()).close(any());
+        assertEquals(1, tasks.size());
+        assertFalse(outbox.offer("{}", tasks::add));
+        assertEquals(1, registry.get("tripchat.sessions.closed.slow").counter().count());
+
+        runTasks();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+
+        releaseWrite.countDown();
+        sender.join(10_000);
+    }
+
+    @Test
+    void aFailedWriteClosesTheSession() throws Exception {
+        doThrow(new IOException("Broken pipe")).when(session).sendMessage(any());
+        SessionOutbox outbox = outbox();
+
+        assertTrue(outbox.offer("{}", tasks::add));
+        runTasks();
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertTrue(outbox.isClosed());
+        assertFalse(outbox.offer("{}", tasks::add));
+    }
+
+    @Test
+    void aClosedSocketTakesNoFrames() {
+        when(session.isOpen()).thenReturn(false);
+
+        assertFalse(outbox().offer("{}", tasks::add));
+        assertTrue(tasks.isEmpty());
+    }
+
+    private SessionOutbox outbox() {
+        return new SessionOutbox(session, 1L, stats, properties);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+}